@@ -0,0 +1,7 @@
+package com.technicalchallenge.analytics;
+
+public enum DateField {
+    TRADE_DATE,
+    START_DATE,
+    MATURITY_DATE
+}
@@ -0,0 +1,58 @@
+package com.technicalchallenge.analytics;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense int codes for the values of one {@link Dimension}. Codes are never reused or reassigned,
+ * so segments built at different times can share them. Only the store's writer adds codes;
+ * readers may look codes up concurrently.
+ */
+final class Dictionary {
+
+    // ConcurrentHashMap has no null keys; trades with no book, type etc. share this one
+    private static final Object NULL_KEY = new Object();
+
+    private final ConcurrentHashMap<Object, Integer> codes = new ConcurrentHashMap<>();
+    // Display name per code, replaced rather than modified so readers never see a partial copy
+    private volatile String[] names = new String[0];
+
+    /**
+     * The code for {@code key}, added if new. A changed name, e.g. a renamed book, replaces the old one.
+     */
+    synchronized int encode(Object key, String name) {
+        Object mapKey = key != null ? key : NULL_KEY;
+        Integer code = codes.get(mapKey);
+        if (code == null) {
+            String[] grown = Arrays.copyOf(names, names.length + 1);
+            grown[names.length] = name;
+            // Publish the name before the code, so a reader that finds the code can resolve it
+            names = grown;
+            codes.put(mapKey, names.length - 1);
+            return names.length - 1;
+        }
+        if (!Objects.equals(names[code], name)) {
+            String[] renamed = names.clone();
+            renamed[code] = name;
+            names = renamed;
+        }
+        return code;
+    }
+
+    /**
+     * The code for {@code key}, or -1 if no trade has had it.
+     */
+    int code(Object key) {
+        Integer code = codes.get(key != null ? key : NULL_KEY);
+        return code != null ? code : -1;
+    }
+
+    String name(int code) {
+        return names[code];
+    }
+
+    int size() {
+        return names.length;
+    }
+}
@@ -0,0 +1,56 @@
+package com.technicalchallenge.analytics;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Dictionary-encoded columns of the trade column store that queries can filter and group by.
+ * Book, counterparty and trader are keyed by entity id and reported by name; the others are
+ * keyed and reported by their value. Currency, leg type and pay/receive are per leg.
+ */
+public enum Dimension {
+    BOOK(false, 0),
+    COUNTERPARTY(false, 1),
+    TRADER(false, 2),
+    STATUS(false, 3),
+    TRADE_TYPE(false, 4),
+    CURRENCY(true, 0),
+    LEG_TYPE(true, 1),
+    PAY_REC(true, 2);
+
+    static final int TRADE_COLUMNS = 5;
+    static final int LEG_COLUMNS = 3;
+
+    private final boolean legLevel;
+    // Position among the trade-level or the leg-level columns
+    private final int column;
+
+    Dimension(boolean legLevel, int column) {
+        this.legLevel = legLevel;
+        this.column = column;
+    }
+
+    public boolean isLegLevel() {
+        return legLevel;
+    }
+
+    /**
+     * The dimension named by a request parameter such as {@code trade-type}, ignoring case.
+     */
+    public static Optional<Dimension> fromParameter(String parameter) {
+        if (parameter == null) {
+            return Optional.empty();
+        }
+        String name = parameter.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        for (Dimension dimension : values()) {
+            if (dimension.name().equals(name)) {
+                return Optional.of(dimension);
+            }
+        }
+        return Optional.empty();
+    }
+
+    int column() {
+        return column;
+    }
+}
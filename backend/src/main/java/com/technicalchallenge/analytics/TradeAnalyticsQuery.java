@@ -0,0 +1,76 @@
+package com.technicalchallenge.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filters and an optional grouping for {@link TradeColumnStore#aggregate}. Filters on different
+ * columns are combined with AND; the values given for one column with OR.
+ *
+ * <pre>
+ * TradeAnalyticsQuery.create()
+ *         .where(Dimension.TRADER, traderUserId)
+ *         .where(Dimension.STATUS, "LIVE", "NEW", "AMENDED")
+ *         .groupBy(Dimension.CURRENCY);
+ * </pre>
+ */
+public final class TradeAnalyticsQuery {
+
+    private final Map<Dimension, List<Object>> filters = new EnumMap<>(Dimension.class);
+    private final Map<DateField, LocalDate[]> dateRanges = new EnumMap<>(DateField.class);
+    private Dimension groupBy;
+
+    private TradeAnalyticsQuery() {
+    }
+
+    public static TradeAnalyticsQuery create() {
+        return new TradeAnalyticsQuery();
+    }
+
+    /**
+     * Keeps trades, or for a leg-level column legs, whose value is one of {@code keys}: entity
+     * ids for book, counterparty and trader, the value itself otherwise. Null matches a missing value.
+     */
+    public TradeAnalyticsQuery where(Dimension dimension, Object... keys) {
+        return where(dimension, Arrays.asList(keys));
+    }
+
+    public TradeAnalyticsQuery where(Dimension dimension, Collection<?> keys) {
+        filters.computeIfAbsent(dimension, d -> new ArrayList<>()).addAll(keys);
+        return this;
+    }
+
+    /**
+     * Keeps trades with the date between {@code from} and {@code to} inclusive; either may be null.
+     */
+    public TradeAnalyticsQuery between(DateField field, LocalDate from, LocalDate to) {
+        dateRanges.put(field, new LocalDate[] {from, to});
+        return this;
+    }
+
+    public TradeAnalyticsQuery on(DateField field, LocalDate date) {
+        return between(field, date, date);
+    }
+
+    public TradeAnalyticsQuery groupBy(Dimension dimension) {
+        this.groupBy = dimension;
+        return this;
+    }
+
+    Map<Dimension, List<Object>> getFilters() {
+        return filters;
+    }
+
+    Map<DateField, LocalDate[]> getDateRanges() {
+        return dateRanges;
+    }
+
+    Dimension getGroupBy() {
+        return groupBy;
+    }
+}
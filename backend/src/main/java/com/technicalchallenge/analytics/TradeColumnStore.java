@@ -0,0 +1,396 @@
+package com.technicalchallenge.analytics;
+
+import com.technicalchallenge.analytics.TradeSegment.TradeRow;
+import com.technicalchallenge.dto.AnalyticsGroupDTO;
+import com.technicalchallenge.event.LegSnapshot;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import com.technicalchallenge.repository.TradeLegRepository;
+import com.technicalchallenge.repository.TradeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-optimised, columnar copy of every active trade row and its legs, for ad-hoc filter,
+ * group-by and sum queries that scan primitive arrays instead of loading entities.
+ *
+ * Trades live in fixed-size {@link TradeSegment}s. Notionals are held as minor-unit longs, dates
+ * as epoch days and book, counterparty, trader, status, type, currency, leg type and pay/receive
+ * as {@link Dictionary} codes. The store is loaded at startup (or on demand) and then kept current
+ * from committed lifecycle events copy-on-write: a change rebuilds only the segment that held the
+ * trade and the one it is appended to, then publishes a new segment array. A query scans the
+ * array it started with, so it never blocks on, or sees half of, an update.
+ *
+ * Amended and closed trades leave their old segment smaller, since the new row goes to the tail.
+ * Once a segment other than the tail holds less than {@code analytics.columnar.compact-below} of
+ * a full segment it is merged with a neighbour it fits into, so a long-running store does not
+ * drift towards many near-empty segments between restarts.
+ */
+@Service
+public class TradeColumnStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeColumnStore.class);
+
+    // Notionals are held in minor units (two decimal places)
+    private static final int SCALE = 2;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeLegRepository tradeLegRepository;
+
+    @Value("${analytics.columnar.segment-size:4096}")
+    private int segmentSize = 4096;
+
+    // Fraction of a full segment below which a segment is merged with a neighbour
+    @Value("${analytics.columnar.compact-below:0.5}")
+    private double compactBelow = 0.5;
+
+    private final Map<Dimension, Dictionary> dictionaries = new EnumMap<>(Dimension.class);
+
+    private volatile TradeSegment[] segments = new TradeSegment[0];
+
+    // Segment holding each trade, by business trade id; guarded by this
+    private final Map<Long, Integer> segmentOfTrade = new HashMap<>();
+
+    public TradeColumnStore() {
+        for (Dimension dimension : Dimension.values()) {
+            dictionaries.put(dimension, new Dictionary());
+        }
+    }
+
+    TradeColumnStore(int segmentSize) {
+        this();
+        this.segmentSize = segmentSize;
+    }
+
+    TradeColumnStore(int segmentSize, double compactBelow) {
+        this(segmentSize);
+        this.compactBelow = compactBelow;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void initialise() {
+        rebuild();
+    }
+
+    /**
+     * Discards the store and reloads it from the active trade rows in the database.
+     */
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        // Holding the monitor across the queries queues events committed meanwhile behind the reload
+        Map<Long, List<Object[]>> legsByTradeRow = new HashMap<>();
+        for (Object[] leg : tradeLegRepository.findActiveLegColumns()) {
+            legsByTradeRow.computeIfAbsent((Long) leg[0], id -> new ArrayList<>()).add(leg);
+        }
+        List<TradeRow> rows = new ArrayList<>();
+        for (Object[] trade : tradeRepository.findActiveTradeColumns()) {
+            List<Object[]> legs = legsByTradeRow.getOrDefault((Long) trade[0], List.of());
+            // Rows saved outside TradeService may have no business id yet; key them by row id
+            Long tradeId = trade[1] != null ? (Long) trade[1] : (Long) trade[0];
+            TradeRow row = new TradeRow(tradeId, (Long) trade[0], legs.size());
+            row.dims[Dimension.BOOK.column()] = encode(Dimension.BOOK, trade[2], (String) trade[3]);
+            row.dims[Dimension.COUNTERPARTY.column()] = encode(Dimension.COUNTERPARTY, trade[4], (String) trade[5]);
+            row.dims[Dimension.TRADER.column()] = encode(Dimension.TRADER, trade[6], (String) trade[7]);
+            row.dims[Dimension.STATUS.column()] = encode(Dimension.STATUS, trade[8], (String) trade[8]);
+            row.dims[Dimension.TRADE_TYPE.column()] = encode(Dimension.TRADE_TYPE, trade[9], (String) trade[9]);
+            setDates(row, (LocalDate) trade[10], (LocalDate) trade[11], (LocalDate) trade[12]);
+            for (int l = 0; l < legs.size(); l++) {
+                Object[] leg = legs.get(l);
+                setLeg(row, l, (BigDecimal) leg[1], (Double) leg[2], (String) leg[3], (String) leg[4], (String) leg[5]);
+            }
+            rows.add(row);
+        }
+
+        List<TradeSegment> built = new ArrayList<>();
+        segmentOfTrade.clear();
+        for (int from = 0; from < rows.size(); from += segmentSize) {
+            List<TradeRow> chunk = rows.subList(from, Math.min(from + segmentSize, rows.size()));
+            for (TradeRow row : chunk) {
+                segmentOfTrade.put(row.tradeId, built.size());
+            }
+            built.add(TradeSegment.of(chunk));
+        }
+        segments = built.toArray(new TradeSegment[0]);
+        logger.info("Trade column store rebuilt from {} trades in {} segments in {} ms",
+                rows.size(), built.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replaces a trade's row once its create, amend, termination or cancellation has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTradeLifecycleEvent(TradeLifecycleEvent event) {
+        if (event.getType() == TradeEventType.SETTLEMENT_INSTRUCTIONS_UPDATED) {
+            return;
+        }
+        TradeSnapshot current = event.getCurrent();
+        if (current != null && current.getTradeId() != null && current.getId() != null) {
+            upsert(current);
+        } else if (event.getPrevious() != null && event.getPrevious().getTradeId() != null) {
+            remove(event.getPrevious().getTradeId());
+        }
+    }
+
+    /**
+     * Totals of the trades and legs matching {@code query}: one group per value of its group-by
+     * column that has any, in name order, or a single group with a null key if not grouped.
+     */
+    public List<AnalyticsGroupDTO> aggregate(TradeAnalyticsQuery query) {
+        // Segments before dictionaries, so every code in them is within the dictionary sizes read below
+        TradeSegment[] current = segments;
+
+        boolean[][] tradeMasks = new boolean[Dimension.TRADE_COLUMNS][];
+        boolean[][] legMasks = new boolean[Dimension.LEG_COLUMNS][];
+        boolean legFiltered = false;
+        for (Map.Entry<Dimension, List<Object>> filter : query.getFilters().entrySet()) {
+            Dimension dimension = filter.getKey();
+            Dictionary dictionary = dictionaries.get(dimension);
+            boolean[] mask = new boolean[dictionary.size()];
+            for (Object key : filter.getValue()) {
+                int code = dictionary.code(key);
+                if (code >= 0 && code < mask.length) {
+                    mask[code] = true;
+                }
+            }
+            if (dimension.isLegLevel()) {
+                legMasks[dimension.column()] = mask;
+                legFiltered = true;
+            } else {
+                tradeMasks[dimension.column()] = mask;
+            }
+        }
+        int[] lowestDays = new int[DateField.values().length];
+        int[] highestDays = new int[DateField.values().length];
+        boolean[] dateFiltered = new boolean[DateField.values().length];
+        for (Map.Entry<DateField, LocalDate[]> range : query.getDateRanges().entrySet()) {
+            int field = range.getKey().ordinal();
+            LocalDate from = range.getValue()[0];
+            LocalDate to = range.getValue()[1];
+            dateFiltered[field] = true;
+            lowestDays[field] = from != null ? Math.toIntExact(from.toEpochDay()) : TradeSegment.NO_DATE + 1;
+            highestDays[field] = to != null ? Math.toIntExact(to.toEpochDay()) : Integer.MAX_VALUE;
+        }
+
+        Dimension groupBy = query.getGroupBy();
+        boolean legGroups = groupBy != null && groupBy.isLegLevel();
+        int groupCount = groupBy != null ? Math.max(dictionaries.get(groupBy).size(), 1) : 1;
+        long[] tradeCounts = new long[groupCount];
+        long[] legCounts = new long[groupCount];
+        long[] notionals = new long[groupCount];
+        long[] ratedNotionals = new long[groupCount];
+        double[] weightedRates = new double[groupCount];
+        // Last trade counted in each group, so a trade with several matching legs counts once
+        int[] lastTrade = new int[groupCount];
+        Arrays.fill(lastTrade, -1);
+
+        int ordinal = 0;
+        for (TradeSegment segment : current) {
+            int[] groupColumn = groupBy == null ? null
+                    : legGroups ? segment.legDims[groupBy.column()] : segment.tradeDims[groupBy.column()];
+            for (int i = 0; i < segment.size(); i++, ordinal++) {
+                if (!matches(segment, i, tradeMasks, dateFiltered, lowestDays, highestDays)) {
+                    continue;
+                }
+                int tradeGroup = groupColumn != null && !legGroups ? groupColumn[i] : 0;
+                int legsFrom = segment.legOffsets[i];
+                int legsTo = segment.legOffsets[i + 1];
+                if (legsFrom == legsTo && !legFiltered && !legGroups) {
+                    tradeCounts[tradeGroup]++;
+                    continue;
+                }
+                for (int leg = legsFrom; leg < legsTo; leg++) {
+                    if (legFiltered && !matchesLeg(segment, leg, legMasks)) {
+                        continue;
+                    }
+                    int group = legGroups ? groupColumn[leg] : tradeGroup;
+                    long notional = segment.notionals[leg];
+                    legCounts[group]++;
+                    notionals[group] += notional;
+                    double rate = segment.rates[leg];
+                    if (!Double.isNaN(rate)) {
+                        weightedRates[group] += rate * notional;
+                        ratedNotionals[group] += notional;
+                    }
+                    if (lastTrade[group] != ordinal) {
+                        lastTrade[group] = ordinal;
+                        tradeCounts[group]++;
+                    }
+                }
+            }
+        }
+
+        List<AnalyticsGroupDTO> groups = new ArrayList<>();
+        for (int group = 0; group < groupCount; group++) {
+            if (tradeCounts[group] == 0 && groupBy != null) {
+                continue;
+            }
+            String key = groupBy != null ? dictionaries.get(groupBy).name(group) : null;
+            Double averageRate = ratedNotionals[group] != 0 ? weightedRates[group] / ratedNotionals[group] : null;
+            groups.add(new AnalyticsGroupDTO(key, tradeCounts[group], legCounts[group],
+                    BigDecimal.valueOf(notionals[group], SCALE), averageRate));
+        }
+        groups.sort(Comparator.comparing(AnalyticsGroupDTO::getKey, Comparator.nullsLast(Comparator.naturalOrder())));
+        return groups;
+    }
+
+    /**
+     * Number of trades held.
+     */
+    public int size() {
+        int size = 0;
+        for (TradeSegment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    int segmentCount() {
+        return segments.length;
+    }
+
+    private static boolean matches(TradeSegment segment, int trade, boolean[][] masks,
+                                   boolean[] dateFiltered, int[] lowestDays, int[] highestDays) {
+        for (int c = 0; c < masks.length; c++) {
+            if (masks[c] != null && !masks[c][segment.tradeDims[c][trade]]) {
+                return false;
+            }
+        }
+        for (int d = 0; d < dateFiltered.length; d++) {
+            if (dateFiltered[d]) {
+                int day = segment.dates[d][trade];
+                if (day < lowestDays[d] || day > highestDays[d]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesLeg(TradeSegment segment, int leg, boolean[][] masks) {
+        for (int c = 0; c < masks.length; c++) {
+            if (masks[c] != null && !masks[c][segment.legDims[c][leg]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void upsert(TradeSnapshot trade) {
+        List<LegSnapshot> legs = trade.getLegs() != null ? trade.getLegs() : List.of();
+        TradeRow row = new TradeRow(trade.getTradeId(), trade.getId(), legs.size());
+        row.dims[Dimension.BOOK.column()] = encode(Dimension.BOOK, trade.getBookId(), trade.getBookName());
+        row.dims[Dimension.COUNTERPARTY.column()] = encode(Dimension.COUNTERPARTY, trade.getCounterpartyId(), trade.getCounterpartyName());
+        row.dims[Dimension.TRADER.column()] = encode(Dimension.TRADER, trade.getTraderUserId(), trade.getTraderUserName());
+        row.dims[Dimension.STATUS.column()] = encode(Dimension.STATUS, trade.getTradeStatus(), trade.getTradeStatus());
+        row.dims[Dimension.TRADE_TYPE.column()] = encode(Dimension.TRADE_TYPE, trade.getTradeType(), trade.getTradeType());
+        setDates(row, trade.getTradeDate(), trade.getTradeStartDate(), trade.getTradeMaturityDate());
+        for (int l = 0; l < legs.size(); l++) {
+            LegSnapshot leg = legs.get(l);
+            setLeg(row, l, leg.getNotional(), leg.getRate(), leg.getCurrency(), leg.getLegType(), leg.getPayRec());
+        }
+
+        TradeSegment[] updated = segments.clone();
+        Integer held = segmentOfTrade.get(row.tradeId);
+        if (held != null) {
+            updated[held] = updated[held].without(row.tradeId);
+        }
+        int tail = updated.length - 1;
+        if (tail < 0 || updated[tail].size() >= segmentSize) {
+            updated = Arrays.copyOf(updated, updated.length + 1);
+            tail = updated.length - 1;
+            updated[tail] = TradeSegment.EMPTY;
+        }
+        updated[tail] = updated[tail].with(row);
+        segmentOfTrade.put(row.tradeId, tail);
+        segments = held != null ? compact(updated, held) : updated;
+    }
+
+    private synchronized void remove(Long tradeId) {
+        Integer held = segmentOfTrade.remove(tradeId);
+        if (held != null) {
+            TradeSegment[] updated = segments.clone();
+            updated[held] = updated[held].without(tradeId);
+            segments = compact(updated, held);
+        }
+    }
+
+    // Merges segment i, if it is not the tail and has fallen below the compaction threshold, with
+    // the next or else the previous segment when the two fit in one. Segments after the merge
+    // move down a place, so their trades are re-indexed. Callers hold the monitor.
+    private TradeSegment[] compact(TradeSegment[] updated, int i) {
+        int tail = updated.length - 1;
+        if (i >= tail || updated[i].size() >= compactBelow * segmentSize) {
+            return updated;
+        }
+        int into;
+        if (updated[i].size() + updated[i + 1].size() <= segmentSize) {
+            into = i;
+        } else if (i > 0 && updated[i - 1].size() + updated[i].size() <= segmentSize) {
+            into = i - 1;
+        } else {
+            return updated;
+        }
+        TradeSegment[] compacted = new TradeSegment[updated.length - 1];
+        System.arraycopy(updated, 0, compacted, 0, into);
+        compacted[into] = updated[into].concat(updated[into + 1]);
+        System.arraycopy(updated, into + 2, compacted, into + 1, updated.length - into - 2);
+        for (int s = into; s < compacted.length; s++) {
+            for (long tradeId : compacted[s].tradeIds) {
+                segmentOfTrade.put(tradeId, s);
+            }
+        }
+        logger.debug("Merged trade segments {} and {} into one of {} trades", into, into + 1, compacted[into].size());
+        return compacted;
+    }
+
+    private int encode(Dimension dimension, Object key, String name) {
+        return dictionaries.get(dimension).encode(key, name);
+    }
+
+    private void setLeg(TradeRow row, int leg, BigDecimal notional, Double rate, String currency, String legType, String payRec) {
+        row.notionals[leg] = notional != null ? toMinorUnits(notional.abs()) : 0L;
+        row.rates[leg] = rate != null ? rate : Double.NaN;
+        row.legDims[leg][Dimension.CURRENCY.column()] = encode(Dimension.CURRENCY, currency, currency);
+        row.legDims[leg][Dimension.LEG_TYPE.column()] = encode(Dimension.LEG_TYPE, legType, legType);
+        row.legDims[leg][Dimension.PAY_REC.column()] = encode(Dimension.PAY_REC, payRec, payRec);
+    }
+
+    private static void setDates(TradeRow row, LocalDate tradeDate, LocalDate startDate, LocalDate maturityDate) {
+        row.dates[DateField.TRADE_DATE.ordinal()] = epochDay(tradeDate);
+        row.dates[DateField.START_DATE.ordinal()] = epochDay(startDate);
+        row.dates[DateField.MATURITY_DATE.ordinal()] = epochDay(maturityDate);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date != null ? Math.toIntExact(date.toEpochDay()) : TradeSegment.NO_DATE;
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,152 @@
+package com.technicalchallenge.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable block of trades and their legs stored column by column: one primitive array per
+ * field, with each trade's legs contiguous and located through {@code legOffsets}. Changing a
+ * trade builds a replacement segment; readers holding the old one are unaffected.
+ */
+final class TradeSegment {
+
+    static final TradeSegment EMPTY = of(List.of());
+
+    // Epoch day stored for a missing date; matches no date range
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    final long[] tradeIds;
+    final long[] rowIds;
+    // [column][trade], see Dimension.column()
+    final int[][] tradeDims;
+    // [DateField ordinal][trade], epoch days
+    final int[][] dates;
+    // Legs of trade i are [legOffsets[i], legOffsets[i + 1])
+    final int[] legOffsets;
+    // Absolute notional in minor units
+    final long[] notionals;
+    // NaN where the leg has no rate
+    final double[] rates;
+    // [column][leg]
+    final int[][] legDims;
+
+    private TradeSegment(int trades, int legs) {
+        tradeIds = new long[trades];
+        rowIds = new long[trades];
+        tradeDims = new int[Dimension.TRADE_COLUMNS][trades];
+        dates = new int[DateField.values().length][trades];
+        legOffsets = new int[trades + 1];
+        notionals = new long[legs];
+        rates = new double[legs];
+        legDims = new int[Dimension.LEG_COLUMNS][legs];
+    }
+
+    static TradeSegment of(List<TradeRow> rows) {
+        int legs = 0;
+        for (TradeRow row : rows) {
+            legs += row.notionals.length;
+        }
+        TradeSegment segment = new TradeSegment(rows.size(), legs);
+        int leg = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            TradeRow row = rows.get(i);
+            segment.tradeIds[i] = row.tradeId;
+            segment.rowIds[i] = row.rowId;
+            for (int c = 0; c < Dimension.TRADE_COLUMNS; c++) {
+                segment.tradeDims[c][i] = row.dims[c];
+            }
+            for (int d = 0; d < segment.dates.length; d++) {
+                segment.dates[d][i] = row.dates[d];
+            }
+            segment.legOffsets[i] = leg;
+            for (int l = 0; l < row.notionals.length; l++, leg++) {
+                segment.notionals[leg] = row.notionals[l];
+                segment.rates[leg] = row.rates[l];
+                for (int c = 0; c < Dimension.LEG_COLUMNS; c++) {
+                    segment.legDims[c][leg] = row.legDims[l][c];
+                }
+            }
+        }
+        segment.legOffsets[rows.size()] = leg;
+        return segment;
+    }
+
+    int size() {
+        return tradeIds.length;
+    }
+
+    int legCount() {
+        return notionals.length;
+    }
+
+    /**
+     * A copy of this segment with {@code row} appended.
+     */
+    TradeSegment with(TradeRow row) {
+        List<TradeRow> rows = rows();
+        rows.add(row);
+        return of(rows);
+    }
+
+    /**
+     * A copy of this segment without the trade, or this segment if it does not hold it.
+     */
+    TradeSegment without(long tradeId) {
+        List<TradeRow> rows = rows();
+        return rows.removeIf(row -> row.tradeId == tradeId) ? of(rows) : this;
+    }
+
+    /**
+     * A new segment holding this segment's trades followed by {@code next}'s.
+     */
+    TradeSegment concat(TradeSegment next) {
+        List<TradeRow> rows = rows();
+        rows.addAll(next.rows());
+        return of(rows);
+    }
+
+    private List<TradeRow> rows() {
+        List<TradeRow> rows = new ArrayList<>(size() + 1);
+        for (int i = 0; i < size(); i++) {
+            int from = legOffsets[i];
+            int legs = legOffsets[i + 1] - from;
+            TradeRow row = new TradeRow(tradeIds[i], rowIds[i], legs);
+            for (int c = 0; c < Dimension.TRADE_COLUMNS; c++) {
+                row.dims[c] = tradeDims[c][i];
+            }
+            for (int d = 0; d < dates.length; d++) {
+                row.dates[d] = dates[d][i];
+            }
+            for (int l = 0; l < legs; l++) {
+                row.notionals[l] = notionals[from + l];
+                row.rates[l] = rates[from + l];
+                for (int c = 0; c < Dimension.LEG_COLUMNS; c++) {
+                    row.legDims[l][c] = legDims[c][from + l];
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * One trade and its legs, already encoded, on its way into a segment.
+     */
+    static final class TradeRow {
+        final long tradeId;
+        final long rowId;
+        final int[] dims = new int[Dimension.TRADE_COLUMNS];
+        final int[] dates = new int[DateField.values().length];
+        final long[] notionals;
+        final double[] rates;
+        final int[][] legDims;
+
+        TradeRow(long tradeId, long rowId, int legs) {
+            this.tradeId = tradeId;
+            this.rowId = rowId;
+            this.notionals = new long[legs];
+            this.rates = new double[legs];
+            this.legDims = new int[legs][Dimension.LEG_COLUMNS];
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.technicalchallenge.bulkhead;
+
+import com.technicalchallenge.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one workload class.
+ *
+ * Two independent permits are managed: request permits, which cap how many requests of this
+ * workload run at once, and connection permits, which cap how many JDBC connections the
+ * workload may hold from the shared pool. Callers that cannot get a permit immediately wait in
+ * a bounded queue for at most {@code maxWaitMillis}; beyond that they are rejected.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitMillis;
+    private final int maxConnections;
+
+    private final Semaphore requestPermits;
+    private final Semaphore connectionPermits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+    private final Counter connectionRejections;
+    private final Timer waitTimer;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, long maxWaitMillis, int maxConnections, MeterRegistry registry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWaitMillis = maxWaitMillis;
+        this.maxConnections = maxConnections;
+        this.requestPermits = new Semaphore(maxConcurrent, true);
+        this.connectionPermits = new Semaphore(maxConnections, true);
+
+        Gauge.builder("bulkhead.active", this, Bulkhead::getActiveCount)
+                .description("Requests currently executing in the bulkhead")
+                .tag("bulkhead", name).register(registry);
+        Gauge.builder("bulkhead.queue.depth", waiting, AtomicInteger::get)
+                .description("Requests waiting for a bulkhead permit")
+                .tag("bulkhead", name).register(registry);
+        Gauge.builder("bulkhead.connections.active", this, Bulkhead::getActiveConnections)
+                .description("JDBC connections held by the bulkhead's requests")
+                .tag("bulkhead", name).register(registry);
+        Gauge.builder("bulkhead.max.concurrent", this, b -> b.maxConcurrent)
+                .tag("bulkhead", name).register(registry);
+
+        queueFullRejections = rejectionCounter(registry, "queue_full");
+        timeoutRejections = rejectionCounter(registry, "timeout");
+        connectionRejections = rejectionCounter(registry, "connection_quota");
+        waitTimer = Timer.builder("bulkhead.wait")
+                .description("Time spent waiting for a bulkhead permit")
+                .tag("bulkhead", name)
+                .register(registry);
+    }
+
+    private Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("bulkhead.rejected")
+                .description("Requests rejected by the bulkhead")
+                .tag("bulkhead", name)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    /**
+     * Takes a request permit, waiting up to the configured budget.
+     * @throws BulkheadFullException if the queue is full or the wait budget runs out.
+     */
+    public void enter() {
+        if (requestPermits.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            queueFullRejections.increment();
+            throw new BulkheadFullException(name, "Queue of " + maxQueue + " is full.");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!requestPermits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                timeoutRejections.increment();
+                throw new BulkheadFullException(name, "No capacity within " + maxWaitMillis + " ms.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException(name, "Interrupted while waiting for capacity.");
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void exit() {
+        requestPermits.release();
+    }
+
+    /**
+     * Takes a connection permit, waiting up to the configured budget.
+     * @throws BulkheadFullException if the workload already holds its connection quota.
+     */
+    public void acquireConnection() {
+        try {
+            if (!connectionPermits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                connectionRejections.increment();
+                throw new BulkheadFullException(name, "Connection quota of " + maxConnections + " is in use.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException(name, "Interrupted while waiting for a connection.");
+        }
+    }
+
+    public void releaseConnection() {
+        connectionPermits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getActiveCount() {
+        return maxConcurrent - requestPermits.availablePermits();
+    }
+
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+
+    public int getActiveConnections() {
+        return maxConnections - connectionPermits.availablePermits();
+    }
+}
@@ -0,0 +1,81 @@
+package com.technicalchallenge.bulkhead;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Enforces each workload's JDBC connection quota on top of the shared pool. Connections taken
+ * outside a bulkhead (startup, background jobs) are not counted.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<BulkheadRegistry> registryProvider;
+
+    public BulkheadDataSource(DataSource targetDataSource, ObjectProvider<BulkheadRegistry> registryProvider) {
+        super(targetDataSource);
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withQuota(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withQuota(() -> super.getConnection(username, password));
+    }
+
+    private Connection withQuota(ConnectionSupplier supplier) throws SQLException {
+        BulkheadRegistry registry = registryProvider.getIfAvailable();
+        Bulkhead bulkhead = registry != null ? registry.current() : null;
+        if (bulkhead == null) {
+            return supplier.get();
+        }
+        bulkhead.acquireConnection();
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.releaseConnection();
+            throw e;
+        }
+        return quotaReleasingProxy(connection, bulkhead);
+    }
+
+    // Returns the quota permit exactly once, when the caller closes the connection
+    private Connection quotaReleasingProxy(Connection connection, Bulkhead bulkhead) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            bulkhead.releaseConnection();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,56 @@
+package com.technicalchallenge.bulkhead;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Admits each API request through its workload's bulkhead and binds the bulkhead to the
+ * handling thread. The permit is returned when the request completes, or as soon as the handler
+ * switches to async processing (e.g. an SSE stream) so long-lived streams do not hold capacity.
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String BULKHEAD_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".bulkhead";
+
+    private final BulkheadRegistry registry;
+
+    public BulkheadInterceptor(BulkheadRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(BULKHEAD_ATTRIBUTE) != null) {
+            return true;
+        }
+        BulkheadRegistry.Workload workload = registry.classify(request.getMethod(), request.getRequestURI());
+        if (workload == null) {
+            return true;
+        }
+        Bulkhead bulkhead = registry.get(workload);
+        bulkhead.enter();
+        request.setAttribute(BULKHEAD_ATTRIBUTE, bulkhead);
+        registry.bind(bulkhead);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        Object bulkhead = request.getAttribute(BULKHEAD_ATTRIBUTE);
+        if (bulkhead != null) {
+            request.removeAttribute(BULKHEAD_ATTRIBUTE);
+            ((Bulkhead) bulkhead).exit();
+        }
+        registry.unbind();
+    }
+}
@@ -0,0 +1,121 @@
+package com.technicalchallenge.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Holds one {@link Bulkhead} per {@link Workload}, classifies incoming API requests, and tracks
+ * which bulkhead the current thread is working for so JDBC connection quotas can be enforced.
+ *
+ * Limits are read from {@code bulkhead.<workload>.max-concurrent}, {@code .max-queue},
+ * {@code .max-wait-millis} and {@code .max-connections}.
+ */
+@Component
+public class BulkheadRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadRegistry.class);
+
+    public enum Workload {
+        BOOKING("booking", 20, 50, 2000, 8),
+        INTERACTIVE("interactive", 32, 100, 1000, 6),
+        EXPORT("export", 2, 4, 500, 2),
+        DASHBOARD("dashboard", 8, 16, 1000, 3);
+
+        private final String key;
+        private final int defaultMaxConcurrent;
+        private final int defaultMaxQueue;
+        private final long defaultMaxWaitMillis;
+        private final int defaultMaxConnections;
+
+        Workload(String key, int maxConcurrent, int maxQueue, long maxWaitMillis, int maxConnections) {
+            this.key = key;
+            this.defaultMaxConcurrent = maxConcurrent;
+            this.defaultMaxQueue = maxQueue;
+            this.defaultMaxWaitMillis = maxWaitMillis;
+            this.defaultMaxConnections = maxConnections;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Workload, Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+    private final ThreadLocal<Bulkhead> current = new ThreadLocal<>();
+    private boolean enabled;
+
+    @PostConstruct
+    public void init() {
+        enabled = environment.getProperty("bulkhead.enabled", Boolean.class, true);
+        for (Workload workload : Workload.values()) {
+            String prefix = "bulkhead." + workload.key + ".";
+            Bulkhead bulkhead = new Bulkhead(
+                    workload.key,
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, workload.defaultMaxConcurrent),
+                    environment.getProperty(prefix + "max-queue", Integer.class, workload.defaultMaxQueue),
+                    environment.getProperty(prefix + "max-wait-millis", Long.class, workload.defaultMaxWaitMillis),
+                    environment.getProperty(prefix + "max-connections", Integer.class, workload.defaultMaxConnections),
+                    meterRegistry);
+            bulkheads.put(workload, bulkhead);
+        }
+        logger.info("Workload bulkheads {} ({})", enabled ? "enabled" : "disabled", bulkheads.keySet());
+    }
+
+    /**
+     * Maps a request to its workload, or null when it is not subject to a bulkhead.
+     */
+    public Workload classify(String method, String path) {
+        if (!enabled || path == null || !path.startsWith("/api/")) {
+            return null;
+        }
+        if (path.startsWith("/api/dashboard")) {
+            return Workload.DASHBOARD;
+        }
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        if (!read && path.startsWith("/api/trades")) {
+            return Workload.BOOKING;
+        }
+        // Full, unpaged dumps of the trade and cashflow tables
+        if (read && (path.equals("/api/trades") || path.equals("/api/cashflows") || path.endsWith("/export"))) {
+            return Workload.EXPORT;
+        }
+        return Workload.INTERACTIVE;
+    }
+
+    public Bulkhead get(Workload workload) {
+        return bulkheads.get(workload);
+    }
+
+    public Collection<Bulkhead> getAll() {
+        return Collections.unmodifiableCollection(bulkheads.values());
+    }
+
+    // Thread binding used by BulkheadDataSource; set for the duration of a request's handler execution
+    void bind(Bulkhead bulkhead) {
+        current.set(bulkhead);
+    }
+
+    void unbind() {
+        current.remove();
+    }
+
+    Bulkhead current() {
+        return current.get();
+    }
+}
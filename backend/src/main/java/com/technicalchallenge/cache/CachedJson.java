@@ -0,0 +1,117 @@
+package com.technicalchallenge.cache;
+
+import lombok.Getter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A serialised JSON response body and, for larger bodies, its gzip encoding, each with a strong
+ * ETag. The arrays are shared by every response and must not be modified.
+ */
+@Getter
+public class CachedJson {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    /**
+     * @param tag prefix of the ETag, e.g. an id and version; a digest of the body is appended
+     *            since the same id and version can be served with different bodies
+     * @param compressMinBytes bodies at least this large keep a gzip copy; negative to never compress
+     */
+    public CachedJson(String tag, byte[] json, int compressMinBytes) {
+        this.json = json;
+        this.gzip = compressMinBytes >= 0 && json.length >= compressMinBytes ? gzip(json) : null;
+        String strong = tag + "." + digest(json);
+        this.etag = "\"" + strong + "\"";
+        this.gzipEtag = gzip != null ? "\"" + strong + ".gz\"" : null;
+    }
+
+    /**
+     * The cached body as is, gzip encoded if the client accepts it, or 304 if the client already
+     * has this representation. Browsers may keep the body but must revalidate it on every use,
+     * which also stops the security filter's default no-store header being added.
+     */
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding) {
+        boolean gzipped = gzip != null && acceptsGzip(acceptEncoding);
+        String tag = gzipped ? gzipEtag : etag;
+        if (matches(ifNoneMatch, tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).cacheControl(REVALIDATE).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(tag)
+                .cacheControl(REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip != null) {
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzipped ? gzip : json);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // If-None-Match uses the weak comparison, so W/ prefixes are ignored
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to compress JSON", e);
+        }
+        return out.toByteArray();
+    }
+
+    // First 128 bits of the body's SHA-256
+    private static String digest(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.technicalchallenge.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import com.technicalchallenge.mapper.TradeMapper;
+import com.technicalchallenge.model.ReferenceDataChangeListener;
+import com.technicalchallenge.model.Trade;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serialised {@code TradeDTO} JSON per trade version, so repeated reads of a trade skip the
+ * mapper and Jackson and are written straight from the cached bytes.
+ *
+ * Entries are keyed by (tradeId, version) in a bounded LRU. A superseded version never changes
+ * once it has been deactivated, so its entry stays valid until evicted. The active version is
+ * also indexed by tradeId so it can be served without a database read; every committed
+ * lifecycle event drops the trade's entries, and a per-trade stamp stops a read that loaded the
+ * trade before the change from caching it afterwards.
+ *
+ * The JSON also carries counterparty, book, trader and other reference data names, which can be
+ * renamed without a new trade version, so the whole cache is dropped whenever
+ * {@link ReferenceDataChangeListener#changeCount()} has moved since it was filled.
+ */
+@Component
+public class TradeJsonCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeJsonCache.class);
+
+    // Stamps are striped by trade id rather than kept per trade
+    private static final int STAMP_STRIPES = 256;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TradeMapper tradeMapper;
+
+    @Value("${trades.json-cache.max-entries:10000}")
+    private int maxEntries = 10_000;
+
+    // Bodies at least this large also keep a gzip copy; negative to never compress
+    @Value("${trades.json-cache.compress-min-bytes:2048}")
+    private int compressMinBytes = 2048;
+
+    private final Map<VersionKey, CachedTradeJson> versions = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<VersionKey, CachedTradeJson> eldest) {
+            if (size() <= maxEntries) {
+                return false;
+            }
+            VersionKey key = eldest.getKey();
+            activeVersions.remove(key.tradeId, key.version);
+            return true;
+        }
+    };
+
+    // tradeId -> version of the cached active row
+    private final Map<Long, Integer> activeVersions = new HashMap<>();
+
+    private final long[] stamps = new long[STAMP_STRIPES];
+
+    // Reference data change count the cached entries were serialised at
+    private long referenceDataVersion = ReferenceDataChangeListener.changeCount();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public TradeJsonCache() {
+    }
+
+    TradeJsonCache(ObjectMapper objectMapper, TradeMapper tradeMapper, int maxEntries, int compressMinBytes) {
+        this.objectMapper = objectMapper;
+        this.tradeMapper = tradeMapper;
+        this.maxEntries = maxEntries;
+        this.compressMinBytes = compressMinBytes;
+    }
+
+    /**
+     * The active version of a trade, serialised, or null if {@code loader} finds none.
+     * {@code loader} is only called on a miss.
+     */
+    public CachedTradeJson getActive(Long tradeId, Supplier<Optional<Trade>> loader) {
+        long stamp;
+        synchronized (this) {
+            dropIfReferenceDataChanged();
+            Integer version = activeVersions.get(tradeId);
+            CachedTradeJson cached = version != null ? versions.get(new VersionKey(tradeId, version)) : null;
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            stamp = stamps[stripe(tradeId)];
+        }
+        misses.incrementAndGet();
+        Optional<Trade> trade = loader.get();
+        if (trade.isEmpty()) {
+            return null;
+        }
+        CachedTradeJson json = serialise(trade.get());
+        synchronized (this) {
+            dropIfReferenceDataChanged();
+            if (stamps[stripe(tradeId)] == stamp) {
+                versions.put(new VersionKey(json.getTradeId(), json.getVersion()), json);
+                if (Boolean.TRUE.equals(trade.get().getActive())) {
+                    activeVersions.put(json.getTradeId(), json.getVersion());
+                }
+            }
+        }
+        return json;
+    }
+
+    /**
+     * The given trade version, serialised, from the cache if this version has been seen before.
+     */
+    public CachedTradeJson get(Trade trade) {
+        long stamp;
+        VersionKey key = new VersionKey(trade.getTradeId(), trade.getVersion());
+        synchronized (this) {
+            dropIfReferenceDataChanged();
+            CachedTradeJson cached = versions.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            stamp = stamps[stripe(trade.getTradeId())];
+        }
+        misses.incrementAndGet();
+        CachedTradeJson json = serialise(trade);
+        synchronized (this) {
+            dropIfReferenceDataChanged();
+            if (stamps[stripe(trade.getTradeId())] == stamp) {
+                versions.put(key, json);
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Drops a trade's entries once a create, amendment, termination, cancellation or settlement
+     * instruction change has committed. Amendment deactivates the previous row, so its entry
+     * goes too and is cached again, now final, on its next read.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTradeLifecycleEvent(TradeLifecycleEvent event) {
+        invalidate(event.getPrevious());
+        invalidate(event.getCurrent());
+    }
+
+    private synchronized void invalidate(TradeSnapshot snapshot) {
+        if (snapshot == null || snapshot.getTradeId() == null) {
+            return;
+        }
+        Long tradeId = snapshot.getTradeId();
+        stamps[stripe(tradeId)]++;
+        Integer active = activeVersions.remove(tradeId);
+        if (active != null) {
+            versions.remove(new VersionKey(tradeId, active));
+        }
+        if (snapshot.getVersion() != null) {
+            versions.remove(new VersionKey(tradeId, snapshot.getVersion()));
+        }
+    }
+
+    public synchronized void clear() {
+        versions.clear();
+        activeVersions.clear();
+        for (int i = 0; i < stamps.length; i++) {
+            stamps[i]++;
+        }
+    }
+
+    // Callers hold the lock. Clearing also moves every stamp, so a read serialised before the
+    // change is not cached after it.
+    private void dropIfReferenceDataChanged() {
+        long version = ReferenceDataChangeListener.changeCount();
+        if (version != referenceDataVersion) {
+            logger.debug("Reference data changed, dropping {} cached trades", versions.size());
+            clear();
+            referenceDataVersion = version;
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return versions.size();
+    }
+
+    private CachedTradeJson serialise(Trade trade) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(tradeMapper.toDto(trade));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unable to serialise trade " + trade.getTradeId(), e);
+        }
+        logger.debug("Serialised trade {} version {}: {} bytes", trade.getTradeId(), trade.getVersion(), json.length);
+        return new CachedTradeJson(trade.getTradeId(), trade.getVersion(), json, compressMinBytes);
+    }
+
+    private static int stripe(Long tradeId) {
+        return Long.hashCode(tradeId) & (STAMP_STRIPES - 1);
+    }
+
+    @EqualsAndHashCode
+    private static final class VersionKey {
+        private final Long tradeId;
+        private final Integer version;
+
+        private VersionKey(Long tradeId, Integer version) {
+            this.tradeId = tradeId;
+            this.version = version;
+        }
+    }
+
+    /**
+     * One trade version's cached JSON.
+     */
+    @Getter
+    public static final class CachedTradeJson extends CachedJson {
+        private final Long tradeId;
+        private final Integer version;
+
+        CachedTradeJson(Long tradeId, Integer version, byte[] json, int compressMinBytes) {
+            super(tradeId + "." + version, json, compressMinBytes);
+            this.tradeId = tradeId;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.technicalchallenge.cash;
+
+import java.util.Arrays;
+
+/**
+ * Payments and receipts in minor units as a flat array of
+ * {@code (currencyIndex * horizonDays + day) * 2 + side} cells, where day 0 is the ladder's
+ * business date. The array grows as new currencies are seen. Not thread-safe.
+ */
+class CashLadder {
+
+    static final int PAY = 0;
+    static final int RECEIVE = 1;
+
+    private final int horizonDays;
+    private long[] cells = new long[0];
+
+    CashLadder(int horizonDays) {
+        this.horizonDays = horizonDays;
+    }
+
+    int getHorizonDays() {
+        return horizonDays;
+    }
+
+    void add(TradeCashflows cashflows, int sign) {
+        for (int i = 0; i < cashflows.getAmounts().length; i++) {
+            int cell = cell(cashflows.getCurrencyIndexes()[i], cashflows.getDays()[i], cashflows.getSides()[i]);
+            if (cell >= cells.length) {
+                cells = Arrays.copyOf(cells, (cashflows.getCurrencyIndexes()[i] + 1) * horizonDays * 2);
+            }
+            cells[cell] += sign * cashflows.getAmounts()[i];
+        }
+    }
+
+    long get(int currencyIndex, int day, int side) {
+        int cell = cell(currencyIndex, day, side);
+        return cell < cells.length ? cells[cell] : 0;
+    }
+
+    private int cell(int currencyIndex, int day, int side) {
+        return (currencyIndex * horizonDays + day) * 2 + side;
+    }
+}
@@ -0,0 +1,245 @@
+package com.technicalchallenge.cash;
+
+import com.technicalchallenge.dto.CashLadderEntryDTO;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import com.technicalchallenge.repository.CashflowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Payments due per currency per day over the next {@code cash.ladder.horizon-days} days, across
+ * all live trades, held in memory as minor-unit date buckets.
+ *
+ * The ladder is built from one grouped query over the cashflows in the horizon at startup, on
+ * demand and when the business date rolls. In between it is refreshed incrementally from
+ * committed lifecycle events: only the cashflows of the trade row just created or amended are
+ * read, and the contribution of the row it replaces, or of a row that is no longer live, is
+ * reversed from memory.
+ */
+@Service
+public class CashLadderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CashLadderService.class);
+
+    // Same statuses the dashboard treats as live
+    static final List<String> LIVE_STATUSES = List.of("LIVE", "NEW", "AMENDED");
+
+    private static final String PAY = "Pay";
+    private static final String RECEIVE = "Receive";
+    // Amounts are held in minor units (two decimal places)
+    private static final int SCALE = 2;
+
+    @Autowired
+    private CashflowRepository cashflowRepository;
+
+    @Value("${cash.ladder.horizon-days:90}")
+    private int horizonDays = 90;
+
+    // Everything below is guarded by the lock: updates are rare and take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> currencyIndexes = new HashMap<>();
+    private final List<String> currencies = new ArrayList<>();
+    // Contribution of every live trade row in the ladder, by trade row id
+    private final Map<Long, TradeCashflows> trades = new HashMap<>();
+    private CashLadder ladder;
+    private LocalDate asOfDate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void initialise() {
+        rebuild();
+    }
+
+    /**
+     * Discards the ladder and rebuilds it from the cashflows of live trades due within the horizon.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        // Hold the write lock across the query, so a trade committed meanwhile is applied after the
+        // rebuild rather than to a ladder about to be discarded
+        lock.writeLock().lock();
+        try {
+            LocalDate today = LocalDate.now();
+            Map<Long, List<Object[]>> rowsByTrade = new LinkedHashMap<>();
+            for (Object[] row : cashflowRepository.findPaymentsDue(today, lastDay(today), LIVE_STATUSES)) {
+                rowsByTrade.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+            }
+            asOfDate = today;
+            ladder = new CashLadder(horizonDays);
+            trades.clear();
+            rowsByTrade.forEach((tradeRowId, rows) -> {
+                TradeCashflows cashflows = cashflowsOf(rows);
+                trades.put(tradeRowId, cashflows);
+                ladder.add(cashflows, 1);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Cash ladder rebuilt from {} trades for {} days in {} ms",
+                trades.size(), horizonDays, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies a trade's committed create, amend, termination or cancellation: the replaced or
+     * closed row is taken out and, if the trade is still live, its current row's cashflows are read.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTradeLifecycleEvent(TradeLifecycleEvent event) {
+        TradeSnapshot previous = event.getPrevious();
+        TradeSnapshot current = event.getCurrent();
+        rollBusinessDateIfNeeded();
+
+        lock.writeLock().lock();
+        try {
+            boolean currentLive = current != null && current.getId() != null
+                    && LIVE_STATUSES.contains(current.getTradeStatus());
+            if (previous != null && previous.getId() != null
+                    && (!currentLive || !previous.getId().equals(current.getId()))) {
+                remove(previous.getId());
+            }
+            if (current != null && current.getId() != null) {
+                if (currentLive) {
+                    add(current.getId());
+                } else {
+                    remove(current.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * One entry per day and currency with anything due, in date then currency order, optionally
+     * for a single currency.
+     */
+    public Page<CashLadderEntryDTO> getLadder(String currency, Pageable pageable) {
+        rollBusinessDateIfNeeded();
+        lock.readLock().lock();
+        try {
+            int[] currencyOrder = IntStream.range(0, currencies.size())
+                    .filter(c -> currency == null || currency.equalsIgnoreCase(currencies.get(c)))
+                    .boxed()
+                    .sorted(Comparator.comparing(currencies::get))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            List<int[]> cells = new ArrayList<>();
+            for (int day = 0; day < ladder.getHorizonDays(); day++) {
+                for (int c : currencyOrder) {
+                    if (ladder.get(c, day, CashLadder.PAY) != 0 || ladder.get(c, day, CashLadder.RECEIVE) != 0) {
+                        cells.add(new int[] {day, c});
+                    }
+                }
+            }
+            int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), cells.size()) : 0;
+            int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), cells.size()) : cells.size();
+            List<CashLadderEntryDTO> entries = new ArrayList<>();
+            for (int[] cell : cells.subList(from, to)) {
+                long pay = ladder.get(cell[1], cell[0], CashLadder.PAY);
+                long receive = ladder.get(cell[1], cell[0], CashLadder.RECEIVE);
+                entries.add(new CashLadderEntryDTO(asOfDate.plusDays(cell[0]), currencies.get(cell[1]),
+                        toMajorUnits(pay), toMajorUnits(receive), toMajorUnits(receive - pay)));
+            }
+            return new PageImpl<>(entries, pageable, cells.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void add(Long tradeRowId) {
+        if (trades.containsKey(tradeRowId)) {
+            return;
+        }
+        TradeCashflows cashflows = cashflowsOf(
+                cashflowRepository.findPaymentsDueByTradeRow(tradeRowId, asOfDate, lastDay(asOfDate)));
+        trades.put(tradeRowId, cashflows);
+        ladder.add(cashflows, 1);
+    }
+
+    // Callers hold the write lock
+    private void remove(Long tradeRowId) {
+        TradeCashflows cashflows = trades.remove(tradeRowId);
+        if (cashflows != null) {
+            ladder.add(cashflows, -1);
+        }
+    }
+
+    // Rows are [tradeRowId, valueDate, currency, payRec, paymentValue]; callers hold the write lock
+    private TradeCashflows cashflowsOf(List<Object[]> rows) {
+        List<Object[]> due = rows.stream()
+                .filter(row -> row[1] != null && row[2] != null && row[4] != null)
+                .filter(row -> PAY.equalsIgnoreCase((String) row[3]) || RECEIVE.equalsIgnoreCase((String) row[3]))
+                .toList();
+        int[] days = new int[due.size()];
+        int[] currencyIndexes = new int[due.size()];
+        int[] sides = new int[due.size()];
+        long[] amounts = new long[due.size()];
+        for (int i = 0; i < due.size(); i++) {
+            Object[] row = due.get(i);
+            days[i] = (int) ChronoUnit.DAYS.between(asOfDate, (LocalDate) row[1]);
+            currencyIndexes[i] = currencyIndex((String) row[2]);
+            sides[i] = RECEIVE.equalsIgnoreCase((String) row[3]) ? CashLadder.RECEIVE : CashLadder.PAY;
+            amounts[i] = toMinorUnits((BigDecimal) row[4]);
+        }
+        return new TradeCashflows(days, currencyIndexes, sides, amounts);
+    }
+
+    private int currencyIndex(String currency) {
+        return currencyIndexes.computeIfAbsent(currency, ccy -> {
+            currencies.add(ccy);
+            return currencies.size() - 1;
+        });
+    }
+
+    private void rollBusinessDateIfNeeded() {
+        LocalDate today = LocalDate.now();
+        lock.readLock().lock();
+        try {
+            if (today.equals(asOfDate)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        rebuild();
+    }
+
+    private LocalDate lastDay(LocalDate firstDay) {
+        return firstDay.plusDays(horizonDays - 1);
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal toMajorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
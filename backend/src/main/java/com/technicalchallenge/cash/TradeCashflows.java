@@ -0,0 +1,18 @@
+package com.technicalchallenge.cash;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What one trade row contributes to the cash ladder: its payments due within the horizon, as
+ * parallel arrays of day offset, currency index, side and amount in minor units. Kept so the
+ * contribution can be reversed exactly when the trade is amended or closed.
+ */
+@Getter
+@AllArgsConstructor
+class TradeCashflows {
+    private final int[] days;
+    private final int[] currencyIndexes;
+    private final int[] sides;
+    private final long[] amounts;
+}
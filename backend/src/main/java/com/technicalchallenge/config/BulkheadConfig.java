@@ -0,0 +1,45 @@
+package com.technicalchallenge.config;
+
+import com.technicalchallenge.bulkhead.BulkheadDataSource;
+import com.technicalchallenge.bulkhead.BulkheadInterceptor;
+import com.technicalchallenge.bulkhead.BulkheadRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the workload bulkheads into Spring MVC and the JDBC DataSource.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public WebMvcConfigurer bulkheadConfigurer(BulkheadRegistry bulkheadRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new BulkheadInterceptor(bulkheadRegistry))
+                        .addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    // Static so the post-processor does not force early initialisation of this configuration
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<BulkheadRegistry> bulkheadRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, bulkheadRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+}
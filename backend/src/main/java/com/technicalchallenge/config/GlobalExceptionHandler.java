@@ -1,7 +1,10 @@
 package com.technicalchallenge.config; 
 
 import com.technicalchallenge.dto.ErrorResponse; 
+import com.technicalchallenge.exception.BulkheadFullException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -20,4 +23,14 @@ public class GlobalExceptionHandler {
             "The query could not be parsed. Details: " + causeMessage
         );
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadFull(BulkheadFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(new ErrorResponse(
+                "Server busy",
+                "The " + ex.getBulkhead() + " workload is at capacity. " + ex.getMessage()
+            ));
+    }
+}
@@ -0,0 +1,59 @@
+package com.technicalchallenge.config;
+
+import com.technicalchallenge.metrics.SlowQueryLog;
+import com.technicalchallenge.metrics.SqlMonitoringDataSource;
+import com.technicalchallenge.metrics.SqlMonitoringFilter;
+import com.technicalchallenge.metrics.SqlMonitoringInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires per-request SQL accounting into the servlet filter chain, Spring MVC and the JDBC DataSource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.monitoring.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMonitoringConfig {
+
+    @Bean
+    public FilterRegistrationBean<SqlMonitoringFilter> sqlMonitoringFilter(SlowQueryLog slowQueryLog) {
+        FilterRegistrationBean<SqlMonitoringFilter> registration =
+                new FilterRegistrationBean<>(new SqlMonitoringFilter(slowQueryLog));
+        registration.addUrlPatterns("/api/*");
+        // Ahead of Spring Security so user lookups during authentication are included
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public WebMvcConfigurer sqlMonitoringConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new SqlMonitoringInterceptor())
+                        .addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    // Static so the post-processor does not force early initialisation of this configuration
+    @Bean
+    public static BeanPostProcessor sqlMonitoringDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlMonitoringDataSource)) {
+                    return new SqlMonitoringDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
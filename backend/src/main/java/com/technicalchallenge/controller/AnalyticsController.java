@@ -0,0 +1,91 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.analytics.DateField;
+import com.technicalchallenge.analytics.Dimension;
+import com.technicalchallenge.analytics.TradeAnalyticsQuery;
+import com.technicalchallenge.analytics.TradeColumnStore;
+import com.technicalchallenge.dto.AnalyticsGroupDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/analytics")
+@Tag(name = "Analytics", description = "Filter, group-by and sum queries over active trades and their legs")
+public class AnalyticsController {
+
+    @Autowired
+    private TradeColumnStore tradeColumnStore;
+
+    @GetMapping("/trades")
+    @Operation(summary = "Aggregate active trades",
+               description = "Trade count, leg count, absolute notional and notional-weighted average rate of the " +
+                             "active trades matching the filters, optionally grouped by book, counterparty, trader, " +
+                             "status, trade-type, currency, leg-type or pay-rec")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully aggregated trades",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = AnalyticsGroupDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown group-by column")
+    })
+    public ResponseEntity<?> aggregateTrades(
+            @Parameter(description = "Column to group by; omit for a single total")
+            @RequestParam(name = "groupBy", required = false) String groupBy,
+            @Parameter(description = "Trader user IDs")
+            @RequestParam(name = "trader", required = false) List<Long> traders,
+            @Parameter(description = "Book IDs")
+            @RequestParam(name = "book", required = false) List<Long> books,
+            @Parameter(description = "Counterparty IDs")
+            @RequestParam(name = "counterparty", required = false) List<Long> counterparties,
+            @Parameter(description = "Trade statuses")
+            @RequestParam(name = "status", required = false) List<String> statuses,
+            @Parameter(description = "Trade types")
+            @RequestParam(name = "tradeType", required = false) List<String> tradeTypes,
+            @Parameter(description = "Leg currencies; only matching legs are summed")
+            @RequestParam(name = "currency", required = false) List<String> currencies,
+            @Parameter(description = "Earliest trade date (inclusive)")
+            @RequestParam(name = "tradeDateFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate tradeDateFrom,
+            @Parameter(description = "Latest trade date (inclusive)")
+            @RequestParam(name = "tradeDateTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate tradeDateTo) {
+        TradeAnalyticsQuery query = TradeAnalyticsQuery.create();
+        if (groupBy != null && !groupBy.isBlank()) {
+            Optional<Dimension> dimension = Dimension.fromParameter(groupBy);
+            if (dimension.isEmpty()) {
+                return ResponseEntity.badRequest().body("Unknown groupBy column: " + groupBy);
+            }
+            query.groupBy(dimension.get());
+        }
+        filter(query, Dimension.TRADER, traders);
+        filter(query, Dimension.BOOK, books);
+        filter(query, Dimension.COUNTERPARTY, counterparties);
+        filter(query, Dimension.STATUS, statuses);
+        filter(query, Dimension.TRADE_TYPE, tradeTypes);
+        filter(query, Dimension.CURRENCY, currencies);
+        if (tradeDateFrom != null || tradeDateTo != null) {
+            query.between(DateField.TRADE_DATE, tradeDateFrom, tradeDateTo);
+        }
+        return ResponseEntity.ok(tradeColumnStore.aggregate(query));
+    }
+
+    private static void filter(TradeAnalyticsQuery query, Dimension dimension, List<?> keys) {
+        if (keys != null && !keys.isEmpty()) {
+            query.where(dimension, keys);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.cash.CashLadderService;
+import com.technicalchallenge.dto.CashLadderEntryDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/cashflows/ladder")
+@Tag(name = "Cash Ladder", description = "Payments and receipts due per currency per day across all live trades")
+public class CashLadderController {
+    private static final Logger logger = LoggerFactory.getLogger(CashLadderController.class);
+
+    @Autowired
+    private CashLadderService cashLadderService;
+
+    @GetMapping
+    @Operation(summary = "Get the cash ladder",
+               description = "Amounts paid and received per value date and currency over the ladder horizon, in date then currency order")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the cash ladder",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = CashLadderEntryDTO.class)))
+    })
+    public Page<CashLadderEntryDTO> getCashLadder(
+            @Parameter(description = "Only this currency, e.g. USD")
+            @RequestParam(value = "currency", required = false) String currency,
+            Pageable pageable) {
+        logger.debug("Fetching cash ladder for currency {}: {}", currency, pageable);
+        return cashLadderService.getLadder(currency, pageable);
+    }
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "Rebuild the cash ladder",
+               description = "Discards the in-memory cash ladder and rebuilds it from the cashflows of live trades")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Cash ladder rebuilt")
+    })
+    public ResponseEntity<Void> rebuildCashLadder() {
+        logger.info("Rebuilding cash ladder on request");
+        cashLadderService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,11 +1,15 @@
 package com.technicalchallenge.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.dto.CashflowGenerationRequest;
 import com.technicalchallenge.mapper.CashflowMapper;
 import com.technicalchallenge.model.Cashflow;
 import com.technicalchallenge.service.CashflowService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -18,8 +22,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -36,15 +43,20 @@ import org.slf4j.LoggerFactory;
 @Tag(name = "Cashflows", description = "Cashflow generation and management for trades")
 public class CashflowController {
     private static final Logger logger = LoggerFactory.getLogger(CashflowController.class);
+    private static final String NDJSON = "application/x-ndjson";
 
     @Autowired
     private CashflowService cashflowService;
     @Autowired
     private CashflowMapper cashflowMapper;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @GetMapping
     @Operation(summary = "Get all cashflows",
-               description = "Retrieves a list of all generated cashflows in the system with payment dates and amounts")
+               description = "Retrieves a list of all generated cashflows in the system with payment dates and amounts. " +
+                             "Unbounded: pass from and to for a page of a date window, or use /export",
+               deprecated = true)
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved all cashflows",
                     content = @Content(mediaType = "application/json",
@@ -58,6 +70,74 @@ public class CashflowController {
                 .toList();
     }
 
+    @GetMapping(params = {"from", "to"})
+    @Operation(summary = "Get cashflows in a date window",
+               description = "Retrieves a page of the active cashflows of current trade versions with value dates between two dates inclusive, " +
+                             "in value date order unless sorted otherwise, optionally only those in one currency or book")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the page of cashflows",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = CashflowDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Window ends before it starts")
+    })
+    public ResponseEntity<?> getCashflowWindow(
+            @Parameter(description = "First value date, e.g. 2025-06-02", required = true)
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last value date, inclusive", required = true)
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Only this leg currency, e.g. USD")
+            @RequestParam(name = "currency", required = false) String currency,
+            @Parameter(description = "Only trades in this book id")
+            @RequestParam(name = "book", required = false) Long book,
+            Pageable pageable) {
+        logger.debug("Fetching cashflows from {} to {} for currency {} and book {}: {}", from, to, currency, book, pageable);
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body("Cashflow window ends before it starts");
+        }
+        return ResponseEntity.ok(cashflowService.getCashflows(from, to, currency, book, pageable)
+                .map(cashflowMapper::toDto));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export cashflows in a date window",
+               description = "Streams every cashflow of the date window, one JSON object per line in value date order, " +
+                             "for windows too large to page through")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cashflows streamed as newline-delimited JSON"),
+        @ApiResponse(responseCode = "400", description = "Window ends before it starts")
+    })
+    public void exportCashflows(
+            @Parameter(description = "First value date, e.g. 2025-06-02", required = true)
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last value date, inclusive", required = true)
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Only this leg currency, e.g. USD")
+            @RequestParam(name = "currency", required = false) String currency,
+            @Parameter(description = "Only trades in this book id")
+            @RequestParam(name = "book", required = false) Long book,
+            HttpServletResponse response) throws IOException {
+        logger.info("Exporting cashflows from {} to {} for currency {} and book {}", from, to, currency, book);
+        if (to.isBefore(from)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Cashflow window ends before it starts");
+            return;
+        }
+        // Written on the request thread so the export stays inside its workload bulkhead
+        response.setContentType(NDJSON);
+        SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(response.getOutputStream());
+        try {
+            cashflowService.exportCashflows(from, to, currency, book, cashflow -> {
+                try {
+                    writer.write(cashflow);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get cashflow by ID",
                description = "Retrieves a specific cashflow by its unique identifier")
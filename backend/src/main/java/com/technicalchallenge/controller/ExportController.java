@@ -0,0 +1,47 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.ExportRunDTO;
+import com.technicalchallenge.export.TradeExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Export", description = "Columnar file exports of trades, legs and cashflows for offline analytics")
+public class ExportController {
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    @Autowired
+    private TradeExportService tradeExportService;
+
+    @PostMapping("/trades")
+    @Operation(summary = "Export trades, legs and cashflows",
+               description = "Writes the active trades, or the trade versions valid at asOf, with their legs and cashflows to memory-mappable columnar files in the export directory")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export completed",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = ExportRunDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid as-of time")
+    })
+    public ExportRunDTO exportTrades(
+            @Parameter(description = "Export the versions valid at this time instead of the active rows, e.g. 2025-06-02T17:00:00")
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        logger.info("Exporting trades {}", asOf != null ? "as of " + asOf : "(active)");
+        return tradeExportService.export(asOf);
+    }
+}
@@ -0,0 +1,75 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.FixingDTO;
+import com.technicalchallenge.fixing.FixingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/fixings")
+@Tag(name = "Fixings", description = "Published index fixings used to set floating leg rates")
+public class FixingController {
+    private static final Logger logger = LoggerFactory.getLogger(FixingController.class);
+
+    @Autowired
+    private FixingService fixingService;
+
+    @GetMapping("/{index}")
+    @Operation(summary = "Get fixings for an index",
+               description = "Published fixings of an index in date order, optionally between two dates inclusive")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved fixings",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = FixingDTO.class)))
+    })
+    public List<FixingDTO> getFixings(
+            @Parameter(description = "Index name, e.g. LIBOR", required = true)
+            @PathVariable(name = "index") String index,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.debug("Fetching fixings for {} from {} to {}", index, from, to);
+        return fixingService.findFixings(index, from, to);
+    }
+
+    @PostMapping("/{index}")
+    @Operation(summary = "Add the day's fixing for an index",
+               description = "Appends a fixing, which must be later than the index's last one; resending the last fixing unchanged is accepted")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fixing added",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = FixingDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown index, missing rate, or date not after the last fixing")
+    })
+    public ResponseEntity<?> addFixing(
+            @Parameter(description = "Index name, e.g. LIBOR", required = true)
+            @PathVariable(name = "index") String index,
+            @RequestBody FixingDTO fixingDTO) {
+        logger.info("Adding {} fixing for {}: {}", index, fixingDTO.getFixingDate(), fixingDTO.getRate());
+        try {
+            return ResponseEntity.ok(fixingService.addFixing(index, fixingDTO.getFixingDate(), fixingDTO.getRate()));
+        } catch (RuntimeException e) {
+            logger.warn("Rejected {} fixing for {}: {}", index, fixingDTO.getFixingDate(), e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.LookupResultDTO;
+import com.technicalchallenge.lookup.LookupService;
+import com.technicalchallenge.lookup.LookupType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/lookup")
+@Tag(name = "Lookup", description = "Type-ahead search over counterparties, books, cost centers and users")
+public class LookupController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private LookupService lookupService;
+
+    @GetMapping
+    @Operation(summary = "Search names by prefix",
+               description = "Case-insensitive prefix search over counterparty, book or cost center names, or user login IDs " +
+                             "and full names, in alphabetical order")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved matching names",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = LookupResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown type or limit below one")
+    })
+    public ResponseEntity<?> lookup(
+            @Parameter(description = "counterparty, book, cost-center or user", required = true)
+            @RequestParam(name = "type") String type,
+            @Parameter(description = "Start of the name; empty matches everything")
+            @RequestParam(name = "prefix", defaultValue = "") String prefix,
+            @Parameter(description = "Maximum number of results, at most " + MAX_LIMIT)
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        Optional<LookupType> lookupType = LookupType.fromParameter(type);
+        if (lookupType.isEmpty()) {
+            return ResponseEntity.badRequest().body("Unknown lookup type: " + type);
+        }
+        if (limit < 1) {
+            return ResponseEntity.badRequest().body("limit must be at least 1");
+        }
+        List<LookupResultDTO> results = lookupService.search(lookupType.get(), prefix, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(results);
+    }
+}
@@ -0,0 +1,121 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.PositionDTO;
+import com.technicalchallenge.position.PositionKeepingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/positions")
+@Tag(name = "Positions", description = "Net notional by book, currency and maturity bucket, rolled up the desk hierarchy")
+public class PositionController {
+    private static final Logger logger = LoggerFactory.getLogger(PositionController.class);
+
+    @Autowired
+    private PositionKeepingService positionKeepingService;
+
+    @GetMapping("/books")
+    @Operation(summary = "Get positions for all books",
+               description = "Point-in-time net notional of every book with positions, by currency and maturity bucket")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved book positions",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = PositionDTO.class)))
+    })
+    public List<PositionDTO> getAllBookPositions() {
+        logger.debug("Fetching positions for all books");
+        return positionKeepingService.getAllBookPositions();
+    }
+
+    @GetMapping("/books/{id}")
+    @Operation(summary = "Get positions for a book",
+               description = "Net notional of one book by currency and maturity bucket")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Book positions returned successfully",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = PositionDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Book not found")
+    })
+    public ResponseEntity<PositionDTO> getBookPositions(
+            @Parameter(description = "Unique identifier of the book", required = true)
+            @PathVariable(name = "id") Long id) {
+        logger.debug("Fetching positions for book: {}", id);
+        return ResponseEntity.of(positionKeepingService.getBookPositions(id));
+    }
+
+    @GetMapping("/cost-centers/{id}")
+    @Operation(summary = "Get positions for a cost center",
+               description = "Net notional of all books in a cost center, by currency and maturity bucket")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cost center positions returned successfully",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = PositionDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Cost center not found or has no books")
+    })
+    public ResponseEntity<PositionDTO> getCostCenterPositions(
+            @Parameter(description = "Unique identifier of the cost center", required = true)
+            @PathVariable(name = "id") Long id) {
+        logger.debug("Fetching positions for cost center: {}", id);
+        return ResponseEntity.of(positionKeepingService.getCostCenterPositions(id));
+    }
+
+    @GetMapping("/sub-desks/{id}")
+    @Operation(summary = "Get positions for a sub-desk",
+               description = "Net notional of all books under a sub-desk, by currency and maturity bucket")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sub-desk positions returned successfully",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = PositionDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Sub-desk not found or has no books")
+    })
+    public ResponseEntity<PositionDTO> getSubDeskPositions(
+            @Parameter(description = "Unique identifier of the sub-desk", required = true)
+            @PathVariable(name = "id") Long id) {
+        logger.debug("Fetching positions for sub-desk: {}", id);
+        return ResponseEntity.of(positionKeepingService.getSubDeskPositions(id));
+    }
+
+    @GetMapping("/desks/{id}")
+    @Operation(summary = "Get positions for a desk",
+               description = "Net notional of all books under a desk, by currency and maturity bucket")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Desk positions returned successfully",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = PositionDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Desk not found or has no books")
+    })
+    public ResponseEntity<PositionDTO> getDeskPositions(
+            @Parameter(description = "Unique identifier of the desk", required = true)
+            @PathVariable(name = "id") Long id) {
+        logger.debug("Fetching positions for desk: {}", id);
+        return ResponseEntity.of(positionKeepingService.getDeskPositions(id));
+    }
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "Rebuild positions",
+               description = "Discards the in-memory positions and rebuilds them from live trades")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Positions rebuilt")
+    })
+    public ResponseEntity<Void> rebuildPositions() {
+        logger.info("Rebuilding book positions on request");
+        positionKeepingService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.ReferenceDataBundleDTO;
+import com.technicalchallenge.service.ReferenceDataService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/reference-data")
+@Tag(name = "Reference Data", description = "Booking screen picklists")
+public class ReferenceDataController {
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @GetMapping("/bundle")
+    @Operation(summary = "Get all picklists in one bundle",
+               description = "Retrieves every booking screen picklist in a single payload, versioned by the reference data change count. " +
+                             "Responses carry a strong ETag for conditional GETs and are gzip encoded when the client accepts it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the reference data bundle",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = ReferenceDataBundleDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Reference data unchanged since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<byte[]> getBundle(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return referenceDataService.getBundle().toResponse(ifNoneMatch, acceptEncoding);
+    }
+}
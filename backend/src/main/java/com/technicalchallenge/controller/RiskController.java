@@ -0,0 +1,75 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.VarDTO;
+import com.technicalchallenge.risk.VarService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/risk")
+@Tag(name = "Risk", description = "Historical-simulation Value at Risk by book, desk and trader")
+public class RiskController {
+    private static final Logger logger = LoggerFactory.getLogger(RiskController.class);
+
+    @Autowired
+    private VarService varService;
+
+    @GetMapping("/var/books/{id}")
+    @Operation(summary = "Get VaR for a book",
+               description = "One-day historical-simulation VaR of the live trades in a book")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Book VaR returned successfully",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = VarDTO.class)))
+    })
+    public VarDTO getBookVaR(
+            @Parameter(description = "Unique identifier of the book", required = true)
+            @PathVariable(name = "id") Long id) {
+        logger.debug("Fetching VaR for book: {}", id);
+        return varService.getBookVaR(id);
+    }
+
+    @GetMapping("/var/desks/{id}")
+    @Operation(summary = "Get VaR for a desk",
+               description = "One-day historical-simulation VaR of all books under a desk, with diversification across books")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Desk VaR returned successfully",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = VarDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Desk not found or has no books")
+    })
+    public ResponseEntity<VarDTO> getDeskVaR(
+            @Parameter(description = "Unique identifier of the desk", required = true)
+            @PathVariable(name = "id") Long id) {
+        logger.debug("Fetching VaR for desk: {}", id);
+        return ResponseEntity.of(varService.getDeskVaR(id));
+    }
+
+    @GetMapping("/var/traders/{id}")
+    @Operation(summary = "Get VaR for a trader",
+               description = "One-day historical-simulation VaR of a trader's live trades across all their books")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Trader VaR returned successfully",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = VarDTO.class)))
+    })
+    public VarDTO getTraderVaR(
+            @Parameter(description = "Unique identifier of the trader", required = true)
+            @PathVariable(name = "id") Long id) {
+        logger.debug("Fetching VaR for trader: {}", id);
+        return varService.getTraderVaR(id);
+    }
+}
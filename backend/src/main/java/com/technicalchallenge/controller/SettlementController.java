@@ -0,0 +1,47 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.NettingRunDTO;
+import com.technicalchallenge.settlement.NettingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/settlement")
+@Tag(name = "Settlement", description = "Settlement netting of cashflows by counterparty, currency and settlement instructions")
+public class SettlementController {
+    private static final Logger logger = LoggerFactory.getLogger(SettlementController.class);
+
+    @Autowired
+    private NettingService nettingService;
+
+    @PostMapping("/netting")
+    @Operation(summary = "Run settlement netting",
+               description = "Nets every active cashflow due on the value date into one payment per counterparty, currency and settlement instructions, and writes the netted payments file")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Netting run completed",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = NettingRunDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid value date")
+    })
+    public NettingRunDTO runNetting(
+            @Parameter(description = "Value date to net, e.g. 2025-06-02", required = true)
+            @RequestParam("valueDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate valueDate) {
+        logger.info("Running settlement netting for {}", valueDate);
+        return nettingService.runNetting(valueDate);
+    }
+}
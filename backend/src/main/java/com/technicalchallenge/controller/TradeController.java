@@ -1,7 +1,12 @@
 package com.technicalchallenge.controller;
 
+import com.technicalchallenge.cache.TradeJsonCache;
+import com.technicalchallenge.cache.TradeJsonCache.CachedTradeJson;
+import com.technicalchallenge.dto.TradeChangeBatchDTO;
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.SettlementInstructionsDTO;
+import com.technicalchallenge.jfr.TradeSearchEvent;
+import com.technicalchallenge.lifetime.TradeLifetimeIndex;
 import com.technicalchallenge.mapper.TradeMapper;
 import com.technicalchallenge.model.AdditionalInfo;
 import com.technicalchallenge.model.Trade;
@@ -9,6 +14,8 @@ import com.technicalchallenge.service.TradeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -29,6 +36,7 @@ import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Join;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.aspectj.apache.bcel.classfile.Code;
@@ -42,15 +50,18 @@ import org.springframework.data.domain.Pageable;
 @Tag(name = "Trades", description = "Trade management operations including booking, searching, and lifecycle management")
 public class TradeController {
     private static final Logger logger = LoggerFactory.getLogger(TradeController.class);
+    private static final int MAX_CHANGE_BATCH_SIZE = 5000;
 
     @Autowired
     private TradeService tradeService;
     @Autowired
     private TradeMapper tradeMapper;
+    @Autowired
+    private TradeJsonCache tradeJsonCache;
 
     @GetMapping
     @Operation(summary = "Get all trades",
-               description = "Retrieves a list of all trades in the system. Returns comprehensive trade information including legs and cashflows.")
+               description = "Retrieves a list of all trades in the system. Returns comprehensive trade information including legs; cashflows are paged from /api/tradeLegs/{id}/cashflows.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved all trades",
                     content = @Content(mediaType = "application/json",
@@ -66,29 +77,121 @@ public class TradeController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get trade by ID",
-               description = "Retrieves a specific trade by its unique identifier")
+               description = "Retrieves a specific trade by its unique identifier. Responses carry a strong ETag for conditional GETs " +
+                             "and are gzip encoded when large and the client accepts it")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Trade found and returned successfully",
                     content = @Content(mediaType = "application/json",
                                      schema = @Schema(implementation = TradeDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Trade unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Trade not found"),
         @ApiResponse(responseCode = "400", description = "Invalid trade ID format")
     })
-    public ResponseEntity<TradeDTO> getTradeById(
+    public ResponseEntity<?> getTradeById(
             @Parameter(description = "Unique identifier of the trade", required = true)
-            @PathVariable(name = "id") Long id) {
+            @PathVariable(name = "id") Long id,
+            @Parameter(description = "Inline every leg's cashflows; otherwise page them from /api/tradeLegs/{id}/cashflows")
+            @RequestParam(name = "includeCashflows", defaultValue = "false") boolean includeCashflows,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         logger.debug("Fetching trade by id: {}", id);
-        return tradeService.getTradeById(id)
-                .map(tradeMapper::toDto)
-                .map(ResponseEntity::ok)
+        if (includeCashflows) {
+            return tradeService.getTradeById(id)
+                    .map(tradeMapper::toDtoWithCashflows)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        }
+        CachedTradeJson json = tradeJsonCache.getActive(id, () -> tradeService.getTradeById(id));
+        if (json == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return json.toResponse(ifNoneMatch, acceptEncoding);
+    }
+
+    // As-Of Endpoints
+    @GetMapping("/{id}/as-of")
+    @Operation(summary = "Get trade as of a point in time",
+               description = "Retrieves the version of a trade that was valid at the given timestamp (ISO-8601, e.g. 2025-06-02T14:00:00). " +
+                             "Statuses are current: terminations and cancellations are not versioned")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Trade version found and returned successfully",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = TradeDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Trade version unchanged since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "404", description = "Trade did not exist at the given timestamp"),
+        @ApiResponse(responseCode = "400", description = "Invalid trade ID or timestamp format")
+    })
+    public ResponseEntity<?> getTradeAsOf(
+            @Parameter(description = "Unique identifier of the trade", required = true)
+            @PathVariable(name = "id") Long id,
+            @Parameter(description = "Point in time to resolve", required = true)
+            @RequestParam(name = "asOf") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        logger.debug("Fetching trade {} as of {}", id, asOf);
+        return tradeService.getTradeAsOf(id, asOf)
+                .<ResponseEntity<?>>map(trade -> tradeJsonCache.get(trade).toResponse(ifNoneMatch, acceptEncoding))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/book/{bookId}/as-of")
+    @Operation(summary = "Get book snapshot as of a point in time",
+               description = "Retrieves, for every trade in the book, the header of the version that was valid at the given timestamp. " +
+                             "Legs are not included; use /{id}/as-of for a single trade in full. " +
+                             "Statuses are current: terminations and cancellations are not versioned")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Book snapshot retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid book ID or timestamp format")
+    })
+    public ResponseEntity<List<TradeDTO>> getBookTradesAsOf(
+            @Parameter(description = "Unique identifier of the book", required = true)
+            @PathVariable(name = "bookId") Long bookId,
+            @Parameter(description = "Point in time to resolve", required = true)
+            @RequestParam(name = "asOf") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        logger.info("Fetching book {} snapshot as of {}", bookId, asOf);
+        List<TradeDTO> snapshot = tradeService.getBookTradesAsOf(bookId, asOf).stream()
+                .map(tradeMapper::toHeaderDto)
+                .toList();
+        return ResponseEntity.ok(snapshot);
+    }
+
+    // Change Feed Endpoint
+    @GetMapping("/changes")
+    @Operation(summary = "Get trade changes since a cursor",
+               description = "Returns trade headers written after the given change sequence, in sequence order, in bounded batches. " +
+                             "Start with since=0 and pass nextCursor back as since until hasMore is false. " +
+                             "Rows after a gap still being committed are held back for a few seconds, so keep polling.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch of changes retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = TradeChangeBatchDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
+    public ResponseEntity<TradeChangeBatchDTO> getTradeChanges(
+            @Parameter(description = "Last change sequence already processed by the consumer")
+            @RequestParam(name = "since", defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of changes to return (capped at " + MAX_CHANGE_BATCH_SIZE + ")")
+            @RequestParam(name = "limit", defaultValue = "500") int limit) {
+        int batchSize = Math.min(Math.max(limit, 1), MAX_CHANGE_BATCH_SIZE);
+        logger.debug("Fetching trade changes after cursor {} (batch size {})", since, batchSize);
+
+        // Read one extra row to know whether another batch is waiting
+        List<Trade> changed = tradeService.getTradeChangesSince(since, batchSize + 1);
+        boolean hasMore = changed.size() > batchSize;
+        List<TradeDTO> changes = changed.stream()
+                .limit(batchSize)
+                .map(tradeMapper::toHeaderDto)
+                .toList();
+        long nextCursor = changes.isEmpty() ? since : changes.get(changes.size() - 1).getChangeSequence();
+        return ResponseEntity.ok(new TradeChangeBatchDTO(changes, nextCursor, hasMore));
+    }
+
     // Search Endpoint
     @GetMapping("/search")
     @Operation(
         summary = "Multi-Criteria Trade Search",
-        description = "Retrieves a paginated list of trades by filtering on any of these fields: Counterparty, Book, Trader, Status, and Date Ranges (start and end dates)."
+        description = "Retrieves a paginated list of trades by filtering on any of these fields: Counterparty, Book, Trader, Status, and Date Ranges (start and end dates). " +
+                      "liveOn returns the live trades that have started and not matured on that date; on its own it is answered from an in-memory index, in trade id order."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Trades retrieved successfully"),
@@ -103,11 +206,18 @@ public class TradeController {
             @RequestParam(value = "startDate", required = false) LocalDate startDate,
             @RequestParam(value = "endDate", required = false) LocalDate endDate,
             @RequestParam(value = "siContent", required = false) String siContent,
+            @RequestParam(value = "liveOn", required = false) LocalDate liveOn,
             Pageable pageable) {
 
         logger.info("Starting multi-criteria search. Params: [Counterparty: {}, Book: {}, Trader: {}, Status: {}, Startdate: {}, Enddate: {}, SI Content: {}]",
                 counterpartyName, bookName, traderId, tradeStatus, startDate, endDate, siContent);
 
+        // Live-on-date alone is a stabbing query on the lifetime index rather than a table scan
+        if (liveOn != null && traderId == null && isBlank(counterpartyName) && isBlank(bookName)
+                && isBlank(tradeStatus) && startDate == null && endDate == null && isBlank(siContent)) {
+            return ResponseEntity.ok(tradeService.getTradesLiveOn(liveOn, pageable).map(tradeMapper::toDto));
+        }
+
         Specification<Trade> specification = Specification.where(null);
         boolean filtersApplied = false;
 
@@ -179,6 +289,17 @@ public class TradeController {
             }
         }
         
+        // 7. Live-On-Date Filter (Direct JPA Specification), when combined with other filters
+        if (liveOn != null) {
+            specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.isTrue(root.get("active")),
+                root.get("tradeStatus").get("tradeStatus").in(TradeLifetimeIndex.LIVE_STATUSES),
+                criteriaBuilder.lessThanOrEqualTo(root.get("tradeStartDate"), liveOn),
+                criteriaBuilder.greaterThanOrEqualTo(root.get("tradeMaturityDate"), liveOn)
+            ));
+            filtersApplied = true;
+        }
+
         // Execute Search Logic
         
         // If no filter parameters were passed, use findAll
@@ -240,8 +361,19 @@ public class TradeController {
         }
 
         // Otherwise, execute the RSQL Specification search.
+         TradeSearchEvent jfrEvent = new TradeSearchEvent();
+         jfrEvent.begin();
          Specification<Trade> specification = RSQLSupport.toSpecification(rsqlQuery);
          Page<Trade> tradePage = tradeService.searchTrades(specification, pageable);
+         jfrEvent.end();
+         if (jfrEvent.shouldCommit()) {
+             jfrEvent.queryHash = rsqlQuery.hashCode();
+             jfrEvent.queryLength = rsqlQuery.length();
+             jfrEvent.pageNumber = tradePage.getNumber();
+             jfrEvent.rowCount = tradePage.getNumberOfElements();
+             jfrEvent.totalRows = tradePage.getTotalElements();
+             jfrEvent.commit();
+         }
          return ResponseEntity.ok(tradePage.map(tradeMapper::toDto));
     }
 
@@ -291,7 +423,8 @@ public class TradeController {
     public ResponseEntity<?> createTrade(
             @Parameter(description = "Trade details for creation", required = true)
             @Valid @RequestBody TradeDTO tradeDTO) {
-        logger.info("Creating new trade: {}", tradeDTO);
+        logger.debug("Creating new {} trade in book {}", tradeDTO.getTradeType(), tradeDTO.getBookName());
+        logger.trace("Create trade payload: {}", tradeDTO);
         try {
             // Manual validation for Trade Date presence
             if (tradeDTO.getTradeDate() == null) {
@@ -459,4 +592,8 @@ public class TradeController {
             return ResponseEntity.badRequest().body("Error cancelling trade: " + e.getMessage());
         }
     }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
 }
@@ -1,10 +1,15 @@
 package com.technicalchallenge.controller;
 
+import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.mapper.CashflowMapper;
 import com.technicalchallenge.mapper.TradeLegMapper;
 import com.technicalchallenge.model.TradeLeg;
+import com.technicalchallenge.service.CashflowService;
 import com.technicalchallenge.service.TradeLegService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +32,10 @@ public class TradeLegController {
     private TradeLegService tradeLegService;
     @Autowired
     private TradeLegMapper tradeLegMapper;
+    @Autowired
+    private CashflowService cashflowService;
+    @Autowired
+    private CashflowMapper cashflowMapper;
 
     @GetMapping
     public List<TradeLegDTO> getAllTradeLegs() {
@@ -45,6 +54,15 @@ public class TradeLegController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/cashflows")
+    public ResponseEntity<Page<CashflowDTO>> getTradeLegCashflows(@PathVariable(name = "id") Long id, Pageable pageable) {
+        logger.debug("Fetching cashflows for trade leg {}: {}", id, pageable);
+        return cashflowService.getCashflowsForLeg(id, pageable)
+                .map(page -> page.map(cashflowMapper::toDto))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     public ResponseEntity<?> createTradeLeg(@Valid @RequestBody TradeLegDTO tradeLegDTO) {
         logger.info("Creating new trade leg: {}", tradeLegDTO);
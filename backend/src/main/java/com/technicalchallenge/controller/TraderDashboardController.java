@@ -1,20 +1,26 @@
 package com.technicalchallenge.controller;
 
 import com.technicalchallenge.dto.DailySummaryDTO;
+import com.technicalchallenge.dto.Dv01LadderDTO;
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeSummaryDTO;
+import com.technicalchallenge.service.BlotterStreamService;
 import com.technicalchallenge.service.TraderDashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,9 +36,11 @@ public class TraderDashboardController {
     private static final Logger log = LoggerFactory.getLogger(TraderDashboardController.class);
 
     private final TraderDashboardService dashboardService; 
+    private final BlotterStreamService blotterStreamService;
 
-    public TraderDashboardController(TraderDashboardService dashboardService) {
+    public TraderDashboardController(TraderDashboardService dashboardService, BlotterStreamService blotterStreamService) {
         this.dashboardService = dashboardService;
+        this.blotterStreamService = blotterStreamService;
     }
 
     // Helper method to retrieve the authenticated trader's internal user ID.
@@ -77,6 +85,27 @@ public class TraderDashboardController {
         return ResponseEntity.ok(trades);
     }
 
+// Live Blotter Streams
+    // Server-Sent Events carrying row-level deltas. Browsers resend the last event id in the
+    // Last-Event-ID header on reconnect; clients that manage their own connection can pass it as resumeToken.
+    @GetMapping(value = "/my-trades/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTraderPersonalTrades(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "resumeToken", required = false) String resumeToken) {
+        Long traderUserId = getCurrentTraderUserId();
+        log.info("Opening blotter stream for trader: {}", traderUserId);
+        return blotterStreamService.subscribe(traderUserId, null, lastEventId != null ? lastEventId : resumeToken);
+    }
+
+    @GetMapping(value = "/book/{bookId}/trades/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookTrades(@PathVariable("bookId") Long bookId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "resumeToken", required = false) String resumeToken) {
+        Long traderUserId = getCurrentTraderUserId();
+        log.info("Opening blotter stream for Book ID: {} by trader: {}", bookId, traderUserId);
+        return blotterStreamService.subscribe(traderUserId, bookId, lastEventId != null ? lastEventId : resumeToken);
+    }
+
 // Summary & Analytics Endpoints
     @GetMapping("/summary")
     public ResponseEntity<TradeSummaryDTO> getPortfolioSummary() {
@@ -89,6 +118,18 @@ public class TraderDashboardController {
         return ResponseEntity.ok(summary);
     }
 
+    @GetMapping("/dv01")
+    public ResponseEntity<Dv01LadderDTO> getDv01Ladder() {
+        Long traderUserId = getCurrentTraderUserId();
+        log.info("Generating DV01 ladder for trader: {}", traderUserId);
+
+        Dv01LadderDTO ladder = dashboardService.getDv01Ladder(traderUserId);
+
+        log.debug("DV01 ladder for trader {} generated. Trades: {}, recomputed: {}", traderUserId,
+                ladder.getTradeCount(), ladder.getRecomputedTradeCount());
+        return ResponseEntity.ok(ladder);
+    }
+
     @GetMapping("/daily-summary")
     public ResponseEntity<DailySummaryDTO> getDailySummary() {
         Long traderUserId = getCurrentTraderUserId();
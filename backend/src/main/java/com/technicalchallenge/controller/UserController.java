@@ -1,6 +1,8 @@
 package com.technicalchallenge.controller;
 
 import com.technicalchallenge.dto.UserDTO;
+import com.technicalchallenge.lookup.LookupService;
+import com.technicalchallenge.lookup.LookupType;
 import com.technicalchallenge.mapper.ApplicationUserMapper;
 import com.technicalchallenge.model.ApplicationUser;
 import com.technicalchallenge.model.TradeType;
@@ -38,6 +40,9 @@ public class UserController {
     @Autowired
     private ApplicationUserMapper applicationUserMapper;
 
+    @Autowired
+    private LookupService lookupService;
+
     @GetMapping
     @Operation(summary = "Get all users",
                description = "Retrieves a list of all users in the system with their profile information and privileges")
@@ -68,9 +73,8 @@ public class UserController {
             @Parameter(description = "Unique login identifier of the user", required = true)
             @PathVariable("loginId") String loginId) {
         logger.debug("Fetching user by loginId: {}", loginId);
-        Optional<ApplicationUser> user = applicationUserService.getAllUsers().stream()
-                .filter(u -> u.getLoginId().equals(loginId))
-                .findFirst();
+        Optional<ApplicationUser> user = lookupService.findExactId(LookupType.USER, loginId)
+                .flatMap(applicationUserService::getUserById);
 
         return user.map(applicationUserMapper::toDto)
                 .map(ResponseEntity::ok)
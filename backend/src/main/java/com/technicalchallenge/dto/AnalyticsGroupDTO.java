@@ -0,0 +1,23 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsGroupDTO {
+    // Name of the group's book, counterparty, trader login, status etc.; null when not grouped or not set
+    private String key;
+    private long tradeCount;
+    private long legCount;
+    // Sum of absolute leg notionals
+    private BigDecimal notional;
+    // Notional-weighted average rate of the legs that have one
+    private Double averageRate;
+}
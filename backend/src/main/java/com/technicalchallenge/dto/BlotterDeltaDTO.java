@@ -0,0 +1,42 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * One row-level change pushed to a live blotter, keyed by the business trade ID.
+ * INSERT and UPDATE carry the full header row; REMOVE only carries the key.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlotterDeltaDTO {
+
+    public enum Operation { INSERT, UPDATE, REMOVE }
+
+    private Operation op;
+    private Long tradeId;
+    private Integer version;
+
+    // Header fields that changed since the last row the client received (UPDATE only)
+    private Set<String> changedFields;
+
+    private Long bookId;
+    private String bookName;
+    private String counterpartyName;
+    private Long traderUserId;
+    private String traderUserName;
+    private String tradeStatus;
+    private String tradeType;
+    private LocalDate tradeDate;
+    private LocalDate tradeStartDate;
+    private LocalDate tradeMaturityDate;
+    private LocalDateTime lastTouchTimestamp;
+}
@@ -0,0 +1,20 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookDv01DTO {
+    private Long bookId;
+    // DV01 per pillar, in the order of the enclosing ladder's pillars
+    private List<BigDecimal> dv01;
+    private BigDecimal total;
+}
@@ -0,0 +1,23 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CashLadderEntryDTO {
+    private LocalDate valueDate;
+    private String currency;
+    // Amounts paid and received on the day, both positive
+    private BigDecimal pay;
+    private BigDecimal receive;
+    // Receive less pay
+    private BigDecimal net;
+}
@@ -0,0 +1,20 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrencyPositionDTO {
+    private String currency;
+    // Net notional per maturity bucket: receive fixed is positive, pay fixed negative
+    private List<BigDecimal> notionals;
+    private BigDecimal total;
+}
@@ -0,0 +1,32 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Dv01LadderDTO {
+    private Long traderUserId;
+    // Reporting currency of every DV01 figure
+    private String currency;
+    private LocalDate curveDate;
+    // Pillar labels such as "USD 5Y", in the same order as each ladder's values
+    private List<String> pillars;
+    // Change in present value for a one basis point rise in each pillar's zero rate
+    private List<BigDecimal> dv01;
+    private BigDecimal total;
+    private List<BookDv01DTO> books;
+    private int tradeCount;
+    // Trades whose ladder was recomputed for this request, because they changed or are new
+    private int recomputedTradeCount;
+    // Trades left out for want of a curve or FX rate
+    private int unvaluedTradeCount;
+}
@@ -0,0 +1,24 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportRunDTO {
+    // Null when the export holds the active trade rows rather than the versions valid at a time
+    private LocalDateTime asOf;
+    // Trades, legs and cashflows files written by the run
+    private List<String> files;
+    private long tradeCount;
+    private long legCount;
+    private long cashflowCount;
+    private long elapsedMillis;
+}
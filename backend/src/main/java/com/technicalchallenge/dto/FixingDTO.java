@@ -0,0 +1,19 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FixingDTO {
+    private String index;
+    private LocalDate fixingDate;
+    // Decimal rate (0.0525 for 5.25%)
+    private double rate;
+}
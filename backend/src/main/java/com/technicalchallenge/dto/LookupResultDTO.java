@@ -0,0 +1,18 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LookupResultDTO {
+    private Long id;
+    // Counterparty, book or cost center name, or user login ID
+    private String name;
+    // User's full name, or a book's cost center
+    private String description;
+}
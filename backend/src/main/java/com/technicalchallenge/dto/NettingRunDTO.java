@@ -0,0 +1,23 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NettingRunDTO {
+    private LocalDate valueDate;
+    // Netted payments file written by the run
+    private String file;
+    private long cashflowCount;
+    // Cashflows left out for having no amount or no pay/receive direction
+    private long skippedCashflowCount;
+    private int nettedPaymentCount;
+    private long elapsedMillis;
+}
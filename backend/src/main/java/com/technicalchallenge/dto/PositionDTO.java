@@ -0,0 +1,26 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionDTO {
+    // BOOK, COST_CENTER, SUB_DESK or DESK
+    private String level;
+    private Long id;
+    private String name;
+    // Business date the maturity buckets are measured from
+    private LocalDate asOfDate;
+    // Bucket labels, in the same order as each currency's notionals
+    private List<String> buckets;
+    private List<Long> bookIds;
+    private List<CurrencyPositionDTO> positions;
+}
@@ -0,0 +1,36 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Every picklist the booking screen needs, in one payload.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReferenceDataBundleDTO {
+    // Reference data change count the bundle was built at
+    private long version;
+    private List<String> currencies;
+    private List<String> legTypes;
+    private List<String> tradeTypes;
+    private List<String> tradeStatuses;
+    private List<String> indices;
+    private List<String> holidayCalendars;
+    private List<String> schedules;
+    private List<String> businessDayConventions;
+    private List<String> payRecs;
+    private List<String> counterparties;
+    private List<String> books;
+    private List<String> desks;
+    private List<String> subDesks;
+    private List<String> costCenters;
+    private List<String> users;
+    private List<String> tradeSubTypes;
+}
@@ -0,0 +1,23 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of the trade change feed. Pass {@code nextCursor} as {@code since} on the next call;
+ * when {@code hasMore} is false the consumer has caught up.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeChangeBatchDTO {
+    // Changed trade rows (headers only) in change sequence order
+    private List<TradeDTO> changes;
+    private Long nextCursor;
+    private boolean hasMore;
+}
@@ -40,6 +40,7 @@ public class TradeDTO {
     private Boolean active;
     private LocalDateTime createdDate;
     private LocalDateTime deactivatedDate;
+    private Long changeSequence;
 
     // Book reference
     private Long bookId;
@@ -0,0 +1,26 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class VarDTO {
+    // BOOK, DESK or TRADER
+    private String level;
+    private Long id;
+    // One-day historical-simulation VaR, as a positive loss in the reporting currency
+    private BigDecimal valueAtRisk;
+    private String currency;
+    private double confidence;
+    private int scenarioCount;
+    private int tradeCount;
+    // Trades left out for want of a curve or FX rate
+    private int unvaluedTradeCount;
+}
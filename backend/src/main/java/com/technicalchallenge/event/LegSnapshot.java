@@ -0,0 +1,54 @@
+package com.technicalchallenge.event;
+
+import com.technicalchallenge.model.TradeLeg;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Detached copy of the leg fields that downstream consumers need,
+ * taken while the persistence context is still open.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LegSnapshot {
+    private Long legId;
+    private BigDecimal notional;
+    private Double rate;
+    private String currency;
+    private String legType;
+    private String index;
+    private String payRec;
+    private String schedule;
+
+    public static LegSnapshot of(TradeLeg leg) {
+        LegSnapshot snapshot = new LegSnapshot();
+        snapshot.setLegId(leg.getLegId());
+        snapshot.setNotional(leg.getNotional());
+        snapshot.setRate(leg.getRate());
+        snapshot.setCurrency(leg.getCurrency() != null ? leg.getCurrency().getCurrency() : null);
+        snapshot.setLegType(leg.getLegRateType() != null ? leg.getLegRateType().getType() : null);
+        snapshot.setIndex(leg.getIndex() != null ? leg.getIndex().getIndex() : null);
+        snapshot.setPayRec(leg.getPayReceiveFlag() != null ? leg.getPayReceiveFlag().getPayRec() : null);
+        snapshot.setSchedule(leg.getCalculationPeriodSchedule() != null ? leg.getCalculationPeriodSchedule().getSchedule() : null);
+        return snapshot;
+    }
+
+    // Value equality, used to detect whether the legs changed between two trade versions.
+    public boolean sameAs(LegSnapshot other) {
+        return other != null
+                && (notional == null ? other.notional == null : other.notional != null && notional.compareTo(other.notional) == 0)
+                && Objects.equals(rate, other.rate)
+                && Objects.equals(currency, other.currency)
+                && Objects.equals(legType, other.legType)
+                && Objects.equals(index, other.index)
+                && Objects.equals(payRec, other.payRec)
+                && Objects.equals(schedule, other.schedule);
+    }
+}
@@ -0,0 +1,10 @@
+package com.technicalchallenge.event;
+
+// Lifecycle changes published by TradeService once a trade write has been made.
+public enum TradeEventType {
+    CREATED,
+    AMENDED,
+    TERMINATED,
+    CANCELLED,
+    SETTLEMENT_INSTRUCTIONS_UPDATED
+}
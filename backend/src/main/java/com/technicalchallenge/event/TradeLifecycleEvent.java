@@ -0,0 +1,26 @@
+package com.technicalchallenge.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by TradeService for every create, amend, terminate, cancel and
+ * settlement instruction update. Listeners should use
+ * {@code @TransactionalEventListener} so they only observe committed changes.
+ */
+@Getter
+@AllArgsConstructor
+public class TradeLifecycleEvent {
+    private final TradeEventType type;
+
+    // State before the change; null for CREATED.
+    private final TradeSnapshot previous;
+
+    // State after the change.
+    private final TradeSnapshot current;
+
+    private final String userId;
+    private final LocalDateTime occurredAt;
+}
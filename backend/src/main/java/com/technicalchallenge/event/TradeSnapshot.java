@@ -0,0 +1,84 @@
+package com.technicalchallenge.event;
+
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeLeg;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached copy of a trade version's header and legs. Lifecycle listeners run after the
+ * transaction has committed, when lazy associations can no longer be loaded, so everything
+ * they need is copied here first. Treat instances as read-only once published.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeSnapshot {
+    private Long id;
+    private Long tradeId;
+    private Integer version;
+    private Long bookId;
+    private String bookName;
+    private Long counterpartyId;
+    private String counterpartyName;
+    private Long traderUserId;
+    private String traderUserName;
+    private String tradeStatus;
+    private String tradeType;
+    private LocalDate tradeDate;
+    private LocalDate tradeStartDate;
+    private LocalDate tradeMaturityDate;
+    private LocalDateTime lastTouchTimestamp;
+    private List<LegSnapshot> legs = new ArrayList<>();
+
+    public static TradeSnapshot of(Trade trade, List<TradeLeg> legs) {
+        TradeSnapshot snapshot = new TradeSnapshot();
+        snapshot.setId(trade.getId());
+        snapshot.setTradeId(trade.getTradeId());
+        snapshot.setVersion(trade.getVersion());
+        if (trade.getBook() != null) {
+            snapshot.setBookId(trade.getBook().getId());
+            snapshot.setBookName(trade.getBook().getBookName());
+        }
+        if (trade.getCounterparty() != null) {
+            snapshot.setCounterpartyId(trade.getCounterparty().getId());
+            snapshot.setCounterpartyName(trade.getCounterparty().getName());
+        }
+        if (trade.getTraderUser() != null) {
+            snapshot.setTraderUserId(trade.getTraderUser().getId());
+            snapshot.setTraderUserName(trade.getTraderUser().getLoginId());
+        }
+        snapshot.setTradeStatus(trade.getTradeStatus() != null ? trade.getTradeStatus().getTradeStatus() : null);
+        snapshot.setTradeType(trade.getTradeType() != null ? trade.getTradeType().getTradeType() : null);
+        snapshot.setTradeDate(trade.getTradeDate());
+        snapshot.setTradeStartDate(trade.getTradeStartDate());
+        snapshot.setTradeMaturityDate(trade.getTradeMaturityDate());
+        snapshot.setLastTouchTimestamp(trade.getLastTouchTimestamp());
+        if (legs != null) {
+            for (TradeLeg leg : legs) {
+                snapshot.getLegs().add(LegSnapshot.of(leg));
+            }
+        }
+        return snapshot;
+    }
+
+    // Snapshot of a trade using the legs already attached to the entity.
+    public static TradeSnapshot of(Trade trade) {
+        return of(trade, trade.getTradeLegs());
+    }
+
+    // Shallow copy; the leg list is copied, the leg snapshots themselves are shared.
+    public TradeSnapshot copy() {
+        return new TradeSnapshot(id, tradeId, version, bookId, bookName, counterpartyId, counterpartyName,
+                traderUserId, traderUserName, tradeStatus, tradeType, tradeDate, tradeStartDate, tradeMaturityDate,
+                lastTouchTimestamp, legs != null ? new ArrayList<>(legs) : new ArrayList<>());
+    }
+}
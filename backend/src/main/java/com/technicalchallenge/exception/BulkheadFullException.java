@@ -0,0 +1,19 @@
+package com.technicalchallenge.exception;
+
+/**
+ * Thrown when a workload bulkhead cannot admit more work within its wait budget.
+ * Mapped to 503 Service Unavailable with a Retry-After hint.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final String bulkhead;
+
+    public BulkheadFullException(String bulkhead, String message) {
+        super(message);
+        this.bulkhead = bulkhead;
+    }
+
+    public String getBulkhead() {
+        return bulkhead;
+    }
+}
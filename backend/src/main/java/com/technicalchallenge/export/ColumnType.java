@@ -0,0 +1,47 @@
+package com.technicalchallenge.export;
+
+/**
+ * Physical types of a columnar export file. Every value is little-endian and fixed width, so a
+ * column block can be read straight out of a memory-mapped file as an int or long array.
+ */
+public enum ColumnType {
+    // Signed 32-bit integer, Integer.MIN_VALUE for null
+    INT32(1, 4),
+    // Signed 64-bit integer, Long.MIN_VALUE for null
+    INT64(2, 8),
+    // IEEE 754 double, NaN for null
+    FLOAT64(3, 8),
+    // Days since 1970-01-01 as INT32, Integer.MIN_VALUE for null
+    DATE(4, 4),
+    // Microseconds since 1970-01-01T00:00 as INT64, no zone, Long.MIN_VALUE for null
+    TIMESTAMP(5, 8),
+    // Amount in minor units (two decimal places) as INT64, Long.MIN_VALUE for null
+    DECIMAL(6, 8),
+    // INT32 code into the column's dictionary in the footer, -1 for null
+    DICTIONARY(7, 4);
+
+    private final int id;
+    private final int width;
+
+    ColumnType(int id, int width) {
+        this.id = id;
+        this.width = width;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    static ColumnType ofId(int id) {
+        for (ColumnType type : values()) {
+            if (type.id == id) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column type " + id);
+    }
+}
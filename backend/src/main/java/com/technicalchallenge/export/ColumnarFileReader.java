@@ -0,0 +1,166 @@
+package com.technicalchallenge.export;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Memory-maps a file written by {@link ColumnarFileWriter} and reads values in place; only the
+ * footer (schema, dictionaries and row group offsets) is decoded up front.
+ */
+public final class ColumnarFileReader {
+
+    private final MappedByteBuffer data;
+    private final String[] names;
+    private final ColumnType[] types;
+    private final String[][] dictionaries;
+    // First row of each row group, plus the total row count
+    private final long[] rowGroupStarts;
+    private final long[][] rowGroupOffsets;
+
+    private ColumnarFileReader(MappedByteBuffer data) {
+        this.data = data;
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        int end = data.capacity();
+        byte[] magic = new byte[ColumnarFileWriter.MAGIC.length];
+        data.get(end - magic.length, magic);
+        if (!Arrays.equals(magic, ColumnarFileWriter.MAGIC) || data.getInt(magic.length) != ColumnarFileWriter.FORMAT_VERSION) {
+            throw new IllegalArgumentException("Not a columnar export file of version " + ColumnarFileWriter.FORMAT_VERSION);
+        }
+        int position = Math.toIntExact(data.getLong(end - magic.length - Long.BYTES));
+
+        int columns = data.getInt(position);
+        position += Integer.BYTES;
+        names = new String[columns];
+        types = new ColumnType[columns];
+        for (int c = 0; c < columns; c++) {
+            int length = data.getInt(position);
+            names[c] = string(position + Integer.BYTES, length);
+            position += Integer.BYTES + length;
+            types[c] = ColumnType.ofId(data.getInt(position));
+            position += Integer.BYTES;
+        }
+        dictionaries = new String[columns][];
+        for (int c = 0; c < columns; c++) {
+            dictionaries[c] = new String[data.getInt(position)];
+            position += Integer.BYTES;
+            for (int i = 0; i < dictionaries[c].length; i++) {
+                int length = data.getInt(position);
+                dictionaries[c][i] = string(position + Integer.BYTES, length);
+                position += Integer.BYTES + length;
+            }
+        }
+        int rowGroups = data.getInt(position);
+        position += Integer.BYTES;
+        rowGroupStarts = new long[rowGroups + 1];
+        rowGroupOffsets = new long[rowGroups][columns];
+        for (int g = 0; g < rowGroups; g++) {
+            rowGroupStarts[g + 1] = rowGroupStarts[g] + data.getInt(position);
+            position += Integer.BYTES;
+            for (int c = 0; c < columns; c++) {
+                rowGroupOffsets[g][c] = data.getLong(position);
+                position += Long.BYTES;
+            }
+        }
+    }
+
+    /**
+     * Maps {@code file} read-only. Files are limited to 2 GB, the most one mapping can cover.
+     */
+    public static ColumnarFileReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ColumnarFileReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public long getRowCount() {
+        return rowGroupStarts[rowGroupStarts.length - 1];
+    }
+
+    public List<String> getColumnNames() {
+        return List.of(names);
+    }
+
+    public ColumnType getType(int column) {
+        return types[column];
+    }
+
+    public int columnIndex(String name) {
+        for (int c = 0; c < names.length; c++) {
+            if (names[c].equals(name)) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException("No column " + name);
+    }
+
+    /**
+     * Distinct values of a dictionary column, indexed by code.
+     */
+    public List<String> getDictionary(int column) {
+        return List.of(dictionaries[column]);
+    }
+
+    public Integer getInt(int column, long row) {
+        int value = data.getInt(address(column, row));
+        return value == Integer.MIN_VALUE ? null : value;
+    }
+
+    public Long getLong(int column, long row) {
+        long value = data.getLong(address(column, row));
+        return value == Long.MIN_VALUE ? null : value;
+    }
+
+    public Double getDouble(int column, long row) {
+        double value = data.getDouble(address(column, row));
+        return Double.isNaN(value) ? null : value;
+    }
+
+    public LocalDate getDate(int column, long row) {
+        int day = data.getInt(address(column, row));
+        return day == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    public LocalDateTime getTimestamp(int column, long row) {
+        long micros = data.getLong(address(column, row));
+        return micros == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    public BigDecimal getDecimal(int column, long row) {
+        long minorUnits = data.getLong(address(column, row));
+        return minorUnits == Long.MIN_VALUE ? null : BigDecimal.valueOf(minorUnits, 2);
+    }
+
+    public String getString(int column, long row) {
+        int code = data.getInt(address(column, row));
+        return code < 0 ? null : dictionaries[column][code];
+    }
+
+    private int address(int column, long row) {
+        if (row < 0 || row >= getRowCount()) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + getRowCount());
+        }
+        int group = Arrays.binarySearch(rowGroupStarts, row);
+        // An exact hit is the first row of that group; otherwise the insertion point follows it
+        group = group >= 0 ? group : -group - 2;
+        long offset = rowGroupOffsets[group][column] + (row - rowGroupStarts[group]) * types[column].getWidth();
+        return Math.toIntExact(offset);
+    }
+
+    private String string(int position, int length) {
+        byte[] utf8 = new byte[length];
+        data.get(position, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
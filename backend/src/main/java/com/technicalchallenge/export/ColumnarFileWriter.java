@@ -0,0 +1,283 @@
+package com.technicalchallenge.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams rows into a columnar file, holding at most one row group in memory.
+ *
+ * File layout, all little-endian:
+ * <pre>
+ * "TCOL" int32 formatVersion
+ * row group*   one block per column of rowCount values of the column's width, padded to 8 bytes
+ * footer       int32 columnCount, per column (string name, int32 typeId),
+ *              per column int32 dictionarySize then that many strings,
+ *              int32 rowGroupCount, per row group (int32 rowCount, int64 offset per column)
+ * int64 footerOffset "TCOL"
+ * </pre>
+ * Strings are int32 byte length then UTF-8. Reference names use {@link ColumnType#DICTIONARY},
+ * so each distinct name is written once in the footer and the rows hold int codes.
+ */
+public final class ColumnarFileWriter implements Closeable {
+
+    static final byte[] MAGIC = "TCOL".getBytes(StandardCharsets.US_ASCII);
+    static final int FORMAT_VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int SCALE = 2;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final String[] names;
+    private final ColumnType[] types;
+    private final int rowGroupSize;
+
+    // Current row group, [column][row]; 4-byte types use the low half
+    private final long[][] values;
+    private final List<Map<String, Integer>> dictionaryCodes = new ArrayList<>();
+    private final List<List<String>> dictionaries = new ArrayList<>();
+    private final List<Integer> rowGroupCounts = new ArrayList<>();
+    private final List<long[]> rowGroupOffsets = new ArrayList<>();
+
+    private long position;
+    private int rows;
+    private long rowCount;
+
+    public ColumnarFileWriter(Path file, int rowGroupSize, List<String> names, List<ColumnType> types) throws IOException {
+        if (names.size() != types.size()) {
+            throw new IllegalArgumentException("Every column needs a name and a type");
+        }
+        if (rowGroupSize < 1) {
+            throw new IllegalArgumentException("Row group size must be at least 1");
+        }
+        this.names = names.toArray(new String[0]);
+        this.types = types.toArray(new ColumnType[0]);
+        this.rowGroupSize = rowGroupSize;
+        this.values = new long[this.names.length][rowGroupSize];
+        for (int c = 0; c < this.names.length; c++) {
+            dictionaryCodes.add(new HashMap<>());
+            dictionaries.add(new ArrayList<>());
+        }
+        clearRow();
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        bytes(MAGIC);
+        putInt(FORMAT_VERSION);
+    }
+
+    public ColumnarFileWriter int32(int column, Integer value) {
+        check(column, ColumnType.INT32);
+        values[column][rows] = value != null ? value : Integer.MIN_VALUE;
+        return this;
+    }
+
+    public ColumnarFileWriter int64(int column, Long value) {
+        check(column, ColumnType.INT64);
+        values[column][rows] = value != null ? value : Long.MIN_VALUE;
+        return this;
+    }
+
+    public ColumnarFileWriter float64(int column, Double value) {
+        check(column, ColumnType.FLOAT64);
+        values[column][rows] = Double.doubleToRawLongBits(value != null ? value : Double.NaN);
+        return this;
+    }
+
+    public ColumnarFileWriter date(int column, LocalDate value) {
+        check(column, ColumnType.DATE);
+        values[column][rows] = value != null ? Math.toIntExact(value.toEpochDay()) : Integer.MIN_VALUE;
+        return this;
+    }
+
+    public ColumnarFileWriter timestamp(int column, LocalDateTime value) {
+        check(column, ColumnType.TIMESTAMP);
+        values[column][rows] = value != null
+                ? value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000
+                : Long.MIN_VALUE;
+        return this;
+    }
+
+    public ColumnarFileWriter decimal(int column, BigDecimal value) {
+        check(column, ColumnType.DECIMAL);
+        values[column][rows] = value != null
+                ? value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact()
+                : Long.MIN_VALUE;
+        return this;
+    }
+
+    public ColumnarFileWriter string(int column, String value) {
+        check(column, ColumnType.DICTIONARY);
+        int code = -1;
+        if (value != null) {
+            List<String> dictionary = dictionaries.get(column);
+            code = dictionaryCodes.get(column).computeIfAbsent(value, v -> {
+                dictionary.add(v);
+                return dictionary.size() - 1;
+            });
+        }
+        values[column][rows] = code;
+        return this;
+    }
+
+    /**
+     * Completes the current row; columns not set in it are written as null.
+     */
+    public void endRow() throws IOException {
+        rows++;
+        rowCount++;
+        if (rows == rowGroupSize) {
+            flushRowGroup();
+        }
+        clearRow();
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rows > 0) {
+                flushRowGroup();
+            }
+            long footerOffset = position;
+            putInt(names.length);
+            for (int c = 0; c < names.length; c++) {
+                putString(names[c]);
+                putInt(types[c].getId());
+            }
+            for (List<String> dictionary : dictionaries) {
+                putInt(dictionary.size());
+                for (String value : dictionary) {
+                    putString(value);
+                }
+            }
+            putInt(rowGroupCounts.size());
+            for (int g = 0; g < rowGroupCounts.size(); g++) {
+                putInt(rowGroupCounts.get(g));
+                for (long offset : rowGroupOffsets.get(g)) {
+                    putLong(offset);
+                }
+            }
+            putLong(footerOffset);
+            bytes(MAGIC);
+            flush();
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flushRowGroup() throws IOException {
+        long[] offsets = new long[names.length];
+        for (int c = 0; c < names.length; c++) {
+            offsets[c] = position;
+            long[] column = values[c];
+            if (types[c].getWidth() == 8) {
+                for (int r = 0; r < rows; r++) {
+                    putLong(column[r]);
+                }
+            } else {
+                for (int r = 0; r < rows; r++) {
+                    putInt((int) column[r]);
+                }
+                // Keep every block 8-byte aligned for the reader's long views
+                if ((rows & 1) != 0) {
+                    putInt(0);
+                }
+            }
+        }
+        rowGroupCounts.add(rows);
+        rowGroupOffsets.add(offsets);
+        rows = 0;
+    }
+
+    private void clearRow() {
+        for (int c = 0; c < types.length; c++) {
+            values[c][rows] = nullValue(types[c]);
+        }
+    }
+
+    private void check(int column, ColumnType type) {
+        if (types[column] != type) {
+            throw new IllegalArgumentException("Column " + names[column] + " is " + types[column] + ", not " + type);
+        }
+    }
+
+    private static long nullValue(ColumnType type) {
+        switch (type) {
+            case INT32:
+            case DATE:
+                return Integer.MIN_VALUE;
+            case FLOAT64:
+                return Double.doubleToRawLongBits(Double.NaN);
+            case DICTIONARY:
+                return -1;
+            default:
+                return Long.MIN_VALUE;
+        }
+    }
+
+    private void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+        position += Integer.BYTES;
+    }
+
+    private void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+        position += Long.BYTES;
+    }
+
+    private void putString(String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        putInt(utf8.length);
+        bytes(utf8);
+    }
+
+    private void bytes(byte[] value) throws IOException {
+        position += value.length;
+        if (value.length > buffer.remaining()) {
+            flush();
+            if (value.length > buffer.capacity()) {
+                ByteBuffer large = ByteBuffer.wrap(value);
+                while (large.hasRemaining()) {
+                    channel.write(large);
+                }
+                return;
+            }
+        }
+        buffer.put(value);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,158 @@
+package com.technicalchallenge.export;
+
+import com.technicalchallenge.dto.ExportRunDTO;
+import com.technicalchallenge.repository.CashflowRepository;
+import com.technicalchallenge.repository.TradeLegRepository;
+import com.technicalchallenge.repository.TradeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Batch export of trades, legs and cashflows to columnar files for offline analytics.
+ *
+ * Each table is streamed through its repository as scalar rows, so no entities are loaded, and
+ * written with {@link ColumnarFileWriter}, which holds one row group at a time. Files go to
+ * {@code <table>-<label>.tcol} in the export directory, where the label is {@code active} or the
+ * as-of time, and are moved into place only once complete.
+ */
+@Service
+public class TradeExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeExportService.class);
+
+    private static final DateTimeFormatter AS_OF_LABEL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    static final List<String> TRADE_COLUMNS = List.of("id", "tradeId", "version", "book", "counterparty", "trader",
+            "tradeStatus", "tradeType", "tradeSubType", "tradeDate", "tradeStartDate", "tradeMaturityDate",
+            "tradeExecutionDate", "createdDate", "deactivatedDate");
+    static final List<ColumnType> TRADE_TYPES = List.of(ColumnType.INT64, ColumnType.INT64, ColumnType.INT32,
+            ColumnType.DICTIONARY, ColumnType.DICTIONARY, ColumnType.DICTIONARY, ColumnType.DICTIONARY,
+            ColumnType.DICTIONARY, ColumnType.DICTIONARY, ColumnType.DATE, ColumnType.DATE, ColumnType.DATE,
+            ColumnType.DATE, ColumnType.TIMESTAMP, ColumnType.TIMESTAMP);
+
+    static final List<String> LEG_COLUMNS = List.of("legId", "tradeRowId", "tradeId", "notional", "rate", "currency",
+            "legType", "index", "payRec");
+    static final List<ColumnType> LEG_TYPES = List.of(ColumnType.INT64, ColumnType.INT64, ColumnType.INT64,
+            ColumnType.DECIMAL, ColumnType.FLOAT64, ColumnType.DICTIONARY, ColumnType.DICTIONARY,
+            ColumnType.DICTIONARY, ColumnType.DICTIONARY);
+
+    static final List<String> CASHFLOW_COLUMNS = List.of("id", "legId", "tradeRowId", "tradeId", "valueDate",
+            "paymentValue", "rate", "payRec", "paymentType");
+    static final List<ColumnType> CASHFLOW_TYPES = List.of(ColumnType.INT64, ColumnType.INT64, ColumnType.INT64,
+            ColumnType.INT64, ColumnType.DATE, ColumnType.DECIMAL, ColumnType.FLOAT64, ColumnType.DICTIONARY,
+            ColumnType.DICTIONARY);
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeLegRepository tradeLegRepository;
+
+    @Autowired
+    private CashflowRepository cashflowRepository;
+
+    @Value("${trades.export.directory:./data/export}")
+    private String directory = "./data/export";
+
+    @Value("${trades.export.row-group-size:65536}")
+    private int rowGroupSize = 65536;
+
+    /**
+     * Exports the active trade rows with their active legs and cashflows, or when {@code asOf} is
+     * given the trade versions valid at that time with their legs and cashflows.
+     */
+    @Transactional(readOnly = true)
+    public ExportRunDTO export(LocalDateTime asOf) {
+        long start = System.nanoTime();
+        boolean activeOnly = asOf == null;
+        String label = activeOnly ? "active" : AS_OF_LABEL.format(asOf);
+        Path target = Paths.get(directory);
+
+        Path trades = target.resolve("trades-" + label + ".tcol");
+        Path legs = target.resolve("legs-" + label + ".tcol");
+        Path cashflows = target.resolve("cashflows-" + label + ".tcol");
+        long tradeCount;
+        long legCount;
+        long cashflowCount;
+        try {
+            Files.createDirectories(target);
+            try (Stream<Object[]> rows = tradeRepository.streamTradeExportRows(activeOnly, asOf)) {
+                tradeCount = write(trades, TRADE_COLUMNS, TRADE_TYPES, rows, TradeExportService::writeTrade);
+            }
+            try (Stream<Object[]> rows = tradeLegRepository.streamLegExportRows(activeOnly, asOf)) {
+                legCount = write(legs, LEG_COLUMNS, LEG_TYPES, rows, TradeExportService::writeLeg);
+            }
+            try (Stream<Object[]> rows = cashflowRepository.streamCashflowExportRows(activeOnly, asOf)) {
+                cashflowCount = write(cashflows, CASHFLOW_COLUMNS, CASHFLOW_TYPES, rows, TradeExportService::writeCashflow);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write trade export to " + target, e);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Exported {} trades, {} legs and {} cashflows ({}) in {} ms to {}",
+                tradeCount, legCount, cashflowCount, label, elapsedMillis, target.toAbsolutePath());
+        List<String> files = List.of(trades.toAbsolutePath().toString(), legs.toAbsolutePath().toString(),
+                cashflows.toAbsolutePath().toString());
+        return new ExportRunDTO(asOf, files, tradeCount, legCount, cashflowCount, elapsedMillis);
+    }
+
+    private long write(Path file, List<String> columns, List<ColumnType> types, Stream<Object[]> rows,
+                       RowWriter rowWriter) throws IOException {
+        // Readers may have the previous export mapped, so it is only replaced once this one is complete
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        long count;
+        try (ColumnarFileWriter out = new ColumnarFileWriter(partial, rowGroupSize, columns, types)) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                rowWriter.write(out, row);
+                out.endRow();
+            }
+            count = out.getRowCount();
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    static void writeTrade(ColumnarFileWriter out, Object[] row) {
+        out.int64(0, (Long) row[0]).int64(1, (Long) row[1]).int32(2, (Integer) row[2])
+                .string(3, (String) row[3]).string(4, (String) row[4]).string(5, (String) row[5])
+                .string(6, (String) row[6]).string(7, (String) row[7]).string(8, (String) row[8])
+                .date(9, (LocalDate) row[9]).date(10, (LocalDate) row[10]).date(11, (LocalDate) row[11])
+                .date(12, (LocalDate) row[12])
+                .timestamp(13, (LocalDateTime) row[13]).timestamp(14, (LocalDateTime) row[14]);
+    }
+
+    static void writeLeg(ColumnarFileWriter out, Object[] row) {
+        out.int64(0, (Long) row[0]).int64(1, (Long) row[1]).int64(2, (Long) row[2])
+                .decimal(3, (BigDecimal) row[3]).float64(4, (Double) row[4])
+                .string(5, (String) row[5]).string(6, (String) row[6]).string(7, (String) row[7])
+                .string(8, (String) row[8]);
+    }
+
+    static void writeCashflow(ColumnarFileWriter out, Object[] row) {
+        out.int64(0, (Long) row[0]).int64(1, (Long) row[1]).int64(2, (Long) row[2]).int64(3, (Long) row[3])
+                .date(4, (LocalDate) row[4]).decimal(5, (BigDecimal) row[5]).float64(6, (Double) row[6])
+                .string(7, (String) row[7]).string(8, (String) row[8]);
+    }
+
+    @FunctionalInterface
+    interface RowWriter {
+        void write(ColumnarFileWriter out, Object[] row);
+    }
+}
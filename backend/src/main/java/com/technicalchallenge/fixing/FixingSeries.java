@@ -0,0 +1,125 @@
+package com.technicalchallenge.fixing;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Published fixings of one index as parallel primitive arrays of epoch days and rates, sorted
+ * by date and looked up by binary search.
+ *
+ * A series is an immutable snapshot of the first {@code size} entries. Appending writes the
+ * next slot of the shared arrays, which no existing snapshot reads, and returns a new snapshot
+ * one entry longer, copying only when the arrays are full. Readers therefore never lock or
+ * copy, but appends must be serialised and always made to the latest snapshot.
+ */
+public final class FixingSeries {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final String index;
+    private final int[] epochDays;
+    // Decimal rates (0.0525 for 5.25%)
+    private final double[] rates;
+    private final int size;
+
+    private FixingSeries(String index, int[] epochDays, double[] rates, int size) {
+        this.index = index;
+        this.epochDays = epochDays;
+        this.rates = rates;
+        this.size = size;
+    }
+
+    public static FixingSeries empty(String index) {
+        return new FixingSeries(index, new int[INITIAL_CAPACITY], new double[INITIAL_CAPACITY], 0);
+    }
+
+    /**
+     * A series over arrays already sorted by strictly increasing epoch day; the arrays are
+     * taken over, not copied.
+     */
+    static FixingSeries of(String index, int[] epochDays, double[] rates, int size) {
+        for (int i = 1; i < size; i++) {
+            if (epochDays[i] <= epochDays[i - 1]) {
+                throw new IllegalArgumentException("Fixings for " + index + " must be in strictly increasing date order");
+            }
+        }
+        return new FixingSeries(index, epochDays, rates, size);
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public LocalDate date(int i) {
+        return LocalDate.ofEpochDay(epochDays[i]);
+    }
+
+    public double rate(int i) {
+        return rates[i];
+    }
+
+    public LocalDate lastDate() {
+        return size == 0 ? null : LocalDate.ofEpochDay(epochDays[size - 1]);
+    }
+
+    /**
+     * Position of the last fixing on or before {@code epochDay}, or -1 if there is none.
+     */
+    public int indexOnOrBefore(long epochDay) {
+        int i = Arrays.binarySearch(epochDays, 0, size, (int) epochDay);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /**
+     * Rate that applies to a period fixing on {@code date}: the fixing published that day or,
+     * over weekends and holidays, the last one before it. NaN if the date is before the first
+     * fixing or after the last, as a future rate is not known yet.
+     */
+    public double rateOn(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (size == 0 || epochDay > epochDays[size - 1]) {
+            return Double.NaN;
+        }
+        int i = indexOnOrBefore(epochDay);
+        return i >= 0 ? rates[i] : Double.NaN;
+    }
+
+    /**
+     * Resolves the epoch days {@code days[from, to)} into {@code out} as {@link #rateOn} would.
+     */
+    public void ratesOn(long[] days, double[] out, int from, int to) {
+        long last = size == 0 ? Long.MIN_VALUE : epochDays[size - 1];
+        for (int k = from; k < to; k++) {
+            if (days[k] > last) {
+                out[k] = Double.NaN;
+                continue;
+            }
+            int i = indexOnOrBefore(days[k]);
+            out[k] = i >= 0 ? rates[i] : Double.NaN;
+        }
+    }
+
+    /**
+     * This series with one more fixing, which must be later than the last.
+     */
+    FixingSeries append(LocalDate date, double rate) {
+        int epochDay = (int) date.toEpochDay();
+        if (size > 0 && epochDay <= epochDays[size - 1]) {
+            throw new IllegalArgumentException("Fixing for " + index + " on " + date
+                    + " is not after the last fixing on " + lastDate());
+        }
+        int[] days = epochDays;
+        double[] values = rates;
+        if (size == days.length) {
+            days = Arrays.copyOf(days, Math.max(INITIAL_CAPACITY, size * 2));
+            values = Arrays.copyOf(values, days.length);
+        }
+        days[size] = epochDay;
+        values[size] = rate;
+        return new FixingSeries(index, days, values, size + 1);
+    }
+}
@@ -0,0 +1,175 @@
+package com.technicalchallenge.fixing;
+
+import com.technicalchallenge.dto.FixingDTO;
+import com.technicalchallenge.repository.IndexRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the published fixings of every index for floating legs, bulk loaded from a local CSV
+ * file and extended one day at a time. Each non-comment line is {@code index,date,rate}, e.g.
+ * {@code LIBOR,2025-06-02,0.0531}, with rates as decimals and each index's dates in order.
+ *
+ * Reads go to an immutable {@link FixingSet} published through a volatile field, so they never
+ * block; updates are serialised and publish a new set.
+ */
+@Service
+public class FixingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixingService.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private IndexRepository indexRepository;
+
+    @Value("${fixings.location:classpath:fixings/fixings.csv}")
+    private String location;
+
+    private volatile FixingSet fixings;
+
+    /**
+     * The current fixings, loaded on first use.
+     */
+    public FixingSet getFixings() {
+        FixingSet current = fixings;
+        if (current == null) {
+            synchronized (this) {
+                current = fixings;
+                if (current == null) {
+                    current = reload();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rate for a period of {@code index} fixing on {@code date}, or NaN if not known yet.
+     */
+    public double rateOn(String index, LocalDate date) {
+        return getFixings().rateOn(index, date);
+    }
+
+    /**
+     * Re-reads the fixing file and replaces every series, dropping fixings added since the
+     * last load that the file does not have.
+     */
+    public synchronized FixingSet reload() {
+        Resource resource = resourceLoader.getResource(location);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            FixingSet loaded = parse(reader);
+            fixings = loaded;
+            int count = loaded.getSeries().values().stream().mapToInt(FixingSeries::size).sum();
+            logger.info("Loaded {} fixings for {} indexes from {}", count, loaded.getSeries().size(), location);
+            return loaded;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read fixings from " + location, e);
+        }
+    }
+
+    /**
+     * Appends the day's fixing for an index. Fixings are append-only: resending the latest
+     * fixing unchanged is a no-op, anything else on or before it is rejected.
+     */
+    public synchronized FixingDTO addFixing(String index, LocalDate date, double rate) {
+        if (date == null || Double.isNaN(rate) || Double.isInfinite(rate)) {
+            throw new RuntimeException("Fixing date and rate are required");
+        }
+        if (indexRepository.findByIndex(index).isEmpty()) {
+            throw new RuntimeException("Index not found: " + index);
+        }
+        FixingSet current = getFixings();
+        FixingSeries series = current.series(index);
+        if (series == null) {
+            series = FixingSeries.empty(index);
+        }
+        if (series.size() > 0 && !date.isAfter(series.lastDate())) {
+            int existing = series.indexOnOrBefore(date.toEpochDay());
+            if (existing >= 0 && series.date(existing).equals(date) && series.rate(existing) == rate) {
+                return new FixingDTO(index, date, rate);
+            }
+            throw new RuntimeException("Fixings for " + index + " are append-only: " + date
+                    + " is not after the last fixing on " + series.lastDate());
+        }
+        fixings = current.with(series.append(date, rate));
+        logger.info("Added {} fixing for {}: {}", index, date, rate);
+        return new FixingDTO(index, date, rate);
+    }
+
+    /**
+     * Fixings of an index between two dates inclusive, either of which may be null.
+     */
+    public List<FixingDTO> findFixings(String index, LocalDate from, LocalDate to) {
+        FixingSeries series = getFixings().series(index);
+        List<FixingDTO> result = new ArrayList<>();
+        if (series == null) {
+            return result;
+        }
+        int start = from == null ? 0 : series.indexOnOrBefore(from.toEpochDay() - 1) + 1;
+        for (int i = start; i < series.size(); i++) {
+            LocalDate date = series.date(i);
+            if (to != null && date.isAfter(to)) {
+                break;
+            }
+            result.add(new FixingDTO(index, date, series.rate(i)));
+        }
+        return result;
+    }
+
+    static FixingSet parse(BufferedReader reader) throws IOException {
+        Map<String, int[]> days = new HashMap<>();
+        Map<String, double[]> rates = new HashMap<>();
+        Map<String, Integer> sizes = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length != 3) {
+                throw new RuntimeException("Invalid fixing line " + lineNumber + ": " + line);
+            }
+            String index = fields[0].trim();
+            int size = sizes.getOrDefault(index, 0);
+            int[] indexDays = days.computeIfAbsent(index, i -> new int[1024]);
+            double[] indexRates = rates.computeIfAbsent(index, i -> new double[1024]);
+            if (size == indexDays.length) {
+                indexDays = Arrays.copyOf(indexDays, size * 2);
+                indexRates = Arrays.copyOf(indexRates, size * 2);
+                days.put(index, indexDays);
+                rates.put(index, indexRates);
+            }
+            indexDays[size] = (int) LocalDate.parse(fields[1].trim()).toEpochDay();
+            indexRates[size] = Double.parseDouble(fields[2].trim());
+            sizes.put(index, size + 1);
+        }
+
+        Map<String, FixingSeries> series = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : sizes.entrySet()) {
+            String index = entry.getKey();
+            series.put(index, FixingSeries.of(index, days.get(index), rates.get(index), entry.getValue()));
+        }
+        return new FixingSet(series);
+    }
+}
@@ -0,0 +1,44 @@
+package com.technicalchallenge.fixing;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fixings of every index at one point in time. Immutable: an update builds a new set sharing
+ * the series it did not touch, so a cashflow run or valuation holding a set sees consistent
+ * fixings throughout.
+ */
+public final class FixingSet {
+
+    public static final FixingSet EMPTY = new FixingSet(Map.of());
+
+    private final Map<String, FixingSeries> series;
+
+    FixingSet(Map<String, FixingSeries> series) {
+        this.series = Map.copyOf(series);
+    }
+
+    public FixingSeries series(String index) {
+        return index != null ? series.get(index) : null;
+    }
+
+    public Map<String, FixingSeries> getSeries() {
+        return series;
+    }
+
+    /**
+     * Rate for a period of {@code index} fixing on {@code date}, or NaN if not known.
+     * @see FixingSeries#rateOn
+     */
+    public double rateOn(String index, LocalDate date) {
+        FixingSeries fixings = series(index);
+        return fixings != null ? fixings.rateOn(date) : Double.NaN;
+    }
+
+    FixingSet with(FixingSeries updated) {
+        Map<String, FixingSeries> copy = new HashMap<>(series);
+        copy.put(updated.getIndex(), updated);
+        return new FixingSet(copy);
+    }
+}
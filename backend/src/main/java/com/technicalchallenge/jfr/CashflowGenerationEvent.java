@@ -0,0 +1,22 @@
+package com.technicalchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.technicalchallenge.CashflowGeneration")
+@Label("Cashflow Generation")
+@Category({"Trading", "Cashflows"})
+@Description("Generation and persistence of the cashflow schedule for one trade leg")
+public class CashflowGenerationEvent extends TradingEvent {
+
+    @Label("Leg Id")
+    public long legId;
+
+    @Label("Schedule")
+    public String schedule;
+
+    @Label("Cashflow Count")
+    public int cashflowCount;
+}
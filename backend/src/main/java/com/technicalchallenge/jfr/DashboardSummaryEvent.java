@@ -0,0 +1,22 @@
+package com.technicalchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.technicalchallenge.DashboardSummary")
+@Label("Dashboard Summary")
+@Category({"Trading", "Dashboard"})
+@Description("Computation of a trader dashboard summary")
+public class DashboardSummaryEvent extends TradingEvent {
+
+    @Label("Summary")
+    public String summary;
+
+    @Label("Trader User Id")
+    public long traderUserId;
+
+    @Label("Trade Count")
+    public int tradeCount;
+}
@@ -0,0 +1,34 @@
+package com.technicalchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.technicalchallenge.TradeAmendment")
+@Label("Trade Amendment")
+@Category({"Trading", "Lifecycle"})
+@Description("Amendment of a trade: deactivation of the current version and booking of the next")
+public class TradeAmendmentEvent extends TradingEvent {
+
+    @Label("Trade Id")
+    public long tradeId;
+
+    @Label("New Version")
+    public int version;
+
+    @Label("Trade Type")
+    public String tradeType;
+
+    @Label("Leg Count")
+    public int legCount;
+
+    @Label("Cashflow Count")
+    public int cashflowCount;
+
+    @Label("User")
+    public String userId;
+
+    @Label("Successful")
+    public boolean successful;
+}
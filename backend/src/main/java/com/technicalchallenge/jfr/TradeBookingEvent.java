@@ -0,0 +1,37 @@
+package com.technicalchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.technicalchallenge.TradeBooking")
+@Label("Trade Booking")
+@Category({"Trading", "Lifecycle"})
+@Description("Creation of a new trade, including legs, cashflows and settlement instructions")
+public class TradeBookingEvent extends TradingEvent {
+
+    @Label("Trade Id")
+    public long tradeId;
+
+    @Label("Trade Type")
+    public String tradeType;
+
+    @Label("Book")
+    public String book;
+
+    @Label("Counterparty")
+    public String counterparty;
+
+    @Label("Leg Count")
+    public int legCount;
+
+    @Label("Cashflow Count")
+    public int cashflowCount;
+
+    @Label("User")
+    public String userId;
+
+    @Label("Successful")
+    public boolean successful;
+}
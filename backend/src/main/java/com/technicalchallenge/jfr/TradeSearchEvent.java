@@ -0,0 +1,28 @@
+package com.technicalchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.technicalchallenge.TradeSearch")
+@Label("Trade Search")
+@Category({"Trading", "Search"})
+@Description("RSQL trade search; the query is recorded as a hash so filter values are not captured")
+public class TradeSearchEvent extends TradingEvent {
+
+    @Label("Query Hash")
+    public int queryHash;
+
+    @Label("Query Length")
+    public int queryLength;
+
+    @Label("Page Number")
+    public int pageNumber;
+
+    @Label("Row Count")
+    public int rowCount;
+
+    @Label("Total Rows")
+    public long totalRows;
+}
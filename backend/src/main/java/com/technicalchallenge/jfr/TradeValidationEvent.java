@@ -0,0 +1,25 @@
+package com.technicalchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.technicalchallenge.TradeValidation")
+@Label("Trade Validation")
+@Category({"Trading", "Validation"})
+@Description("Business rule and cross-leg validation of a trade")
+public class TradeValidationEvent extends TradingEvent {
+
+    @Label("Trade Id")
+    public long tradeId;
+
+    @Label("Trade Type")
+    public String tradeType;
+
+    @Label("Rule Count")
+    public int ruleCount;
+
+    @Label("Error Count")
+    public int errorCount;
+}
@@ -0,0 +1,19 @@
+package com.technicalchallenge.jfr;
+
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base for the application's Java Flight Recorder events.
+ *
+ * Every event is disabled by default, so {@code begin()}, {@code end()} and
+ * {@code shouldCommit()} are no-ops unless a recording turns the event on; fields are only
+ * populated after {@code shouldCommit()} returns true. Enable them with the bundled settings,
+ * e.g. {@code -XX:StartFlightRecording=settings=default,settings=/path/to/trading.jfc}
+ * (the file is packaged as {@code jfr/trading.jfc}), or per event through JMC.
+ */
+@Enabled(false)
+@StackTrace(false)
+public abstract class TradingEvent extends Event {
+}
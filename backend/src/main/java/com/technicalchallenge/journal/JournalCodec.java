@@ -0,0 +1,405 @@
+package com.technicalchallenge.journal;
+
+import com.technicalchallenge.event.LegSnapshot;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compact binary encoding of a trade lifecycle event.
+ *
+ * Payload layout: tradeId, version and entity id, then a field mask followed by only the
+ * header fields that differ from the previous version (all of them for CREATED), then the
+ * acting user. Integers are zig-zag varints, dates are epoch days, timestamps are epoch seconds
+ * and nanos of the host's local time, strings are length-prefixed UTF-8 and every nullable value
+ * uses 0 as its null marker.
+ */
+public final class JournalCodec {
+
+    static final int FIELD_BOOK = 1;
+    static final int FIELD_COUNTERPARTY = 1 << 1;
+    static final int FIELD_TRADER = 1 << 2;
+    static final int FIELD_STATUS = 1 << 3;
+    static final int FIELD_TYPE = 1 << 4;
+    static final int FIELD_TRADE_DATE = 1 << 5;
+    static final int FIELD_START_DATE = 1 << 6;
+    static final int FIELD_MATURITY_DATE = 1 << 7;
+    static final int FIELD_LAST_TOUCH = 1 << 8;
+    static final int FIELD_LEGS = 1 << 9;
+    static final int ALL_FIELDS = (1 << 10) - 1;
+
+    private JournalCodec() {}
+
+    /**
+     * Encodes the event as a delta of {@code event.getCurrent()} against {@code event.getPrevious()}.
+     */
+    public static void encode(TradeLifecycleEvent event, ByteWriter out) {
+        TradeSnapshot current = event.getCurrent();
+        TradeSnapshot previous = event.getPrevious();
+
+        out.writeNullableLong(current.getTradeId());
+        out.writeNullableLong(current.getVersion() != null ? current.getVersion().longValue() : null);
+        out.writeNullableLong(current.getId());
+
+        int mask = previous == null ? ALL_FIELDS : changedFields(previous, current);
+        out.writeVarLong(mask);
+
+        if ((mask & FIELD_BOOK) != 0) {
+            out.writeNullableLong(current.getBookId());
+            out.writeString(current.getBookName());
+        }
+        if ((mask & FIELD_COUNTERPARTY) != 0) {
+            out.writeNullableLong(current.getCounterpartyId());
+            out.writeString(current.getCounterpartyName());
+        }
+        if ((mask & FIELD_TRADER) != 0) {
+            out.writeNullableLong(current.getTraderUserId());
+            out.writeString(current.getTraderUserName());
+        }
+        if ((mask & FIELD_STATUS) != 0) {
+            out.writeString(current.getTradeStatus());
+        }
+        if ((mask & FIELD_TYPE) != 0) {
+            out.writeString(current.getTradeType());
+        }
+        if ((mask & FIELD_TRADE_DATE) != 0) {
+            out.writeDate(current.getTradeDate());
+        }
+        if ((mask & FIELD_START_DATE) != 0) {
+            out.writeDate(current.getTradeStartDate());
+        }
+        if ((mask & FIELD_MATURITY_DATE) != 0) {
+            out.writeDate(current.getTradeMaturityDate());
+        }
+        if ((mask & FIELD_LAST_TOUCH) != 0) {
+            out.writeDateTime(current.getLastTouchTimestamp());
+        }
+        if ((mask & FIELD_LEGS) != 0) {
+            List<LegSnapshot> legs = current.getLegs() != null ? current.getLegs() : List.of();
+            out.writeVarLong(legs.size());
+            for (LegSnapshot leg : legs) {
+                out.writeNullableLong(leg.getLegId());
+                out.writeDecimal(leg.getNotional());
+                out.writeNullableDouble(leg.getRate());
+                out.writeString(leg.getCurrency());
+                out.writeString(leg.getLegType());
+                out.writeString(leg.getIndex());
+                out.writeString(leg.getPayRec());
+                out.writeString(leg.getSchedule());
+            }
+        }
+
+        out.writeString(event.getUserId());
+    }
+
+    /**
+     * Decodes a payload produced by {@link #encode}. Only the fields flagged in the
+     * entry's field mask are populated on {@link JournalEntry#getDelta()}.
+     */
+    public static JournalEntry decode(long sequence, long timestamp, TradeEventType type, ByteBuffer in) {
+        TradeSnapshot delta = new TradeSnapshot();
+        delta.setTradeId(readNullableLong(in));
+        Long version = readNullableLong(in);
+        delta.setVersion(version != null ? version.intValue() : null);
+        delta.setId(readNullableLong(in));
+
+        int mask = (int) readVarLong(in);
+
+        if ((mask & FIELD_BOOK) != 0) {
+            delta.setBookId(readNullableLong(in));
+            delta.setBookName(readString(in));
+        }
+        if ((mask & FIELD_COUNTERPARTY) != 0) {
+            delta.setCounterpartyId(readNullableLong(in));
+            delta.setCounterpartyName(readString(in));
+        }
+        if ((mask & FIELD_TRADER) != 0) {
+            delta.setTraderUserId(readNullableLong(in));
+            delta.setTraderUserName(readString(in));
+        }
+        if ((mask & FIELD_STATUS) != 0) {
+            delta.setTradeStatus(readString(in));
+        }
+        if ((mask & FIELD_TYPE) != 0) {
+            delta.setTradeType(readString(in));
+        }
+        if ((mask & FIELD_TRADE_DATE) != 0) {
+            delta.setTradeDate(readDate(in));
+        }
+        if ((mask & FIELD_START_DATE) != 0) {
+            delta.setTradeStartDate(readDate(in));
+        }
+        if ((mask & FIELD_MATURITY_DATE) != 0) {
+            delta.setTradeMaturityDate(readDate(in));
+        }
+        if ((mask & FIELD_LAST_TOUCH) != 0) {
+            delta.setLastTouchTimestamp(readDateTime(in));
+        }
+        if ((mask & FIELD_LEGS) != 0) {
+            int count = (int) readVarLong(in);
+            List<LegSnapshot> legs = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                LegSnapshot leg = new LegSnapshot();
+                leg.setLegId(readNullableLong(in));
+                leg.setNotional(readDecimal(in));
+                leg.setRate(readNullableDouble(in));
+                leg.setCurrency(readString(in));
+                leg.setLegType(readString(in));
+                leg.setIndex(readString(in));
+                leg.setPayRec(readString(in));
+                leg.setSchedule(readString(in));
+                legs.add(leg);
+            }
+            delta.setLegs(legs);
+        }
+
+        String userId = readString(in);
+        return new JournalEntry(sequence, timestamp, type, mask, delta, userId);
+    }
+
+    static int changedFields(TradeSnapshot before, TradeSnapshot after) {
+        int mask = 0;
+        if (!Objects.equals(before.getBookId(), after.getBookId()) || !Objects.equals(before.getBookName(), after.getBookName())) {
+            mask |= FIELD_BOOK;
+        }
+        if (!Objects.equals(before.getCounterpartyId(), after.getCounterpartyId()) || !Objects.equals(before.getCounterpartyName(), after.getCounterpartyName())) {
+            mask |= FIELD_COUNTERPARTY;
+        }
+        if (!Objects.equals(before.getTraderUserId(), after.getTraderUserId()) || !Objects.equals(before.getTraderUserName(), after.getTraderUserName())) {
+            mask |= FIELD_TRADER;
+        }
+        if (!Objects.equals(before.getTradeStatus(), after.getTradeStatus())) {
+            mask |= FIELD_STATUS;
+        }
+        if (!Objects.equals(before.getTradeType(), after.getTradeType())) {
+            mask |= FIELD_TYPE;
+        }
+        if (!Objects.equals(before.getTradeDate(), after.getTradeDate())) {
+            mask |= FIELD_TRADE_DATE;
+        }
+        if (!Objects.equals(before.getTradeStartDate(), after.getTradeStartDate())) {
+            mask |= FIELD_START_DATE;
+        }
+        if (!Objects.equals(before.getTradeMaturityDate(), after.getTradeMaturityDate())) {
+            mask |= FIELD_MATURITY_DATE;
+        }
+        if (!Objects.equals(before.getLastTouchTimestamp(), after.getLastTouchTimestamp())) {
+            mask |= FIELD_LAST_TOUCH;
+        }
+        if (!sameLegs(before.getLegs(), after.getLegs())) {
+            mask |= FIELD_LEGS;
+        }
+        return mask;
+    }
+
+    private static boolean sameLegs(List<LegSnapshot> a, List<LegSnapshot> b) {
+        List<LegSnapshot> left = a != null ? a : List.of();
+        List<LegSnapshot> right = b != null ? b : List.of();
+        if (left.size() != right.size()) {
+            return false;
+        }
+        for (int i = 0; i < left.size(); i++) {
+            if (!left.get(i).sameAs(right.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- Primitive readers ---
+
+    static long readVarLong(ByteBuffer in) {
+        long result = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IllegalStateException("Malformed varint in journal payload");
+            }
+        }
+    }
+
+    static Long readNullableLong(ByteBuffer in) {
+        long raw = readVarLong(in);
+        if (raw == 0) {
+            return null;
+        }
+        long zigzag = raw - 1;
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static LocalDate readDate(ByteBuffer in) {
+        Long epochDay = readNullableLong(in);
+        return epochDay != null ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    static LocalDateTime readDateTime(ByteBuffer in) {
+        Long epochSecond = readNullableLong(in);
+        if (epochSecond == null) {
+            return null;
+        }
+        int nanos = (int) readVarLong(in);
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nanos), ZoneId.systemDefault());
+    }
+
+    static Double readNullableDouble(ByteBuffer in) {
+        return in.get() == 0 ? null : in.getDouble();
+    }
+
+    static BigDecimal readDecimal(ByteBuffer in) {
+        byte kind = in.get();
+        if (kind == 0) {
+            return null;
+        }
+        int scale = (int) (long) readNullableLong(in);
+        if (kind == 1) {
+            return BigDecimal.valueOf(readNullableLong(in), scale);
+        }
+        byte[] unscaled = new byte[(int) readVarLong(in)];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    /**
+     * Growable byte buffer with the matching primitive writers. One instance is reused
+     * by the journal writer thread for every record.
+     */
+    public static final class ByteWriter {
+        private byte[] bytes;
+        private int size;
+
+        public ByteWriter(int initialCapacity) {
+            this.bytes = new byte[initialCapacity];
+        }
+
+        public void reset() {
+            size = 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public byte[] array() {
+            return bytes;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        public void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        public void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        public void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        public void writeNullableLong(Long value) {
+            if (value == null) {
+                writeVarLong(0);
+            } else {
+                writeVarLong(((value << 1) ^ (value >> 63)) + 1);
+            }
+        }
+
+        public void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        public void writeDate(LocalDate value) {
+            writeNullableLong(value != null ? value.toEpochDay() : null);
+        }
+
+        public void writeDateTime(LocalDateTime value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeNullableLong(value.atZone(ZoneId.systemDefault()).toEpochSecond());
+            writeVarLong(value.getNano());
+        }
+
+        public void writeNullableDouble(Double value) {
+            if (value == null) {
+                writeByte(0);
+                return;
+            }
+            writeByte(1);
+            writeLong(Double.doubleToRawLongBits(value));
+        }
+
+        public void writeDecimal(BigDecimal value) {
+            if (value == null) {
+                writeByte(0);
+                return;
+            }
+            BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() < 64) {
+                writeByte(1);
+                writeNullableLong((long) value.scale());
+                writeNullableLong(unscaled.longValue());
+            } else {
+                writeByte(2);
+                writeNullableLong((long) value.scale());
+                byte[] raw = unscaled.toByteArray();
+                writeVarLong(raw.length);
+                ensure(raw.length);
+                System.arraycopy(raw, 0, bytes, size, raw.length);
+                size += raw.length;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.technicalchallenge.journal;
+
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+
+/**
+ * A decoded journal record. The delta only carries the fields flagged in {@code fieldMask};
+ * use {@link #applyTo(TradeSnapshot)} to fold it onto the previous state of the trade.
+ */
+@Getter
+@AllArgsConstructor
+public class JournalEntry {
+    private final long sequence;
+    private final long timestamp;
+    private final TradeEventType type;
+    private final int fieldMask;
+    private final TradeSnapshot delta;
+    private final String userId;
+
+    public Long getTradeId() {
+        return delta.getTradeId();
+    }
+
+    public boolean hasField(int field) {
+        return (fieldMask & field) != 0;
+    }
+
+    /**
+     * Returns a new snapshot with this entry's changed fields applied over {@code base}.
+     * {@code base} may be null for a CREATED record, which carries every field.
+     */
+    public TradeSnapshot applyTo(TradeSnapshot base) {
+        TradeSnapshot result = base != null ? base.copy() : new TradeSnapshot();
+        result.setId(delta.getId());
+        result.setTradeId(delta.getTradeId());
+        result.setVersion(delta.getVersion());
+        if (hasField(JournalCodec.FIELD_BOOK)) {
+            result.setBookId(delta.getBookId());
+            result.setBookName(delta.getBookName());
+        }
+        if (hasField(JournalCodec.FIELD_COUNTERPARTY)) {
+            result.setCounterpartyId(delta.getCounterpartyId());
+            result.setCounterpartyName(delta.getCounterpartyName());
+        }
+        if (hasField(JournalCodec.FIELD_TRADER)) {
+            result.setTraderUserId(delta.getTraderUserId());
+            result.setTraderUserName(delta.getTraderUserName());
+        }
+        if (hasField(JournalCodec.FIELD_STATUS)) {
+            result.setTradeStatus(delta.getTradeStatus());
+        }
+        if (hasField(JournalCodec.FIELD_TYPE)) {
+            result.setTradeType(delta.getTradeType());
+        }
+        if (hasField(JournalCodec.FIELD_TRADE_DATE)) {
+            result.setTradeDate(delta.getTradeDate());
+        }
+        if (hasField(JournalCodec.FIELD_START_DATE)) {
+            result.setTradeStartDate(delta.getTradeStartDate());
+        }
+        if (hasField(JournalCodec.FIELD_MATURITY_DATE)) {
+            result.setTradeMaturityDate(delta.getTradeMaturityDate());
+        }
+        if (hasField(JournalCodec.FIELD_LAST_TOUCH)) {
+            result.setLastTouchTimestamp(delta.getLastTouchTimestamp());
+        }
+        if (hasField(JournalCodec.FIELD_LEGS)) {
+            result.setLegs(new ArrayList<>(delta.getLegs()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,193 @@
+package com.technicalchallenge.journal;
+
+import com.technicalchallenge.event.TradeEventType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped journal file.
+ *
+ * Record frame: [int bodyLength][long sequence][long epochMillis][byte type][payload][int crc32c(body)].
+ * A zero length marks the end of written data; files are pre-sized so unwritten space reads as zeros.
+ */
+class JournalSegment implements AutoCloseable {
+
+    static final String FILE_PREFIX = "trade-events-";
+    static final String FILE_SUFFIX = ".journal";
+
+    // sequence + timestamp + type
+    private static final int BODY_HEADER_BYTES = 8 + 8 + 1;
+    private static final int FRAME_OVERHEAD = 4 + BODY_HEADER_BYTES + 4;
+
+    private static final TradeEventType[] TYPES = TradeEventType.values();
+
+    private final Path path;
+    private final long firstSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32C crc = new CRC32C();
+    private long lastSequence;
+
+    private JournalSegment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lastSequence = firstSequence - 1;
+    }
+
+    static String fileName(long firstSequence) {
+        return String.format("%s%020d%s", FILE_PREFIX, firstSequence, FILE_SUFFIX);
+    }
+
+    static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+
+    /**
+     * Creates a new segment file of {@code sizeBytes} starting at {@code firstSequence}.
+     */
+    static JournalSegment create(Path directory, long firstSequence, int sizeBytes) throws IOException {
+        Path file = directory.resolve(fileName(firstSequence));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+        return new JournalSegment(file, firstSequence, channel, buffer);
+    }
+
+    /**
+     * Opens an existing segment and positions it after the last intact record. Anything after
+     * a torn or corrupt record is treated as unwritten and will be overwritten by the next append.
+     */
+    static JournalSegment open(Path file, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                0, channel.size());
+        JournalSegment segment = new JournalSegment(file, firstSequenceOf(file), channel, buffer);
+        segment.recover();
+        return segment;
+    }
+
+    private void recover() {
+        ByteBuffer view = buffer.duplicate();
+        view.position(0);
+        int end = 0;
+        while (true) {
+            int recordEnd = nextRecordEnd(view, end);
+            if (recordEnd < 0) {
+                break;
+            }
+            lastSequence = view.getLong(end + 4);
+            end = recordEnd;
+        }
+        buffer.position(end);
+    }
+
+    // Returns the end offset of the intact record starting at offset, or -1 if there isn't one.
+    private int nextRecordEnd(ByteBuffer view, int offset) {
+        if (offset + 4 > view.limit()) {
+            return -1;
+        }
+        int bodyLength = view.getInt(offset);
+        if (bodyLength < BODY_HEADER_BYTES || offset + 4L + bodyLength + 4 > view.limit()) {
+            return -1;
+        }
+        int bodyStart = offset + 4;
+        ByteBuffer body = view.duplicate();
+        body.limit(bodyStart + bodyLength).position(bodyStart);
+        crc.reset();
+        crc.update(body);
+        if ((int) crc.getValue() != view.getInt(bodyStart + bodyLength)) {
+            return -1;
+        }
+        return bodyStart + bodyLength + 4;
+    }
+
+    boolean fits(int payloadLength) {
+        return buffer.remaining() >= FRAME_OVERHEAD + payloadLength;
+    }
+
+    /**
+     * Appends one record. The caller is responsible for calling {@link #force()} once per batch.
+     */
+    void append(long sequence, long timestamp, TradeEventType type, byte[] payload, int payloadLength) {
+        int start = buffer.position();
+        int bodyLength = BODY_HEADER_BYTES + payloadLength;
+        buffer.putInt(bodyLength);
+        buffer.putLong(sequence);
+        buffer.putLong(timestamp);
+        buffer.put((byte) type.ordinal());
+        buffer.put(payload, 0, payloadLength);
+
+        ByteBuffer body = buffer.duplicate();
+        body.limit(start + 4 + bodyLength).position(start + 4);
+        crc.reset();
+        crc.update(body);
+        buffer.putInt((int) crc.getValue());
+
+        // Explicit terminator so a reused (recovered) region never exposes a stale record.
+        if (buffer.remaining() >= 4) {
+            buffer.putInt(buffer.position(), 0);
+        }
+        lastSequence = sequence;
+    }
+
+    /**
+     * Reads every intact record with sequence >= {@code fromSequence}, stopping at the first
+     * checksum mismatch or the end of written data.
+     */
+    void read(long fromSequence, Consumer<JournalEntry> consumer) {
+        ByteBuffer view = buffer.duplicate();
+        int offset = 0;
+        while (true) {
+            int recordEnd = nextRecordEnd(view, offset);
+            if (recordEnd < 0) {
+                return;
+            }
+            long sequence = view.getLong(offset + 4);
+            if (sequence >= fromSequence) {
+                long timestamp = view.getLong(offset + 12);
+                TradeEventType type = TYPES[view.get(offset + 20)];
+                ByteBuffer payload = view.duplicate();
+                payload.limit(recordEnd - 4).position(offset + 4 + BODY_HEADER_BYTES);
+                consumer.accept(JournalCodec.decode(sequence, timestamp, type, payload));
+            }
+            offset = recordEnd;
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    int getWrittenBytes() {
+        return buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
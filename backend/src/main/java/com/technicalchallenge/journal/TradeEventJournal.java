@@ -0,0 +1,307 @@
+package com.technicalchallenge.journal;
+
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of trade lifecycle events.
+ *
+ * Events are queued once their transaction commits and written by a single background thread
+ * that drains whatever has accumulated, appends it to the active memory-mapped segment and
+ * forces the segment once per batch (group commit). Segments roll when full. Replay reads the
+ * segments in order straight from the mapped files.
+ *
+ * A batch that fails to write is retried with backoff, resuming after the last event appended.
+ * Once the retries run out the journal stops: the unwritten events stay queued for a final
+ * attempt at shutdown, and every event committed after that is rejected and counted.
+ */
+@Component
+public class TradeEventJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeEventJournal.class);
+
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 5000;
+
+    @Value("${trade.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${trade.journal.directory:./data/journal}")
+    private String directory;
+
+    @Value("${trade.journal.segment-size-bytes:67108864}")
+    private int segmentSizeBytes;
+
+    @Value("${trade.journal.max-batch-size:256}")
+    private int maxBatchSize;
+
+    @Value("${trade.journal.max-write-attempts:5}")
+    private int maxWriteAttempts = 5;
+
+    @Value("${trade.journal.retry-backoff-millis:200}")
+    private long retryBackoffMillis = 200;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final BlockingQueue<TradeLifecycleEvent> queue = new LinkedBlockingQueue<>();
+    // Events taken off the queue and not yet appended; owned by the writer thread until it exits
+    private final List<TradeLifecycleEvent> pending = new ArrayList<>();
+    private final AtomicLong writeFailures = new AtomicLong();
+    private final AtomicLong rejectedEvents = new AtomicLong();
+    private final Object writeLock = new Object();
+    private final JournalCodec.ByteWriter writer = new JournalCodec.ByteWriter(512);
+
+    private Path journalDirectory;
+    private JournalSegment activeSegment;
+    private Thread writerThread;
+    private volatile boolean running;
+    private volatile boolean failed;
+    private volatile long lastSequence;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            logger.info("Trade event journal disabled");
+            return;
+        }
+        journalDirectory = Paths.get(directory);
+        Files.createDirectories(journalDirectory);
+
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            activeSegment = JournalSegment.create(journalDirectory, 1, segmentSizeBytes);
+        } else {
+            activeSegment = JournalSegment.open(segments.get(segments.size() - 1), true);
+        }
+        lastSequence = activeSegment.getLastSequence();
+        logger.info("Trade event journal opened at {} (segments: {}, last sequence: {})",
+                journalDirectory.toAbsolutePath(), Math.max(segments.size(), 1), lastSequence);
+
+        if (meterRegistry != null) {
+            FunctionCounter.builder("trade.journal.write.failures", writeFailures, AtomicLong::get)
+                    .description("Failed attempts to write a batch of trade events to the journal")
+                    .register(meterRegistry);
+            FunctionCounter.builder("trade.journal.events.rejected", rejectedEvents, AtomicLong::get)
+                    .description("Committed trade events not accepted because the journal has failed")
+                    .register(meterRegistry);
+            Gauge.builder("trade.journal.failed", this, journal -> journal.failed ? 1 : 0)
+                    .description("1 once the journal has stopped after exhausting its write retries")
+                    .register(meterRegistry);
+        }
+
+        running = true;
+        writerThread = new Thread(this::writeLoop, "trade-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        synchronized (writeLock) {
+            // Anything still pending or queued after the writer exits is flushed here.
+            List<TradeLifecycleEvent> remaining = new ArrayList<>(pending);
+            queue.drainTo(remaining);
+            writeBatch(remaining);
+            activeSegment.close();
+        }
+        logger.info("Trade event journal closed at sequence {}", lastSequence);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTradeEvent(TradeLifecycleEvent event) {
+        if (running) {
+            queue.offer(event);
+        } else if (failed) {
+            rejectedEvents.incrementAndGet();
+            logger.error("Trade event journal has failed; {} event for trade {} not journalled", event.getType(),
+                    event.getCurrent() != null ? event.getCurrent().getTradeId() : null);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public long getWriteFailures() {
+        return writeFailures.get();
+    }
+
+    public long getRejectedEvents() {
+        return rejectedEvents.get();
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Streams every journalled entry with sequence >= {@code fromSequence} to {@code consumer},
+     * in sequence order. Replay stops at the first record that fails its checksum.
+     */
+    public void replay(long fromSequence, Consumer<JournalEntry> consumer) {
+        if (!enabled) {
+            throw new IllegalStateException("Trade event journal is disabled");
+        }
+        synchronized (writeLock) {
+            activeSegment.force();
+            try {
+                for (Path file : listSegments()) {
+                    if (file.equals(activeSegment.getPath())) {
+                        activeSegment.read(fromSequence, consumer);
+                    } else {
+                        try (JournalSegment segment = JournalSegment.open(file, false)) {
+                            if (segment.getLastSequence() >= fromSequence) {
+                                segment.read(fromSequence, consumer);
+                            }
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to replay trade event journal", e);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the latest known state of every journalled trade, keyed by business trade id.
+     */
+    public Map<Long, TradeSnapshot> rebuildLatestState() {
+        Map<Long, TradeSnapshot> state = new HashMap<>();
+        replay(1, entry -> state.put(entry.getTradeId(), entry.applyTo(state.get(entry.getTradeId()))));
+        return state;
+    }
+
+    private void writeLoop() {
+        int attempts = 0;
+        while (running) {
+            try {
+                // A failed batch keeps its unwritten events and is retried before taking more
+                if (pending.isEmpty()) {
+                    TradeLifecycleEvent first = queue.poll(500, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    pending.add(first);
+                    queue.drainTo(pending, maxBatchSize - 1);
+                }
+                synchronized (writeLock) {
+                    writeBatch(pending);
+                }
+                attempts = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException | IOException e) {
+                writeFailures.incrementAndGet();
+                attempts++;
+                if (attempts >= maxWriteAttempts) {
+                    failed = true;
+                    running = false;
+                    logger.error("Trade event journal stopped after {} failed attempts; {} events not journalled",
+                            attempts, pending.size() + queue.size(), e);
+                    return;
+                }
+                logger.warn("Failed to write {} trade events to journal (attempt {} of {}), retrying",
+                        pending.size(), attempts, maxWriteAttempts, e);
+                try {
+                    Thread.sleep(Math.min(retryBackoffMillis << Math.min(attempts - 1, 16), MAX_RETRY_BACKOFF_MILLIS));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Removes each event from the batch once appended, so a retry never journals one twice
+    private void writeBatch(List<TradeLifecycleEvent> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int appended = 0;
+        try {
+            for (TradeLifecycleEvent event : batch) {
+                writer.reset();
+                JournalCodec.encode(event, writer);
+                if (!activeSegment.fits(writer.size())) {
+                    roll();
+                    if (!activeSegment.fits(writer.size())) {
+                        throw new IllegalStateException("Journal record of " + writer.size()
+                                + " bytes exceeds segment size " + segmentSizeBytes);
+                    }
+                }
+                long timestamp = event.getOccurredAt() != null
+                        ? event.getOccurredAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                        : System.currentTimeMillis();
+                long sequence = lastSequence + 1;
+                activeSegment.append(sequence, timestamp, event.getType(), writer.array(), writer.size());
+                lastSequence = sequence;
+                appended++;
+            }
+        } finally {
+            batch.subList(0, appended).clear();
+        }
+        activeSegment.force();
+        logger.debug("Journalled {} trade events up to sequence {}", appended, lastSequence);
+    }
+
+    private void roll() throws IOException {
+        activeSegment.force();
+        // Create the next segment first, so a failed roll leaves the active one open for a retry
+        JournalSegment next = JournalSegment.create(journalDirectory, lastSequence + 1, segmentSizeBytes);
+        activeSegment.close();
+        activeSegment = next;
+        logger.info("Rolled trade event journal to {}", activeSegment.getPath().getFileName());
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            return files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(JournalSegment.FILE_PREFIX) && name.endsWith(JournalSegment.FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
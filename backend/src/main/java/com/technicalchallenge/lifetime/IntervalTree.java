@@ -0,0 +1,138 @@
+package com.technicalchallenge.lifetime;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable centred interval tree over closed day intervals {@code [start, end]}, answering
+ * "which intervals contain day d" in O(log n + k).
+ *
+ * Each node holds the intervals that contain its centre, sorted once by start and once by end.
+ * A day left of the centre can only be inside those of them starting on or before it, found by
+ * scanning the start order until a start passes the day; a day to the right, symmetrically, by
+ * scanning the end order backwards. Intervals entirely to one side of the centre go to that
+ * child. Centres are median endpoints, so each child gets at most half the intervals.
+ *
+ * Intervals are identified by their position in the arrays the tree was built from.
+ */
+final class IntervalTree {
+
+    static final IntervalTree EMPTY = new IntervalTree(new int[0], new int[0]);
+
+    private final Node root;
+    private final int size;
+
+    /**
+     * @param starts first day of each interval, e.g. an epoch day
+     * @param ends last day of each interval, not before its start
+     */
+    IntervalTree(int[] starts, int[] ends) {
+        int[] members = new int[starts.length];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = i;
+        }
+        this.root = build(members, starts, ends);
+        this.size = starts.length;
+    }
+
+    /**
+     * Passes the position of every interval containing {@code day} to {@code consumer}, in no
+     * particular order.
+     */
+    void forEachContaining(int day, IntConsumer consumer) {
+        Node node = root;
+        while (node != null) {
+            if (day < node.centre) {
+                for (int i = 0; i < node.starts.length && node.starts[i] <= day; i++) {
+                    consumer.accept(node.byStart[i]);
+                }
+                node = node.left;
+            } else if (day > node.centre) {
+                for (int i = node.ends.length - 1; i >= 0 && node.ends[i] >= day; i--) {
+                    consumer.accept(node.byEnd[i]);
+                }
+                node = node.right;
+            } else {
+                for (int position : node.byStart) {
+                    consumer.accept(position);
+                }
+                return;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static Node build(int[] members, int[] starts, int[] ends) {
+        if (members.length == 0) {
+            return null;
+        }
+        int[] endpoints = new int[members.length * 2];
+        for (int i = 0; i < members.length; i++) {
+            endpoints[2 * i] = starts[members[i]];
+            endpoints[2 * i + 1] = ends[members[i]];
+        }
+        Arrays.sort(endpoints);
+        int centre = endpoints[members.length];
+
+        int leftCount = 0;
+        int rightCount = 0;
+        for (int member : members) {
+            if (ends[member] < centre) {
+                leftCount++;
+            } else if (starts[member] > centre) {
+                rightCount++;
+            }
+        }
+        int[] left = new int[leftCount];
+        int[] right = new int[rightCount];
+        // (day << 32 | position), so one primitive sort orders positions by day
+        long[] byStart = new long[members.length - leftCount - rightCount];
+        long[] byEnd = new long[byStart.length];
+        int l = 0;
+        int r = 0;
+        int c = 0;
+        for (int member : members) {
+            if (ends[member] < centre) {
+                left[l++] = member;
+            } else if (starts[member] > centre) {
+                right[r++] = member;
+            } else {
+                byStart[c] = ((long) starts[member] << 32) | member;
+                byEnd[c++] = ((long) ends[member] << 32) | member;
+            }
+        }
+        Arrays.sort(byStart);
+        Arrays.sort(byEnd);
+        return new Node(centre, byStart, byEnd, build(left, starts, ends), build(right, starts, ends));
+    }
+
+    private static final class Node {
+        private final int centre;
+        // Intervals containing the centre: ascending starts, and ascending ends
+        private final int[] starts;
+        private final int[] byStart;
+        private final int[] ends;
+        private final int[] byEnd;
+        private final Node left;
+        private final Node right;
+
+        private Node(int centre, long[] byStart, long[] byEnd, Node left, Node right) {
+            this.centre = centre;
+            this.starts = new int[byStart.length];
+            this.byStart = new int[byStart.length];
+            this.ends = new int[byEnd.length];
+            this.byEnd = new int[byEnd.length];
+            for (int i = 0; i < byStart.length; i++) {
+                this.starts[i] = (int) (byStart[i] >> 32);
+                this.byStart[i] = (int) byStart[i];
+                this.ends[i] = (int) (byEnd[i] >> 32);
+                this.byEnd[i] = (int) byEnd[i];
+            }
+            this.left = left;
+            this.right = right;
+        }
+    }
+}
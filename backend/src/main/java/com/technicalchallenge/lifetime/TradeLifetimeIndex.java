@@ -0,0 +1,210 @@
+package com.technicalchallenge.lifetime;
+
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import com.technicalchallenge.repository.TradeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The lifetime, {@code tradeStartDate} to {@code tradeMaturityDate} inclusive, of every live
+ * trade, held in memory so "trades live on date D" costs O(log n + k) rather than a scan of the
+ * trade table.
+ *
+ * Lifetimes are loaded at startup (or on demand) into an {@link IntervalTree}. Committed
+ * lifecycle events are applied to a small overlay of trades changed since the tree was built,
+ * which queries consult alongside the tree; once the overlay reaches
+ * {@code trades.lifetime-index.compact-after-changes} entries the tree is rebuilt in memory and
+ * the overlay emptied.
+ */
+@Service
+public class TradeLifetimeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeLifetimeIndex.class);
+
+    // Same statuses the dashboard treats as live
+    public static final List<String> LIVE_STATUSES = List.of("LIVE", "NEW", "AMENDED");
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Value("${trades.lifetime-index.compact-after-changes:1024}")
+    private int compactAfterChanges = 1024;
+
+    // Everything below is guarded by the lock: updates are rare and take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Every live trade's lifetime, by business trade id
+    private final Map<Long, Lifetime> lifetimes = new HashMap<>();
+    // Trades changed since the tree was built, with their current lifetime or null if no longer live
+    private final Map<Long, Lifetime> changed = new HashMap<>();
+    private IntervalTree tree = IntervalTree.EMPTY;
+    private Lifetime[] treeLifetimes = new Lifetime[0];
+
+    public TradeLifetimeIndex() {
+    }
+
+    TradeLifetimeIndex(int compactAfterChanges) {
+        this.compactAfterChanges = compactAfterChanges;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void initialise() {
+        rebuild();
+    }
+
+    /**
+     * Discards the index and reloads it from the live trades in the database.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        // Hold the write lock across the query, so a trade committed meanwhile is applied after the
+        // rebuild rather than to an index about to be discarded
+        lock.writeLock().lock();
+        try {
+            lifetimes.clear();
+            for (Object[] row : tradeRepository.findLiveTradeLifetimes(LIVE_STATUSES)) {
+                Lifetime lifetime = Lifetime.of((Long) row[0], (Long) row[1], (LocalDate) row[2], (LocalDate) row[3]);
+                if (lifetime != null) {
+                    lifetimes.put(lifetime.tradeId, lifetime);
+                }
+            }
+            compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Trade lifetime index rebuilt from {} live trades in {} ms",
+                lifetimes.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replaces a trade's lifetime once its create, amend, termination or cancellation has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTradeLifecycleEvent(TradeLifecycleEvent event) {
+        TradeSnapshot previous = event.getPrevious();
+        TradeSnapshot current = event.getCurrent();
+        lock.writeLock().lock();
+        try {
+            if (current != null && current.getTradeId() != null) {
+                Lifetime lifetime = LIVE_STATUSES.contains(current.getTradeStatus())
+                        ? Lifetime.of(current.getId(), current.getTradeId(), current.getTradeStartDate(), current.getTradeMaturityDate())
+                        : null;
+                apply(current.getTradeId(), lifetime);
+            } else if (previous != null && previous.getTradeId() != null) {
+                apply(previous.getTradeId(), null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Row ids of the trades live on {@code date}, in trade id order.
+     */
+    public List<Long> findTradeRowIdsLiveOn(LocalDate date) {
+        int day = Math.toIntExact(date.toEpochDay());
+        List<Lifetime> live = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            tree.forEachContaining(day, position -> {
+                Lifetime lifetime = treeLifetimes[position];
+                if (!changed.containsKey(lifetime.tradeId)) {
+                    live.add(lifetime);
+                }
+            });
+            for (Lifetime lifetime : changed.values()) {
+                if (lifetime != null && lifetime.contains(day)) {
+                    live.add(lifetime);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        live.sort(Comparator.comparingLong(lifetime -> lifetime.tradeId));
+        List<Long> rowIds = new ArrayList<>(live.size());
+        for (Lifetime lifetime : live) {
+            rowIds.add(lifetime.rowId);
+        }
+        return rowIds;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return lifetimes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void apply(Long tradeId, Lifetime lifetime) {
+        if (lifetime != null) {
+            lifetimes.put(tradeId, lifetime);
+        } else {
+            lifetimes.remove(tradeId);
+        }
+        changed.put(tradeId, lifetime);
+        if (changed.size() >= compactAfterChanges) {
+            compact();
+        }
+    }
+
+    // Rebuilds the tree from every lifetime and empties the overlay; callers hold the write lock
+    private void compact() {
+        Lifetime[] all = lifetimes.values().toArray(new Lifetime[0]);
+        int[] starts = new int[all.length];
+        int[] ends = new int[all.length];
+        for (int i = 0; i < all.length; i++) {
+            starts[i] = all[i].start;
+            ends[i] = all[i].end;
+        }
+        tree = new IntervalTree(starts, ends);
+        treeLifetimes = all;
+        changed.clear();
+    }
+
+    private static final class Lifetime {
+        private final long rowId;
+        private final long tradeId;
+        private final int start;
+        private final int end;
+
+        private Lifetime(long rowId, long tradeId, int start, int end) {
+            this.rowId = rowId;
+            this.tradeId = tradeId;
+            this.start = start;
+            this.end = end;
+        }
+
+        // Null for a trade without both dates, or maturing before it starts, which is live on no date
+        private static Lifetime of(Long rowId, Long tradeId, LocalDate start, LocalDate end) {
+            if (rowId == null || start == null || end == null || end.isBefore(start)) {
+                return null;
+            }
+            return new Lifetime(rowId, tradeId, Math.toIntExact(start.toEpochDay()), Math.toIntExact(end.toEpochDay()));
+        }
+
+        private boolean contains(int day) {
+            return start <= day && day <= end;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.technicalchallenge.limits;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.model.Counterparty;
+import com.technicalchallenge.repository.CounterpartyRepository;
+import com.technicalchallenge.repository.TradeLegRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pre-trade credit limit check. Keeps the notional booked against each counterparty in each
+ * currency in memory, so checking a booking costs no database round-trips. A trade counts once
+ * per currency at its largest leg notional, so the two legs of a swap are not double-counted.
+ *
+ * Exposure is seeded once from the active legs of live trades. A booking reserves its exposure
+ * (for an amendment, only the increase over the trade's current exposure) through a lock-free
+ * compare-and-set on the counter for each counterparty and currency; a reservation that would
+ * breach a limit is refused. Reservations are returned if the booking's transaction rolls back,
+ * decreases are only applied once it commits, and terminated or cancelled trades release their
+ * exposure after commit.
+ *
+ * Limits are per counterparty and currency, in major units: {@code credit.limits.default}, or
+ * {@code credit.limits.counterparty.<name>} and {@code credit.limits.counterparty.<name>.<currency>}
+ * for specific counterparties.
+ */
+@Service
+public class CounterpartyLimitService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterpartyLimitService.class);
+
+    static final List<String> CLOSED_STATUSES = List.of("TERMINATED", "CANCELLED");
+
+    // Exposures are held in minor units (two decimal places)
+    private static final int SCALE = 2;
+
+    @Autowired
+    private TradeLegRepository tradeLegRepository;
+
+    @Autowired
+    private CounterpartyRepository counterpartyRepository;
+
+    @Autowired
+    private Environment environment;
+
+    private final ConcurrentMap<ExposureKey, ExposureCounter> counters = new ConcurrentHashMap<>();
+    // Committed exposure per business trade id, so amendments and closures need no lookups
+    private final ConcurrentMap<Long, Map<ExposureKey, Long>> tradeExposures = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, String> counterpartyNames = new ConcurrentHashMap<>();
+    private final Object seedLock = new Object();
+    private volatile boolean initialised;
+
+    /**
+     * Loads counterparty names and the exposure of every live trade.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void initialise() {
+        synchronized (seedLock) {
+            if (initialised) {
+                return;
+            }
+            for (Counterparty counterparty : counterpartyRepository.findAll()) {
+                if (counterparty.getName() != null) {
+                    counterpartyNames.put(counterparty.getId(), counterparty.getName());
+                }
+            }
+            Map<Long, Map<ExposureKey, Long>> seeded = new HashMap<>();
+            for (Object[] row : tradeLegRepository.findLiveLegExposures(CLOSED_STATUSES)) {
+                Long tradeId = (Long) row[0];
+                ExposureKey key = new ExposureKey((Long) row[1], (String) row[2]);
+                seeded.computeIfAbsent(tradeId, id -> new HashMap<>()).merge(key, toMinorUnits((BigDecimal) row[3]), Math::max);
+            }
+            seeded.forEach((tradeId, exposure) -> {
+                if (tradeExposures.putIfAbsent(tradeId, exposure) == null) {
+                    exposure.forEach((key, amount) -> counter(key, null).add(amount));
+                }
+            });
+            initialised = true;
+            logger.info("Counterparty exposure seeded from {} live trades across {} counterparty/currency pairs",
+                    seeded.size(), counters.size());
+        }
+    }
+
+    /**
+     * Reserves the exposure a create or amend would add. On success the reservation is tied to
+     * the current transaction: kept on commit, returned on rollback.
+     * @return null if the trade fits within its limits, otherwise a description of the breach.
+     */
+    public String reserve(TradeDTO tradeDTO) {
+        if (!environment.getProperty("credit.limits.enabled", Boolean.class, true)
+                || tradeDTO.getCounterpartyId() == null || tradeDTO.getTradeLegs() == null) {
+            return null;
+        }
+        if (!initialised) {
+            initialise();
+        }
+        if (tradeDTO.getCounterpartyName() != null) {
+            counterpartyNames.putIfAbsent(tradeDTO.getCounterpartyId(), tradeDTO.getCounterpartyName());
+        }
+
+        Long tradeId = tradeDTO.getTradeId();
+        Map<ExposureKey, Long> proposed = exposureOf(tradeDTO);
+        Map<ExposureKey, Long> current = tradeId != null
+                ? tradeExposures.getOrDefault(tradeId, Collections.emptyMap())
+                : Collections.emptyMap();
+
+        Map<ExposureKey, Long> increases = new HashMap<>();
+        Map<ExposureKey, Long> decreases = new HashMap<>();
+        proposed.forEach((key, amount) -> {
+            long delta = amount - current.getOrDefault(key, 0L);
+            if (delta > 0) {
+                increases.put(key, delta);
+            } else if (delta < 0) {
+                decreases.put(key, delta);
+            }
+        });
+        current.forEach((key, amount) -> {
+            if (!proposed.containsKey(key)) {
+                decreases.put(key, -amount);
+            }
+        });
+
+        Map<ExposureKey, Long> reserved = new HashMap<>();
+        for (Map.Entry<ExposureKey, Long> increase : increases.entrySet()) {
+            ExposureKey key = increase.getKey();
+            ExposureCounter counter = counter(key, tradeDTO.getCounterpartyName());
+            if (!counter.tryReserve(increase.getValue())) {
+                reserved.forEach((k, amount) -> counters.get(k).add(-amount));
+                String breach = String.format("Counterparty limit breached for %s in %s: exposure %s + %s exceeds limit %s.",
+                        counterpartyName(key.getCounterpartyId(), tradeDTO.getCounterpartyName()), key.getCurrency(),
+                        toMajorUnits(counter.getExposure()), toMajorUnits(increase.getValue()), toMajorUnits(counter.getLimit()));
+                logger.warn(breach);
+                return breach;
+            }
+            reserved.put(key, increase.getValue());
+        }
+
+        Runnable onCommit = () -> {
+            decreases.forEach((key, amount) -> counter(key, null).add(amount));
+            if (tradeId != null) {
+                tradeExposures.put(tradeId, proposed);
+            }
+        };
+        Runnable onRollback = () -> reserved.forEach((key, amount) -> counters.get(key).add(-amount));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    (status == STATUS_COMMITTED ? onCommit : onRollback).run();
+                }
+            });
+        } else {
+            onCommit.run();
+        }
+        return null;
+    }
+
+    /**
+     * Releases a trade's exposure once its termination or cancellation has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTradeLifecycleEvent(TradeLifecycleEvent event) {
+        if (event.getType() != TradeEventType.TERMINATED && event.getType() != TradeEventType.CANCELLED) {
+            return;
+        }
+        Long tradeId = event.getCurrent() != null ? event.getCurrent().getTradeId() : null;
+        Map<ExposureKey, Long> exposure = tradeId != null ? tradeExposures.remove(tradeId) : null;
+        if (exposure != null) {
+            exposure.forEach((key, amount) -> counter(key, null).add(-amount));
+        }
+    }
+
+    /**
+     * Current exposure in major units, or zero if nothing is booked.
+     */
+    public BigDecimal getExposure(Long counterpartyId, String currency) {
+        ExposureCounter counter = counters.get(new ExposureKey(counterpartyId, currency));
+        return toMajorUnits(counter != null ? counter.getExposure() : 0L);
+    }
+
+    private Map<ExposureKey, Long> exposureOf(TradeDTO tradeDTO) {
+        Map<ExposureKey, Long> exposure = new HashMap<>();
+        for (TradeLegDTO leg : tradeDTO.getTradeLegs()) {
+            if (leg.getCurrency() != null && leg.getNotional() != null) {
+                exposure.merge(new ExposureKey(tradeDTO.getCounterpartyId(), leg.getCurrency()),
+                        toMinorUnits(leg.getNotional()), Math::max);
+            }
+        }
+        return exposure;
+    }
+
+    private ExposureCounter counter(ExposureKey key, String counterpartyName) {
+        ExposureCounter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        return counters.computeIfAbsent(key, k -> new ExposureCounter(limitFor(k, counterpartyName)));
+    }
+
+    private long limitFor(ExposureKey key, String counterpartyName) {
+        String name = counterpartyName(key.getCounterpartyId(), counterpartyName);
+        String limit = null;
+        if (name != null) {
+            String prefix = "credit.limits.counterparty." + name;
+            limit = environment.getProperty(prefix + "." + key.getCurrency(), environment.getProperty(prefix));
+        }
+        if (limit == null) {
+            limit = environment.getProperty("credit.limits.default");
+        }
+        return limit != null ? toMinorUnits(new BigDecimal(limit.trim())) : Long.MAX_VALUE;
+    }
+
+    private String counterpartyName(Long counterpartyId, String fallback) {
+        String name = counterpartyNames.get(counterpartyId);
+        return name != null ? name : fallback;
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.abs().setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal toMajorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
@@ -0,0 +1,50 @@
+package com.technicalchallenge.limits;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Current exposure against one counterparty in one currency, in minor units, with the limit it
+ * may not exceed. Reservations are a compare-and-set loop, so concurrent bookings can never
+ * push the total past the limit and no lock is taken.
+ */
+public class ExposureCounter {
+
+    private final long limit;
+    private final AtomicLong exposure = new AtomicLong();
+
+    public ExposureCounter(long limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Adds the amount if the result stays within the limit.
+     * @return false, leaving the exposure unchanged, if the amount would breach the limit.
+     */
+    public boolean tryReserve(long amount) {
+        while (true) {
+            long current = exposure.get();
+            long next = current + amount;
+            if (next > limit || next < current) {
+                return false;
+            }
+            if (exposure.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adjusts the exposure unconditionally; used for releases and for seeding committed trades.
+     */
+    public void add(long amount) {
+        exposure.addAndGet(amount);
+    }
+
+    public long getExposure() {
+        return exposure.get();
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+}
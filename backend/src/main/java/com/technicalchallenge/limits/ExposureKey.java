@@ -0,0 +1,21 @@
+package com.technicalchallenge.limits;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Counterparty and currency an exposure counter is kept for.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ExposureKey {
+    private final Long counterpartyId;
+    private final String currency;
+
+    @Override
+    public String toString() {
+        return counterpartyId + "/" + currency;
+    }
+}
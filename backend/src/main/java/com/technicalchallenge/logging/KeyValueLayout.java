@@ -0,0 +1,84 @@
+package com.technicalchallenge.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+import org.slf4j.event.KeyValuePair;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Compact single-line key-value format, e.g.
+ * <pre>ts=2025-01-06T09:30:00.125Z level=INFO logger=trade.events.booking thread=http-vt-12 event=trade.created tradeId=10042 legs=2</pre>
+ * The message becomes the {@code event} key. Values containing spaces, quotes or {@code =} are
+ * quoted; a throwable is summarised as {@code error=...} and its stack trace follows on the next lines.
+ */
+public class KeyValueLayout extends LayoutBase<ILoggingEvent> {
+
+    @Override
+    public String doLayout(ILoggingEvent event) {
+        StringBuilder line = new StringBuilder(160);
+        line.append("ts=");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(event.getTimeStamp()), line);
+        line.append(" level=").append(event.getLevel());
+        line.append(" logger=").append(event.getLoggerName());
+        append(line, "thread", event.getThreadName());
+        append(line, "event", event.getFormattedMessage());
+
+        List<KeyValuePair> keyValuePairs = event.getKeyValuePairs();
+        if (keyValuePairs != null) {
+            for (KeyValuePair pair : keyValuePairs) {
+                append(line, pair.key, pair.value);
+            }
+        }
+
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            append(line, "error", throwable.getClassName() + ": " + throwable.getMessage());
+            line.append(CoreConstants.LINE_SEPARATOR).append(ThrowableProxyUtil.asString(throwable));
+        }
+        return line.append(CoreConstants.LINE_SEPARATOR).toString();
+    }
+
+    static void append(StringBuilder line, String key, Object value) {
+        line.append(' ').append(key).append('=');
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        String text = value.toString();
+        if (!needsQuoting(text)) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    private static boolean needsQuoting(String text) {
+        if (text.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c <= ' ' || c == '"' || c == '=' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,237 @@
+package com.technicalchallenge.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous appender backed by a bounded, lock-free multi-producer/single-consumer ring
+ * buffer. Logging threads claim a slot with a CAS and return immediately; one worker thread
+ * drains the buffer into the attached appenders, so layout rendering and I/O happen off the
+ * request path.
+ *
+ * When the buffer is full, events below WARN are dropped and counted (the worker reports the
+ * count as a WARN event once space frees up); WARN and ERROR wait for space for at most
+ * {@code maxBlockMillis}.
+ */
+public class RingBufferAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    private int bufferSize = 8192;
+    private long maxBlockMillis = 100;
+    private int maxFlushMillis = 1000;
+
+    private AtomicReferenceArray<ILoggingEvent> slots;
+    // Per-slot sequence: equals the producer position when free, position + 1 when published
+    private AtomicLongArray sequences;
+    private int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported;
+
+    private volatile boolean workerParked;
+    private volatile Thread worker;
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setMaxBlockMillis(long maxBlockMillis) {
+        this.maxBlockMillis = maxBlockMillis;
+    }
+
+    public void setMaxFlushMillis(int maxFlushMillis) {
+        this.maxFlushMillis = maxFlushMillis;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        slots = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+        tail.set(0);
+        head = 0;
+
+        Thread thread = new Thread(this::drainLoop, "log-ring-" + getName());
+        thread.setDaemon(true);
+        worker = thread;
+        super.start();
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(maxFlushMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                addWarn("Log ring buffer not drained within " + maxFlushMillis + " ms; remaining events discarded.");
+            }
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Capture thread name, MDC and message now; key-value pairs are rendered by the layout on the worker
+        event.prepareForDeferredProcessing();
+        if (offer(event)) {
+            return;
+        }
+        if (!event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBlockMillis);
+        while (isStarted() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(50_000);
+            if (offer(event)) {
+                return;
+            }
+        }
+        dropped.incrementAndGet();
+    }
+
+    private boolean offer(ILoggingEvent event) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, event);
+                    sequences.set(index, position + 1);
+                    if (workerParked) {
+                        LockSupport.unpark(worker);
+                    }
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false;
+            }
+            // Another producer claimed this position first; retry with the new tail
+        }
+    }
+
+    private ILoggingEvent poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        ILoggingEvent event = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return event;
+    }
+
+    private void drainLoop() {
+        while (isStarted()) {
+            ILoggingEvent event = poll();
+            if (event != null) {
+                appenders.appendLoopOnAppenders(event);
+                continue;
+            }
+            reportDropped();
+            workerParked = true;
+            // Re-check after advertising so a producer that missed the flag is not stranded
+            if (isStarted() && sequences.get((int) (head & mask)) != head + 1) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            workerParked = false;
+        }
+        ILoggingEvent event;
+        while ((event = poll()) != null) {
+            appenders.appendLoopOnAppenders(event);
+        }
+        reportDropped();
+    }
+
+    private void reportDropped() {
+        long total = dropped.get();
+        if (total == droppedReported) {
+            return;
+        }
+        long newlyDropped = total - droppedReported;
+        droppedReported = total;
+        if (getContext() instanceof LoggerContext loggerContext) {
+            LoggingEvent warning = new LoggingEvent(RingBufferAsyncAppender.class.getName(),
+                    loggerContext.getLogger(RingBufferAsyncAppender.class), Level.WARN,
+                    "Log ring buffer full; dropped {} events", null, new Object[] {newlyDropped});
+            appenders.appendLoopOnAppenders(warning);
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
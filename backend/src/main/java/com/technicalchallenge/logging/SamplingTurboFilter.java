@@ -0,0 +1,94 @@
+package com.technicalchallenge.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one in every N events below WARN for configured logger categories. Configured in
+ * logback-spring.xml with one {@code <category>name=N</category>} element per category; the
+ * longest matching logger-name prefix applies. WARN and ERROR are never sampled.
+ *
+ * Runs before a logging event is created, and for the SLF4J fluent API it is consulted once per
+ * call (by {@code atInfo()} and friends), so a sampled-out call costs a counter increment.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final Sampler KEEP_ALL = new Sampler(1);
+
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<Sampler> samplers = new ArrayList<>();
+    // logger name -> resolved sampler; loggers are few and long-lived
+    private final ConcurrentMap<String, Sampler> byLogger = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a category as {@code loggerPrefix=N}; invoked by Joran for each {@code <category>}.
+     */
+    public void addCategory(String category) {
+        int separator = category.lastIndexOf('=');
+        if (separator <= 0) {
+            addError("Sampling category must be <logger>=<keep one in N>: " + category);
+            return;
+        }
+        String prefix = category.substring(0, separator).trim();
+        int oneIn;
+        try {
+            oneIn = Integer.parseInt(category.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            addError("Invalid sampling rate in " + category);
+            return;
+        }
+        prefixes.add(prefix);
+        samplers.add(new Sampler(Math.max(1, oneIn)));
+        byLogger.clear();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || level == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        Sampler sampler = byLogger.computeIfAbsent(logger.getName(), this::resolve);
+        // Only count calls that would otherwise be logged; isEnabledFor would re-enter turbo filters
+        if (sampler == KEEP_ALL || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        return sampler.keep() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Sampler resolve(String loggerName) {
+        Sampler match = KEEP_ALL;
+        int matchLength = -1;
+        for (int i = 0; i < prefixes.size(); i++) {
+            String prefix = prefixes.get(i);
+            boolean matches = loggerName.equals(prefix)
+                    || (loggerName.startsWith(prefix) && loggerName.charAt(prefix.length()) == '.');
+            if (matches && prefix.length() > matchLength) {
+                match = samplers.get(i);
+                matchLength = prefix.length();
+            }
+        }
+        return match;
+    }
+
+    private static final class Sampler {
+        private final int oneIn;
+        private final AtomicLong counter = new AtomicLong();
+
+        private Sampler(int oneIn) {
+            this.oneIn = oneIn;
+        }
+
+        private boolean keep() {
+            return oneIn == 1 || counter.getAndIncrement() % oneIn == 0;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.technicalchallenge.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Category loggers for structured trade events. They sit under {@code trade.events}, which
+ * logback-spring.xml routes through {@link RingBufferAsyncAppender} in {@link KeyValueLayout}
+ * format, sampled per category by {@link SamplingTurboFilter}.
+ *
+ * Log through the SLF4J fluent API with a constant event name and key-value pairs, e.g.
+ * {@code BOOKING.atInfo().setMessage("trade.created").addKeyValue("tradeId", id).log()}.
+ * When the level is disabled or the event is sampled out, {@code atInfo()} returns a no-op
+ * builder, so nothing is formatted or concatenated; values are only rendered on the appender
+ * thread. Use the {@code Supplier} overload of {@code addKeyValue} for values that are costly
+ * to compute.
+ */
+public final class TradeEventLoggers {
+
+    public static final String ROOT = "trade.events";
+
+    public static final Logger BOOKING = LoggerFactory.getLogger(ROOT + ".booking");
+    public static final Logger CASHFLOW = LoggerFactory.getLogger(ROOT + ".cashflow");
+    public static final Logger SETTLEMENT = LoggerFactory.getLogger(ROOT + ".settlement");
+
+    private TradeEventLoggers() {}
+}
@@ -0,0 +1,182 @@
+package com.technicalchallenge.lookup;
+
+import com.technicalchallenge.dto.LookupResultDTO;
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.CostCenter;
+import com.technicalchallenge.model.Counterparty;
+import com.technicalchallenge.model.ReferenceDataChangeListener;
+import com.technicalchallenge.repository.ApplicationUserRepository;
+import com.technicalchallenge.repository.BookRepository;
+import com.technicalchallenge.repository.CostCenterRepository;
+import com.technicalchallenge.repository.CounterpartyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory, case-insensitive prefix indexes over counterparty, book and cost center names and
+ * user login IDs and full names, for type-ahead search and for resolving names to ids without
+ * loading and scanning the whole table. The indexes are rebuilt together, on the next lookup,
+ * once a reference data change has committed.
+ *
+ * Search covers users' full names too, but resolving a name to an id only looks at each type's
+ * identifying name: the counterparty, book or cost center name, or the user's login ID.
+ */
+@Service
+public class LookupService {
+    private static final Logger logger = LoggerFactory.getLogger(LookupService.class);
+
+    @Autowired
+    private CounterpartyRepository counterpartyRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CostCenterRepository costCenterRepository;
+
+    @Autowired
+    private ApplicationUserRepository applicationUserRepository;
+
+    private volatile Indexes indexes;
+
+    public List<LookupResultDTO> search(LookupType type, String prefix, int limit) {
+        return indexes().search(type).search(prefix, limit);
+    }
+
+    /**
+     * The id of the entry named {@code name}, ignoring case: a counterparty, book or cost center
+     * name, or a user's login ID.
+     */
+    public Optional<Long> findId(LookupType type, String name) {
+        return indexes().names(type).find(name).map(LookupResultDTO::getId);
+    }
+
+    /**
+     * The id of the entry named exactly {@code name}, case included: a counterparty, book or cost
+     * center name, or a user's login ID. Where names repeat, the first loaded wins.
+     */
+    public Optional<Long> findExactId(LookupType type, String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(indexes().exact(type).get(name));
+    }
+
+    private Indexes indexes() {
+        long version = ReferenceDataChangeListener.changeCount();
+        Indexes current = indexes;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = indexes;
+            // Read the count before loading, so a change committed mid-build triggers another rebuild
+            version = ReferenceDataChangeListener.changeCount();
+            if (current == null || current.version != version) {
+                current = build(version);
+                indexes = current;
+            }
+            return current;
+        }
+    }
+
+    private Indexes build(long version) {
+        Indexes built = new Indexes(version);
+
+        PrefixIndex.Builder counterparties = new PrefixIndex.Builder();
+        Map<String, Long> counterpartyNames = new HashMap<>();
+        for (Counterparty counterparty : counterpartyRepository.findAll()) {
+            counterparties.add(counterparty.getName(), new LookupResultDTO(counterparty.getId(), counterparty.getName(), null));
+            putExact(counterpartyNames, counterparty.getName(), counterparty.getId());
+        }
+        built.put(LookupType.COUNTERPARTY, counterparties.build(), counterpartyNames);
+
+        // [bookId, bookName, costCenterId, costCenterName, ...] in one query rather than a lazy load per book
+        PrefixIndex.Builder books = new PrefixIndex.Builder();
+        Map<String, Long> bookNames = new HashMap<>();
+        for (Object[] row : bookRepository.findBookHierarchy()) {
+            String bookName = (String) row[1];
+            books.add(bookName, new LookupResultDTO((Long) row[0], bookName, (String) row[3]));
+            putExact(bookNames, bookName, (Long) row[0]);
+        }
+        built.put(LookupType.BOOK, books.build(), bookNames);
+
+        PrefixIndex.Builder costCenters = new PrefixIndex.Builder();
+        Map<String, Long> costCenterNames = new HashMap<>();
+        for (CostCenter costCenter : costCenterRepository.findAll()) {
+            costCenters.add(costCenter.getCostCenterName(),
+                    new LookupResultDTO(costCenter.getId(), costCenter.getCostCenterName(), null));
+            putExact(costCenterNames, costCenter.getCostCenterName(), costCenter.getId());
+        }
+        built.put(LookupType.COST_CENTER, costCenters.build(), costCenterNames);
+
+        // Login IDs and full names share the search index; names to ids go by login ID only
+        PrefixIndex.Builder users = new PrefixIndex.Builder();
+        PrefixIndex.Builder loginIds = new PrefixIndex.Builder();
+        Map<String, Long> exactLoginIds = new HashMap<>();
+        for (ApplicationUser user : applicationUserRepository.findAll()) {
+            String fullName = fullName(user);
+            LookupResultDTO result = new LookupResultDTO(user.getId(), user.getLoginId(), fullName);
+            users.add(user.getLoginId(), result);
+            users.add(fullName, result);
+            loginIds.add(user.getLoginId(), result);
+            putExact(exactLoginIds, user.getLoginId(), user.getId());
+        }
+        built.put(LookupType.USER, users.build(), loginIds.build(), exactLoginIds);
+
+        logger.info("Built lookup indexes: {} counterparties, {} books, {} cost centers, {} user keys",
+                built.search(LookupType.COUNTERPARTY).size(), built.search(LookupType.BOOK).size(),
+                built.search(LookupType.COST_CENTER).size(), built.search(LookupType.USER).size());
+        return built;
+    }
+
+    private static void putExact(Map<String, Long> names, String name, Long id) {
+        if (name != null) {
+            names.putIfAbsent(name, id);
+        }
+    }
+
+    private static String fullName(ApplicationUser user) {
+        String first = user.getFirstName() != null ? user.getFirstName() : "";
+        String last = user.getLastName() != null ? user.getLastName() : "";
+        return (first + " " + last).trim();
+    }
+
+    private static final class Indexes {
+        private final long version;
+        private final Map<LookupType, PrefixIndex> search = new EnumMap<>(LookupType.class);
+        private final Map<LookupType, PrefixIndex> names = new EnumMap<>(LookupType.class);
+        private final Map<LookupType, Map<String, Long>> exact = new EnumMap<>(LookupType.class);
+
+        private Indexes(long version) {
+            this.version = version;
+        }
+
+        private void put(LookupType type, PrefixIndex index, Map<String, Long> exactNames) {
+            put(type, index, index, exactNames);
+        }
+
+        private void put(LookupType type, PrefixIndex searchIndex, PrefixIndex nameIndex, Map<String, Long> exactNames) {
+            search.put(type, searchIndex);
+            names.put(type, nameIndex);
+            exact.put(type, exactNames);
+        }
+
+        private PrefixIndex search(LookupType type) {
+            return search.get(type);
+        }
+
+        private PrefixIndex names(LookupType type) {
+            return names.get(type);
+        }
+
+        private Map<String, Long> exact(LookupType type) {
+            return exact.get(type);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.technicalchallenge.lookup;
+
+import java.util.Locale;
+import java.util.Optional;
+
+public enum LookupType {
+    COUNTERPARTY,
+    BOOK,
+    USER,
+    COST_CENTER;
+
+    /**
+     * The type named by a request parameter, ignoring case, e.g. {@code counterparty} or
+     * {@code cost-center}.
+     */
+    public static Optional<LookupType> fromParameter(String parameter) {
+        if (parameter == null) {
+            return Optional.empty();
+        }
+        String name = parameter.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        for (LookupType type : values()) {
+            if (type.name().equals(name)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,115 @@
+package com.technicalchallenge.lookup;
+
+import com.technicalchallenge.dto.LookupResultDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Case-insensitive prefix search over a fixed set of names. Keys are lower-cased and held in one
+ * sorted array, so a search is a binary search for the first key at or after the prefix and a
+ * scan while keys still start with it. Instances are immutable and safe to share.
+ *
+ * A result can be reached through several keys, e.g. a user by login ID and by full name, and
+ * is returned at most once per search.
+ */
+public final class PrefixIndex {
+
+    private final String[] keys;
+    private final LookupResultDTO[] results;
+
+    private PrefixIndex(String[] keys, LookupResultDTO[] results) {
+        this.keys = keys;
+        this.results = results;
+    }
+
+    /**
+     * Up to {@code limit} results with a key starting with {@code prefix}, in key order. An empty
+     * prefix matches everything.
+     */
+    public List<LookupResultDTO> search(String prefix, int limit) {
+        String key = normalise(prefix);
+        List<LookupResultDTO> matches = new ArrayList<>(Math.min(limit, 16));
+        Set<Long> seen = new HashSet<>();
+        for (int i = lowerBound(key); i < keys.length && matches.size() < limit && keys[i].startsWith(key); i++) {
+            if (seen.add(results[i].getId())) {
+                matches.add(results[i]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * The result whose key equals {@code name}, ignoring case.
+     */
+    public Optional<LookupResultDTO> find(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        String key = normalise(name);
+        int i = lowerBound(key);
+        return i < keys.length && keys[i].equals(key) ? Optional.of(results[i]) : Optional.empty();
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    // First position whose key is not less than key
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String normalise(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static final class Builder {
+        private final List<String> keys = new ArrayList<>();
+        private final List<LookupResultDTO> results = new ArrayList<>();
+
+        /**
+         * Indexes {@code result} under {@code key}; blank keys are ignored.
+         */
+        public Builder add(String key, LookupResultDTO result) {
+            String normalised = normalise(key);
+            if (!normalised.isEmpty()) {
+                keys.add(normalised);
+                results.add(result);
+            }
+            return this;
+        }
+
+        public PrefixIndex build() {
+            Integer[] order = new Integer[keys.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            // Stable, so duplicate keys keep the order they were added in
+            Arrays.sort(order, Comparator.comparing(keys::get));
+            String[] sortedKeys = new String[order.length];
+            LookupResultDTO[] sortedResults = new LookupResultDTO[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedKeys[i] = keys.get(order[i]);
+                sortedResults[i] = results.get(order[i]);
+            }
+            return new PrefixIndex(sortedKeys, sortedResults);
+        }
+    }
+}
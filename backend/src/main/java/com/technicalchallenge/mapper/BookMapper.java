@@ -1,6 +1,8 @@
 package com.technicalchallenge.mapper;
 
 import com.technicalchallenge.dto.BookDTO;
+import com.technicalchallenge.lookup.LookupService;
+import com.technicalchallenge.lookup.LookupType;
 import com.technicalchallenge.model.Book;
 import com.technicalchallenge.repository.CostCenterRepository;
 import com.technicalchallenge.model.CostCenter;
@@ -18,6 +20,9 @@ public class BookMapper {
     @Autowired
     private CostCenterRepository costCenterRepository;
 
+    @Autowired
+    private LookupService lookupService;
+
     public BookDTO toDto(Book entity) {
         BookDTO dto = modelMapper.map(entity, BookDTO.class);
         dto.setCostCenterName(entity.getCostCenter() != null ? entity.getCostCenter().getCostCenterName() : null);
@@ -27,9 +32,9 @@ public class BookMapper {
     public Book toEntity(BookDTO dto) {
         Book entity = modelMapper.map(dto, Book.class);
         if (dto.getCostCenterName() != null) {
-            CostCenter costCenter = costCenterRepository.findAll().stream()
-                .filter(cc -> dto.getCostCenterName().equals(cc.getCostCenterName()))
-                .findFirst().orElse(null);
+            CostCenter costCenter = lookupService.findExactId(LookupType.COST_CENTER, dto.getCostCenterName())
+                .flatMap(costCenterRepository::findById)
+                .orElse(null);
             entity.setCostCenter(costCenter);
         }
         return entity;
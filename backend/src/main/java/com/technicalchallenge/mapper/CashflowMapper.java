@@ -26,6 +26,7 @@ public class CashflowMapper {
     public CashflowDTO toDto(Cashflow entity) {
         CashflowDTO dto = new CashflowDTO();
         dto.setId(entity.getId());
+        dto.setLegId(entity.getTradeLeg() != null ? entity.getTradeLeg().getLegId() : null);
         dto.setPaymentValue(entity.getPaymentValue());
         dto.setValueDate(entity.getValueDate());
         dto.setRate(entity.getRate());
@@ -8,6 +8,7 @@ import com.technicalchallenge.model.AdditionalInfo;
 import com.technicalchallenge.model.Trade;
 import com.technicalchallenge.model.TradeLeg;
 import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.service.CashflowScheduleService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -22,7 +23,60 @@ public class TradeMapper {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private CashflowScheduleService cashflowScheduleService;
+
+    /**
+     * A trade with its legs but without their cashflows, which are paged separately from
+     * /api/tradeLegs/{id}/cashflows.
+     */
     public TradeDTO toDto(Trade trade) {
+        return toDto(trade, false);
+    }
+
+    /**
+     * A trade with every cashflow of every leg inlined.
+     */
+    public TradeDTO toDtoWithCashflows(Trade trade) {
+        return toDto(trade, true);
+    }
+
+    private TradeDTO toDto(Trade trade, boolean includeCashflows) {
+        if (trade == null) {
+            return null;
+        }
+
+        TradeDTO dto = toHeaderDto(trade);
+
+        // Map trade legs
+        if (trade.getTradeLegs() != null) {
+            List<TradeLegDTO> legDTOs = trade.getTradeLegs().stream()
+                    .map(leg -> tradeLegToDto(leg, includeCashflows))
+                    .collect(Collectors.toList());
+            dto.setTradeLegs(legDTOs);
+        }
+
+        // MAPPING ADDITIONAL INFO AND SETTLEMENT INSTRUCTIONS
+        if (trade.getAdditionalInfo() != null) {
+            // 1. Map the entire list to the generic additionalFields DTO list
+            List<AdditionalInfoDTO> additionalInfoDTOs = trade.getAdditionalInfo().stream()
+                    .map(this::additionalInfoToDto)
+                    .collect(Collectors.toList());
+            dto.setAdditionalFields(additionalInfoDTOs);
+
+            // 2. Extract the specific Settlement Instructions string
+            trade.getAdditionalInfo().stream()
+                    .filter(info -> info.getFieldName().equals(SETTLEMENT_INSTRUCTIONS_FIELD))
+                    .filter(AdditionalInfo::getActive)
+                    .findFirst()
+                    .ifPresent(info -> dto.setSettlementInstructions(info.getFieldValue()));
+        }
+
+        return dto;
+    }
+
+    // Maps header fields and references only; legs and additional info are left unloaded.
+    public TradeDTO toHeaderDto(Trade trade) {
         if (trade == null) {
             return null;
         }
@@ -41,7 +95,7 @@ public class TradeMapper {
         dto.setValidityEndDate(trade.getValidityEndDate());
         dto.setActive(trade.getActive());
         dto.setCreatedDate(trade.getCreatedDate());
-
+        dto.setChangeSequence(trade.getChangeSequence());
 
         if (trade.getBook() != null) {
             dto.setBookId(trade.getBook().getId());
@@ -78,30 +132,6 @@ public class TradeMapper {
             dto.setTradeStatus(trade.getTradeStatus().getTradeStatus());
         }
 
-        // Map trade legs
-        if (trade.getTradeLegs() != null) {
-            List<TradeLegDTO> legDTOs = trade.getTradeLegs().stream()
-                    .map(this::tradeLegToDto)
-                    .collect(Collectors.toList());
-            dto.setTradeLegs(legDTOs);
-        }
-
-        // MAPPING ADDITIONAL INFO AND SETTLEMENT INSTRUCTIONS
-        if (trade.getAdditionalInfo() != null) {
-            // 1. Map the entire list to the generic additionalFields DTO list
-            List<AdditionalInfoDTO> additionalInfoDTOs = trade.getAdditionalInfo().stream()
-                    .map(this::additionalInfoToDto)
-                    .collect(Collectors.toList());
-            dto.setAdditionalFields(additionalInfoDTOs);
-
-            // 2. Extract the specific Settlement Instructions string
-            trade.getAdditionalInfo().stream()
-                    .filter(info -> info.getFieldName().equals(SETTLEMENT_INSTRUCTIONS_FIELD))
-                    .filter(AdditionalInfo::getActive)
-                    .findFirst()
-                    .ifPresent(info -> dto.setSettlementInstructions(info.getFieldValue()));
-        }
-
         return dto;
     }
 
@@ -137,6 +167,10 @@ public class TradeMapper {
     }
 
     public TradeLegDTO tradeLegToDto(TradeLeg leg) {
+        return tradeLegToDto(leg, true);
+    }
+
+    private TradeLegDTO tradeLegToDto(TradeLeg leg, boolean includeCashflows) {
         if (leg == null) {
             return null;
         }
@@ -186,8 +220,15 @@ public class TradeMapper {
             dto.setPayReceiveFlag(leg.getPayReceiveFlag().getPayRec());
         }
 
-        // Map cashflows
-        if (leg.getCashflows() != null) {
+        // Map cashflows, generating them for a leg that stores only its schedule
+        if (!includeCashflows) {
+            return dto;
+        }
+        if (Boolean.TRUE.equals(leg.getCashflowsOnDemand())) {
+            dto.setCashflows(cashflowScheduleService.getCashflows(leg).stream()
+                    .map(this::cashflowToDto)
+                    .collect(Collectors.toList()));
+        } else if (leg.getCashflows() != null) {
             List<CashflowDTO> cashflowDTOs = leg.getCashflows().stream()
                     .map(this::cashflowToDto)
                     .collect(Collectors.toList());
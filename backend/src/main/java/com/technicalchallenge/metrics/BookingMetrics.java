@@ -0,0 +1,188 @@
+package com.technicalchallenge.metrics;
+
+import com.technicalchallenge.model.TradeType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage-level timing for trade booking operations.
+ *
+ * A {@link Recording} is started per operation and the service marks the start of each stage
+ * with {@link Recording#stage(String)}; a stage runs until the next one begins. Time and SQL
+ * statement counts are accumulated per stage and published when the recording finishes, so
+ * tags that are only known part-way through (e.g. the trade type of a terminated trade) apply
+ * to every stage.
+ *
+ * Every tag comes from a bounded set: the trade type is the name of the resolved reference
+ * data entity, never the raw request value, and is "unknown" until the lookup has happened.
+ * Meters are built once per name and tag set and reused.
+ *
+ * Meters:
+ *   trade.booking                    total time per operation (tags: operation, tradeType, userProfile, outcome)
+ *   trade.booking.statements         SQL statements per operation
+ *   trade.booking.stage              time per stage (tags: operation, stage, tradeType, userProfile)
+ *   trade.booking.stage.statements   SQL statements per stage
+ *   trade.booking.cashflows          cashflows generated per operation
+ */
+@Component
+public class BookingMetrics {
+
+    static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Starts timing an operation (create, amend, terminate, cancel) for the current user.
+     */
+    public Recording start(String operation) {
+        return new Recording(operation, currentUserProfile());
+    }
+
+    // The profile role (ROLE_<userType>) granted at login; avoids a user lookup per booking
+    private String currentUserProfile() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getAuthorities() == null) {
+            return UNKNOWN;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith("ROLE_")) {
+                return name.substring("ROLE_".length());
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        return timers.computeIfAbsent(new MeterKey(name, tags), key -> Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry));
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return summaries.computeIfAbsent(new MeterKey(name, tags), key -> DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(registry));
+    }
+
+    private record MeterKey(String name, Tags tags) {}
+
+    public final class Recording {
+        private final String operation;
+        private final String userProfile;
+        private final long startNanos = System.nanoTime();
+        private final long startStatements = StatementCounter.current();
+
+        // stage -> {nanos, statements}
+        private final Map<String, long[]> stages = new LinkedHashMap<>();
+        private String currentStage;
+        private long stageStartNanos;
+        private long stageStartStatements;
+
+        private String tradeType = UNKNOWN;
+        private int cashflows;
+        private boolean successful;
+        private boolean finished;
+
+        private Recording(String operation, String userProfile) {
+            this.operation = operation;
+            this.userProfile = userProfile;
+        }
+
+        /**
+         * Ends the current stage (if any) and starts the named one. Re-entering a stage adds to its total.
+         */
+        public void stage(String stage) {
+            long now = System.nanoTime();
+            long statements = StatementCounter.current();
+            closeStage(now, statements);
+            currentStage = stage;
+            stageStartNanos = now;
+            stageStartStatements = statements;
+        }
+
+        /**
+         * Tags the operation with a trade type resolved from reference data.
+         */
+        public void tradeType(TradeType tradeType) {
+            if (tradeType != null && tradeType.getTradeType() != null && !tradeType.getTradeType().isBlank()) {
+                this.tradeType = tradeType.getTradeType();
+            }
+        }
+
+        public void addCashflows(int count) {
+            cashflows += count;
+        }
+
+        public int getCashflows() {
+            return cashflows;
+        }
+
+        public void success() {
+            successful = true;
+        }
+
+        /**
+         * Publishes the recorded stages. Safe to call more than once; only the first call records.
+         */
+        public void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long now = System.nanoTime();
+            long statements = StatementCounter.current();
+            closeStage(now, statements);
+
+            Tags tags = Tags.of("operation", operation, "tradeType", tradeType, "userProfile", userProfile);
+            stages.forEach((stage, totals) -> {
+                Tags stageTags = tags.and("stage", stage);
+                timer("trade.booking.stage", "Time spent in each stage of a trade booking operation", stageTags)
+                        .record(totals[0], TimeUnit.NANOSECONDS);
+                summary("trade.booking.stage.statements", "SQL statements executed in each stage of a trade booking operation", stageTags)
+                        .record(totals[1]);
+            });
+
+            timer("trade.booking", "Total time of a trade booking operation", tags.and("outcome", successful ? "success" : "failure"))
+                    .record(now - startNanos, TimeUnit.NANOSECONDS);
+            summary("trade.booking.statements", "SQL statements executed per trade booking operation", tags)
+                    .record(statements - startStatements);
+            if (cashflows > 0) {
+                summary("trade.booking.cashflows", "Cashflows generated per trade booking operation", tags)
+                        .record(cashflows);
+            }
+        }
+
+        private void closeStage(long now, long statements) {
+            if (currentStage == null) {
+                return;
+            }
+            long[] totals = stages.computeIfAbsent(currentStage, s -> new long[2]);
+            totals[0] += now - stageStartNanos;
+            totals[1] += statements - stageStartStatements;
+            currentStage = null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.technicalchallenge.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate hook, registered through {@code hibernate.session_factory.statement_inspector},
+ * that counts every statement Hibernate prepares. The SQL is returned unchanged.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        StatementCounter.increment();
+        return sql;
+    }
+}
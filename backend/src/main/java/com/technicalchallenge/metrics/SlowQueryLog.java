@@ -0,0 +1,123 @@
+package com.technicalchallenge.metrics;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring buffer of the most recent queries that took longer than
+ * {@code sql.monitoring.slow-query-threshold-millis}, each tagged with the controller method
+ * whose request ran it. Once full, the oldest entry is overwritten. Exposed through the
+ * {@code slowqueries} Actuator endpoint.
+ */
+@Component
+public class SlowQueryLog {
+
+    // Long statements (e.g. IN lists) are cut so the buffer's footprint stays bounded
+    static final int MAX_SQL_LENGTH = 2000;
+
+    @Value("${sql.monitoring.slow-query-threshold-millis:200}")
+    private long thresholdMillis;
+
+    @Value("${sql.monitoring.slow-query-buffer-size:500}")
+    private int capacity;
+
+    private AtomicReferenceArray<SlowQuery> entries;
+    private final AtomicLong recorded = new AtomicLong();
+    private long thresholdNanos;
+
+    public SlowQueryLog() {
+    }
+
+    SlowQueryLog(long thresholdMillis, int capacity) {
+        this.thresholdMillis = thresholdMillis;
+        this.capacity = capacity;
+        init();
+    }
+
+    @PostConstruct
+    public void init() {
+        entries = new AtomicReferenceArray<>(Math.max(1, capacity));
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    void record(String sql, long nanos, long rows, SqlRequestStats stats) {
+        String statement = sql == null ? "" : sql.strip();
+        if (statement.length() > MAX_SQL_LENGTH) {
+            statement = statement.substring(0, MAX_SQL_LENGTH) + "...";
+        }
+        SlowQuery entry = new SlowQuery(
+                Instant.now(),
+                nanos / 1_000_000.0,
+                rows,
+                statement,
+                stats.getHandler(),
+                stats.getHttpMethod(),
+                stats.getPath(),
+                Thread.currentThread().getName());
+        long slot = recorded.getAndIncrement();
+        entries.set((int) (slot % entries.length()), entry);
+    }
+
+    /**
+     * The buffered slow queries, most recent first.
+     */
+    public List<SlowQuery> getRecent() {
+        long total = recorded.get();
+        int size = (int) Math.min(total, entries.length());
+        List<SlowQuery> recent = new ArrayList<>(size);
+        for (long i = total - 1; i >= total - size; i--) {
+            SlowQuery entry = entries.get((int) (i % entries.length()));
+            if (entry != null) {
+                recent.add(entry);
+            }
+        }
+        return recent;
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    public long getTotalRecorded() {
+        return recorded.get();
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SlowQuery {
+        private final Instant timestamp;
+        private final double durationMillis;
+        private final long rows;
+        private final String sql;
+
+        // Controller#method of the originating request; null if the query ran before handler selection
+        private final String handler;
+        private final String httpMethod;
+        private final String path;
+        private final String thread;
+    }
+}
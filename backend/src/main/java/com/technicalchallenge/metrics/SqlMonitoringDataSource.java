@@ -0,0 +1,160 @@
+package com.technicalchallenge.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Attributes JDBC work to the HTTP request running on the current thread. Statements are timed
+ * from execution until their result set is closed (or the statement is re-executed or closed),
+ * and fetched rows are counted as the result set is iterated. Work outside a monitored request
+ * (startup, schedulers) passes straight through.
+ */
+public class SqlMonitoringDataSource extends DelegatingDataSource {
+
+    public SqlMonitoringDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return monitoredConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return monitoredConnection(super.getConnection(username, password));
+    }
+
+    private Connection monitoredConnection(Connection connection) {
+        return proxy(Connection.class, (p, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return monitoredStatement(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private Statement monitoredStatement(Statement statement, String preparedSql) {
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        Execution[] current = new Execution[1];
+        return proxy(type, (p, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                finish(current);
+                SqlRequestStats stats = SqlRequestStats.current();
+                if (stats == null) {
+                    return invoke(statement, method, args);
+                }
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                Execution execution = new Execution(stats, sql);
+                current[0] = execution;
+                stats.statementExecuted();
+                long start = System.nanoTime();
+                Object result;
+                try {
+                    result = invoke(statement, method, args);
+                } finally {
+                    execution.nanos += System.nanoTime() - start;
+                }
+                if (result instanceof ResultSet resultSet) {
+                    return monitoredResultSet(resultSet, execution);
+                }
+                // Updates and batches have nothing left to fetch
+                if (!"execute".equals(name)) {
+                    finish(current);
+                }
+                return result;
+            }
+            if ("getResultSet".equals(name) && current[0] != null) {
+                Object result = invoke(statement, method, args);
+                return result instanceof ResultSet resultSet ? monitoredResultSet(resultSet, current[0]) : result;
+            }
+            if ("close".equals(name)) {
+                finish(current);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private ResultSet monitoredResultSet(ResultSet resultSet, Execution execution) {
+        return proxy(ResultSet.class, (p, method, args) -> {
+            String name = method.getName();
+            if ("next".equals(name)) {
+                long start = System.nanoTime();
+                try {
+                    Object hasRow = invoke(resultSet, method, args);
+                    if (Boolean.TRUE.equals(hasRow)) {
+                        execution.rows++;
+                    }
+                    return hasRow;
+                } finally {
+                    execution.nanos += System.nanoTime() - start;
+                }
+            }
+            if ("close".equals(name)) {
+                try {
+                    return invoke(resultSet, method, args);
+                } finally {
+                    execution.finish();
+                }
+            }
+            return invoke(resultSet, method, args);
+        });
+    }
+
+    private static void finish(Execution[] current) {
+        if (current[0] != null) {
+            current[0].finish();
+            current[0] = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    // One execution of a statement; reported to the request once, however it ends
+    private static final class Execution {
+        private final SqlRequestStats stats;
+        private final String sql;
+        private long nanos;
+        private long rows;
+        private boolean finished;
+
+        private Execution(SqlRequestStats stats, String sql) {
+            this.stats = stats;
+            this.sql = sql;
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                stats.executionFinished(sql, nanos, rows);
+            }
+        }
+    }
+}
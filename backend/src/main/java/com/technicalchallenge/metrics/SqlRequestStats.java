@@ -0,0 +1,99 @@
+package com.technicalchallenge.metrics;
+
+import java.util.Locale;
+
+/**
+ * SQL activity of one HTTP request: statements executed, rows fetched and time spent in JDBC
+ * (execution plus result set iteration). Bound to the request thread by {@link SqlMonitoringFilter}
+ * and fed by {@link SqlMonitoringDataSource}; the controller method is filled in by
+ * {@link SqlMonitoringInterceptor} once the handler is known.
+ */
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private final String httpMethod;
+    private final String path;
+    private final SlowQueryLog slowQueryLog;
+    private final long startNanos = System.nanoTime();
+
+    private volatile String handler;
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+
+    SqlRequestStats(String httpMethod, String path, SlowQueryLog slowQueryLog) {
+        this.httpMethod = httpMethod;
+        this.path = path;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    static SqlRequestStats begin(String httpMethod, String path, SlowQueryLog slowQueryLog) {
+        SqlRequestStats stats = new SqlRequestStats(httpMethod, path, slowQueryLog);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The stats of the request running on this thread, or null outside a monitored request.
+     */
+    public static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    synchronized void statementExecuted() {
+        statements++;
+    }
+
+    // Called once per execution, after its result set has been consumed or closed
+    void executionFinished(String sql, long nanos, long fetchedRows) {
+        synchronized (this) {
+            jdbcNanos += nanos;
+            rows += fetchedRows;
+        }
+        if (slowQueryLog != null && slowQueryLog.isSlow(nanos)) {
+            slowQueryLog.record(sql, nanos, fetchedRows, this);
+        }
+    }
+
+    void setHandler(String handler) {
+        this.handler = handler;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public synchronized int getStatements() {
+        return statements;
+    }
+
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    public synchronized long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * Value for the {@code Server-Timing} response header, e.g.
+     * {@code db;dur=12.40;desc="7 statements, 120 rows", app;dur=31.02}.
+     */
+    public synchronized String toServerTiming() {
+        return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d statements, %d rows\", app;dur=%.2f",
+                jdbcNanos / 1_000_000.0, statements, rows, (System.nanoTime() - startNanos) / 1_000_000.0);
+    }
+}
@@ -0,0 +1,20 @@
+package com.technicalchallenge.metrics;
+
+/**
+ * Per-thread count of SQL statements prepared by Hibernate. Callers read the count before and
+ * after a unit of work and take the difference.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private StatementCounter() {}
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
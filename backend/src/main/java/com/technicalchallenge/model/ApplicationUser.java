@@ -13,6 +13,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(ReferenceDataChangeListener.class)
 @Table(name = "application_user")
 public class ApplicationUser {
     @Id
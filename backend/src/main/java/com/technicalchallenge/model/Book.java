@@ -11,6 +11,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(ReferenceDataChangeListener.class)
 @Table(name = "book")
 public class Book {
     @Id
@@ -1,6 +1,7 @@
 package com.technicalchallenge.model;
 
 import jakarta.persistence.*;
+import jakarta.persistence.Index;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -14,7 +15,12 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "cashflow")
+@Table(name = "cashflow", indexes = {
+    // Payments due by date, for the cash ladder and date-windowed queries
+    @Index(name = "idx_cashflow_value_date_active", columnList = "valueDate, active"),
+    // A leg's cashflows in value date order, for paged leg queries
+    @Index(name = "idx_cashflow_leg_value_date", columnList = "leg_id, valueDate")
+})
 public class Cashflow {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
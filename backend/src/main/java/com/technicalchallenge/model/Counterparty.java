@@ -14,6 +14,7 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor 
 @Entity
+@EntityListeners(ReferenceDataChangeListener.class)
 @Table(name = "counterparty")
 public class Counterparty {
     @Id
@@ -0,0 +1,40 @@
+package com.technicalchallenge.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts committed inserts, updates and deletes of the reference data entities that feed the
+ * booking screen's picklists, so cached copies can tell when to rebuild. The count moves after
+ * the transaction commits, once a rebuild would read the change; bulk JPQL and native updates
+ * bypass entity callbacks and are not counted.
+ */
+public class ReferenceDataChangeListener {
+
+    private static final AtomicLong changes = new AtomicLong();
+
+    public static long changeCount() {
+        return changes.get();
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changes.incrementAndGet();
+                }
+            });
+        } else {
+            changes.incrementAndGet();
+        }
+    }
+}
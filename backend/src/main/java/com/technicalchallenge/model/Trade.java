@@ -30,7 +30,14 @@ import lombok.Setter;
     @Index(name = "idx_trade_cp_date", columnList = "counterparty_id, tradeDate"),
 
     // Composite index for searches involving trader and status
-    @Index(name = "idx_trade_trader_status", columnList = "trader_user_id, trade_status_id")
+    @Index(name = "idx_trade_trader_status", columnList = "trader_user_id, trade_status_id"),
+
+    // Version validity intervals for as-of (point-in-time) lookups by trade and by book
+    @Index(name = "idx_trade_version_interval", columnList = "tradeId, createdDate, deactivatedDate"),
+    @Index(name = "idx_trade_book_interval", columnList = "book_id, createdDate, deactivatedDate"),
+
+    // Change feed cursor
+    @Index(name = "idx_trade_change_seq", columnList = "changeSequence", unique = true)
 })
 public class Trade {
     @Id
@@ -85,6 +92,10 @@ public class Trade {
     private LocalDateTime createdDate;
     private LocalDateTime deactivatedDate;
 
+    // Position of this row's last write in the change feed, and when it was drawn; see TradeChangeSequencer
+    private Long changeSequence;
+    private LocalDateTime changeRecordedAt;
+
     // REMOVED: private Long additionalFieldsId;
     // Maps to the AdditionalInfo table using the generic fields
     @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
@@ -59,6 +59,10 @@ public class TradeLeg {
     @JoinColumn(name = "pay_rec_id", referencedColumnName = "id")
     private PayRec payReceiveFlag;
 
+    // Cashflows are generated from the schedule when read rather than stored; stored cashflows
+    // on such a leg are overrides. See CashflowScheduleService.
+    private Boolean cashflowsOnDemand = false;
+
     // Audit fields
     private Boolean active = true;
     private LocalDateTime createdDate;
@@ -0,0 +1,28 @@
+package com.technicalchallenge.position;
+
+import java.util.Arrays;
+
+/**
+ * Running net notional of one book, in minor units, as a flat array of
+ * {@code currencyIndex * MaturityBucket.COUNT + bucket} cells. The array grows as new
+ * currencies are booked into the book.
+ */
+class BookPositions {
+
+    private long[] notionals = new long[0];
+
+    synchronized void add(int currencyIndex, int bucket, long amount) {
+        int cell = currencyIndex * MaturityBucket.COUNT + bucket;
+        if (cell >= notionals.length) {
+            notionals = Arrays.copyOf(notionals, (currencyIndex + 1) * MaturityBucket.COUNT);
+        }
+        notionals[cell] += amount;
+    }
+
+    // Adds this book's positions into an aggregate sized for at least as many currencies
+    synchronized void addTo(long[] aggregate) {
+        for (int i = 0; i < notionals.length; i++) {
+            aggregate[i] += notionals[i];
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.technicalchallenge.position;
+
+import java.time.LocalDate;
+
+/**
+ * Residual-maturity buckets for position keeping, shortest first. A trade falls in the first
+ * bucket whose upper bound is after its maturity date; matured trades fall in the first bucket.
+ */
+public enum MaturityBucket {
+    UP_TO_1Y("0-1Y", 1),
+    UP_TO_2Y("1-2Y", 2),
+    UP_TO_3Y("2-3Y", 3),
+    UP_TO_5Y("3-5Y", 5),
+    UP_TO_7Y("5-7Y", 7),
+    UP_TO_10Y("7-10Y", 10),
+    UP_TO_15Y("10-15Y", 15),
+    UP_TO_20Y("15-20Y", 20),
+    UP_TO_30Y("20-30Y", 30),
+    OVER_30Y("30Y+", Integer.MAX_VALUE);
+
+    private static final MaturityBucket[] BUCKETS = values();
+    public static final int COUNT = BUCKETS.length;
+
+    private final String label;
+    private final int upperBoundYears;
+
+    MaturityBucket(String label, int upperBoundYears) {
+        this.label = label;
+        this.upperBoundYears = upperBoundYears;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Index of the bucket a trade maturing on {@code maturity} falls in, seen from {@code asOf}.
+     */
+    public static int indexOf(LocalDate asOf, LocalDate maturity) {
+        if (maturity == null) {
+            return OVER_30Y.ordinal();
+        }
+        for (int i = 0; i < COUNT - 1; i++) {
+            if (maturity.isBefore(asOf.plusYears(BUCKETS[i].upperBoundYears))) {
+                return i;
+            }
+        }
+        return OVER_30Y.ordinal();
+    }
+}
@@ -0,0 +1,369 @@
+package com.technicalchallenge.position;
+
+import com.technicalchallenge.dto.CurrencyPositionDTO;
+import com.technicalchallenge.dto.PositionDTO;
+import com.technicalchallenge.event.LegSnapshot;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import com.technicalchallenge.repository.BookRepository;
+import com.technicalchallenge.repository.TradeLegRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Keeps running net notional per book, currency and maturity bucket in memory, so positions
+ * can be read and rolled up the Desk, SubDesk and CostCenter hierarchy without touching trades.
+ *
+ * Positions are rate positions: each fixed leg of a live trade counts its notional, positive
+ * when receiving fixed and negative when paying. Floating legs reset to market and are left
+ * out, so a vanilla swap contributes its fixed leg only.
+ *
+ * Positions are rebuilt from the database at startup (or on demand) and then kept current
+ * from committed lifecycle events: each trade's previous contribution is reversed and its new
+ * one applied. Buckets are measured from the current business date and are re-bucketed in
+ * memory when the date rolls.
+ */
+@Service
+public class PositionKeepingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionKeepingService.class);
+
+    // Same statuses the dashboard treats as live
+    static final List<String> LIVE_STATUSES = List.of("LIVE", "NEW", "AMENDED");
+
+    private static final String FIXED_LEG = "Fixed";
+    private static final String RECEIVE = "Receive";
+    private static final String PAY = "Pay";
+    // Notionals are held in minor units (two decimal places)
+    private static final int SCALE = 2;
+
+    @Autowired
+    private TradeLegRepository tradeLegRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final ConcurrentMap<String, Integer> currencyIndexes = new ConcurrentHashMap<>();
+    private final List<String> currencies = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<Long, BookPositions> books = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, TradePosition> trades = new ConcurrentHashMap<>();
+    // Trade updates take the read lock and run concurrently, each book guarding its own array.
+    // Rebuilds, re-bucketing and snapshots take the write lock so they see no half-applied trade.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Hierarchy hierarchy = new Hierarchy(List.of());
+    private volatile LocalDate asOfDate = LocalDate.now();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void initialise() {
+        rebuild();
+    }
+
+    /**
+     * Discards all positions and rebuilds them from the live trades in the database.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        Hierarchy loaded = new Hierarchy(bookRepository.findBookHierarchy());
+        // Hold the write lock across the query, so a trade committed meanwhile is applied after the
+        // rebuild (replacing its contribution is idempotent) rather than to state about to be discarded
+        lock.writeLock().lock();
+        try {
+            Map<Long, List<Object[]>> legsByTrade = new LinkedHashMap<>();
+            for (Object[] row : tradeLegRepository.findLiveFixedLegs(LIVE_STATUSES)) {
+                legsByTrade.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+            }
+            hierarchy = loaded;
+            asOfDate = LocalDate.now();
+            books.clear();
+            trades.clear();
+            legsByTrade.forEach((tradeId, rows) -> {
+                Object[] first = rows.get(0);
+                List<LegSnapshot> legs = new ArrayList<>();
+                for (Object[] row : rows) {
+                    LegSnapshot leg = new LegSnapshot();
+                    leg.setCurrency((String) row[4]);
+                    leg.setPayRec((String) row[5]);
+                    leg.setNotional((BigDecimal) row[6]);
+                    leg.setLegType(FIXED_LEG);
+                    legs.add(leg);
+                }
+                TradePosition position = positionOf((Long) first[2], (Integer) first[1], (LocalDate) first[3], legs);
+                if (position != null) {
+                    trades.put(tradeId, position);
+                    addToBooks(position, 1);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Book positions rebuilt from {} live trades in {} ms",
+                trades.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replaces a trade's contribution once its create, amend, termination or cancellation has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTradeLifecycleEvent(TradeLifecycleEvent event) {
+        TradeSnapshot current = event.getCurrent();
+        if (event.getType() == TradeEventType.SETTLEMENT_INSTRUCTIONS_UPDATED
+                || current == null || current.getTradeId() == null) {
+            return;
+        }
+        int version = current.getVersion() != null ? current.getVersion() : 0;
+        TradePosition replacement = LIVE_STATUSES.contains(current.getTradeStatus())
+                ? positionOf(current.getBookId(), version, current.getTradeMaturityDate(), current.getLegs())
+                : null;
+        if (replacement != null && !hierarchy.getBooks().containsKey(replacement.getBookId())) {
+            refreshHierarchy();
+        }
+        rollBusinessDateIfNeeded();
+
+        lock.readLock().lock();
+        try {
+            trades.compute(current.getTradeId(), (tradeId, existing) -> {
+                // A late event for an older version must not undo a newer one
+                if (existing != null && version < existing.getVersion()) {
+                    return existing;
+                }
+                if (existing != null) {
+                    addToBooks(existing, -1);
+                }
+                if (replacement != null) {
+                    addToBooks(replacement, 1);
+                }
+                return replacement;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Point-in-time positions of every book that has any.
+     */
+    public List<PositionDTO> getAllBookPositions() {
+        Hierarchy current = hierarchy;
+        List<PositionDTO> result = new ArrayList<>();
+        for (Long bookId : books.keySet().stream().sorted().toList()) {
+            BookNode node = current.getBooks().get(bookId);
+            result.add(snapshot(Level.BOOK.name(), bookId, node != null ? node.getBookName() : null, List.of(bookId)));
+        }
+        return result;
+    }
+
+    public Optional<PositionDTO> getBookPositions(Long bookId) {
+        return rollUp(Level.BOOK, bookId);
+    }
+
+    public Optional<PositionDTO> getCostCenterPositions(Long costCenterId) {
+        return rollUp(Level.COST_CENTER, costCenterId);
+    }
+
+    public Optional<PositionDTO> getSubDeskPositions(Long subDeskId) {
+        return rollUp(Level.SUB_DESK, subDeskId);
+    }
+
+    public Optional<PositionDTO> getDeskPositions(Long deskId) {
+        return rollUp(Level.DESK, deskId);
+    }
+
+    private Optional<PositionDTO> rollUp(Level level, Long id) {
+        List<BookNode> nodes = hierarchy.booksUnder(level, id);
+        if (nodes.isEmpty()) {
+            // The book or one of its parents may have been created since the hierarchy was loaded
+            refreshHierarchy();
+            nodes = hierarchy.booksUnder(level, id);
+            if (nodes.isEmpty()) {
+                return Optional.empty();
+            }
+        }
+        String name = level.name.apply(nodes.get(0));
+        List<Long> bookIds = nodes.stream().map(BookNode::getBookId).toList();
+        return Optional.of(snapshot(level.name(), id, name, bookIds));
+    }
+
+    private PositionDTO snapshot(String level, Long id, String name, Collection<Long> bookIds) {
+        rollBusinessDateIfNeeded();
+        List<String> currencyNames;
+        long[] aggregate;
+        LocalDate bucketDate;
+        lock.writeLock().lock();
+        try {
+            currencyNames = List.copyOf(currencies);
+            aggregate = new long[currencyNames.size() * MaturityBucket.COUNT];
+            for (Long bookId : bookIds) {
+                BookPositions positions = books.get(bookId);
+                if (positions != null) {
+                    positions.addTo(aggregate);
+                }
+            }
+            bucketDate = asOfDate;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<CurrencyPositionDTO> positions = new ArrayList<>();
+        for (int c = 0; c < currencyNames.size(); c++) {
+            int from = c * MaturityBucket.COUNT;
+            long[] cells = Arrays.copyOfRange(aggregate, from, from + MaturityBucket.COUNT);
+            if (Arrays.stream(cells).allMatch(cell -> cell == 0)) {
+                continue;
+            }
+            positions.add(new CurrencyPositionDTO(currencyNames.get(c),
+                    Arrays.stream(cells).mapToObj(PositionKeepingService::toMajorUnits).toList(),
+                    toMajorUnits(Arrays.stream(cells).sum())));
+        }
+        List<String> buckets = Arrays.stream(MaturityBucket.values()).map(MaturityBucket::getLabel).toList();
+        return new PositionDTO(level, id, name, bucketDate, buckets, List.copyOf(bookIds), positions);
+    }
+
+    private TradePosition positionOf(Long bookId, int version, LocalDate maturityDate, List<LegSnapshot> legs) {
+        if (bookId == null) {
+            return null;
+        }
+        List<LegSnapshot> fixedLegs = legs == null ? List.of() : legs.stream()
+                .filter(leg -> FIXED_LEG.equalsIgnoreCase(leg.getLegType()))
+                .filter(leg -> leg.getCurrency() != null && leg.getNotional() != null)
+                .filter(leg -> RECEIVE.equalsIgnoreCase(leg.getPayRec()) || PAY.equalsIgnoreCase(leg.getPayRec()))
+                .toList();
+        int[] currencyIndexes = new int[fixedLegs.size()];
+        long[] notionals = new long[fixedLegs.size()];
+        for (int i = 0; i < fixedLegs.size(); i++) {
+            LegSnapshot leg = fixedLegs.get(i);
+            long notional = toMinorUnits(leg.getNotional().abs());
+            currencyIndexes[i] = currencyIndex(leg.getCurrency());
+            notionals[i] = RECEIVE.equalsIgnoreCase(leg.getPayRec()) ? notional : -notional;
+        }
+        return new TradePosition(bookId, version, maturityDate, currencyIndexes, notionals);
+    }
+
+    // Callers hold the lock, so asOfDate cannot change underneath
+    private void addToBooks(TradePosition position, int sign) {
+        int bucket = MaturityBucket.indexOf(asOfDate, position.getMaturityDate());
+        BookPositions positions = books.computeIfAbsent(position.getBookId(), id -> new BookPositions());
+        for (int i = 0; i < position.getCurrencyIndexes().length; i++) {
+            positions.add(position.getCurrencyIndexes()[i], bucket, sign * position.getNotionals()[i]);
+        }
+    }
+
+    private void rollBusinessDateIfNeeded() {
+        LocalDate today = LocalDate.now();
+        if (today.equals(asOfDate)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!today.equals(asOfDate)) {
+                asOfDate = today;
+                books.clear();
+                trades.values().forEach(position -> addToBooks(position, 1));
+                logger.info("Book positions re-bucketed for business date {}", today);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int currencyIndex(String currency) {
+        Integer index = currencyIndexes.get(currency);
+        if (index != null) {
+            return index;
+        }
+        synchronized (currencies) {
+            return currencyIndexes.computeIfAbsent(currency, ccy -> {
+                currencies.add(ccy);
+                return currencies.size() - 1;
+            });
+        }
+    }
+
+    private void refreshHierarchy() {
+        hierarchy = new Hierarchy(bookRepository.findBookHierarchy());
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal toMajorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    private enum Level {
+        BOOK(BookNode::getBookId, BookNode::getBookName),
+        COST_CENTER(BookNode::getCostCenterId, BookNode::getCostCenterName),
+        SUB_DESK(BookNode::getSubDeskId, BookNode::getSubDeskName),
+        DESK(BookNode::getDeskId, BookNode::getDeskName);
+
+        private final Function<BookNode, Long> id;
+        private final Function<BookNode, String> name;
+
+        Level(Function<BookNode, Long> id, Function<BookNode, String> name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class BookNode {
+        private final Long bookId;
+        private final String bookName;
+        private final Long costCenterId;
+        private final String costCenterName;
+        private final Long subDeskId;
+        private final String subDeskName;
+        private final Long deskId;
+        private final String deskName;
+    }
+
+    // Immutable book-to-desk lookup, replaced wholesale when reloaded
+    @Getter
+    private static final class Hierarchy {
+        private final Map<Long, BookNode> books = new HashMap<>();
+
+        private Hierarchy(List<Object[]> rows) {
+            for (Object[] row : rows) {
+                books.put((Long) row[0], new BookNode((Long) row[0], (String) row[1], (Long) row[2], (String) row[3],
+                        (Long) row[4], (String) row[5], (Long) row[6], (String) row[7]));
+            }
+        }
+
+        private List<BookNode> booksUnder(Level level, Long id) {
+            return books.values().stream()
+                    .filter(node -> id != null && id.equals(level.id.apply(node)))
+                    .sorted((a, b) -> Long.compare(a.getBookId(), b.getBookId()))
+                    .toList();
+        }
+    }
+}
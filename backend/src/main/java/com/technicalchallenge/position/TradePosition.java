@@ -0,0 +1,21 @@
+package com.technicalchallenge.position;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * What one trade version contributes to its book's positions: the signed notional of each of
+ * its fixed legs, by currency index. Kept so the contribution can be reversed exactly when the
+ * trade is amended or closed, and re-bucketed when the business date rolls.
+ */
+@Getter
+@AllArgsConstructor
+class TradePosition {
+    private final Long bookId;
+    private final int version;
+    private final LocalDate maturityDate;
+    private final int[] currencyIndexes;
+    private final long[] notionals;
+}
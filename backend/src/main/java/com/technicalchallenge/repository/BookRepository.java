@@ -2,8 +2,10 @@ package com.technicalchallenge.repository;
 
 import com.technicalchallenge.model.Book;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +15,12 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     
     // Checks if a Book exists by its ID and if its 'active' flag is true.
     boolean existsByIdAndActive(Long id, boolean active);
+
+    /**
+     * Every book with its place in the organisation, as
+     * [bookId, bookName, costCenterId, costCenterName, subDeskId, subDeskName, deskId, deskName] rows.
+     */
+    @Query("SELECT b.id, b.bookName, cc.id, cc.costCenterName, sd.id, sd.subdeskName, d.id, d.deskName " +
+           "FROM Book b LEFT JOIN b.costCenter cc LEFT JOIN cc.subDesk sd LEFT JOIN sd.desk d")
+    List<Object[]> findBookHierarchy();
 }
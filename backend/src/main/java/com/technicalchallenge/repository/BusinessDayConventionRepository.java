@@ -9,4 +9,5 @@ import java.util.Optional;
 @Repository
 public interface BusinessDayConventionRepository extends JpaRepository<BusinessDayConvention, Long> {
     Optional<BusinessDayConvention> findByBdc(String bdc);
+    Optional<BusinessDayConvention> findFirstByBdcIgnoreCase(String bdc);
 }
@@ -1,10 +1,147 @@
 package com.technicalchallenge.repository;
 
 import com.technicalchallenge.model.Cashflow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface CashflowRepository extends JpaRepository<Cashflow, Long> {
-    // Custom query methods if needed
+
+    /**
+     * A page of one leg's cashflows, served by the (leg_id, valueDate) index.
+     */
+    @EntityGraph(attributePaths = {"payRec", "paymentType", "paymentBusinessDayConvention"})
+    Page<Cashflow> findByTradeLegLegId(Long legId, Pageable pageable);
+
+    /**
+     * A page of the active cashflows of current trade versions with value dates between two dates
+     * inclusive, optionally only those in a currency or book. Served by the (valueDate, active) index.
+     */
+    @EntityGraph(attributePaths = {"payRec", "paymentType", "paymentBusinessDayConvention"})
+    @Query(value = "SELECT c FROM Cashflow c JOIN c.tradeLeg l JOIN l.trade t " +
+                   "WHERE c.valueDate BETWEEN :from AND :to AND c.active = true AND l.active = true AND t.active = true " +
+                   "AND (:currency IS NULL OR l.currency.currency = :currency) AND (:bookId IS NULL OR t.book.id = :bookId)",
+           countQuery = "SELECT COUNT(c) FROM Cashflow c JOIN c.tradeLeg l JOIN l.trade t " +
+                   "WHERE c.valueDate BETWEEN :from AND :to AND c.active = true AND l.active = true AND t.active = true " +
+                   "AND (:currency IS NULL OR l.currency.currency = :currency) AND (:bookId IS NULL OR t.book.id = :bookId)")
+    Page<Cashflow> findWindow(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                              @Param("currency") String currency, @Param("bookId") Long bookId, Pageable pageable);
+
+    /**
+     * The cashflows of {@link #findWindow} in value date order, streamed for export as
+     * [id, legId, paymentValue, valueDate, rate, payRec, paymentType, paymentBusinessDayConvention,
+     * createdDate, active] rows. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id, l.legId, c.paymentValue, c.valueDate, c.rate, pr.payRec, pt.type, bdc.bdc, c.createdDate, c.active " +
+           "FROM Cashflow c JOIN c.tradeLeg l JOIN l.trade t " +
+           "LEFT JOIN c.payRec pr LEFT JOIN c.paymentType pt LEFT JOIN c.paymentBusinessDayConvention bdc " +
+           "WHERE c.valueDate BETWEEN :from AND :to AND c.active = true AND l.active = true AND t.active = true " +
+           "AND (:currency IS NULL OR l.currency.currency = :currency) AND (:bookId IS NULL OR t.book.id = :bookId) " +
+           "ORDER BY c.valueDate, c.id")
+    Stream<Object[]> streamWindow(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                  @Param("currency") String currency, @Param("bookId") Long bookId);
+
+    /**
+     * Cashflows of a trader's live trades, flattened for valuation as
+     * [tradeId, legId, legType, payRec, currency, index, notional, tradeStartDate, valueDate, paymentValue]
+     * rows, ordered by trade, leg and value date.
+     */
+    @Query("SELECT t.tradeId, l.legId, l.legRateType.type, l.payReceiveFlag.payRec, l.currency.currency, idx.index, " +
+           "l.notional, t.tradeStartDate, c.valueDate, c.paymentValue " +
+           "FROM Cashflow c JOIN c.tradeLeg l JOIN l.trade t LEFT JOIN l.index idx " +
+           "WHERE t.traderUser.id = :traderUserId AND t.active = true AND l.active = true AND c.active = true " +
+           "AND t.tradeStatus.tradeStatus IN :statuses " +
+           "ORDER BY t.tradeId, l.legId, c.valueDate")
+    List<Object[]> findValuationCashflowsByTrader(@Param("traderUserId") Long traderUserId,
+                                                  @Param("statuses") List<String> statuses);
+
+    /**
+     * Cashflows of the live trades in the given books, in the same layout as
+     * {@link #findValuationCashflowsByTrader} with the trade's bookId and traderUserId appended.
+     */
+    @Query("SELECT t.tradeId, l.legId, l.legRateType.type, l.payReceiveFlag.payRec, l.currency.currency, idx.index, " +
+           "l.notional, t.tradeStartDate, c.valueDate, c.paymentValue, t.book.id, t.traderUser.id " +
+           "FROM Cashflow c JOIN c.tradeLeg l JOIN l.trade t LEFT JOIN l.index idx " +
+           "WHERE t.book.id IN :bookIds AND t.active = true AND l.active = true AND c.active = true " +
+           "AND t.tradeStatus.tradeStatus IN :statuses " +
+           "ORDER BY t.tradeId, l.legId, c.valueDate")
+    List<Object[]> findValuationCashflowsByBooks(@Param("bookIds") List<Long> bookIds,
+                                                 @Param("statuses") List<String> statuses);
+
+    /**
+     * Cashflows of the given live trades, in the same layout as {@link #findValuationCashflowsByBooks}.
+     */
+    @Query("SELECT t.tradeId, l.legId, l.legRateType.type, l.payReceiveFlag.payRec, l.currency.currency, idx.index, " +
+           "l.notional, t.tradeStartDate, c.valueDate, c.paymentValue, t.book.id, t.traderUser.id " +
+           "FROM Cashflow c JOIN c.tradeLeg l JOIN l.trade t LEFT JOIN l.index idx " +
+           "WHERE t.tradeId IN :tradeIds AND t.active = true AND l.active = true AND c.active = true " +
+           "ORDER BY t.tradeId, l.legId, c.valueDate")
+    List<Object[]> findValuationCashflowsByTradeIds(@Param("tradeIds") List<Long> tradeIds);
+
+    /**
+     * Payments due between two dates on live trades, summed per trade row as
+     * [tradeRowId, valueDate, currency, payRec, paymentValue] rows. Served by the
+     * (valueDate, active) index on cashflow.
+     */
+    @Query("SELECT t.id, c.valueDate, l.currency.currency, c.payRec.payRec, SUM(c.paymentValue) " +
+           "FROM Cashflow c JOIN c.tradeLeg l JOIN l.trade t " +
+           "WHERE c.valueDate BETWEEN :from AND :to AND c.active = true AND l.active = true AND t.active = true " +
+           "AND t.tradeStatus.tradeStatus IN :statuses " +
+           "GROUP BY t.id, c.valueDate, l.currency.currency, c.payRec.payRec")
+    List<Object[]> findPaymentsDue(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                   @Param("statuses") List<String> statuses);
+
+    /**
+     * Payments due between two dates on one trade row, whatever its status, in the same layout
+     * as {@link #findPaymentsDue}.
+     */
+    @Query("SELECT t.id, c.valueDate, l.currency.currency, c.payRec.payRec, SUM(c.paymentValue) " +
+           "FROM Cashflow c JOIN c.tradeLeg l JOIN l.trade t " +
+           "WHERE t.id = :tradeRowId AND c.valueDate BETWEEN :from AND :to AND c.active = true AND l.active = true " +
+           "GROUP BY t.id, c.valueDate, l.currency.currency, c.payRec.payRec")
+    List<Object[]> findPaymentsDueByTradeRow(@Param("tradeRowId") Long tradeRowId,
+                                             @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Cashflows of live trades due on a date, streamed for settlement netting as
+     * [counterpartyId, counterpartyName, currency, settlementInstructions, payRec, paymentValue]
+     * rows. Settlement instructions are the trade's active ones, or null. Must be consumed
+     * inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT cp.id, cp.name, l.currency.currency, ai.fieldValue, c.payRec.payRec, c.paymentValue " +
+           "FROM Cashflow c JOIN c.tradeLeg l JOIN l.trade t JOIN t.counterparty cp " +
+           "LEFT JOIN AdditionalInfo ai ON ai.entityId = t.id AND ai.entityType = 'TRADE' " +
+           "AND ai.fieldName = 'SETTLEMENT_INSTRUCTIONS' AND ai.active = true " +
+           "WHERE c.valueDate = :valueDate AND c.active = true AND l.active = true AND t.active = true " +
+           "AND t.tradeStatus.tradeStatus IN :statuses")
+    Stream<Object[]> streamCashflowsDue(@Param("valueDate") LocalDate valueDate,
+                                        @Param("statuses") List<String> statuses);
+
+    /**
+     * Cashflows for the columnar export as [id, legId, tradeRowId, tradeId, valueDate, paymentValue,
+     * rate, payRec, paymentType]: active cashflows of active legs and trade rows, or with
+     * {@code activeOnly} false the cashflows of the trade versions valid at {@code asOf}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id, l.legId, t.id, t.tradeId, c.valueDate, c.paymentValue, c.rate, pr.payRec, pt.type " +
+           "FROM Cashflow c JOIN c.tradeLeg l JOIN l.trade t LEFT JOIN c.payRec pr LEFT JOIN c.paymentType pt " +
+           "WHERE (:activeOnly = true AND t.active = true AND l.active = true AND c.active = true) " +
+           "OR (:activeOnly = false AND t.createdDate <= :asOf AND (t.deactivatedDate IS NULL OR t.deactivatedDate > :asOf)) " +
+           "ORDER BY l.legId, c.valueDate, c.id")
+    Stream<Object[]> streamCashflowExportRows(@Param("activeOnly") boolean activeOnly, @Param("asOf") LocalDateTime asOf);
 }
@@ -9,4 +9,5 @@ import java.util.Optional;
 @Repository
 public interface PayRecRepository extends JpaRepository<PayRec, Long> {
     Optional<PayRec> findByPayRec(String payRec);
+    Optional<PayRec> findFirstByPayRecIgnoreCase(String payRec);
 }
@@ -1,8 +1,63 @@
 package com.technicalchallenge.repository;
 
 import com.technicalchallenge.model.TradeLeg;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface TradeLegRepository extends JpaRepository<TradeLeg, Long> {}
+public interface TradeLegRepository extends JpaRepository<TradeLeg, Long> {
+
+    /**
+     * Notional of every active leg on a live trade version, as
+     * [tradeId, counterpartyId, currency, notional] rows. Used to seed counterparty exposure.
+     */
+    @Query("SELECT t.tradeId, t.counterparty.id, l.currency.currency, l.notional FROM TradeLeg l JOIN l.trade t " +
+           "WHERE t.active = true AND l.active = true " +
+           "AND t.tradeStatus.tradeStatus NOT IN :closedStatuses")
+    List<Object[]> findLiveLegExposures(@Param("closedStatuses") List<String> closedStatuses);
+
+    /**
+     * Fixed legs of every live trade version, as
+     * [tradeId, version, bookId, maturityDate, currency, payRec, notional] rows. Used to rebuild book positions.
+     */
+    @Query("SELECT t.tradeId, t.version, t.book.id, t.tradeMaturityDate, l.currency.currency, l.payReceiveFlag.payRec, l.notional " +
+           "FROM TradeLeg l JOIN l.trade t " +
+           "WHERE t.active = true AND l.active = true AND l.legRateType.type = 'Fixed' " +
+           "AND t.tradeStatus.tradeStatus IN :liveStatuses")
+    List<Object[]> findLiveFixedLegs(@Param("liveStatuses") List<String> liveStatuses);
+
+    /**
+     * Active legs of active trade rows as [tradeRowId, notional, rate, currency, legType, payRec],
+     * each trade's legs together.
+     */
+    @Query("SELECT t.id, l.notional, l.rate, cur.currency, lt.type, pr.payRec FROM TradeLeg l JOIN l.trade t " +
+           "LEFT JOIN l.currency cur LEFT JOIN l.legRateType lt LEFT JOIN l.payReceiveFlag pr " +
+           "WHERE t.active = true AND l.active = true ORDER BY t.id, l.legId")
+    List<Object[]> findActiveLegColumns();
+
+    // Legs whose cashflows are generated from their schedule when read
+    List<TradeLeg> findByCashflowsOnDemandTrue();
+
+    /**
+     * Legs for the columnar export as [legId, tradeRowId, tradeId, notional, rate, currency, legType,
+     * index, payRec]: active legs of active trade rows, or with {@code activeOnly} false the legs of
+     * the trade versions valid at {@code asOf}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT l.legId, t.id, t.tradeId, l.notional, l.rate, cur.currency, lt.type, ix.index, pr.payRec " +
+           "FROM TradeLeg l JOIN l.trade t LEFT JOIN l.currency cur LEFT JOIN l.legRateType lt " +
+           "LEFT JOIN l.index ix LEFT JOIN l.payReceiveFlag pr " +
+           "WHERE (:activeOnly = true AND t.active = true AND l.active = true) " +
+           "OR (:activeOnly = false AND t.createdDate <= :asOf AND (t.deactivatedDate IS NULL OR t.deactivatedDate > :asOf)) " +
+           "ORDER BY t.id, l.legId")
+    Stream<Object[]> streamLegExportRows(@Param("activeOnly") boolean activeOnly, @Param("asOf") LocalDateTime asOf);
+}
@@ -1,14 +1,19 @@
 package com.technicalchallenge.repository;
 
 import com.technicalchallenge.model.Trade;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Pageable;
@@ -60,6 +65,77 @@ public interface TradeRepository extends JpaRepository<Trade, Long>, JpaSpecific
     @Query("SELECT t FROM Trade t WHERE t.traderUser.id = :traderUserId AND t.tradeDate = :date")
     List<Trade> findTradesByTraderAndDate(@Param("traderUserId") Long traderUserId, @Param("date") java.time.LocalDate date);
 
+    /**
+     * Finds the version of a trade that was valid at the given point in time.
+     * A version is valid from its createdDate (inclusive) until its deactivatedDate (exclusive);
+     * the current version has no deactivatedDate. Served by idx_trade_version_interval.
+     * Only amendments open a new version: termination and cancellation update the status of the
+     * current version in place, so the returned version carries its latest status.
+     */
+    @Query("SELECT t FROM Trade t WHERE t.tradeId = :tradeId " +
+           "AND t.createdDate <= :asOf " +
+           "AND (t.deactivatedDate IS NULL OR t.deactivatedDate > :asOf)")
+    Optional<Trade> findVersionAsOf(@Param("tradeId") Long tradeId, @Param("asOf") LocalDateTime asOf);
+
+    /**
+     * Finds every trade version booked in a book that was valid at the given point in time,
+     * as a single range query over idx_trade_book_interval rather than one lookup per trade.
+     * Fetches every reference a trade header maps, so the snapshot needs no further queries.
+     */
+    @EntityGraph(attributePaths = {"book", "counterparty", "traderUser", "tradeInputterUser", "tradeType", "tradeSubType", "tradeStatus"})
+    @Query("SELECT t FROM Trade t WHERE t.book.id = :bookId " +
+           "AND t.createdDate <= :asOf " +
+           "AND (t.deactivatedDate IS NULL OR t.deactivatedDate > :asOf) " +
+           "ORDER BY t.tradeId")
+    List<Trade> findBookVersionsAsOf(@Param("bookId") Long bookId, @Param("asOf") LocalDateTime asOf);
+
+    /**
+     * Change feed: trade rows written after the given cursor, in change sequence order.
+     * A range scan over idx_trade_change_seq, bounded by the pageable's size.
+     */
+    @EntityGraph(attributePaths = {"book", "counterparty", "traderUser", "tradeInputterUser", "tradeType", "tradeSubType", "tradeStatus"})
+    List<Trade> findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Long changeSequence, Pageable pageable);
+
+    /**
+     * Books in which the trader has live trades.
+     */
+    @Query("SELECT DISTINCT t.book.id FROM Trade t WHERE t.traderUser.id = :traderUserId " +
+           "AND t.active = true AND t.tradeStatus.tradeStatus IN :statuses")
+    List<Long> findBookIdsByTraderAndStatuses(@Param("traderUserId") Long traderUserId,
+                                              @Param("statuses") List<String> statuses);
+
+    /**
+     * The trader's live trades as [tradeId, version, bookId] rows, to find which have changed
+     * since their risk was last computed.
+     */
+    @Query("SELECT t.tradeId, t.version, t.book.id FROM Trade t WHERE t.traderUser.id = :traderUserId " +
+           "AND t.active = true AND t.tradeStatus.tradeStatus IN :statuses")
+    List<Object[]> findTradeVersionsByTraderAndStatuses(@Param("traderUserId") Long traderUserId,
+                                                        @Param("statuses") List<String> statuses);
+
+    /**
+     * Live trades' lifetimes as [id, tradeId, tradeStartDate, tradeMaturityDate] rows.
+     */
+    @Query("SELECT t.id, t.tradeId, t.tradeStartDate, t.tradeMaturityDate FROM Trade t WHERE t.active = true " +
+           "AND t.tradeStatus.tradeStatus IN :statuses " +
+           "AND t.tradeStartDate IS NOT NULL AND t.tradeMaturityDate IS NOT NULL")
+    List<Object[]> findLiveTradeLifetimes(@Param("statuses") List<String> statuses);
+
+    /**
+     * Every active trade row as [id, tradeId, bookId, bookName, counterpartyId, counterpartyName,
+     * traderUserId, traderLoginId, tradeStatus, tradeType, tradeDate, tradeStartDate, tradeMaturityDate].
+     */
+    @Query("SELECT t.id, t.tradeId, b.id, b.bookName, c.id, c.name, u.id, u.loginId, s.tradeStatus, ty.tradeType, " +
+           "t.tradeDate, t.tradeStartDate, t.tradeMaturityDate FROM Trade t " +
+           "LEFT JOIN t.book b LEFT JOIN t.counterparty c LEFT JOIN t.traderUser u " +
+           "LEFT JOIN t.tradeStatus s LEFT JOIN t.tradeType ty WHERE t.active = true")
+    List<Object[]> findActiveTradeColumns();
+
+    @Query("SELECT MAX(t.changeSequence) FROM Trade t")
+    Long findMaxChangeSequence();
+
+    List<Trade> findByChangeSequenceIsNullOrderByIdAsc();
+
     // Method for Settlement Instructions search
     @Query("SELECT t FROM Trade t " +
            "JOIN AdditionalInfo ai ON t.id = ai.entityId " +
@@ -68,4 +144,20 @@ public interface TradeRepository extends JpaRepository<Trade, Long>, JpaSpecific
            "AND ai.active = TRUE " +
            "AND UPPER(ai.fieldValue) LIKE UPPER(CONCAT('%', :instructions, '%'))")
     List<Trade> findActiveTradesBySettlementInstructionsContaining(@Param("instructions") String instructions);
+
+    /**
+     * Trade rows for the columnar export as [id, tradeId, version, bookName, counterpartyName,
+     * traderLoginId, tradeStatus, tradeType, tradeSubType, tradeDate, tradeStartDate,
+     * tradeMaturityDate, tradeExecutionDate, createdDate, deactivatedDate]: the active rows, or
+     * with {@code activeOnly} false the versions valid at {@code asOf}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id, t.tradeId, t.version, b.bookName, c.name, u.loginId, s.tradeStatus, ty.tradeType, st.tradeSubType, " +
+           "t.tradeDate, t.tradeStartDate, t.tradeMaturityDate, t.tradeExecutionDate, t.createdDate, t.deactivatedDate " +
+           "FROM Trade t LEFT JOIN t.book b LEFT JOIN t.counterparty c LEFT JOIN t.traderUser u " +
+           "LEFT JOIN t.tradeStatus s LEFT JOIN t.tradeType ty LEFT JOIN t.tradeSubType st " +
+           "WHERE (:activeOnly = true AND t.active = true) " +
+           "OR (:activeOnly = false AND t.createdDate <= :asOf AND (t.deactivatedDate IS NULL OR t.deactivatedDate > :asOf)) " +
+           "ORDER BY t.tradeId, t.version")
+    Stream<Object[]> streamTradeExportRows(@Param("activeOnly") boolean activeOnly, @Param("asOf") LocalDateTime asOf);
 }
@@ -0,0 +1,326 @@
+package com.technicalchallenge.risk;
+
+import com.technicalchallenge.valuation.CurveSet;
+import com.technicalchallenge.valuation.ValuationLeg;
+import com.technicalchallenge.valuation.ValuationTrade;
+import com.technicalchallenge.valuation.ZeroCurve;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Tenor-bucketed DV01: the change in a trade's present value, in the reporting currency, when
+ * one curve pillar's zero rate is bumped by one basis point. A pillar bump only moves the zero
+ * rate between its neighbouring pillars, so each cashflow is revalued only against the one or
+ * two pillars either side of the dates it depends on, rather than revaluing the whole trade
+ * once per pillar.
+ *
+ * Per-trade ladders are computed, and reduced into per-book ladders, on a dedicated fork-join
+ * pool.
+ */
+@Component
+public class Dv01Engine {
+
+    public static final double BUMP = 0.0001;
+
+    // Trades handled sequentially by one task before it stops splitting
+    static final int LEAF_SIZE = 256;
+
+    @Value("${risk.dv01.parallelism:0}")
+    private int parallelism;
+
+    private volatile ForkJoinPool pool;
+
+    public Dv01Engine() {
+    }
+
+    Dv01Engine(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * One ladder per trade, in {@link PillarLayout} order, or null for a trade missing a curve or
+     * FX rate.
+     */
+    public double[][] tradeLadders(ValuationTrade[] trades, CurveSet curves, PillarLayout layout) {
+        double[][] ladders = new double[trades.length][];
+        if (trades.length > 0) {
+            pool().invoke(new LadderTask(trades, curves, layout, ladders, 0, trades.length));
+        }
+        return ladders;
+    }
+
+    /**
+     * Sums trade ladders into one ladder per group, laid out as
+     * {@code result[group * pillarCount + pillar]}. Null ladders are skipped.
+     */
+    public double[] reduce(double[][] ladders, int[] groupOfLadder, int groupCount, int pillarCount) {
+        if (ladders.length == 0) {
+            return new double[groupCount * pillarCount];
+        }
+        return pool().invoke(new ReduceTask(ladders, groupOfLadder, groupCount * pillarCount, pillarCount,
+                0, ladders.length));
+    }
+
+    /**
+     * Adds one trade's DV01 per pillar into {@code target}.
+     * @return false, leaving {@code target} untouched, if a curve or FX rate is missing
+     */
+    static boolean addTradeDv01(ValuationTrade trade, CurveSet curves, PillarLayout layout, double[] target) {
+        if (!VarEngine.hasMarketData(trade, curves)) {
+            return false;
+        }
+        for (ValuationLeg leg : trade.getLegs()) {
+            String discountName = leg.getCurrency();
+            ZeroCurve discount = curves.curve(discountName);
+            double scale = leg.getSign() * curves.fxRate(discountName);
+            double[] times = leg.getPaymentTimes();
+            int discountOffset = layout.offset(discountName);
+            if (!leg.isFloating()) {
+                double[] amounts = leg.getAmounts();
+                for (int i = 0; i < times.length; i++) {
+                    double t = times[i];
+                    double base = amounts[i] * discount.discountFactor(t);
+                    int lower = discount.lowerPillar(t);
+                    for (int k = lower; k <= Math.min(lower + 1, discount.pillarCount() - 1); k++) {
+                        target[discountOffset + k] += scale * (amounts[i] * discount.bumpedDiscountFactor(t, k, BUMP) - base);
+                    }
+                }
+                continue;
+            }
+            String projectionName = curves.curve(leg.getIndex()) != null ? leg.getIndex() : discountName;
+            ZeroCurve projection = curves.curve(projectionName);
+            boolean sameCurve = projectionName.equals(discountName);
+            int projectionOffset = layout.offset(projectionName);
+            double[] starts = leg.getAccrualStarts();
+            int[] pillars = new int[4];
+            for (int i = 0; i < times.length; i++) {
+                double end = times[i];
+                double accrual = end - starts[i];
+                if (accrual <= 0) {
+                    continue;
+                }
+                if (leg.isFixed(i)) {
+                    // A fixed coupon only moves with the discount curve
+                    double amount = leg.getNotional() * leg.getCurrentFixing() * accrual;
+                    double base = amount * discount.discountFactor(end);
+                    int count = addPillars(pillars, 0, discount, end);
+                    for (int p = 0; p < count; p++) {
+                        target[discountOffset + pillars[p]] += scale * (amount * discount.bumpedDiscountFactor(end, pillars[p], BUMP) - base);
+                    }
+                    continue;
+                }
+                double start = Math.max(starts[i], 0.0);
+                double base = floatingCashflow(leg.getNotional(), accrual, start, end,
+                        projection.discountFactor(start), projection.discountFactor(end), discount.discountFactor(end));
+
+                // The projection curve moves the forward through both period dates
+                int count = addPillars(pillars, 0, projection, start);
+                count = addPillars(pillars, count, projection, end);
+                for (int p = 0; p < count; p++) {
+                    int k = pillars[p];
+                    double bumped = floatingCashflow(leg.getNotional(), accrual, start, end,
+                            projection.bumpedDiscountFactor(start, k, BUMP), projection.bumpedDiscountFactor(end, k, BUMP),
+                            sameCurve ? discount.bumpedDiscountFactor(end, k, BUMP) : discount.discountFactor(end));
+                    target[projectionOffset + k] += scale * (bumped - base);
+                }
+                if (sameCurve) {
+                    continue;
+                }
+                // The discount curve only through the payment date
+                count = addPillars(pillars, 0, discount, end);
+                for (int p = 0; p < count; p++) {
+                    int k = pillars[p];
+                    double bumped = floatingCashflow(leg.getNotional(), accrual, start, end,
+                            projection.discountFactor(start), projection.discountFactor(end),
+                            discount.bumpedDiscountFactor(end, k, BUMP));
+                    target[discountOffset + k] += scale * (bumped - base);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static double floatingCashflow(double notional, double accrual, double start, double end,
+                                           double startDf, double endDf, double paymentDf) {
+        double forward = (startDf / endDf - 1.0) / (end - start);
+        return notional * forward * accrual * paymentDf;
+    }
+
+    // Appends the pillars either side of t that are not already in pillars[0, count)
+    private static int addPillars(int[] pillars, int count, ZeroCurve curve, double t) {
+        int lower = curve.lowerPillar(t);
+        int upper = Math.min(lower + 1, curve.pillarCount() - 1);
+        for (int k = lower; k <= upper; k++) {
+            boolean seen = false;
+            for (int p = 0; p < count; p++) {
+                seen |= pillars[p] == k;
+            }
+            if (!seen) {
+                pillars[count++] = k;
+            }
+        }
+        return count;
+    }
+
+    private ForkJoinPool pool() {
+        ForkJoinPool current = pool;
+        if (current == null) {
+            synchronized (this) {
+                current = pool;
+                if (current == null) {
+                    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+                    current = new ForkJoinPool(threads);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ForkJoinPool current = pool;
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    /**
+     * Position of every curve pillar in a ladder: curves in name order, each curve's pillars in
+     * time order. Fixed for one {@link CurveSet}.
+     */
+    public static final class PillarLayout {
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final List<String> curveNames = new ArrayList<>();
+        private final List<Double> times = new ArrayList<>();
+
+        public PillarLayout(CurveSet curves) {
+            for (String name : curves.getCurves().keySet().stream().sorted().toList()) {
+                ZeroCurve curve = curves.curve(name);
+                offsets.put(name, times.size());
+                for (int k = 0; k < curve.pillarCount(); k++) {
+                    curveNames.add(name);
+                    times.add(curve.pillarTime(k));
+                }
+            }
+        }
+
+        public int size() {
+            return times.size();
+        }
+
+        public int offset(String curve) {
+            return offsets.get(curve);
+        }
+
+        public String curveName(int pillar) {
+            return curveNames.get(pillar);
+        }
+
+        public double time(int pillar) {
+            return times.get(pillar);
+        }
+
+        /**
+         * Pillar time as a tenor label, e.g. 3M or 10Y.
+         */
+        public String tenor(int pillar) {
+            double years = times.get(pillar);
+            long months = Math.round(years * 12);
+            if (Math.abs(years * 12 - months) < 1e-6 && months % 12 != 0) {
+                return months + "M";
+            }
+            if (Math.abs(years - Math.round(years)) < 1e-6) {
+                return Math.round(years) + "Y";
+            }
+            return Math.round(years * 365) + "D";
+        }
+    }
+
+    private static final class LadderTask extends RecursiveAction {
+        private final ValuationTrade[] trades;
+        private final CurveSet curves;
+        private final PillarLayout layout;
+        private final double[][] ladders;
+        private final int from;
+        private final int to;
+
+        private LadderTask(ValuationTrade[] trades, CurveSet curves, PillarLayout layout, double[][] ladders,
+                           int from, int to) {
+            this.trades = trades;
+            this.curves = curves;
+            this.layout = layout;
+            this.ladders = ladders;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    double[] ladder = new double[layout.size()];
+                    ladders[i] = addTradeDv01(trades[i], curves, layout, ladder) ? ladder : null;
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new LadderTask(trades, curves, layout, ladders, from, middle),
+                    new LadderTask(trades, curves, layout, ladders, middle, to));
+        }
+    }
+
+    private static final class ReduceTask extends RecursiveTask<double[]> {
+        private final double[][] ladders;
+        private final int[] groupOfLadder;
+        private final int length;
+        private final int pillarCount;
+        private final int from;
+        private final int to;
+
+        private ReduceTask(double[][] ladders, int[] groupOfLadder, int length, int pillarCount, int from, int to) {
+            this.ladders = ladders;
+            this.groupOfLadder = groupOfLadder;
+            this.length = length;
+            this.pillarCount = pillarCount;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= LEAF_SIZE * 4) {
+                double[] sum = new double[length];
+                for (int i = from; i < to; i++) {
+                    double[] ladder = ladders[i];
+                    if (ladder == null) {
+                        continue;
+                    }
+                    int offset = groupOfLadder[i] * pillarCount;
+                    for (int k = 0; k < pillarCount; k++) {
+                        sum[offset + k] += ladder[k];
+                    }
+                }
+                return sum;
+            }
+            int middle = (from + to) >>> 1;
+            ReduceTask left = new ReduceTask(ladders, groupOfLadder, length, pillarCount, from, middle);
+            left.fork();
+            double[] sum = new ReduceTask(ladders, groupOfLadder, length, pillarCount, middle, to).compute();
+            double[] other = left.join();
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += other[i];
+            }
+            return sum;
+        }
+    }
+}
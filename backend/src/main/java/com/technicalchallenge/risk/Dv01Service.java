@@ -0,0 +1,205 @@
+package com.technicalchallenge.risk;
+
+import com.technicalchallenge.dto.BookDv01DTO;
+import com.technicalchallenge.dto.Dv01LadderDTO;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.fixing.FixingService;
+import com.technicalchallenge.fixing.FixingSet;
+import com.technicalchallenge.repository.CashflowRepository;
+import com.technicalchallenge.repository.TradeRepository;
+import com.technicalchallenge.risk.Dv01Engine.PillarLayout;
+import com.technicalchallenge.valuation.CurveService;
+import com.technicalchallenge.valuation.CurveSet;
+import com.technicalchallenge.valuation.ValuationService;
+import com.technicalchallenge.valuation.ValuationTrade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * DV01 ladders for a trader's live trades, by book and in total. Each trade's ladder is cached
+ * against its version and the curves and fixings it was computed with, so a request only
+ * recomputes trades booked or amended since the last one, or all of them after a market data
+ * update.
+ */
+@Service
+public class Dv01Service {
+
+    private static final Logger logger = LoggerFactory.getLogger(Dv01Service.class);
+
+    // Same statuses the dashboard treats as live
+    static final List<String> LIVE_STATUSES = List.of("LIVE", "NEW", "AMENDED");
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private CashflowRepository cashflowRepository;
+
+    @Autowired
+    private CurveService curveService;
+
+    @Autowired
+    private FixingService fixingService;
+
+    @Autowired
+    private Dv01Engine dv01Engine;
+
+    private final ConcurrentMap<Long, TradeDv01> cache = new ConcurrentHashMap<>();
+
+    // Ladder layout of the curve set last seen; rebuilt when the curves are reloaded
+    private PillarLayout layout;
+    private CurveSet layoutCurves;
+
+    @Transactional(readOnly = true)
+    public Dv01LadderDTO getTraderLadder(Long traderUserId) {
+        CurveSet curves = curveService.getCurveSet();
+        FixingSet fixings = fixingService.getFixings();
+        PillarLayout pillars = layoutFor(curves);
+        int pillarCount = pillars.size();
+
+        // [tradeId, version, bookId] of every live trade; only those not cached at that version are reloaded
+        List<Object[]> versions = tradeRepository.findTradeVersionsByTraderAndStatuses(traderUserId, LIVE_STATUSES);
+        List<Long> stale = new ArrayList<>();
+        Map<Long, double[]> ladderOf = new HashMap<>();
+        for (Object[] row : versions) {
+            TradeDv01 cached = cache.get((Long) row[0]);
+            if (cached == null || cached.curves != curves || cached.fixings != fixings || !Objects.equals(cached.version, row[1])) {
+                stale.add((Long) row[0]);
+            } else {
+                ladderOf.put((Long) row[0], cached.ladder);
+            }
+        }
+        Map<Long, double[]> recomputed = recompute(stale, versions, curves, fixings, pillars);
+        ladderOf.putAll(recomputed);
+
+        Map<Long, Integer> bookIndex = new LinkedHashMap<>();
+        double[][] ladders = new double[versions.size()][];
+        int[] bookOfTrade = new int[versions.size()];
+        int unvalued = 0;
+        for (int i = 0; i < versions.size(); i++) {
+            Object[] row = versions.get(i);
+            ladders[i] = ladderOf.get((Long) row[0]);
+            if (ladders[i] == null) {
+                unvalued++;
+            }
+            bookOfTrade[i] = bookIndex.computeIfAbsent((Long) row[2], b -> bookIndex.size());
+        }
+        double[] byBook = dv01Engine.reduce(ladders, bookOfTrade, bookIndex.size(), pillarCount);
+
+        double[] total = new double[pillarCount];
+        List<BookDv01DTO> books = new ArrayList<>();
+        for (Map.Entry<Long, Integer> book : bookIndex.entrySet()) {
+            double[] ladder = new double[pillarCount];
+            System.arraycopy(byBook, book.getValue() * pillarCount, ladder, 0, pillarCount);
+            for (int k = 0; k < pillarCount; k++) {
+                total[k] += ladder[k];
+            }
+            books.add(new BookDv01DTO(book.getKey(), toAmounts(ladder), sum(ladder)));
+        }
+
+        List<String> labels = new ArrayList<>(pillarCount);
+        for (int k = 0; k < pillarCount; k++) {
+            labels.add(pillars.curveName(k) + " " + pillars.tenor(k));
+        }
+        return new Dv01LadderDTO(traderUserId, curves.getReportingCurrency(), curves.getCurveDate(), labels,
+                toAmounts(total), sum(total), books, versions.size(), recomputed.size(), unvalued);
+    }
+
+    /**
+     * Forgets the ladder of a trade that has left the live book; amendments are picked up by
+     * their new version.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTradeLifecycleEvent(TradeLifecycleEvent event) {
+        if ((event.getType() == TradeEventType.TERMINATED || event.getType() == TradeEventType.CANCELLED)
+                && event.getCurrent() != null) {
+            cache.remove(event.getCurrent().getTradeId());
+        }
+    }
+
+    private Map<Long, double[]> recompute(List<Long> tradeIds, List<Object[]> versions, CurveSet curves,
+                                          FixingSet fixings, PillarLayout pillars) {
+        Map<Long, double[]> ladders = new HashMap<>();
+        if (tradeIds.isEmpty()) {
+            return ladders;
+        }
+        long start = System.nanoTime();
+        List<ValuationTrade> trades = ValuationService.toValuationTrades(
+                cashflowRepository.findValuationCashflowsByTradeIds(tradeIds), curves.getCurveDate(), fixings);
+        double[][] computed = dv01Engine.tradeLadders(trades.toArray(new ValuationTrade[0]), curves, pillars);
+        for (int i = 0; i < computed.length; i++) {
+            ladders.put(trades.get(i).getTradeId(), computed[i]);
+        }
+
+        Map<Long, Integer> versionOf = new HashMap<>();
+        for (Object[] row : versions) {
+            versionOf.put((Long) row[0], (Integer) row[1]);
+        }
+        for (Long tradeId : tradeIds) {
+            // A trade with no cashflows left has no rate sensitivity
+            if (!ladders.containsKey(tradeId)) {
+                ladders.put(tradeId, new double[pillars.size()]);
+            }
+            cache.put(tradeId, new TradeDv01(versionOf.get(tradeId), curves, fixings, ladders.get(tradeId)));
+        }
+        logger.debug("Recomputed DV01 ladders for {} trades in {} ms", tradeIds.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return ladders;
+    }
+
+    private synchronized PillarLayout layoutFor(CurveSet curves) {
+        if (layoutCurves != curves) {
+            layout = new PillarLayout(curves);
+            layoutCurves = curves;
+        }
+        return layout;
+    }
+
+    private static List<BigDecimal> toAmounts(double[] ladder) {
+        List<BigDecimal> amounts = new ArrayList<>(ladder.length);
+        for (double value : ladder) {
+            amounts.add(BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP));
+        }
+        return amounts;
+    }
+
+    private static BigDecimal sum(double[] ladder) {
+        double total = 0.0;
+        for (double value : ladder) {
+            total += value;
+        }
+        return BigDecimal.valueOf(total).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // One trade's ladder (null if it could not be valued) for the version, curves and fixings it was computed with
+    private static final class TradeDv01 {
+        private final Integer version;
+        private final CurveSet curves;
+        private final FixingSet fixings;
+        private final double[] ladder;
+
+        private TradeDv01(Integer version, CurveSet curves, FixingSet fixings, double[] ladder) {
+            this.version = version;
+            this.curves = curves;
+            this.fixings = fixings;
+            this.ladder = ladder;
+        }
+    }
+}
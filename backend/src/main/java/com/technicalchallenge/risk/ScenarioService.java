@@ -0,0 +1,104 @@
+package com.technicalchallenge.risk;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.technicalchallenge.valuation.CurveService.tenorInYears;
+
+/**
+ * Loads historical zero rate shifts from a local CSV file into a cached {@link ScenarioSet}.
+ * Each non-comment line is {@code curve,tenor,shift1,...,shiftN} with shifts in basis points;
+ * every line must have the same number of scenarios.
+ */
+@Service
+public class ScenarioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioService.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${risk.scenarios.location:classpath:scenarios/historical-shifts.csv}")
+    private String location;
+
+    private volatile ScenarioSet scenarioSet;
+
+    public ScenarioSet getScenarioSet() {
+        ScenarioSet current = scenarioSet;
+        return current != null ? current : reload();
+    }
+
+    /**
+     * Re-reads the scenario file and replaces the cached set.
+     */
+    public synchronized ScenarioSet reload() {
+        Resource resource = resourceLoader.getResource(location);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            ScenarioSet loaded = parse(reader);
+            scenarioSet = loaded;
+            logger.info("Loaded {} scenarios over {} risk factors from {}",
+                    loaded.getScenarioCount(), loaded.getFactorCount(), location);
+            return loaded;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read scenarios from " + location, e);
+        }
+    }
+
+    static ScenarioSet parse(BufferedReader reader) throws IOException {
+        Map<String, TreeMap<Double, double[]>> rows = new LinkedHashMap<>();
+        int scenarioCount = -1;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (scenarioCount < 0) {
+                scenarioCount = fields.length - 2;
+            }
+            if (scenarioCount < 1 || fields.length - 2 != scenarioCount) {
+                throw new RuntimeException("Scenario line " + lineNumber + " should have " + scenarioCount + " shifts");
+            }
+            double[] shifts = new double[scenarioCount];
+            for (int s = 0; s < scenarioCount; s++) {
+                shifts[s] = Double.parseDouble(fields[s + 2].trim()) / 10_000.0;
+            }
+            rows.computeIfAbsent(fields[0].trim(), c -> new TreeMap<>()).put(tenorInYears(fields[1].trim()), shifts);
+        }
+        if (scenarioCount < 0) {
+            throw new RuntimeException("Scenario file has no scenarios");
+        }
+
+        Map<String, ScenarioSet.CurveFactors> curves = new HashMap<>();
+        List<double[]> factorRows = new ArrayList<>();
+        for (Map.Entry<String, TreeMap<Double, double[]>> curve : rows.entrySet()) {
+            double[] times = curve.getValue().keySet().stream().mapToDouble(Double::doubleValue).toArray();
+            curves.put(curve.getKey(), new ScenarioSet.CurveFactors(factorRows.size(), times));
+            factorRows.addAll(curve.getValue().values());
+        }
+        double[] matrix = new double[factorRows.size() * scenarioCount];
+        for (int f = 0; f < factorRows.size(); f++) {
+            System.arraycopy(factorRows.get(f), 0, matrix, f * scenarioCount, scenarioCount);
+        }
+        return new ScenarioSet(scenarioCount, curves, matrix);
+    }
+}
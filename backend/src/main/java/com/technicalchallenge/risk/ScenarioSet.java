@@ -0,0 +1,65 @@
+package com.technicalchallenge.risk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Historical scenarios as one contiguous matrix of zero rate shifts, one row per risk factor
+ * (a curve at one tenor) and one column per scenario. A curve's shift at any time is
+ * interpolated linearly between its tenors and held flat outside them. Immutable, and shared
+ * by every valuation thread.
+ */
+@Getter
+public final class ScenarioSet {
+
+    private final int scenarioCount;
+    private final int factorCount;
+    private final Map<String, CurveFactors> curves;
+    // shifts[factor * scenarioCount + scenario], as decimals (0.0001 for one basis point)
+    private final double[] shifts;
+
+    public ScenarioSet(int scenarioCount, Map<String, CurveFactors> curves, double[] shifts) {
+        this.scenarioCount = scenarioCount;
+        this.curves = Map.copyOf(curves);
+        this.factorCount = shifts.length / Math.max(1, scenarioCount);
+        this.shifts = shifts;
+    }
+
+    /**
+     * Spreads a sensitivity to a parallel shift of {@code curve} at time {@code t} over the
+     * curve's tenor factors, adding into {@code target[offset + factor]}. Curves without
+     * scenarios are ignored.
+     */
+    public void addSensitivity(String curve, double t, double sensitivity, double[] target, int offset) {
+        CurveFactors factors = curve != null ? curves.get(curve) : null;
+        if (factors == null || sensitivity == 0.0) {
+            return;
+        }
+        double[] times = factors.getTimes();
+        int base = offset + factors.getFirstFactor();
+        int last = times.length - 1;
+        if (t <= times[0]) {
+            target[base] += sensitivity;
+        } else if (t >= times[last]) {
+            target[base + last] += sensitivity;
+        } else {
+            int segment = 0;
+            while (times[segment + 1] < t) {
+                segment++;
+            }
+            double weight = (t - times[segment]) / (times[segment + 1] - times[segment]);
+            target[base + segment] += sensitivity * (1.0 - weight);
+            target[base + segment + 1] += sensitivity * weight;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class CurveFactors {
+        private final int firstFactor;
+        // Tenors in years, strictly increasing; factor firstFactor + i is the shift at times[i]
+        private final double[] times;
+    }
+}
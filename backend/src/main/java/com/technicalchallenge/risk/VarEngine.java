@@ -0,0 +1,259 @@
+package com.technicalchallenge.risk;
+
+import com.technicalchallenge.valuation.CurveSet;
+import com.technicalchallenge.valuation.ValuationLeg;
+import com.technicalchallenge.valuation.ValuationTrade;
+import com.technicalchallenge.valuation.ZeroCurve;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Historical-simulation VaR over delta sensitivities. Each trade's sensitivity to every risk
+ * factor of the {@link ScenarioSet} is computed analytically and summed into its aggregation
+ * unit (the caller decides what a unit is, e.g. one book and trader). Because P&L is linear in
+ * the sensitivities, each unit's P&L vector is then one pass over the scenario matrix, instead
+ * of one per trade.
+ *
+ * Both steps run on a dedicated fork-join pool: sensitivities as a parallel reduction of
+ * per-task {@code double[units * factors]} arrays, P&L vectors in parallel across units.
+ */
+@Component
+public class VarEngine {
+
+    static final int MIN_LEAF_SIZE = 512;
+
+    @Value("${risk.var.parallelism:0}")
+    private int parallelism;
+
+    private volatile ForkJoinPool pool;
+
+    public VarEngine() {
+    }
+
+    VarEngine(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * P&L vectors per unit, laid out as {@code pnl[unit * scenarioCount + scenario]}.
+     * @param unitOfTrade the aggregation unit of each trade, in {@code [0, unitCount)}
+     * @param unvalued incremented once for each trade skipped for missing market data
+     */
+    public double[] pnlVectors(ValuationTrade[] trades, int[] unitOfTrade, int unitCount,
+                               CurveSet curves, ScenarioSet scenarios, LongAdder unvalued) {
+        int factors = scenarios.getFactorCount();
+        int scenarioCount = scenarios.getScenarioCount();
+        ForkJoinPool forkJoinPool = pool();
+        int leafSize = Math.max(MIN_LEAF_SIZE, trades.length / (forkJoinPool.getParallelism() * 4));
+
+        double[] sensitivities = trades.length == 0 ? new double[unitCount * factors]
+                : forkJoinPool.invoke(new SensitivityTask(trades, unitOfTrade, unitCount, curves, scenarios,
+                        unvalued, leafSize, 0, trades.length));
+
+        double[] pnl = new double[unitCount * scenarioCount];
+        if (unitCount > 0) {
+            forkJoinPool.invoke(new PnlTask(sensitivities, scenarios, pnl, 0, unitCount));
+        }
+        return pnl;
+    }
+
+    /**
+     * VaR at the given confidence: the loss exceeded in only {@code 1 - confidence} of the
+     * scenarios, e.g. the 5th worst of 500 at 99%. Reported as a positive number.
+     */
+    public static double valueAtRisk(double[] pnl, double confidence) {
+        if (pnl.length == 0) {
+            return 0.0;
+        }
+        double[] sorted = pnl.clone();
+        Arrays.sort(sorted);
+        int tail = (int) Math.ceil(sorted.length * (1.0 - confidence) - 1e-9);
+        int index = Math.min(sorted.length - 1, Math.max(0, tail - 1));
+        return Math.max(0.0, -sorted[index]);
+    }
+
+    /**
+     * Adds one trade's sensitivities (P&L per unit decimal shift of each factor, in the
+     * reporting currency) into {@code target[offset + factor]}.
+     * @return false, leaving {@code target} untouched, if a curve or FX rate is missing
+     */
+    static boolean addTradeSensitivities(ValuationTrade trade, CurveSet curves, ScenarioSet scenarios,
+                                         double[] target, int offset) {
+        if (!hasMarketData(trade, curves)) {
+            return false;
+        }
+        for (ValuationLeg leg : trade.getLegs()) {
+            String discountName = leg.getCurrency();
+            ZeroCurve discount = curves.curve(discountName);
+            double scale = leg.getSign() * curves.fxRate(discountName);
+            double[] times = leg.getPaymentTimes();
+            if (!leg.isFloating()) {
+                double[] amounts = leg.getAmounts();
+                for (int i = 0; i < times.length; i++) {
+                    double pv = scale * amounts[i] * discount.discountFactor(times[i]);
+                    scenarios.addSensitivity(discountName, times[i], -times[i] * pv, target, offset);
+                }
+                continue;
+            }
+            String projectionName = curves.curve(leg.getIndex()) != null ? leg.getIndex() : discountName;
+            ZeroCurve projection = curves.curve(projectionName);
+            double[] starts = leg.getAccrualStarts();
+            for (int i = 0; i < times.length; i++) {
+                double end = times[i];
+                double accrual = end - starts[i];
+                if (accrual <= 0) {
+                    continue;
+                }
+                double df = discount.discountFactor(end);
+                if (leg.isFixed(i)) {
+                    // A fixed coupon only moves with the discount curve
+                    double pv = scale * leg.getNotional() * leg.getCurrentFixing() * accrual * df;
+                    scenarios.addSensitivity(discountName, end, -end * pv, target, offset);
+                    continue;
+                }
+                double start = Math.max(starts[i], 0.0);
+                double ratio = projection.discountFactor(start) / projection.discountFactor(end);
+                double pv = scale * leg.getNotional() * accrual * (ratio - 1.0) / (end - start) * df;
+                scenarios.addSensitivity(discountName, end, -end * pv, target, offset);
+                // The forward rises with rates at the end of the period and falls with those at its start
+                double forwardSensitivity = scale * leg.getNotional() * accrual * ratio / (end - start) * df;
+                scenarios.addSensitivity(projectionName, end, end * forwardSensitivity, target, offset);
+                scenarios.addSensitivity(projectionName, start, -start * forwardSensitivity, target, offset);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether every leg of the trade has a discount curve and FX rate.
+     */
+    static boolean hasMarketData(ValuationTrade trade, CurveSet curves) {
+        for (ValuationLeg leg : trade.getLegs()) {
+            if (curves.curve(leg.getCurrency()) == null || curves.fxRate(leg.getCurrency()) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ForkJoinPool pool() {
+        ForkJoinPool current = pool;
+        if (current == null) {
+            synchronized (this) {
+                current = pool;
+                if (current == null) {
+                    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+                    current = new ForkJoinPool(threads);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ForkJoinPool current = pool;
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    private static final class SensitivityTask extends RecursiveTask<double[]> {
+        private final ValuationTrade[] trades;
+        private final int[] unitOfTrade;
+        private final int unitCount;
+        private final CurveSet curves;
+        private final ScenarioSet scenarios;
+        private final LongAdder unvalued;
+        private final int leafSize;
+        private final int from;
+        private final int to;
+
+        private SensitivityTask(ValuationTrade[] trades, int[] unitOfTrade, int unitCount, CurveSet curves,
+                                ScenarioSet scenarios, LongAdder unvalued, int leafSize, int from, int to) {
+            this.trades = trades;
+            this.unitOfTrade = unitOfTrade;
+            this.unitCount = unitCount;
+            this.curves = curves;
+            this.scenarios = scenarios;
+            this.unvalued = unvalued;
+            this.leafSize = leafSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            int factors = scenarios.getFactorCount();
+            if (to - from <= leafSize) {
+                double[] sensitivities = new double[unitCount * factors];
+                for (int i = from; i < to; i++) {
+                    if (!addTradeSensitivities(trades[i], curves, scenarios, sensitivities, unitOfTrade[i] * factors)) {
+                        unvalued.increment();
+                    }
+                }
+                return sensitivities;
+            }
+            int middle = (from + to) >>> 1;
+            SensitivityTask left = new SensitivityTask(trades, unitOfTrade, unitCount, curves, scenarios,
+                    unvalued, leafSize, from, middle);
+            left.fork();
+            double[] sum = new SensitivityTask(trades, unitOfTrade, unitCount, curves, scenarios,
+                    unvalued, leafSize, middle, to).compute();
+            double[] other = left.join();
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += other[i];
+            }
+            return sum;
+        }
+    }
+
+    private static final class PnlTask extends RecursiveAction {
+        private final double[] sensitivities;
+        private final ScenarioSet scenarios;
+        private final double[] pnl;
+        private final int fromUnit;
+        private final int toUnit;
+
+        private PnlTask(double[] sensitivities, ScenarioSet scenarios, double[] pnl, int fromUnit, int toUnit) {
+            this.sensitivities = sensitivities;
+            this.scenarios = scenarios;
+            this.pnl = pnl;
+            this.fromUnit = fromUnit;
+            this.toUnit = toUnit;
+        }
+
+        @Override
+        protected void compute() {
+            if (toUnit - fromUnit > 1) {
+                int middle = (fromUnit + toUnit) >>> 1;
+                invokeAll(new PnlTask(sensitivities, scenarios, pnl, fromUnit, middle),
+                        new PnlTask(sensitivities, scenarios, pnl, middle, toUnit));
+                return;
+            }
+            int factors = scenarios.getFactorCount();
+            int scenarioCount = scenarios.getScenarioCount();
+            double[] shifts = scenarios.getShifts();
+            int out = fromUnit * scenarioCount;
+            for (int f = 0; f < factors; f++) {
+                double sensitivity = sensitivities[fromUnit * factors + f];
+                if (sensitivity == 0.0) {
+                    continue;
+                }
+                // Row-major matrix: this factor's shifts are contiguous, as is the unit's P&L vector
+                int row = f * scenarioCount;
+                for (int s = 0; s < scenarioCount; s++) {
+                    pnl[out + s] += sensitivity * shifts[row + s];
+                }
+            }
+        }
+    }
+}
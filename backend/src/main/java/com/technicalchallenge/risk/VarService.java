@@ -0,0 +1,273 @@
+package com.technicalchallenge.risk;
+
+import com.technicalchallenge.dto.VarDTO;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import com.technicalchallenge.fixing.FixingService;
+import com.technicalchallenge.fixing.FixingSet;
+import com.technicalchallenge.repository.BookRepository;
+import com.technicalchallenge.repository.CashflowRepository;
+import com.technicalchallenge.repository.TradeRepository;
+import com.technicalchallenge.valuation.CurveService;
+import com.technicalchallenge.valuation.CurveSet;
+import com.technicalchallenge.valuation.ValuationService;
+import com.technicalchallenge.valuation.ValuationTrade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Historical-simulation VaR for books, desks and traders. Scenario P&L vectors are computed
+ * per book, split by trader, and cached until a trade in the book changes or the market data
+ * or fixings are updated; desk and trader VaR are sums of cached vectors.
+ */
+@Service
+public class VarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VarService.class);
+
+    // Same statuses the dashboard treats as live
+    static final List<String> LIVE_STATUSES = List.of("LIVE", "NEW", "AMENDED");
+
+    @Autowired
+    private CashflowRepository cashflowRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CurveService curveService;
+
+    @Autowired
+    private ScenarioService scenarioService;
+
+    @Autowired
+    private FixingService fixingService;
+
+    @Autowired
+    private VarEngine varEngine;
+
+    @Value("${risk.var.confidence:0.99}")
+    private double confidence;
+
+    private final ConcurrentMap<Long, BookRisk> cache = new ConcurrentHashMap<>();
+    // Bumped on every invalidation, so a computation that raced with a trade change is not cached
+    private final ConcurrentMap<Long, Long> bookVersions = new ConcurrentHashMap<>();
+
+    @Transactional(readOnly = true)
+    public VarDTO getBookVaR(Long bookId) {
+        return toDto("BOOK", bookId, riskFor(List.of(bookId)).values(), null);
+    }
+
+    /**
+     * VaR of all books under a desk, or empty if the desk has no books.
+     */
+    @Transactional(readOnly = true)
+    public Optional<VarDTO> getDeskVaR(Long deskId) {
+        List<Long> bookIds = new ArrayList<>();
+        for (Object[] row : bookRepository.findBookHierarchy()) {
+            if (deskId.equals(row[6])) {
+                bookIds.add((Long) row[0]);
+            }
+        }
+        if (bookIds.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(toDto("DESK", deskId, riskFor(bookIds).values(), null));
+    }
+
+    /**
+     * VaR of one trader's live trades, across every book they trade in.
+     */
+    @Transactional(readOnly = true)
+    public VarDTO getTraderVaR(Long traderUserId) {
+        List<Long> bookIds = tradeRepository.findBookIdsByTraderAndStatuses(traderUserId, LIVE_STATUSES);
+        return toDto("TRADER", traderUserId, riskFor(bookIds).values(), traderUserId);
+    }
+
+    /**
+     * Drops the cached risk of the books a trade left and joined once the change has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTradeLifecycleEvent(TradeLifecycleEvent event) {
+        if (event.getType() == TradeEventType.SETTLEMENT_INSTRUCTIONS_UPDATED) {
+            return;
+        }
+        invalidate(event.getPrevious());
+        invalidate(event.getCurrent());
+    }
+
+    private void invalidate(TradeSnapshot snapshot) {
+        if (snapshot == null || snapshot.getBookId() == null) {
+            return;
+        }
+        cache.compute(snapshot.getBookId(), (bookId, cached) -> {
+            bookVersions.merge(bookId, 1L, Long::sum);
+            return null;
+        });
+    }
+
+    /**
+     * Cached risk for each book, computing all stale books in one pass.
+     */
+    private Map<Long, BookRisk> riskFor(Collection<Long> bookIds) {
+        CurveSet curves = curveService.getCurveSet();
+        ScenarioSet scenarios = scenarioService.getScenarioSet();
+        FixingSet fixings = fixingService.getFixings();
+        Map<Long, BookRisk> result = new LinkedHashMap<>();
+        Map<Long, Long> staleVersions = new HashMap<>();
+        for (Long bookId : new LinkedHashSet<>(bookIds)) {
+            BookRisk cached = cache.get(bookId);
+            if (cached != null && cached.curves == curves && cached.scenarios == scenarios && cached.fixings == fixings) {
+                result.put(bookId, cached);
+            } else {
+                staleVersions.put(bookId, bookVersions.getOrDefault(bookId, 0L));
+            }
+        }
+        if (staleVersions.isEmpty()) {
+            return result;
+        }
+
+        long start = System.nanoTime();
+        List<Long> stale = new ArrayList<>(staleVersions.keySet());
+        List<ValuationTrade> trades = ValuationService.toValuationTrades(
+                cashflowRepository.findValuationCashflowsByBooks(stale, LIVE_STATUSES), curves.getCurveDate(), fixings);
+
+        // One aggregation unit per book and trader, so both book and trader VaR come from the same pass
+        Map<Long, Map<Long, Integer>> units = new HashMap<>();
+        List<Long[]> unitKeys = new ArrayList<>();
+        int[] unitOfTrade = new int[trades.size()];
+        for (int i = 0; i < trades.size(); i++) {
+            ValuationTrade trade = trades.get(i);
+            Map<Long, Integer> bookUnits = units.computeIfAbsent(trade.getBookId(), b -> new HashMap<>());
+            Integer unit = bookUnits.get(trade.getTraderUserId());
+            if (unit == null) {
+                unit = unitKeys.size();
+                bookUnits.put(trade.getTraderUserId(), unit);
+                unitKeys.add(new Long[] {trade.getBookId(), trade.getTraderUserId()});
+            }
+            unitOfTrade[i] = unit;
+        }
+        LongAdder unvalued = new LongAdder();
+        double[] pnl = varEngine.pnlVectors(trades.toArray(new ValuationTrade[0]), unitOfTrade, unitKeys.size(),
+                curves, scenarios, unvalued);
+
+        int scenarioCount = scenarios.getScenarioCount();
+        Map<Long, BookRisk> computed = new HashMap<>();
+        for (Long bookId : stale) {
+            computed.put(bookId, new BookRisk(curves, scenarios, fixings, scenarioCount));
+        }
+        for (int unit = 0; unit < unitKeys.size(); unit++) {
+            double[] vector = new double[scenarioCount];
+            System.arraycopy(pnl, unit * scenarioCount, vector, 0, scenarioCount);
+            computed.get(unitKeys.get(unit)[0]).addTrader(unitKeys.get(unit)[1], vector);
+        }
+        for (ValuationTrade trade : trades) {
+            computed.get(trade.getBookId()).countTrade(trade.getTraderUserId(), VarEngine.hasMarketData(trade, curves));
+        }
+        if (unvalued.sum() > 0) {
+            logger.warn("{} of {} trades could not be included in VaR: missing curve or FX rate",
+                    unvalued.sum(), trades.size());
+        }
+
+        for (Map.Entry<Long, BookRisk> entry : computed.entrySet()) {
+            Long expectedVersion = staleVersions.get(entry.getKey());
+            cache.compute(entry.getKey(), (bookId, cached) ->
+                    Objects.equals(bookVersions.getOrDefault(bookId, 0L), expectedVersion) ? entry.getValue() : cached);
+            result.put(entry.getKey(), entry.getValue());
+        }
+        logger.debug("Computed VaR vectors for {} books, {} trades over {} scenarios in {} ms",
+                stale.size(), trades.size(), scenarioCount, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private VarDTO toDto(String level, Long id, Collection<BookRisk> books, Long traderUserId) {
+        ScenarioSet scenarios = scenarioService.getScenarioSet();
+        double[] total = new double[scenarios.getScenarioCount()];
+        int tradeCount = 0;
+        int unvaluedTradeCount = 0;
+        for (BookRisk book : books) {
+            Slice slice = traderUserId == null ? book.total : book.traders.get(traderUserId);
+            if (slice == null) {
+                continue;
+            }
+            for (int s = 0; s < total.length; s++) {
+                total[s] += slice.pnl[s];
+            }
+            tradeCount += slice.tradeCount;
+            unvaluedTradeCount += slice.unvaluedTradeCount;
+        }
+        BigDecimal valueAtRisk = BigDecimal.valueOf(VarEngine.valueAtRisk(total, confidence)).setScale(2, RoundingMode.HALF_UP);
+        return new VarDTO(level, id, valueAtRisk, curveService.getCurveSet().getReportingCurrency(), confidence,
+                scenarios.getScenarioCount(), tradeCount, unvaluedTradeCount);
+    }
+
+    // Scenario P&L of one book, in total and per trader, for the market data it was computed with
+    private static final class BookRisk {
+        private final CurveSet curves;
+        private final ScenarioSet scenarios;
+        private final FixingSet fixings;
+        private final Slice total;
+        private final Map<Long, Slice> traders = new HashMap<>();
+
+        private BookRisk(CurveSet curves, ScenarioSet scenarios, FixingSet fixings, int scenarioCount) {
+            this.curves = curves;
+            this.scenarios = scenarios;
+            this.fixings = fixings;
+            this.total = new Slice(new double[scenarioCount]);
+        }
+
+        private void addTrader(Long traderUserId, double[] pnl) {
+            traders.put(traderUserId, new Slice(pnl));
+            for (int s = 0; s < pnl.length; s++) {
+                total.pnl[s] += pnl[s];
+            }
+        }
+
+        private void countTrade(Long traderUserId, boolean valued) {
+            total.count(valued);
+            traders.get(traderUserId).count(valued);
+        }
+    }
+
+    private static final class Slice {
+        private final double[] pnl;
+        private int tradeCount;
+        private int unvaluedTradeCount;
+
+        private Slice(double[] pnl) {
+            this.pnl = pnl;
+        }
+
+        private void count(boolean valued) {
+            tradeCount++;
+            if (!valued) {
+                unvaluedTradeCount++;
+            }
+        }
+    }
+}
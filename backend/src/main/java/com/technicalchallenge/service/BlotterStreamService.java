@@ -0,0 +1,347 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.dto.BlotterDeltaDTO;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Pushes row-level blotter deltas to Server-Sent Event subscribers as trade lifecycle
+ * changes commit.
+ *
+ * Each committed change gets a stream sequence number and is kept in a bounded replay buffer.
+ * Subscribers are scoped to a trader (and optionally one of their books); every change is
+ * turned into an INSERT, UPDATE or REMOVE for the subscriptions it affects and queued per trade,
+ * so a burst of changes to the same trade is coalesced into one row before the next flush.
+ *
+ * The SSE event id is a resume token of the form {@code <epoch>-<sequence>}. A client that
+ * reconnects with {@code Last-Event-ID} is replayed everything it missed from the buffer; if the
+ * token is from a previous server run or has aged out of the buffer it is sent a {@code reset}
+ * event and should reload the blotter page before applying further deltas.
+ */
+@Service
+public class BlotterStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlotterStreamService.class);
+
+    static final String EVENT_READY = "ready";
+    static final String EVENT_RESET = "reset";
+    static final String EVENT_DELTAS = "deltas";
+
+    // Header fields compared to build an UPDATE's changedFields
+    private static final Map<String, Function<TradeSnapshot, Object>> HEADER_FIELDS = new LinkedHashMap<>();
+    static {
+        HEADER_FIELDS.put("version", TradeSnapshot::getVersion);
+        HEADER_FIELDS.put("bookName", TradeSnapshot::getBookName);
+        HEADER_FIELDS.put("counterpartyName", TradeSnapshot::getCounterpartyName);
+        HEADER_FIELDS.put("traderUserName", TradeSnapshot::getTraderUserName);
+        HEADER_FIELDS.put("tradeStatus", TradeSnapshot::getTradeStatus);
+        HEADER_FIELDS.put("tradeType", TradeSnapshot::getTradeType);
+        HEADER_FIELDS.put("tradeDate", TradeSnapshot::getTradeDate);
+        HEADER_FIELDS.put("tradeStartDate", TradeSnapshot::getTradeStartDate);
+        HEADER_FIELDS.put("tradeMaturityDate", TradeSnapshot::getTradeMaturityDate);
+        HEADER_FIELDS.put("lastTouchTimestamp", TradeSnapshot::getLastTouchTimestamp);
+    }
+
+    @Value("${blotter.stream.coalesce-millis:100}")
+    private long coalesceMillis = 100;
+
+    @Value("${blotter.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds = 15;
+
+    @Value("${blotter.stream.replay-buffer-size:10000}")
+    private int replayBufferSize = 10000;
+
+    @Value("${blotter.stream.timeout-millis:1800000}")
+    private long timeoutMillis = 1800000;
+
+    // Distinguishes tokens issued by this server run from ones issued before a restart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Guards sequence, replayBuffer and subscription registration so replay and live changes never interleave
+    private final Object changeLock = new Object();
+    private final Deque<StreamChange> replayBuffer = new ArrayDeque<>();
+    private long sequence;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "blotter-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, coalesceMillis, coalesceMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+        subscriptions.clear();
+    }
+
+    /**
+     * Opens a delta stream for a trader's blotter, optionally restricted to one book.
+     * @param resumeToken The last event id the client received, or null for a fresh stream.
+     */
+    public SseEmitter subscribe(Long traderUserId, Long bookId, String resumeToken) {
+        return subscribe(traderUserId, bookId, resumeToken, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Long traderUserId, Long bookId, String resumeToken, SseEmitter emitter) {
+        Subscription subscription = new Subscription(traderUserId, bookId, emitter);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+
+        String initialEvent;
+        long initialSequence;
+        synchronized (changeLock) {
+            Long resumeFrom = parseToken(resumeToken);
+            long oldestAvailable = replayBuffer.isEmpty() ? sequence + 1 : replayBuffer.peekFirst().sequence;
+            if (resumeFrom != null && resumeFrom + 1 >= oldestAvailable) {
+                for (StreamChange change : replayBuffer) {
+                    if (change.sequence > resumeFrom) {
+                        subscription.offer(change);
+                    }
+                }
+                initialEvent = null;
+            } else {
+                initialEvent = resumeToken == null ? EVENT_READY : EVENT_RESET;
+            }
+            initialSequence = resumeFrom != null && initialEvent == null ? resumeFrom : sequence;
+            subscriptions.add(subscription);
+        }
+
+        logger.info("Blotter stream opened for trader {} book {} (resume token: {}, {} subscribers)",
+                traderUserId, bookId, resumeToken, subscriptions.size());
+
+        if (initialEvent != null) {
+            send(subscription, SseEmitter.event().id(token(initialSequence)).name(initialEvent).data(token(initialSequence)));
+        }
+        flush(subscription);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTradeEvent(TradeLifecycleEvent event) {
+        synchronized (changeLock) {
+            StreamChange change = new StreamChange(++sequence, event.getPrevious(), event.getCurrent());
+            replayBuffer.addLast(change);
+            while (replayBuffer.size() > replayBufferSize) {
+                replayBuffer.removeFirst();
+            }
+            for (Subscription subscription : subscriptions) {
+                subscription.offer(change);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    void flush() {
+        for (Subscription subscription : subscriptions) {
+            flush(subscription);
+        }
+    }
+
+    private void flush(Subscription subscription) {
+        List<BlotterDeltaDTO> deltas;
+        long lastSequence;
+        synchronized (subscription) {
+            if (subscription.pending.isEmpty()) {
+                return;
+            }
+            deltas = new ArrayList<>(subscription.pending.values());
+            lastSequence = subscription.pendingSequence;
+            subscription.pending.clear();
+        }
+        send(subscription, SseEmitter.event()
+                .id(token(lastSequence))
+                .name(EVENT_DELTAS)
+                .data(deltas, MediaType.APPLICATION_JSON));
+    }
+
+    private void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            send(subscription, SseEmitter.event().comment("keepalive"));
+        }
+    }
+
+    private void send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            synchronized (subscription.emitter) {
+                subscription.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container completes the emitter, we only need to stop writing to it
+            logger.debug("Dropping blotter stream for trader {}: {}", subscription.traderUserId, e.getMessage());
+            subscriptions.remove(subscription);
+        }
+    }
+
+    private String token(long value) {
+        return epoch + "-" + value;
+    }
+
+    private Long parseToken(String resumeToken) {
+        if (resumeToken == null || resumeToken.isBlank()) {
+            return null;
+        }
+        int separator = resumeToken.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(resumeToken.substring(0, separator))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(resumeToken.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static BlotterDeltaDTO toRow(BlotterDeltaDTO.Operation op, TradeSnapshot snapshot, Set<String> changedFields) {
+        BlotterDeltaDTO delta = new BlotterDeltaDTO();
+        delta.setOp(op);
+        delta.setTradeId(snapshot.getTradeId());
+        if (op == BlotterDeltaDTO.Operation.REMOVE) {
+            return delta;
+        }
+        delta.setVersion(snapshot.getVersion());
+        delta.setChangedFields(changedFields);
+        delta.setBookId(snapshot.getBookId());
+        delta.setBookName(snapshot.getBookName());
+        delta.setCounterpartyName(snapshot.getCounterpartyName());
+        delta.setTraderUserId(snapshot.getTraderUserId());
+        delta.setTraderUserName(snapshot.getTraderUserName());
+        delta.setTradeStatus(snapshot.getTradeStatus());
+        delta.setTradeType(snapshot.getTradeType());
+        delta.setTradeDate(snapshot.getTradeDate());
+        delta.setTradeStartDate(snapshot.getTradeStartDate());
+        delta.setTradeMaturityDate(snapshot.getTradeMaturityDate());
+        delta.setLastTouchTimestamp(snapshot.getLastTouchTimestamp());
+        return delta;
+    }
+
+    static Set<String> changedFields(TradeSnapshot before, TradeSnapshot after) {
+        Set<String> changed = new LinkedHashSet<>();
+        HEADER_FIELDS.forEach((name, getter) -> {
+            if (!Objects.equals(getter.apply(before), getter.apply(after))) {
+                changed.add(name);
+            }
+        });
+        return changed;
+    }
+
+    private record StreamChange(long sequence, TradeSnapshot previous, TradeSnapshot current) {}
+
+    private static final class Subscription {
+        private final Long traderUserId;
+        private final Long bookId;
+        private final SseEmitter emitter;
+
+        // Coalesced deltas not yet sent, keyed by trade ID in first-change order
+        private final Map<Long, BlotterDeltaDTO> pending = new LinkedHashMap<>();
+        private long pendingSequence;
+
+        private Subscription(Long traderUserId, Long bookId, SseEmitter emitter) {
+            this.traderUserId = traderUserId;
+            this.bookId = bookId;
+            this.emitter = emitter;
+        }
+
+        private boolean inScope(TradeSnapshot snapshot) {
+            return snapshot != null
+                    && Objects.equals(traderUserId, snapshot.getTraderUserId())
+                    && (bookId == null || bookId.equals(snapshot.getBookId()));
+        }
+
+        private synchronized void offer(StreamChange change) {
+            boolean before = inScope(change.previous);
+            boolean after = inScope(change.current);
+            pendingSequence = change.sequence;
+            if (!before && !after) {
+                return;
+            }
+
+            BlotterDeltaDTO delta;
+            if (!before) {
+                delta = toRow(BlotterDeltaDTO.Operation.INSERT, change.current, null);
+            } else if (!after) {
+                delta = toRow(BlotterDeltaDTO.Operation.REMOVE, change.previous, null);
+            } else {
+                delta = toRow(BlotterDeltaDTO.Operation.UPDATE, change.current, changedFields(change.previous, change.current));
+            }
+            merge(delta);
+        }
+
+        private void merge(BlotterDeltaDTO delta) {
+            BlotterDeltaDTO existing = pending.get(delta.getTradeId());
+            if (existing == null) {
+                pending.put(delta.getTradeId(), delta);
+                return;
+            }
+            switch (existing.getOp()) {
+                case INSERT -> {
+                    // The client has not seen this row yet
+                    if (delta.getOp() == BlotterDeltaDTO.Operation.REMOVE) {
+                        pending.remove(delta.getTradeId());
+                    } else {
+                        delta.setOp(BlotterDeltaDTO.Operation.INSERT);
+                        delta.setChangedFields(null);
+                        pending.put(delta.getTradeId(), delta);
+                    }
+                }
+                case UPDATE -> {
+                    if (delta.getOp() != BlotterDeltaDTO.Operation.REMOVE && delta.getChangedFields() != null
+                            && existing.getChangedFields() != null) {
+                        delta.getChangedFields().addAll(existing.getChangedFields());
+                    }
+                    delta.setOp(delta.getOp() == BlotterDeltaDTO.Operation.REMOVE
+                            ? BlotterDeltaDTO.Operation.REMOVE : BlotterDeltaDTO.Operation.UPDATE);
+                    pending.put(delta.getTradeId(), delta);
+                }
+                case REMOVE -> {
+                    // Removed then re-added: the client still holds the old row, so replace it whole
+                    if (delta.getOp() != BlotterDeltaDTO.Operation.REMOVE) {
+                        delta.setOp(BlotterDeltaDTO.Operation.UPDATE);
+                        delta.setChangedFields(null);
+                    }
+                    pending.put(delta.getTradeId(), delta);
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.technicalchallenge.service;
 
 import com.technicalchallenge.dto.BookDTO;
+import com.technicalchallenge.lookup.LookupService;
+import com.technicalchallenge.lookup.LookupType;
 import com.technicalchallenge.mapper.BookMapper;
 import com.technicalchallenge.model.Book;
 import com.technicalchallenge.repository.BookRepository;
@@ -24,6 +26,7 @@ public class BookService {
     private final BookRepository bookRepository;
     private final CostCenterRepository costCenterRepository;
     private final BookMapper bookMapper;
+    private final LookupService lookupService;
 
     public List<BookDTO> getAllBooks() {
         logger.info("Retrieving all books");
@@ -39,9 +42,9 @@ public class BookService {
 
     public void populateReferenceDataByName(Book book, BookDTO dto) {
         if (dto.getCostCenterName() != null && !dto.getCostCenterName().isBlank()) {
-            var costCenter = costCenterRepository.findAll().stream()
-                .filter(c -> c.getCostCenterName().equalsIgnoreCase(dto.getCostCenterName()))
-                .findFirst().orElse(null);
+            var costCenter = lookupService.findId(LookupType.COST_CENTER, dto.getCostCenterName())
+                .flatMap(costCenterRepository::findById)
+                .orElse(null);
             if (costCenter == null) throw new IllegalArgumentException("CostCenter '" + dto.getCostCenterName() + "' does not exist");
             book.setCostCenter(costCenter);
         }
@@ -0,0 +1,286 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.model.BusinessDayConvention;
+import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.model.PayRec;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeLeg;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cashflow schedules of trade legs. Legs booked with {@code cashflows.schedule-mode=on-demand}
+ * keep only their schedule parameters (notional, rate, period schedule and the trade's start and
+ * maturity dates) and their cashflows are generated here when read; any cashflow stored against
+ * such a leg overrides the generated one on its value date. Other legs return their stored rows.
+ *
+ * Generated schedules are kept in a bounded LRU cache by leg id and trade version as value date,
+ * amount and rate tuples only, never as entities, so the cache does not hold on to legs, trades or
+ * the sessions that loaded them; each read builds its cashflows from the tuples. Each entry
+ * remembers the parameters it was generated from, so a leg edited in place is regenerated.
+ */
+@Service
+public class CashflowScheduleService {
+
+    public static final String PERSISTED = "persisted";
+    public static final String ON_DEMAND = "on-demand";
+
+    @Value("${cashflows.schedule-cache-size:10000}")
+    private int cacheSize = 10_000;
+
+    private final Map<ScheduleKey, GeneratedSchedule> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ScheduleKey, GeneratedSchedule> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CashflowScheduleService() {
+    }
+
+    CashflowScheduleService(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * The leg's cashflows in value date order: generated and merged with overrides for an
+     * on-demand leg, otherwise the stored rows as they are. For an on-demand leg the list is
+     * unmodifiable and its generated cashflows are new, unsaved objects on every call.
+     */
+    public List<Cashflow> getCashflows(TradeLeg leg) {
+        if (!Boolean.TRUE.equals(leg.getCashflowsOnDemand())) {
+            return leg.getCashflows() != null ? leg.getCashflows() : List.of();
+        }
+        List<GeneratedCashflow> schedule = scheduleOf(leg).cashflows;
+        List<Cashflow> overrides = activeOverrides(leg);
+        // Both lists are in value date order, so one pass merges them
+        List<Cashflow> cashflows = new ArrayList<>(schedule.size() + overrides.size());
+        int o = 0;
+        for (GeneratedCashflow generated : schedule) {
+            while (o < overrides.size() && overrides.get(o).getValueDate().isBefore(generated.valueDate())) {
+                // Overrides on dates outside the schedule are extra payments
+                cashflows.add(overrides.get(o++));
+            }
+            if (o < overrides.size() && overrides.get(o).getValueDate().equals(generated.valueDate())) {
+                cashflows.add(overrides.get(o++));
+            } else {
+                cashflows.add(toCashflow(leg, generated));
+            }
+        }
+        while (o < overrides.size()) {
+            cashflows.add(overrides.get(o++));
+        }
+        return Collections.unmodifiableList(cashflows);
+    }
+
+    public long getCacheHits() {
+        return hits.get();
+    }
+
+    public long getCacheMisses() {
+        return misses.get();
+    }
+
+    public int getCachedScheduleCount() {
+        return cache.size();
+    }
+
+    /**
+     * Months between payments for a schedule name such as Quarterly or 3M.
+     */
+    public static int parseSchedule(String schedule) {
+        if (schedule == null || schedule.trim().isEmpty()) {
+            return 3; // Default to quarterly
+        }
+
+        schedule = schedule.trim();
+
+        // Handle common schedule names
+        switch (schedule.toLowerCase()) {
+            case "monthly":
+                return 1;
+            case "quarterly":
+                return 3;
+            case "semi-annually":
+            case "semiannually":
+            case "half-yearly":
+                return 6;
+            case "annually":
+            case "yearly":
+                return 12;
+            default:
+                // Parse "1M", "3M", "12M" format
+                if (schedule.endsWith("M") || schedule.endsWith("m")) {
+                    try {
+                        return Integer.parseInt(schedule.substring(0, schedule.length() - 1));
+                    } catch (NumberFormatException e) {
+                        throw new RuntimeException("Invalid schedule format: " + schedule);
+                    }
+                }
+                throw new RuntimeException("Invalid schedule format: " + schedule + ". Supported formats: Monthly, Quarterly, Semi-annually, Annually, or 1M, 3M, 6M, 12M");
+        }
+    }
+
+    /**
+     * Payment dates every {@code monthsInterval} months after the start, up to and including maturity.
+     */
+    public static List<LocalDate> paymentDates(LocalDate startDate, LocalDate maturityDate, int monthsInterval) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate currentDate = startDate.plusMonths(monthsInterval);
+
+        while (!currentDate.isAfter(maturityDate)) {
+            dates.add(currentDate);
+            currentDate = currentDate.plusMonths(monthsInterval);
+        }
+
+        return dates;
+    }
+
+    /**
+     * Fixed coupon for one period: notional * rate / 100 * months / 12, to ten decimal places.
+     */
+    public static BigDecimal fixedAmount(BigDecimal notional, double ratePercent, int monthsInterval) {
+        // Convert the rate to a decimal (3.5% -> 0.035)
+        BigDecimal rate = BigDecimal.valueOf(ratePercent).divide(new BigDecimal(100), 10, RoundingMode.HALF_UP);
+        return notional.multiply(rate)
+                .multiply(new BigDecimal(monthsInterval))
+                .divide(new BigDecimal(12), 10, RoundingMode.HALF_UP);
+    }
+
+    // Active stored cashflows of the leg by value date, the last one stored winning on a shared date
+    private static List<Cashflow> activeOverrides(TradeLeg leg) {
+        if (leg.getCashflows() == null || leg.getCashflows().isEmpty()) {
+            return List.of();
+        }
+        Map<LocalDate, Cashflow> byDate = new HashMap<>();
+        for (Cashflow cashflow : leg.getCashflows()) {
+            if (!Boolean.FALSE.equals(cashflow.getActive()) && cashflow.getValueDate() != null) {
+                byDate.put(cashflow.getValueDate(), cashflow);
+            }
+        }
+        if (byDate.isEmpty()) {
+            return List.of();
+        }
+        List<Cashflow> overrides = new ArrayList<>(byDate.values());
+        overrides.sort(Comparator.comparing(Cashflow::getValueDate));
+        return overrides;
+    }
+
+    private GeneratedSchedule scheduleOf(TradeLeg leg) {
+        Trade trade = leg.getTrade();
+        LocalDate start = trade != null ? trade.getTradeStartDate() : null;
+        LocalDate maturity = trade != null ? trade.getTradeMaturityDate() : null;
+        String scheduleName = leg.getCalculationPeriodSchedule() != null ? leg.getCalculationPeriodSchedule().getSchedule() : null;
+        ScheduleKey key = leg.getLegId() != null
+                ? new ScheduleKey(leg.getLegId(), trade != null ? trade.getVersion() : null)
+                : null;
+
+        GeneratedSchedule cached = key != null ? cache.get(key) : null;
+        if (cached != null && cached.matches(leg, scheduleName, start, maturity)) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        GeneratedSchedule generated = generate(leg, scheduleName, start, maturity);
+        if (key != null) {
+            cache.put(key, generated);
+        }
+        return generated;
+    }
+
+    private static GeneratedSchedule generate(TradeLeg leg, String scheduleName, LocalDate start, LocalDate maturity) {
+        BigDecimal notional = leg.getNotional();
+        Double rate = leg.getRate();
+        PayRec payRec = leg.getPayReceiveFlag();
+        BusinessDayConvention bdc = leg.getPaymentBusinessDayConvention();
+        List<GeneratedCashflow> cashflows = new ArrayList<>();
+        if (start != null && maturity != null) {
+            int months = parseSchedule(scheduleName);
+            // Every period is the same length, so one amount serves the whole schedule
+            BigDecimal amount = notional != null && rate != null ? fixedAmount(notional, rate, months) : BigDecimal.ZERO;
+            for (LocalDate valueDate : paymentDates(start, maturity, months)) {
+                cashflows.add(new GeneratedCashflow(valueDate, amount, rate));
+            }
+        }
+        return new GeneratedSchedule(notional, rate, scheduleName, start, maturity,
+                payRec != null ? payRec.getId() : null, payRec != null ? payRec.getPayRec() : null,
+                bdc != null ? bdc.getId() : null, bdc != null ? bdc.getBdc() : null,
+                leg.getCreatedDate(), List.copyOf(cashflows));
+    }
+
+    // Built the same way as the rows TradeService stores for a persisted leg. The cached entry
+    // matched the leg's pay/receive flag and convention, so the leg's own references are used.
+    private static Cashflow toCashflow(TradeLeg leg, GeneratedCashflow generated) {
+        Cashflow cashflow = new Cashflow();
+        cashflow.setTradeLeg(leg);
+        cashflow.setValueDate(generated.valueDate());
+        cashflow.setRate(generated.rate());
+        cashflow.setPaymentValue(generated.paymentValue());
+        cashflow.setPayRec(leg.getPayReceiveFlag());
+        cashflow.setPaymentBusinessDayConvention(leg.getPaymentBusinessDayConvention());
+        cashflow.setCreatedDate(leg.getCreatedDate());
+        cashflow.setActive(true);
+        return cashflow;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class ScheduleKey {
+        private final Long legId;
+        private final Integer version;
+    }
+
+    @AllArgsConstructor
+    private static final class GeneratedSchedule {
+        private final BigDecimal notional;
+        private final Double rate;
+        private final String scheduleName;
+        private final LocalDate start;
+        private final LocalDate maturity;
+        private final Long payRecId;
+        private final String payRecName;
+        private final Long bdcId;
+        private final String bdcName;
+        private final LocalDateTime createdDate;
+        // Unmodifiable, in value date order
+        private final List<GeneratedCashflow> cashflows;
+
+        private boolean matches(TradeLeg leg, String scheduleName, LocalDate start, LocalDate maturity) {
+            BigDecimal notional = leg.getNotional();
+            PayRec payRec = leg.getPayReceiveFlag();
+            BusinessDayConvention bdc = leg.getPaymentBusinessDayConvention();
+            return (this.notional == null ? notional == null : notional != null && this.notional.compareTo(notional) == 0)
+                    && Objects.equals(this.rate, leg.getRate())
+                    && Objects.equals(this.scheduleName, scheduleName)
+                    && Objects.equals(this.start, start)
+                    && Objects.equals(this.maturity, maturity)
+                    && Objects.equals(this.createdDate, leg.getCreatedDate())
+                    && Objects.equals(payRecId, payRec != null ? payRec.getId() : null)
+                    && Objects.equals(payRecName, payRec != null ? payRec.getPayRec() : null)
+                    && Objects.equals(bdcId, bdc != null ? bdc.getId() : null)
+                    && Objects.equals(bdcName, bdc != null ? bdc.getBdc() : null);
+        }
+    }
+
+    private record GeneratedCashflow(LocalDate valueDate, BigDecimal paymentValue, Double rate) {
+    }
+}
@@ -2,18 +2,34 @@ package com.technicalchallenge.service;
 
 import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.model.TradeLeg;
 import com.technicalchallenge.repository.CashflowRepository;
 import com.technicalchallenge.repository.BusinessDayConventionRepository;
 import com.technicalchallenge.repository.LegTypeRepository;
 import com.technicalchallenge.repository.PayRecRepository;
+import com.technicalchallenge.repository.TradeLegRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CashflowService {
@@ -26,10 +42,101 @@ public class CashflowService {
     private LegTypeRepository legTypeRepository;
     @Autowired
     private BusinessDayConventionRepository businessDayConventionRepository;
+    @Autowired
+    private TradeLegRepository tradeLegRepository;
+    @Autowired
+    private CashflowScheduleService cashflowScheduleService;
 
+    /**
+     * Every stored cashflow, plus the generated cashflows of legs booked with on-demand schedules.
+     */
+    @Transactional(readOnly = true)
     public List<Cashflow> getAllCashflows() {
         logger.info("Retrieving all cashflows");
-        return cashflowRepository.findAll();
+        List<TradeLeg> onDemandLegs = tradeLegRepository.findByCashflowsOnDemandTrue();
+        if (onDemandLegs.isEmpty()) {
+            return cashflowRepository.findAll();
+        }
+        // Stored cashflows of on-demand legs are overrides, returned with the rest of their schedule
+        Set<Long> onDemandLegIds = onDemandLegs.stream().map(TradeLeg::getLegId).collect(Collectors.toSet());
+        List<Cashflow> cashflows = new ArrayList<>();
+        for (Cashflow cashflow : cashflowRepository.findAll()) {
+            if (cashflow.getTradeLeg() == null || !onDemandLegIds.contains(cashflow.getTradeLeg().getLegId())) {
+                cashflows.add(cashflow);
+            }
+        }
+        for (TradeLeg leg : onDemandLegs) {
+            cashflows.addAll(cashflowScheduleService.getCashflows(leg));
+        }
+        return cashflows;
+    }
+
+    /**
+     * A page of a leg's cashflows, in value date order unless the page asks for another sort.
+     * Legs with on-demand schedules are generated and paged in memory, always in value date order.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Page<Cashflow>> getCashflowsForLeg(Long legId, Pageable pageable) {
+        logger.debug("Retrieving cashflows for leg {}: {}", legId, pageable);
+        Optional<TradeLeg> leg = tradeLegRepository.findById(legId);
+        if (leg.isEmpty()) {
+            return Optional.empty();
+        }
+        if (Boolean.TRUE.equals(leg.get().getCashflowsOnDemand())) {
+            List<Cashflow> cashflows = cashflowScheduleService.getCashflows(leg.get());
+            int from = (int) Math.min(pageable.getOffset(), cashflows.size());
+            int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), cashflows.size()) : cashflows.size();
+            return Optional.of(new PageImpl<>(cashflows.subList(from, to), pageable, cashflows.size()));
+        }
+        return Optional.of(cashflowRepository.findByTradeLegLegId(legId, byValueDate(pageable)));
+    }
+
+    /**
+     * A page of the active cashflows of current trade versions with value dates in [from, to],
+     * optionally only those in a currency or book.
+     */
+    @Transactional(readOnly = true)
+    public Page<Cashflow> getCashflows(LocalDate from, LocalDate to, String currency, Long bookId, Pageable pageable) {
+        logger.debug("Retrieving cashflows from {} to {} for currency {} and book {}: {}", from, to, currency, bookId, pageable);
+        checkWindow(from, to);
+        return cashflowRepository.findWindow(from, to, currency, bookId, byValueDate(pageable));
+    }
+
+    /**
+     * Streams the cashflows of {@link #getCashflows} in value date order to {@code sink}, one row at
+     * a time, without loading the window into memory.
+     * @return the number of cashflows streamed
+     */
+    @Transactional(readOnly = true)
+    public long exportCashflows(LocalDate from, LocalDate to, String currency, Long bookId, Consumer<CashflowDTO> sink) {
+        checkWindow(from, to);
+        long count = 0;
+        try (Stream<Object[]> rows = cashflowRepository.streamWindow(from, to, currency, bookId)) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                sink.accept(new CashflowDTO((Long) row[0], (Long) row[1], (BigDecimal) row[2], (LocalDate) row[3],
+                        (Double) row[4], (String) row[5], (String) row[6], (String) row[7],
+                        (LocalDateTime) row[8], (Boolean) row[9]));
+                count++;
+            }
+        }
+        logger.info("Exported {} cashflows from {} to {} for currency {} and book {}", count, from, to, currency, bookId);
+        return count;
+    }
+
+    private static void checkWindow(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Cashflow window from and to dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Cashflow window ends before it starts");
+        }
+    }
+
+    private static Pageable byValueDate(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().isSorted()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("valueDate", "id"));
     }
 
     public Optional<Cashflow> getCashflowById(Long id) {
@@ -57,19 +164,14 @@ public class CashflowService {
 
     public void populateReferenceDataByName(Cashflow cashflow, CashflowDTO dto) {
         if (dto.getPayRec() != null) {
-            cashflow.setPayRec(payRecRepository.findAll().stream()
-                .filter(p -> p.getPayRec().equalsIgnoreCase(dto.getPayRec()))
-                .findFirst().orElse(null));
+            cashflow.setPayRec(payRecRepository.findFirstByPayRecIgnoreCase(dto.getPayRec()).orElse(null));
         }
         if (dto.getPaymentType() != null) {
-            cashflow.setPaymentType(legTypeRepository.findAll().stream()
-                .filter(l -> l.getType().equalsIgnoreCase(dto.getPaymentType()))
-                .findFirst().orElse(null));
+            cashflow.setPaymentType(legTypeRepository.findFirstByTypeIgnoreCase(dto.getPaymentType()).orElse(null));
         }
         if (dto.getPaymentBusinessDayConvention() != null) {
-            cashflow.setPaymentBusinessDayConvention(businessDayConventionRepository.findAll().stream()
-                .filter(b -> b.getBdc().equalsIgnoreCase(dto.getPaymentBusinessDayConvention()))
-                .findFirst().orElse(null));
+            cashflow.setPaymentBusinessDayConvention(businessDayConventionRepository
+                .findFirstByBdcIgnoreCase(dto.getPaymentBusinessDayConvention()).orElse(null));
         }
     }
 }
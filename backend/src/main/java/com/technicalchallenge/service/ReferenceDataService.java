@@ -0,0 +1,164 @@
+package com.technicalchallenge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technicalchallenge.cache.CachedJson;
+import com.technicalchallenge.dto.BookDTO;
+import com.technicalchallenge.dto.ReferenceDataBundleDTO;
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.BusinessDayConvention;
+import com.technicalchallenge.model.CostCenter;
+import com.technicalchallenge.model.Counterparty;
+import com.technicalchallenge.model.Currency;
+import com.technicalchallenge.model.Desk;
+import com.technicalchallenge.model.HolidayCalendar;
+import com.technicalchallenge.model.Index;
+import com.technicalchallenge.model.LegType;
+import com.technicalchallenge.model.PayRec;
+import com.technicalchallenge.model.ReferenceDataChangeListener;
+import com.technicalchallenge.model.Schedule;
+import com.technicalchallenge.model.SubDesk;
+import com.technicalchallenge.model.TradeStatus;
+import com.technicalchallenge.model.TradeSubType;
+import com.technicalchallenge.model.TradeType;
+import com.technicalchallenge.repository.TradeSubTypeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The booking screen's picklists as one pre-serialised bundle, the same values the individual
+ * {@code /values} endpoints return. The bundle is built once and served from memory until a
+ * reference data change commits, so a reload by a client that already has it costs a 304 and
+ * no queries.
+ */
+@Service
+public class ReferenceDataService {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataService.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private LegTypeService legTypeService;
+
+    @Autowired
+    private TradeTypeService tradeTypeService;
+
+    @Autowired
+    private TradeStatusService tradeStatusService;
+
+    @Autowired
+    private IndexService indexService;
+
+    @Autowired
+    private HolidayCalendarService holidayCalendarService;
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private BusinessDayConventionService businessDayConventionService;
+
+    @Autowired
+    private PayRecService payRecService;
+
+    @Autowired
+    private CounterpartyService counterpartyService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private DeskService deskService;
+
+    @Autowired
+    private SubDeskService subDeskService;
+
+    @Autowired
+    private CostCenterService costCenterService;
+
+    @Autowired
+    private ApplicationUserService applicationUserService;
+
+    @Autowired
+    private TradeSubTypeRepository tradeSubTypeRepository;
+
+    @Value("${reference-data.bundle.compress-min-bytes:1024}")
+    private int compressMinBytes = 1024;
+
+    private volatile Bundle bundle;
+
+    /**
+     * The serialised bundle, rebuilt first if reference data has changed since it was built.
+     */
+    public CachedJson getBundle() {
+        long version = ReferenceDataChangeListener.changeCount();
+        Bundle current = bundle;
+        if (current != null && current.version == version) {
+            return current.json;
+        }
+        synchronized (this) {
+            current = bundle;
+            // Read the count before querying, so a change committed mid-build triggers another rebuild
+            version = ReferenceDataChangeListener.changeCount();
+            if (current == null || current.version != version) {
+                current = new Bundle(version, serialise(build(version)));
+                bundle = current;
+            }
+            return current.json;
+        }
+    }
+
+    private ReferenceDataBundleDTO build(long version) {
+        logger.info("Building reference data bundle at version {}", version);
+        return new ReferenceDataBundleDTO(
+                version,
+                values(currencyService.findAll(), Currency::getCurrency),
+                values(legTypeService.findAll(), LegType::getType),
+                values(tradeTypeService.findAll(), TradeType::getTradeType),
+                values(tradeStatusService.findAll(), TradeStatus::getTradeStatus),
+                values(indexService.findAll(), Index::getIndex),
+                values(holidayCalendarService.findAll(), HolidayCalendar::getHolidayCalendar),
+                values(scheduleService.findAll(), Schedule::getSchedule),
+                values(businessDayConventionService.findAll(), BusinessDayConvention::getBdc),
+                values(payRecService.findAll(), PayRec::getPayRec),
+                values(counterpartyService.getAllCounterparties(), Counterparty::getName),
+                values(bookService.getAllBooks(), BookDTO::getBookName),
+                values(deskService.getAllDesks(), Desk::getDeskName),
+                values(subDeskService.getAllSubDesks(), SubDesk::getSubdeskName),
+                values(costCenterService.getAllCostCenters(), CostCenter::getCostCenterName),
+                values(applicationUserService.getAllUsers(), ApplicationUser::getLoginId),
+                values(tradeSubTypeRepository.findAll(), TradeSubType::getTradeSubType));
+    }
+
+    private CachedJson serialise(ReferenceDataBundleDTO dto) {
+        try {
+            return new CachedJson("refdata." + dto.getVersion(), objectMapper.writeValueAsBytes(dto), compressMinBytes);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unable to serialise reference data bundle", e);
+        }
+    }
+
+    private static <T> List<String> values(List<T> entities, Function<T, String> value) {
+        return entities.stream().map(value).toList();
+    }
+
+    private static final class Bundle {
+        private final long version;
+        private final CachedJson json;
+
+        private Bundle(long version, CachedJson json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
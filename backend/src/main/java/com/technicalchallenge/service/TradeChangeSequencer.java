@@ -0,0 +1,142 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.repository.TradeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Assigns trade rows the change sequence the change feed cursor relies on.
+ *
+ * Numbers are drawn from the database sequence {@value #SEQUENCE_NAME} in the transaction's
+ * before-commit callback, so writers on any instance never wait on each other, and each row is
+ * stamped with the time its number was drawn. Numbers are therefore unique but a transaction
+ * can still commit after one that drew a higher number, and rolled-back transactions and rows
+ * re-sequenced by a later write leave numbers that never appear. {@link #settled} resolves
+ * both: a gap in the feed is only skipped once the row after it was stamped longer ago than
+ * {@code trades.changes.settle-millis}. The window must cover the time from drawing a number
+ * to committing, plus clock skew between instances; past it, a transaction that drew a number
+ * in the gap has committed or never will.
+ */
+@Component
+public class TradeChangeSequencer {
+
+    static final String SEQUENCE_NAME = "trade_change_seq";
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeChangeSequencer.class);
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${trades.changes.settle-millis:5000}")
+    private long settleMillis = 5000;
+
+    private volatile String nextValueSql;
+
+    /**
+     * Sequences rows loaded without a change sequence (e.g. data.sql).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialise() {
+        List<Trade> unsequenced = tradeRepository.findByChangeSequenceIsNullOrderByIdAsc();
+        for (Trade trade : unsequenced) {
+            stamp(trade);
+        }
+        tradeRepository.saveAll(unsequenced);
+        logger.info("Trade change sequence initialised ({} existing rows sequenced)", unsequenced.size());
+    }
+
+    /**
+     * Marks a trade row as written in the current transaction. The row receives its sequence
+     * number just before the transaction commits.
+     */
+    public void markChanged(Trade trade) {
+        if (trade == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stamp(trade);
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.trades.add(trade);
+    }
+
+    /**
+     * The leading part of {@code rows}, read in sequence order after {@code since}, that a
+     * consumer can safely move its cursor past: it stops at the first gap whose following row
+     * is still within the settle window, because a transaction that drew a number in that gap
+     * may not have committed yet.
+     */
+    public List<Trade> settled(long since, List<Trade> rows) {
+        LocalDateTime settledBefore = LocalDateTime.now().minusNanos(settleMillis * 1_000_000);
+        List<Trade> settled = new ArrayList<>(rows.size());
+        long expected = since + 1;
+        for (Trade trade : rows) {
+            long sequence = trade.getChangeSequence();
+            if (sequence != expected && trade.getChangeRecordedAt() != null
+                    && trade.getChangeRecordedAt().isAfter(settledBefore)) {
+                break;
+            }
+            settled.add(trade);
+            expected = sequence + 1;
+        }
+        return settled;
+    }
+
+    private void stamp(Trade trade) {
+        Number next = (Number) entityManager.createNativeQuery(nextValueSql()).getSingleResult();
+        trade.setChangeSequence(next.longValue());
+        trade.setChangeRecordedAt(LocalDateTime.now());
+    }
+
+    private String nextValueSql() {
+        if (nextValueSql == null) {
+            nextValueSql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(SEQUENCE_NAME);
+        }
+        return nextValueSql;
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+        private final Set<Trade> trades = new LinkedHashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            for (Trade trade : trades) {
+                stamp(trade);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TradeChangeSequencer.this);
+        }
+    }
+}
@@ -2,15 +2,31 @@ package com.technicalchallenge.service;
 
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
 import com.technicalchallenge.exception.InsufficientPrivilegeException;
 import com.technicalchallenge.exception.TradeValidationException;
+import com.technicalchallenge.fixing.FixingService;
+import com.technicalchallenge.fixing.FixingSet;
+import com.technicalchallenge.jfr.CashflowGenerationEvent;
+import com.technicalchallenge.jfr.TradeAmendmentEvent;
+import com.technicalchallenge.jfr.TradeBookingEvent;
+import com.technicalchallenge.lifetime.TradeLifetimeIndex;
+import com.technicalchallenge.logging.TradeEventLoggers;
+import com.technicalchallenge.metrics.BookingMetrics;
 import com.technicalchallenge.model.*;
 import com.technicalchallenge.validation.ValidationResult;
 
 import com.technicalchallenge.repository.*;
 import com.technicalchallenge.validation.TradeValidator;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,7 +44,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -71,6 +90,35 @@ public class TradeService {
     private PayRecRepository payRecRepository;
     @Autowired
     private AdditionalInfoService additionalInfoService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TradeChangeSequencer changeSequencer;
+    @Autowired
+    private BookingMetrics bookingMetrics;
+    @Autowired
+    private FixingService fixingService;
+    @Autowired
+    private TradeLifetimeIndex tradeLifetimeIndex;
+
+    // persisted, or on-demand to store only the schedule parameters of fixed legs
+    @Value("${cashflows.schedule-mode:persisted}")
+    private String cashflowScheduleMode = CashflowScheduleService.PERSISTED;
+
+    /**
+     * Refuses to start with on-demand cashflows: valuation, VaR, DV01, settlement netting and the
+     * cash ladder read stored cashflow rows only, so they would silently leave such legs out.
+     */
+    @PostConstruct
+    public void checkCashflowScheduleMode() {
+        if (CashflowScheduleService.ON_DEMAND.equalsIgnoreCase(cashflowScheduleMode)) {
+            throw new IllegalStateException("cashflows.schedule-mode=on-demand is not supported yet: valuation, "
+                    + "risk, settlement netting and the cash ladder read stored cashflows only");
+        }
+        if (!CashflowScheduleService.PERSISTED.equalsIgnoreCase(cashflowScheduleMode)) {
+            throw new IllegalStateException("Unknown cashflows.schedule-mode: " + cashflowScheduleMode);
+        }
+    }
 
     public List<Trade> getAllTrades() {
         logger.info("Retrieving all trades");
@@ -82,19 +130,87 @@ public class TradeService {
         return tradeRepository.findByTradeIdAndActiveTrue(tradeId);
     }
 
+    /**
+     * Resolves the version of a trade that was valid at the given timestamp.
+     * Versions follow amendments only; a termination or cancellation changes the status of the
+     * current version in place, so as-of status is not bitemporal.
+     * @param tradeId The business ID of the trade.
+     * @param asOf The point in time to resolve.
+     * @return The trade version valid at that time, or empty if the trade did not exist yet.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Trade> getTradeAsOf(Long tradeId, LocalDateTime asOf) {
+        logger.debug("Retrieving trade {} as of {}", tradeId, asOf);
+        return tradeRepository.findVersionAsOf(tradeId, asOf);
+    }
+
+    /**
+     * Resolves the snapshot of a book at the given timestamp: one version per trade,
+     * each being the version valid at that time, with the status it has now.
+     * @param bookId The ID of the book.
+     * @param asOf The point in time to resolve.
+     * @return The trade versions valid in the book at that time.
+     */
+    @Transactional(readOnly = true)
+    public List<Trade> getBookTradesAsOf(Long bookId, LocalDateTime asOf) {
+        logger.debug("Retrieving book {} snapshot as of {}", bookId, asOf);
+        return tradeRepository.findBookVersionsAsOf(bookId, asOf);
+    }
+
+    /**
+     * Reads the change feed: trade rows written after the given cursor, in sequence order,
+     * stopping before any gap that a transaction still committing may yet fill.
+     * @param since The last change sequence the consumer has processed (0 to start from the beginning).
+     * @param limit Maximum number of rows to return.
+     */
+    @Transactional(readOnly = true)
+    public List<Trade> getTradeChangesSince(long since, int limit) {
+        logger.debug("Fetching up to {} trade changes after cursor {}", limit, since);
+        List<Trade> changed = tradeRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(since, PageRequest.of(0, limit));
+        return changeSequencer.settled(since, changed);
+    }
+
     @Transactional
     public Trade createTrade(TradeDTO tradeDTO) {
+        BookingMetrics.Recording recording = bookingMetrics.start("create");
+        TradeBookingEvent jfrEvent = new TradeBookingEvent();
+        jfrEvent.begin();
+        Trade savedTrade = null;
+        try {
+            savedTrade = createTrade(tradeDTO, recording);
+            recording.success();
+            return savedTrade;
+        } finally {
+            recording.finish();
+            jfrEvent.end();
+            if (jfrEvent.shouldCommit()) {
+                jfrEvent.tradeId = savedTrade != null && savedTrade.getTradeId() != null ? savedTrade.getTradeId() : 0L;
+                jfrEvent.tradeType = tradeDTO.getTradeType();
+                jfrEvent.book = tradeDTO.getBookName();
+                jfrEvent.counterparty = tradeDTO.getCounterpartyName();
+                jfrEvent.legCount = tradeDTO.getTradeLegs() != null ? tradeDTO.getTradeLegs().size() : 0;
+                jfrEvent.cashflowCount = recording.getCashflows();
+                jfrEvent.userId = getCurrentUserId();
+                jfrEvent.successful = savedTrade != null;
+                jfrEvent.commit();
+            }
+        }
+    }
+
+    private Trade createTrade(TradeDTO tradeDTO, BookingMetrics.Recording recording) {
 
         // 1. Get the User ID from the Security Context
         String userId = getCurrentUserId();
 
         // 3. Privilege Validation
+        recording.stage("privilege_check");
         if (!tradeValidator.validateUserPrivileges(userId, "CREATE", tradeDTO)) {
         // If the boolean is FALSE (validation fails), throw the exception
         throw new InsufficientPrivilegeException("User " + userId + " does not have privileges to create this trade.");
         }
 
         // 4. Business Rules Validation
+        recording.stage("validation");
         ValidationResult businessRulesResult = tradeValidator.validateTradeBusinessRules(tradeDTO);
         if (!businessRulesResult.isSuccessful()) {
             throw new TradeValidationException(businessRulesResult.getErrors());
@@ -106,20 +222,30 @@ public class TradeService {
             throw new TradeValidationException(legConsistencyResult.getErrors());
         }
         
-        logger.info("Creating new trade with ID: {}", tradeDTO.getTradeId());
+        logger.debug("Creating new trade with ID: {}", tradeDTO.getTradeId());
 
         // Generate trade ID if not provided
+        recording.stage("id_generation");
         if (tradeDTO.getTradeId() == null) {
             // Generate sequential trade ID starting from 10000
             Long generatedTradeId = generateNextTradeId();
             tradeDTO.setTradeId(generatedTradeId);
-            logger.info("Generated trade ID: {}", generatedTradeId);
+            logger.debug("Generated trade ID: {}", generatedTradeId);
         }
 
         // Validate business rules
+        recording.stage("validation");
         validateTradeCreation(tradeDTO);
 
+        // Reserve counterparty credit exposure; released if the booking rolls back
+        recording.stage("limit_check");
+        ValidationResult limitResult = tradeValidator.validateCounterpartyLimits(tradeDTO);
+        if (!limitResult.isSuccessful()) {
+            throw new TradeValidationException(limitResult.getErrors());
+        }
+
         // Create trade entity
+        recording.stage("reference_lookup");
         Trade trade = mapDTOToEntity(tradeDTO);
         trade.setVersion(1);
         trade.setActive(true);
@@ -133,16 +259,20 @@ public class TradeService {
 
         // Populate reference data
         populateReferenceDataByName(trade, tradeDTO);
+        recording.tradeType(trade.getTradeType());
 
         // Ensure we have essential reference data
         validateReferenceData(trade);
 
+        recording.stage("trade_insert");
         Trade savedTrade = tradeRepository.save(trade);
+        changeSequencer.markChanged(savedTrade);
 
         // Create trade legs and cashflows
-        createTradeLegsWithCashflows(tradeDTO, savedTrade);
+        List<TradeLeg> savedLegs = createTradeLegsWithCashflows(tradeDTO, savedTrade, recording);
 
         // START INTEGRATION: SAVE SETTLEMENT INSTRUCTIONS IF PROVIDED
+        recording.stage("si_write");
         if (tradeDTO.getSettlementInstructions() != null && !tradeDTO.getSettlementInstructions().isBlank()) {
             additionalInfoService.saveSettlementInstructions(
                 savedTrade.getId(), 
@@ -152,7 +282,18 @@ public class TradeService {
         }
         // END INTEGRATION 
 
-        logger.info("Successfully created trade with ID: {}", savedTrade.getTradeId());
+        recording.stage("event_publish");
+        publishLifecycleEvent(TradeEventType.CREATED, null, TradeSnapshot.of(savedTrade, savedLegs), userId);
+
+        TradeEventLoggers.BOOKING.atInfo().setMessage("trade.created")
+                .addKeyValue("tradeId", savedTrade.getTradeId())
+                .addKeyValue("version", savedTrade.getVersion())
+                .addKeyValue("tradeType", tradeDTO.getTradeType())
+                .addKeyValue("book", tradeDTO.getBookName())
+                .addKeyValue("counterparty", tradeDTO.getCounterpartyName())
+                .addKeyValue("legs", savedLegs.size())
+                .addKeyValue("user", userId)
+                .log();
         return savedTrade;
     }
 
@@ -318,15 +459,42 @@ public class TradeService {
 
     @Transactional
     public Trade amendTrade(Long tradeId, TradeDTO tradeDTO) {
+        BookingMetrics.Recording recording = bookingMetrics.start("amend");
+        TradeAmendmentEvent jfrEvent = new TradeAmendmentEvent();
+        jfrEvent.begin();
+        Trade savedTrade = null;
+        try {
+            savedTrade = amendTrade(tradeId, tradeDTO, recording);
+            recording.success();
+            return savedTrade;
+        } finally {
+            recording.finish();
+            jfrEvent.end();
+            if (jfrEvent.shouldCommit()) {
+                jfrEvent.tradeId = tradeId != null ? tradeId : 0L;
+                jfrEvent.version = savedTrade != null && savedTrade.getVersion() != null ? savedTrade.getVersion() : 0;
+                jfrEvent.tradeType = tradeDTO.getTradeType();
+                jfrEvent.legCount = tradeDTO.getTradeLegs() != null ? tradeDTO.getTradeLegs().size() : 0;
+                jfrEvent.cashflowCount = recording.getCashflows();
+                jfrEvent.userId = getCurrentUserId();
+                jfrEvent.successful = savedTrade != null;
+                jfrEvent.commit();
+            }
+        }
+    }
+
+    private Trade amendTrade(Long tradeId, TradeDTO tradeDTO, BookingMetrics.Recording recording) {
         // 1. Get the User ID from the Security Context
         String userId = getCurrentUserId();
     
         // 2. PRIVILEGE CHECK
+        recording.stage("privilege_check");
         if (!tradeValidator.validateUserPrivileges(userId, "AMEND", tradeDTO)) {
             throw new InsufficientPrivilegeException("User " + userId + " does not have privileges to amend this trade.");
         }
 
         // 3. BUSINESS RULE VALIDATION
+        recording.stage("validation");
         ValidationResult businessRulesResult = tradeValidator.validateTradeBusinessRules(tradeDTO);
         if (!businessRulesResult.isSuccessful()) {
             throw new TradeValidationException(businessRulesResult.getErrors());
@@ -338,42 +506,62 @@ public class TradeService {
             throw new TradeValidationException(legConsistencyResult.getErrors());
         }    
 
-        logger.info("Amending trade with ID: {}", tradeId);
+        logger.debug("Amending trade with ID: {}", tradeId);
 
+        recording.stage("trade_lookup");
         Optional<Trade> existingTradeOpt = getTradeById(tradeId);
         if (existingTradeOpt.isEmpty()) {
             throw new RuntimeException("Trade not found: " + tradeId);
         }
 
         Trade existingTrade = existingTradeOpt.get(); // This is older version (Old Primary Key: PK-A)
+        TradeSnapshot previousSnapshot = TradeSnapshot.of(existingTrade);
+
+        // Reserve any increase in counterparty credit exposure; released if the amendment rolls back
+        recording.stage("limit_check");
+        tradeDTO.setTradeId(tradeId);
+        ValidationResult limitResult = tradeValidator.validateCounterpartyLimits(tradeDTO);
+        if (!limitResult.isSuccessful()) {
+            throw new TradeValidationException(limitResult.getErrors());
+        }
+
+        // Use one timestamp for both versions so the validity intervals are contiguous for as-of queries
+        LocalDateTime versionTimestamp = LocalDateTime.now();
 
         // Deactivate existing trade
+        recording.stage("trade_deactivate");
         existingTrade.setActive(false);
-        existingTrade.setDeactivatedDate(LocalDateTime.now());
+        existingTrade.setDeactivatedDate(versionTimestamp);
         tradeRepository.save(existingTrade);
+        changeSequencer.markChanged(existingTrade);
 
         // Create new version
         Trade amendedTrade = mapDTOToEntity(tradeDTO);
         amendedTrade.setTradeId(tradeId);
         amendedTrade.setVersion(existingTrade.getVersion() + 1);
         amendedTrade.setActive(true);
-        amendedTrade.setCreatedDate(LocalDateTime.now());
-        amendedTrade.setLastTouchTimestamp(LocalDateTime.now());
+        amendedTrade.setCreatedDate(versionTimestamp);
+        amendedTrade.setLastTouchTimestamp(versionTimestamp);
 
         // Populate reference data
+        recording.stage("reference_lookup");
         populateReferenceDataByName(amendedTrade, tradeDTO);
+        recording.tradeType(amendedTrade.getTradeType());
 
         // Set status to AMENDED
         TradeStatus amendedStatus = tradeStatusRepository.findByTradeStatus("AMENDED")
                 .orElseThrow(() -> new RuntimeException("AMENDED status not found"));
         amendedTrade.setTradeStatus(amendedStatus);
 
+        recording.stage("trade_insert");
         Trade savedTrade = tradeRepository.save(amendedTrade); // This is newer version (New Primary Key: PK-B)
+        changeSequencer.markChanged(savedTrade);
 
         // Create new trade legs and cashflows
-        createTradeLegsWithCashflows(tradeDTO, savedTrade);
+        List<TradeLeg> savedLegs = createTradeLegsWithCashflows(tradeDTO, savedTrade, recording);
 
         // START INTEGRATION: SAVE/UPDATE SETTLEMENT INSTRUCTIONS
+        recording.stage("si_write");
         String newInstructionsInDTO = tradeDTO.getSettlementInstructions();
         boolean isTraderSales = tradeValidator.hasAnyRole(userId, "TRADER_SALES");
 
@@ -436,9 +624,18 @@ public class TradeService {
             logger.debug("TRADER/SALES provided null/blank SI in DTO. No action taken to preserve SI.");
         }
         // END INTEGRATION
+
+        recording.stage("event_publish");
+        publishLifecycleEvent(TradeEventType.AMENDED, previousSnapshot, TradeSnapshot.of(savedTrade, savedLegs), userId);
         
-            logger.info("Successfully amended trade with ID: {}", savedTrade.getTradeId());
-            return savedTrade;
+        TradeEventLoggers.BOOKING.atInfo().setMessage("trade.amended")
+                .addKeyValue("tradeId", savedTrade.getTradeId())
+                .addKeyValue("version", savedTrade.getVersion())
+                .addKeyValue("tradeType", tradeDTO.getTradeType())
+                .addKeyValue("legs", savedLegs.size())
+                .addKeyValue("user", userId)
+                .log();
+        return savedTrade;
     }
 
     /**
@@ -456,7 +653,7 @@ public class TradeService {
         // Get the User ID from the Security Context
         String userId = getCurrentUserId();
 
-        logger.info("Starting update of settlement instructions for trade ID: {}, by user ID: {}", tradeId, userId);
+        logger.debug("Starting update of settlement instructions for trade ID: {}, by user ID: {}", tradeId, userId);
 
         // 1. Find the active trade by ID
         Trade trade = getTradeById(tradeId)
@@ -464,6 +661,7 @@ public class TradeService {
 
         // 2. Content Security Validation (Enforces no special characters that cause security issues)
         validateSettlementInstructionsContent(instructions);
+        TradeSnapshot previousSnapshot = TradeSnapshot.of(trade);
 
         // 3. Delegate to AdditionalInfoService for persistence and audit
         // The service handles deactivation of the old SI and creation of the new SI record.
@@ -475,8 +673,15 @@ public class TradeService {
         // 4. Update the trade's last touch timestamp
         trade.setLastTouchTimestamp(LocalDateTime.now());
         tradeRepository.save(trade);
+        changeSequencer.markChanged(trade);
 
-        logger.info("Successfully updated SI for trade ID: {}", tradeId);
+        publishLifecycleEvent(TradeEventType.SETTLEMENT_INSTRUCTIONS_UPDATED, previousSnapshot, TradeSnapshot.of(trade), userId);
+
+        TradeEventLoggers.SETTLEMENT.atInfo().setMessage("settlement.updated")
+                .addKeyValue("tradeId", tradeId)
+                .addKeyValue("length", instructions != null ? instructions.length() : 0)
+                .addKeyValue("user", userId)
+                .log();
         return trade;
     }
 
@@ -501,56 +706,104 @@ public class TradeService {
 
     @Transactional
     public Trade terminateTrade(Long tradeId) {
+        BookingMetrics.Recording recording = bookingMetrics.start("terminate");
+        try {
+            Trade savedTrade = terminateTrade(tradeId, recording);
+            recording.success();
+            return savedTrade;
+        } finally {
+            recording.finish();
+        }
+    }
+
+    private Trade terminateTrade(Long tradeId, BookingMetrics.Recording recording) {
 
         // 1. Get the User ID from the Security Context
         String userId = getCurrentUserId();
 
         // 2. PRIVILEGE CHECK
+        recording.stage("privilege_check");
         if (!tradeValidator.validateUserPrivileges(userId, "TERMINATE", null)) { // tradeDTO can be null for this check
             throw new InsufficientPrivilegeException("User " + userId + " does not have privileges to terminate this trade.");
         }
-        logger.info("Terminating trade with ID: {}", tradeId);
+        logger.debug("Terminating trade with ID: {}", tradeId);
 
+        recording.stage("trade_lookup");
         Optional<Trade> tradeOpt = getTradeById(tradeId);
         if (tradeOpt.isEmpty()) {
             throw new RuntimeException("Trade not found: " + tradeId);
         }
 
         Trade trade = tradeOpt.get();
+        recording.tradeType(trade.getTradeType());
         TradeStatus terminatedStatus = tradeStatusRepository.findByTradeStatus("TERMINATED")
                 .orElseThrow(() -> new RuntimeException("TERMINATED status not found"));
 
+        recording.stage("trade_update");
+        TradeSnapshot previousSnapshot = TradeSnapshot.of(trade);
+        // Updated in place rather than versioned: as-of queries see the new status at any time
         trade.setTradeStatus(terminatedStatus);
         trade.setLastTouchTimestamp(LocalDateTime.now());
 
-        return tradeRepository.save(trade);
+        Trade savedTrade = tradeRepository.save(trade);
+        changeSequencer.markChanged(trade);
+        publishLifecycleEvent(TradeEventType.TERMINATED, previousSnapshot, TradeSnapshot.of(trade), userId);
+        TradeEventLoggers.BOOKING.atInfo().setMessage("trade.terminated")
+                .addKeyValue("tradeId", tradeId)
+                .addKeyValue("user", userId)
+                .log();
+        return savedTrade;
     }
 
     @Transactional
     public Trade cancelTrade(Long tradeId) {
+        BookingMetrics.Recording recording = bookingMetrics.start("cancel");
+        try {
+            Trade savedTrade = cancelTrade(tradeId, recording);
+            recording.success();
+            return savedTrade;
+        } finally {
+            recording.finish();
+        }
+    }
+
+    private Trade cancelTrade(Long tradeId, BookingMetrics.Recording recording) {
 
         /// 1. Get the User ID from the Security Context
         String userId = getCurrentUserId();
 
         // 2. PRIVILEGE CHECK Use "TERMINATE" operation
+        recording.stage("privilege_check");
         if (!tradeValidator.validateUserPrivileges(userId, "TERMINATE", null)) { // tradeDTO can be null for this check
             throw new InsufficientPrivilegeException("User " + userId + " does not have privileges to terminate this trade.");
         }
-        logger.info("Cancelling trade with ID: {}", tradeId);
+        logger.debug("Cancelling trade with ID: {}", tradeId);
 
+        recording.stage("trade_lookup");
         Optional<Trade> tradeOpt = getTradeById(tradeId);
         if (tradeOpt.isEmpty()) {
             throw new RuntimeException("Trade not found: " + tradeId);
         }
 
         Trade trade = tradeOpt.get();
+        recording.tradeType(trade.getTradeType());
         TradeStatus cancelledStatus = tradeStatusRepository.findByTradeStatus("CANCELLED")
                 .orElseThrow(() -> new RuntimeException("CANCELLED status not found"));
 
+        recording.stage("trade_update");
+        TradeSnapshot previousSnapshot = TradeSnapshot.of(trade);
+        // Updated in place rather than versioned: as-of queries see the new status at any time
         trade.setTradeStatus(cancelledStatus);
         trade.setLastTouchTimestamp(LocalDateTime.now());
 
-        return tradeRepository.save(trade);
+        Trade savedTrade = tradeRepository.save(trade);
+        changeSequencer.markChanged(trade);
+        publishLifecycleEvent(TradeEventType.CANCELLED, previousSnapshot, TradeSnapshot.of(trade), userId);
+        TradeEventLoggers.BOOKING.atInfo().setMessage("trade.cancelled")
+                .addKeyValue("tradeId", tradeId)
+                .addKeyValue("user", userId)
+                .log();
+        return savedTrade;
     }
 
     private void validateTradeCreation(TradeDTO tradeDTO) {
@@ -585,7 +838,8 @@ public class TradeService {
         return trade;
     }
 
-    private void createTradeLegsWithCashflows(TradeDTO tradeDTO, Trade savedTrade) {
+    private List<TradeLeg> createTradeLegsWithCashflows(TradeDTO tradeDTO, Trade savedTrade, BookingMetrics.Recording recording) {
+        List<TradeLeg> savedLegs = new ArrayList<>();
         for (int i = 0; i < tradeDTO.getTradeLegs().size(); i++) {
             var legDTO = tradeDTO.getTradeLegs().get(i);
 
@@ -597,15 +851,28 @@ public class TradeService {
             tradeLeg.setCreatedDate(LocalDateTime.now());
 
             // Populate reference data for leg
+            recording.stage("reference_lookup");
             populateLegReferenceData(tradeLeg, legDTO);
 
+            recording.stage("leg_insert");
             TradeLeg savedLeg = tradeLegRepository.save(tradeLeg);
+            savedLegs.add(savedLeg != null ? savedLeg : tradeLeg);
 
             // Generate cashflows for this leg
             if (tradeDTO.getTradeStartDate() != null && tradeDTO.getTradeMaturityDate() != null) {
-                generateCashflows(savedLeg, tradeDTO.getTradeStartDate(), tradeDTO.getTradeMaturityDate());
+                recording.stage("cashflow_generation");
+                recording.addCashflows(generateCashflows(savedLeg, tradeDTO.getTradeStartDate(), tradeDTO.getTradeMaturityDate()));
             }
         }
+        return savedLegs;
+    }
+
+    /**
+     * Publishes a lifecycle event for the change just made. Snapshots are taken inside the
+     * transaction; listeners bound to AFTER_COMMIT only see the event once the change is durable.
+     */
+    private void publishLifecycleEvent(TradeEventType type, TradeSnapshot previous, TradeSnapshot current, String userId) {
+        eventPublisher.publishEvent(new TradeLifecycleEvent(type, previous, current, userId, LocalDateTime.now()));
     }
 
     private void populateLegReferenceData(TradeLeg leg, TradeLegDTO legDTO) {
@@ -685,8 +952,8 @@ public class TradeService {
     /**
      * FIXED: Generate cashflows based on schedule and maturity date
      */
-    private void generateCashflows(TradeLeg leg, LocalDate startDate, LocalDate maturityDate) {
-        logger.info("Generating cashflows for leg {} from {} to {}", leg.getLegId(), startDate, maturityDate);
+    private int generateCashflows(TradeLeg leg, LocalDate startDate, LocalDate maturityDate) {
+        logger.debug("Generating cashflows for leg {} from {} to {}", leg.getLegId(), startDate, maturityDate);
 
         // Use default schedule if not set
         String schedule = "3M"; // Default to quarterly
@@ -694,8 +961,20 @@ public class TradeService {
             schedule = leg.getCalculationPeriodSchedule().getSchedule();
         }
 
-        int monthsInterval = parseSchedule(schedule);
-        List<LocalDate> paymentDates = calculatePaymentDates(startDate, maturityDate, monthsInterval);
+        int monthsInterval = CashflowScheduleService.parseSchedule(schedule);
+        if (CashflowScheduleService.ON_DEMAND.equalsIgnoreCase(cashflowScheduleMode)
+                && leg.getLegRateType() != null && "Fixed".equals(leg.getLegRateType().getType())) {
+            // A fixed leg is fully described by its schedule parameters; cashflows are generated when read
+            leg.setCashflowsOnDemand(true);
+            logger.debug("Leg {} keeps its {} schedule for on-demand cashflows", leg.getLegId(), schedule);
+            return 0;
+        }
+        CashflowGenerationEvent jfrEvent = new CashflowGenerationEvent();
+        jfrEvent.begin();
+        List<LocalDate> paymentDates = CashflowScheduleService.paymentDates(startDate, maturityDate, monthsInterval);
+        // One snapshot for the whole leg, so a fixing published mid-run cannot split it
+        FixingSet fixings = fixingService.getFixings();
+        LocalDate periodStart = startDate;
 
         for (LocalDate paymentDate : paymentDates) {
             Cashflow cashflow = new Cashflow();
@@ -704,8 +983,9 @@ public class TradeService {
             cashflow.setRate(leg.getRate());
 
             // Calculate value based on leg type
-            BigDecimal cashflowValue = calculateCashflowValue(leg, monthsInterval);
+            BigDecimal cashflowValue = calculateCashflowValue(leg, monthsInterval, periodStart, fixings, cashflow);
             cashflow.setPaymentValue(cashflowValue);
+            periodStart = paymentDate;
 
             cashflow.setPayRec(leg.getPayReceiveFlag());
             cashflow.setPaymentBusinessDayConvention(leg.getPaymentBusinessDayConvention());
@@ -715,55 +995,26 @@ public class TradeService {
             cashflowRepository.save(cashflow);
         }
 
-        logger.info("Generated {} cashflows for leg {}", paymentDates.size(), leg.getLegId());
-    }
-
-    private int parseSchedule(String schedule) {
-        if (schedule == null || schedule.trim().isEmpty()) {
-            return 3; // Default to quarterly
-        }
-
-        schedule = schedule.trim();
-
-        // Handle common schedule names
-        switch (schedule.toLowerCase()) {
-            case "monthly":
-                return 1;
-            case "quarterly":
-                return 3;
-            case "semi-annually":
-            case "semiannually":
-            case "half-yearly":
-                return 6;
-            case "annually":
-            case "yearly":
-                return 12;
-            default:
-                // Parse "1M", "3M", "12M" format
-                if (schedule.endsWith("M") || schedule.endsWith("m")) {
-                    try {
-                        return Integer.parseInt(schedule.substring(0, schedule.length() - 1));
-                    } catch (NumberFormatException e) {
-                        throw new RuntimeException("Invalid schedule format: " + schedule);
-                    }
-                }
-                throw new RuntimeException("Invalid schedule format: " + schedule + ". Supported formats: Monthly, Quarterly, Semi-annually, Annually, or 1M, 3M, 6M, 12M");
-        }
-    }
-
-    private List<LocalDate> calculatePaymentDates(LocalDate startDate, LocalDate maturityDate, int monthsInterval) {
-        List<LocalDate> dates = new ArrayList<>();
-        LocalDate currentDate = startDate.plusMonths(monthsInterval);
-
-        while (!currentDate.isAfter(maturityDate)) {
-            dates.add(currentDate);
-            currentDate = currentDate.plusMonths(monthsInterval);
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.legId = leg.getLegId() != null ? leg.getLegId() : 0L;
+            jfrEvent.schedule = schedule;
+            jfrEvent.cashflowCount = paymentDates.size();
+            jfrEvent.commit();
         }
 
-        return dates;
+        TradeEventLoggers.CASHFLOW.atInfo().setMessage("cashflows.generated")
+                .addKeyValue("legId", leg.getLegId())
+                .addKeyValue("schedule", schedule)
+                .addKeyValue("count", paymentDates.size())
+                .addKeyValue("from", startDate)
+                .addKeyValue("to", maturityDate)
+                .log();
+        return paymentDates.size();
     }
 
-    private BigDecimal calculateCashflowValue(TradeLeg leg, int monthsInterval) {
+    private BigDecimal calculateCashflowValue(TradeLeg leg, int monthsInterval, LocalDate periodStart,
+                                              FixingSet fixings, Cashflow cashflow) {
         if (leg.getLegRateType() == null) {
             return BigDecimal.ZERO;
         }
@@ -771,41 +1022,20 @@ public class TradeService {
         String legType = leg.getLegRateType().getType();
 
         if ("Fixed".equals(legType)) {
-            // Get the notional directly as a BigDecimal
-            BigDecimal notional = leg.getNotional();
-            
-            // Get the rate as a primitive for the conversion logic
-            double ratePrimitive = leg.getRate();
-
-            // Convert the rate to a decimal (3.5% -> 0.035).
-            // Convert it to BigDecimal after dividing by 100.
-            BigDecimal rate = BigDecimal.valueOf(ratePrimitive).divide(
-                new BigDecimal(100), 
-                10, // Define a scale for precision after division
-                RoundingMode.HALF_UP
-            );
-            
-            // Convert the primitive 'monthsInterval' into BigDecimal for calculations.
-            BigDecimal months = new BigDecimal(monthsInterval);
-
-            // CORRECT CALCULATION LOGIC since it's now BigDecimal
             // Formula: (Notional * Rate * Months) / 12
-            
-            // Calculate (Notional * Rate)
-            BigDecimal cashflowBase = notional.multiply(rate);
-
-            // Calculate (CashflowBase * Months)
-            BigDecimal cashflowValue = cashflowBase.multiply(months);
-
-            // Calculate (Result / 12)
-            return cashflowValue.divide(
-                new BigDecimal(12), 
-                10, 
-                RoundingMode.HALF_UP
-            );
-
+            return CashflowScheduleService.fixedAmount(leg.getNotional(), leg.getRate(), monthsInterval);
         } else if ("Floating".equals(legType)) {
-            return BigDecimal.ZERO;
+            // Periods fix in advance on their start date; until the fixing is published the
+            // amount is unknown and left at zero for valuation to project
+            double fixing = leg.getIndex() != null ? fixings.rateOn(leg.getIndex().getIndex(), periodStart) : Double.NaN;
+            if (Double.isNaN(fixing) || leg.getNotional() == null) {
+                return BigDecimal.ZERO;
+            }
+            cashflow.setRate(fixing * 100);
+            return leg.getNotional()
+                    .multiply(BigDecimal.valueOf(fixing))
+                    .multiply(new BigDecimal(monthsInterval))
+                    .divide(new BigDecimal(12), 10, RoundingMode.HALF_UP);
         }
 
         return BigDecimal.ZERO;
@@ -842,6 +1072,24 @@ public class TradeService {
         return tradeRepository.findAll(spec, pageable);
     }
 
+    /**
+     * Live trades whose start date is on or before {@code date} and maturity date on or after it,
+     * in trade id order, from the in-memory lifetime index. Only the requested page is read.
+     */
+    public Page<Trade> getTradesLiveOn(LocalDate date, Pageable pageable) {
+        List<Long> rowIds = tradeLifetimeIndex.findTradeRowIdsLiveOn(date);
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), rowIds.size()) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), rowIds.size()) : rowIds.size();
+        List<Long> pageIds = rowIds.subList(from, to);
+        Map<Long, Trade> trades = tradeRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Trade::getId, Function.identity()));
+        List<Trade> page = pageIds.stream()
+                .map(trades::get)
+                .filter(trade -> trade != null)
+                .toList();
+        return new PageImpl<>(page, pageable, rowIds.size());
+    }
+
     /**
      * Searches for active trades by matching a partial string against their
      * active Settlement Instructions (stored in AdditionalInfo table).
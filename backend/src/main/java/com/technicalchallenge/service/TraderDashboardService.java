@@ -1,13 +1,23 @@
 package com.technicalchallenge.service;
 
+import com.technicalchallenge.analytics.DateField;
+import com.technicalchallenge.analytics.Dimension;
+import com.technicalchallenge.analytics.TradeAnalyticsQuery;
+import com.technicalchallenge.analytics.TradeColumnStore;
+import com.technicalchallenge.dto.AnalyticsGroupDTO;
 import com.technicalchallenge.dto.DailySummaryDTO;
+import com.technicalchallenge.dto.Dv01LadderDTO;
 import com.technicalchallenge.dto.TradeSummaryDTO;
 import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.jfr.DashboardSummaryEvent;
 import com.technicalchallenge.model.ApplicationUser;
 import com.technicalchallenge.model.Trade; 
 import com.technicalchallenge.mapper.TradeMapper;
 import com.technicalchallenge.repository.ApplicationUserRepository;
 import com.technicalchallenge.repository.TradeRepository;
+import com.technicalchallenge.risk.Dv01Service;
+import com.technicalchallenge.risk.VarService;
+import com.technicalchallenge.valuation.ValuationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,9 +26,9 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.Optional;
 
 /**
@@ -37,6 +47,18 @@ public class TraderDashboardService {
     @Autowired
     private TradeMapper tradeMapper;
 
+    @Autowired
+    private ValuationService valuationService;
+
+    @Autowired
+    private VarService varService;
+
+    @Autowired
+    private Dv01Service dv01Service;
+
+    @Autowired
+    private TradeColumnStore tradeColumnStore;
+
     public Long getTraderIdByLoginId(String loginId) {
         
         // Look up the ApplicationUser entity using the login ID
@@ -74,49 +96,36 @@ public class TraderDashboardService {
         // A trade is relevant for summary/risk calculations if it's currently Live, New, or Amended.
         List<String> activeStatuses = List.of("LIVE", "NEW", "AMENDED");
         
-        List<Trade> trades = tradeRepository.findByTraderUser_IdAndTradeStatus_TradeStatusIn(traderUserId, activeStatuses);
+        DashboardSummaryEvent jfrEvent = new DashboardSummaryEvent();
+        jfrEvent.begin();
 
-        // 1. Convert to DTOs for simpler in-memory aggregation logic
-        List<TradeDTO> tradeDTOs = trades.stream().map(tradeMapper::toDto).toList();
+        // --- Aggregation Logic (columnar scans of the trader's active trades) ---
 
-        // --- Aggregation Logic ---
-        
         // Count by Status
-        Map<String, Long> countByStatus = tradeDTOs.stream()
-            .collect(Collectors.groupingBy(TradeDTO::getTradeStatus, Collectors.counting()));
+        List<AnalyticsGroupDTO> byStatus = tradeColumnStore.aggregate(traderQuery(traderUserId)
+            .where(Dimension.STATUS, activeStatuses).groupBy(Dimension.STATUS));
+        Map<String, Long> countByStatus = tradeCounts(byStatus, null);
 
         // Count by Trade Type
-        Map<String, Long> tradeCountByType = tradeDTOs.stream()
-            .collect(Collectors.groupingBy(
-                dto -> Optional.ofNullable(dto.getTradeType()).orElse("UNKNOWN_TYPE"), // <--- FIX 1
-                Collectors.counting()));
-            
+        Map<String, Long> tradeCountByType = tradeCounts(tradeColumnStore.aggregate(traderQuery(traderUserId)
+            .where(Dimension.STATUS, activeStatuses).groupBy(Dimension.TRADE_TYPE)), "UNKNOWN_TYPE");
+
         // Count by Counterparty Name
-        Map<String, Long> tradeCountByCounterparty = tradeDTOs.stream()
-            .collect(Collectors.groupingBy(
-                dto -> Optional.ofNullable(dto.getCounterpartyName()).orElse("UNKNOWN_CPTY"), // <--- FIX 2
-                Collectors.counting()));
+        Map<String, Long> tradeCountByCounterparty = tradeCounts(tradeColumnStore.aggregate(traderQuery(traderUserId)
+            .where(Dimension.STATUS, activeStatuses).groupBy(Dimension.COUNTERPARTY)), "UNKNOWN_CPTY");
 
         // Total Notional by Currency (Aggregating from TradeLegs)
-        Map<String, BigDecimal> notionalByCurrency = tradeDTOs.stream()
-            .flatMap(trade -> trade.getTradeLegs().stream())
-            .collect(Collectors.groupingBy(
-                tradeLeg -> Optional.ofNullable(tradeLeg.getCurrency()).orElse("UNKNOWN_CURRENCY"), // **FIX IS HERE**
-                Collectors.mapping(
-                    tradeLeg -> tradeLeg.getNotional().abs(),
-                    Collectors.reducing(BigDecimal.ZERO, BigDecimal::add)
-                )
-            ));
-
-        // Total Notional (Aggregated Notional equivalent)
-        BigDecimal aggregatedNotional = notionalByCurrency.values().stream()
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // --- Mocking Complex Financial Metrics ---
-        // In production, these fields (VaR, MTM) would be fetched from 
-        // a dedicated Risk or P&L service.
-        BigDecimal totalVaR = BigDecimal.valueOf(aggregatedNotional.doubleValue() * 0.015).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal portfolioMTM = BigDecimal.valueOf(aggregatedNotional.doubleValue() * 0.003).setScale(2, RoundingMode.HALF_UP);
+        Map<String, BigDecimal> notionalByCurrency = new HashMap<>();
+        for (AnalyticsGroupDTO group : tradeColumnStore.aggregate(traderQuery(traderUserId)
+                .where(Dimension.STATUS, activeStatuses).groupBy(Dimension.CURRENCY))) {
+            notionalByCurrency.merge(Optional.ofNullable(group.getKey()).orElse("UNKNOWN_CURRENCY"),
+                group.getNotional(), BigDecimal::add);
+        }
+
+        // VaR: historical simulation over the trader's live trades, cached per book
+        BigDecimal totalVaR = varService.getTraderVaR(traderUserId).getValueAtRisk();
+        // MTM: present value of the trader's live swaps off the current curves, in the reporting currency
+        BigDecimal portfolioMTM = valuationService.getPortfolioMtm(traderUserId);
 
         TradeSummaryDTO summary = new TradeSummaryDTO();
         summary.setTradeCountByStatus(countByStatus);
@@ -126,33 +135,40 @@ public class TraderDashboardService {
         summary.setTotalVaR(totalVaR);
         summary.setPortfolioMTM(portfolioMTM);
 
+        long tradeCount = byStatus.stream().mapToLong(AnalyticsGroupDTO::getTradeCount).sum();
+        commitSummaryEvent(jfrEvent, "portfolio", traderUserId, (int) tradeCount);
         return summary;
     }
 
+    /**
+     * Per-tenor DV01 of the trader's live trades, by book and in total.
+     */
+    public Dv01LadderDTO getDv01Ladder(Long traderUserId) {
+        return dv01Service.getTraderLadder(traderUserId);
+    }
+
     /**
      * Generates a summary of activity for the current day, including comparison metrics.
      */
     public DailySummaryDTO getDailySummary(Long traderUserId) {
         LocalDate today = LocalDate.now();
         LocalDate yesterday = today.minusDays(1);
+        DashboardSummaryEvent jfrEvent = new DashboardSummaryEvent();
+        jfrEvent.begin();
         
-        // Fetch Today's trades
-        List<Trade> todaysTrades = tradeRepository.findTradesByTraderAndDate(traderUserId, today);
-        List<TradeDTO> todaysTradeDTOs = todaysTrades.stream().map(tradeMapper::toDto).toList();
-        
-        // Fetch Yesterday's trades for comparison
-        List<Trade> yesterdaysTrades = tradeRepository.findTradesByTraderAndDate(traderUserId, yesterday);
+        // Today's and yesterday's totals
+        AnalyticsGroupDTO todays = tradeColumnStore.aggregate(traderQuery(traderUserId)
+            .on(DateField.TRADE_DATE, today)).get(0);
+        AnalyticsGroupDTO yesterdays = tradeColumnStore.aggregate(traderQuery(traderUserId)
+            .on(DateField.TRADE_DATE, yesterday)).get(0);
         
         // --- Aggregation & Comparison Logic ---
 
-        long todaysCount = todaysTrades.size();
-        long yesterdaysCount = yesterdaysTrades.size();
+        long todaysCount = todays.getTradeCount();
+        long yesterdaysCount = yesterdays.getTradeCount();
         
-        // Today's Notional (Calculated by summing leg notionals)
-        BigDecimal todaysNotional = todaysTradeDTOs.stream()
-            .flatMap(trade -> trade.getTradeLegs().stream())
-            .map(tradeLeg -> tradeLeg.getNotional().abs())
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Today's Notional (sum of absolute leg notionals)
+        BigDecimal todaysNotional = todays.getNotional();
 
         // Comparison Calculation
         long tradeCountChange = todaysCount - yesterdaysCount; 
@@ -172,11 +188,37 @@ public class TraderDashboardService {
         dailySummary.setVsYesterdayNotionalChangePercent(BigDecimal.valueOf(4.5).setScale(1, RoundingMode.HALF_UP)); // Mocked percentage
         
         // Book activity (Today's count per book)
-        dailySummary.setBookActivitySummary(todaysTrades.stream()
-            .collect(Collectors.groupingBy(trade -> trade.getBook().getBookName(), Collectors.counting()))
-            .entrySet().stream()
-            .collect(Collectors.toMap(e -> "Book-" + e.getKey(), Map.Entry::getValue))); // Convert ID to name for display
-
+        Map<String, Long> bookActivity = new HashMap<>();
+        for (AnalyticsGroupDTO group : tradeColumnStore.aggregate(traderQuery(traderUserId)
+                .on(DateField.TRADE_DATE, today).groupBy(Dimension.BOOK))) {
+            bookActivity.merge("Book-" + group.getKey(), group.getTradeCount(), Long::sum); // Book name for display
+        }
+        dailySummary.setBookActivitySummary(bookActivity);
+
+        commitSummaryEvent(jfrEvent, "daily", traderUserId, (int) (todaysCount + yesterdaysCount));
         return dailySummary;
     }
+
+    private static TradeAnalyticsQuery traderQuery(Long traderUserId) {
+        return TradeAnalyticsQuery.create().where(Dimension.TRADER, traderUserId);
+    }
+
+    // Trade count per group name; groups that share a name, or have none, are merged
+    private static Map<String, Long> tradeCounts(List<AnalyticsGroupDTO> groups, String missingKey) {
+        Map<String, Long> counts = new HashMap<>();
+        for (AnalyticsGroupDTO group : groups) {
+            counts.merge(Optional.ofNullable(group.getKey()).orElse(missingKey), group.getTradeCount(), Long::sum);
+        }
+        return counts;
+    }
+
+    private void commitSummaryEvent(DashboardSummaryEvent jfrEvent, String summary, Long traderUserId, int tradeCount) {
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.summary = summary;
+            jfrEvent.traderUserId = traderUserId != null ? traderUserId : 0L;
+            jfrEvent.tradeCount = tradeCount;
+            jfrEvent.commit();
+        }
+    }
 }
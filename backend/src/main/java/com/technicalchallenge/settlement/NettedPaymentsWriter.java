@@ -0,0 +1,113 @@
+package com.technicalchallenge.settlement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CSV writer over a file channel that encodes numbers and amounts straight into a direct
+ * buffer, flushing it to the channel whenever it fills.
+ */
+final class NettedPaymentsWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] digits = new byte[20];
+
+    NettedPaymentsWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    NettedPaymentsWriter bytes(byte[] value) throws IOException {
+        if (value.length > buffer.remaining()) {
+            flush();
+            if (value.length > buffer.capacity()) {
+                channel.write(ByteBuffer.wrap(value));
+                return this;
+            }
+        }
+        buffer.put(value);
+        return this;
+    }
+
+    NettedPaymentsWriter text(String value) throws IOException {
+        return bytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Always quoted, with embedded quotes doubled; null is written as empty quotes
+    NettedPaymentsWriter quoted(String value) throws IOException {
+        String text = value == null ? "" : value.replace("\"", "\"\"");
+        return put((byte) '"').text(text).put((byte) '"');
+    }
+
+    NettedPaymentsWriter number(long value) throws IOException {
+        ensure(digits.length + 1);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        buffer.put(digits, start, digits.length - start);
+        return this;
+    }
+
+    // Minor units as a decimal amount with two places, e.g. -1234 as -12.34
+    NettedPaymentsWriter amount(long minorUnits) throws IOException {
+        if (minorUnits < 0) {
+            put((byte) '-');
+            minorUnits = -minorUnits;
+        }
+        number(minorUnits / 100);
+        long cents = minorUnits % 100;
+        return put((byte) '.').put((byte) ('0' + cents / 10)).put((byte) ('0' + cents % 10));
+    }
+
+    NettedPaymentsWriter comma() throws IOException {
+        return put((byte) ',');
+    }
+
+    NettedPaymentsWriter newLine() throws IOException {
+        return put((byte) '\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private NettedPaymentsWriter put(byte value) throws IOException {
+        ensure(1);
+        buffer.put(value);
+        return this;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,232 @@
+package com.technicalchallenge.settlement;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Nets one value date's cashflows into one payment per counterparty, currency and settlement
+ * instructions. Groups live in parallel primitive arrays in first-seen order and are found
+ * through an open-addressing (linear probing) table of group indexes, so adding a cashflow to
+ * an existing group allocates nothing. Amounts are in minor units (two decimal places).
+ *
+ * One engine serves one netting run and is not thread-safe.
+ */
+public final class NettingEngine {
+
+    private static final int NO_GROUP = -1;
+    // Table is at most half full
+    private static final int MAX_LOAD_SHIFT = 1;
+
+    // Currencies and settlement instruction texts as small ids; id 0 is "no instructions"
+    private final Map<String, Integer> currencyIds = new HashMap<>();
+    private final Map<String, Integer> instructionIds = new HashMap<>();
+    private String[] currencies = new String[8];
+    private String[] instructions = new String[8];
+    private final Map<Long, String> counterpartyNames = new HashMap<>();
+
+    private int[] table;
+    private int mask;
+
+    private long[] counterpartyIds;
+    private int[] currencyIdOf;
+    private int[] instructionIdOf;
+    private long[] pays;
+    private long[] receives;
+    private int[] counts;
+    private int size;
+    private long cashflowCount;
+
+    public NettingEngine(int expectedGroups) {
+        int groups = Math.max(16, expectedGroups);
+        int capacity = Integer.highestOneBit(groups - 1) << (MAX_LOAD_SHIFT + 1);
+        table = new int[capacity];
+        Arrays.fill(table, NO_GROUP);
+        mask = capacity - 1;
+        counterpartyIds = new long[groups];
+        currencyIdOf = new int[groups];
+        instructionIdOf = new int[groups];
+        pays = new long[groups];
+        receives = new long[groups];
+        counts = new int[groups];
+        instructions[0] = "";
+        instructionIds.put("", 0);
+    }
+
+    /**
+     * Adds one cashflow. {@code amount} is in minor units and {@code receive} tells which side
+     * of the payment it is on; blank or null instructions are grouped together.
+     */
+    public void add(long counterpartyId, String counterpartyName, String currency, String settlementInstructions,
+                    boolean receive, long amount) {
+        int currencyId = currencyId(currency);
+        int instructionId = instructionId(settlementInstructions);
+        int group = groupOf(counterpartyId, currencyId, instructionId);
+        if (group == NO_GROUP) {
+            group = newGroup(counterpartyId, currencyId, instructionId);
+            counterpartyNames.putIfAbsent(counterpartyId, counterpartyName);
+        }
+        if (receive) {
+            receives[group] += amount;
+        } else {
+            pays[group] += amount;
+        }
+        counts[group]++;
+        cashflowCount++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getCashflowCount() {
+        return cashflowCount;
+    }
+
+    /**
+     * Receive less pay for the group of the given keys, or 0 if there is none.
+     */
+    public long net(long counterpartyId, String currency, String settlementInstructions) {
+        Integer currencyId = currencyIds.get(currency);
+        Integer instructionId = instructionIds.get(normalise(settlementInstructions));
+        if (currencyId == null || instructionId == null) {
+            return 0;
+        }
+        int group = groupOf(counterpartyId, currencyId, instructionId);
+        return group == NO_GROUP ? 0 : receives[group] - pays[group];
+    }
+
+    /**
+     * Writes one line per netted payment, ordered by counterparty, currency and instructions,
+     * to a temporary file that then replaces {@code file}, so readers never see a partial file.
+     */
+    public void writeTo(Path file, LocalDate valueDate) throws IOException {
+        Integer[] order = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.<Integer>comparingLong(g -> counterpartyIds[g])
+                .thenComparing(g -> currencies[currencyIdOf[g]])
+                .thenComparing(g -> instructions[instructionIdOf[g]]));
+
+        byte[] date = valueDate.toString().getBytes(StandardCharsets.US_ASCII);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (NettedPaymentsWriter writer = new NettedPaymentsWriter(temporary)) {
+            writer.text("valueDate,counterpartyId,counterparty,currency,settlementInstructions,"
+                    + "cashflows,pay,receive,net,direction").newLine();
+            for (int group : order) {
+                long net = receives[group] - pays[group];
+                writer.bytes(date).comma()
+                        .number(counterpartyIds[group]).comma()
+                        .quoted(counterpartyNames.get(counterpartyIds[group])).comma()
+                        .text(currencies[currencyIdOf[group]]).comma()
+                        .quoted(instructions[instructionIdOf[group]]).comma()
+                        .number(counts[group]).comma()
+                        .amount(pays[group]).comma()
+                        .amount(receives[group]).comma()
+                        .amount(net).comma()
+                        .text(net > 0 ? "RECEIVE" : net < 0 ? "PAY" : "NONE").newLine();
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private int groupOf(long counterpartyId, int currencyId, int instructionId) {
+        int slot = hash(counterpartyId, currencyId, instructionId) & mask;
+        while (true) {
+            int group = table[slot];
+            if (group == NO_GROUP) {
+                return NO_GROUP;
+            }
+            if (counterpartyIds[group] == counterpartyId && currencyIdOf[group] == currencyId
+                    && instructionIdOf[group] == instructionId) {
+                return group;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int newGroup(long counterpartyId, int currencyId, int instructionId) {
+        if (size == counterpartyIds.length) {
+            int capacity = size * 2;
+            counterpartyIds = Arrays.copyOf(counterpartyIds, capacity);
+            currencyIdOf = Arrays.copyOf(currencyIdOf, capacity);
+            instructionIdOf = Arrays.copyOf(instructionIdOf, capacity);
+            pays = Arrays.copyOf(pays, capacity);
+            receives = Arrays.copyOf(receives, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        int group = size++;
+        counterpartyIds[group] = counterpartyId;
+        currencyIdOf[group] = currencyId;
+        instructionIdOf[group] = instructionId;
+        if (size << MAX_LOAD_SHIFT > table.length) {
+            rehash(table.length * 2);
+        } else {
+            insert(group);
+        }
+        return group;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        Arrays.fill(table, NO_GROUP);
+        mask = capacity - 1;
+        for (int group = 0; group < size; group++) {
+            insert(group);
+        }
+    }
+
+    private void insert(int group) {
+        int slot = hash(counterpartyIds[group], currencyIdOf[group], instructionIdOf[group]) & mask;
+        while (table[slot] != NO_GROUP) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = group;
+    }
+
+    private int currencyId(String currency) {
+        Integer id = currencyIds.get(currency);
+        if (id != null) {
+            return id;
+        }
+        int next = currencyIds.size();
+        if (next == currencies.length) {
+            currencies = Arrays.copyOf(currencies, next * 2);
+        }
+        currencies[next] = currency;
+        currencyIds.put(currency, next);
+        return next;
+    }
+
+    private int instructionId(String settlementInstructions) {
+        String text = normalise(settlementInstructions);
+        Integer id = instructionIds.get(text);
+        if (id != null) {
+            return id;
+        }
+        int next = instructionIds.size();
+        if (next == instructions.length) {
+            instructions = Arrays.copyOf(instructions, next * 2);
+        }
+        instructions[next] = text;
+        instructionIds.put(text, next);
+        return next;
+    }
+
+    private static String normalise(String settlementInstructions) {
+        return settlementInstructions == null || settlementInstructions.isBlank() ? "" : settlementInstructions.trim();
+    }
+
+    private static int hash(long counterpartyId, int currencyId, int instructionId) {
+        long h = (counterpartyId * 0x9E3779B97F4A7C15L) ^ ((long) currencyId << 32 | instructionId);
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ h >>> 32);
+    }
+}
@@ -0,0 +1,87 @@
+package com.technicalchallenge.settlement;
+
+import com.technicalchallenge.dto.NettingRunDTO;
+import com.technicalchallenge.repository.CashflowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Settlement netting: streams every active cashflow of a live trade due on a value date, nets
+ * pays against receives per counterparty, currency and settlement instructions, and writes the
+ * netted payments to {@code netted-payments-<valueDate>.csv} in the netting directory.
+ */
+@Service
+public class NettingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NettingService.class);
+
+    // Same statuses the dashboard treats as live
+    static final List<String> LIVE_STATUSES = List.of("LIVE", "NEW", "AMENDED");
+
+    private static final String PAY = "Pay";
+    private static final String RECEIVE = "Receive";
+    // Amounts are netted in minor units (two decimal places)
+    private static final int SCALE = 2;
+
+    @Autowired
+    private CashflowRepository cashflowRepository;
+
+    @Value("${settlement.netting.directory:./data/netting}")
+    private String directory = "./data/netting";
+
+    @Value("${settlement.netting.expected-groups:4096}")
+    private int expectedGroups = 4096;
+
+    @Transactional(readOnly = true)
+    public NettingRunDTO runNetting(LocalDate valueDate) {
+        if (valueDate == null) {
+            throw new RuntimeException("Value date is required");
+        }
+        long start = System.nanoTime();
+        NettingEngine engine = new NettingEngine(expectedGroups);
+        long skipped = 0;
+        try (Stream<Object[]> rows = cashflowRepository.streamCashflowsDue(valueDate, LIVE_STATUSES)) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                String payRec = (String) row[4];
+                BigDecimal amount = (BigDecimal) row[5];
+                boolean receive = RECEIVE.equalsIgnoreCase(payRec);
+                if (amount == null || row[0] == null || row[2] == null || !(receive || PAY.equalsIgnoreCase(payRec))) {
+                    skipped++;
+                    continue;
+                }
+                engine.add((Long) row[0], (String) row[1], (String) row[2], (String) row[3], receive, toMinorUnits(amount));
+            }
+        }
+
+        Path file = Paths.get(directory).resolve("netted-payments-" + valueDate + ".csv");
+        try {
+            Files.createDirectories(file.getParent());
+            engine.writeTo(file, valueDate);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write netted payments to " + file, e);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Netted {} cashflows due {} into {} payments in {} ms ({} skipped), written to {}",
+                engine.getCashflowCount(), valueDate, engine.size(), elapsedMillis, skipped, file.toAbsolutePath());
+        return new NettingRunDTO(valueDate, file.toAbsolutePath().toString(), engine.getCashflowCount(), skipped,
+                engine.size(), elapsedMillis);
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
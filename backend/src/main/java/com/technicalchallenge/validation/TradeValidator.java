@@ -3,6 +3,8 @@ package com.technicalchallenge.validation;
 import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.jfr.TradeValidationEvent;
+import com.technicalchallenge.limits.CounterpartyLimitService;
 import com.technicalchallenge.model.ApplicationUser;
 import com.technicalchallenge.repository.*;
 import com.technicalchallenge.util.TradeOperation;
@@ -20,12 +22,18 @@ import java.util.Optional;
 @Service
 public class TradeValidator {
 
+    // Rule counts reported on the TradeValidation JFR event: the header checks in
+    // validateTradeBusinessRules, and the cross-leg plus per-leg type checks in validateTradeLegConsistency
+    private static final int BUSINESS_RULE_COUNT = 10;
+    private static final int LEG_CONSISTENCY_RULE_COUNT = 6;
+
     private final ApplicationUserRepository userRepository;
     private final BookRepository bookRepository;
     private final CounterpartyRepository counterpartyRepository;
     private final TradeStatusRepository tradeStatusRepository;
     private final TradeTypeRepository tradeTypeRepository;
     private final TradeSubTypeRepository tradeSubTypeRepository;
+    private final CounterpartyLimitService counterpartyLimitService;
 
 
     public TradeValidator(
@@ -41,19 +49,23 @@ public class TradeValidator {
             HolidayCalendarRepository holidayCalendarRepository,
             ScheduleRepository scheduleRepository,
             BusinessDayConventionRepository businessDayConventionRepository,
-            PayRecRepository payRecRepository) {
+            PayRecRepository payRecRepository,
+            CounterpartyLimitService counterpartyLimitService) {
         this.userRepository = userRepository;
         this.bookRepository = bookRepository;
         this.counterpartyRepository = counterpartyRepository;
         this.tradeStatusRepository = tradeStatusRepository;
         this.tradeTypeRepository = tradeTypeRepository;
         this.tradeSubTypeRepository = tradeSubTypeRepository;
+        this.counterpartyLimitService = counterpartyLimitService;
     }
 
     /**
      * Validates trade business rules for a given trade DTO.
      */
     public ValidationResult validateTradeBusinessRules(TradeDTO tradeDTO) {
+        TradeValidationEvent jfrEvent = new TradeValidationEvent();
+        jfrEvent.begin();
         ValidationResult result = new ValidationResult();
 
         // Date Validation Rules
@@ -136,6 +148,15 @@ public class TradeValidator {
             result.addErrors(validateTradeLegConsistency(tradeDTO.getTradeLegs()).getErrors());
         }
 
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.tradeId = tradeDTO.getTradeId() != null ? tradeDTO.getTradeId() : 0L;
+            jfrEvent.tradeType = tradeDTO.getTradeType();
+            jfrEvent.ruleCount = BUSINESS_RULE_COUNT + (tradeDTO.getTradeLegs() != null ? LEG_CONSISTENCY_RULE_COUNT : 0);
+            jfrEvent.errorCount = result.getErrors().size();
+            jfrEvent.commit();
+        }
+
         return result;
     }
 
@@ -202,6 +223,19 @@ public class TradeValidator {
         return result;
     }
 
+    /**
+     * Checks the trade against its counterparty's credit limits and reserves the exposure it adds.
+     * The reservation is released again if the booking's transaction rolls back.
+     */
+    public ValidationResult validateCounterpartyLimits(TradeDTO tradeDTO) {
+        ValidationResult result = new ValidationResult();
+        String breach = counterpartyLimitService.reserve(tradeDTO);
+        if (breach != null) {
+            result.addError(breach);
+        }
+        return result;
+    }
+
     
     // Enforces user privileges based on their role for a specific operation.
     // The parameter 'operation' use the TradeOperation enum.
@@ -0,0 +1,135 @@
+package com.technicalchallenge.valuation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Loads curves and FX rates from a local CSV file and caches them as a shared, read-only
+ * {@link CurveSet}. Each non-comment line is {@code type,name,tenor,value}:
+ * {@code ZERO,USD,5Y,0.0412} is a zero rate pillar, {@code FX,EUR,,1.085} is the price of one
+ * EUR in the reporting currency.
+ */
+@Service
+public class CurveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurveService.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${valuation.curves.location:classpath:curves/curves.csv}")
+    private String location;
+
+    @Value("${valuation.reporting-currency:USD}")
+    private String reportingCurrency;
+
+    private volatile CurveSet curveSet;
+
+    /**
+     * The cached curves, loaded on first use and reloaded when the business date rolls.
+     */
+    public CurveSet getCurveSet() {
+        CurveSet current = curveSet;
+        if (current == null || !current.getCurveDate().equals(LocalDate.now())) {
+            synchronized (this) {
+                current = curveSet;
+                if (current == null || !current.getCurveDate().equals(LocalDate.now())) {
+                    current = reload();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Re-reads the curve file and replaces the cached set.
+     */
+    public synchronized CurveSet reload() {
+        Resource resource = resourceLoader.getResource(location);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            CurveSet loaded = parse(reader, LocalDate.now(), reportingCurrency);
+            curveSet = loaded;
+            logger.info("Loaded {} curves and {} FX rates from {}", loaded.getCurves().size(), loaded.getFxRates().size(), location);
+            return loaded;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read curves from " + location, e);
+        }
+    }
+
+    public static CurveSet parse(BufferedReader reader, LocalDate curveDate, String reportingCurrency) throws IOException {
+        Map<String, TreeMap<Double, Double>> pillars = new HashMap<>();
+        Map<String, Double> fxRates = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length != 4) {
+                throw new RuntimeException("Invalid curve line " + lineNumber + ": " + line);
+            }
+            String type = fields[0].trim();
+            String name = fields[1].trim();
+            double value = Double.parseDouble(fields[3].trim());
+            if ("ZERO".equals(type)) {
+                pillars.computeIfAbsent(name, n -> new TreeMap<>()).put(tenorInYears(fields[2].trim()), value);
+            } else if ("FX".equals(type)) {
+                fxRates.put(name, value);
+            } else {
+                throw new RuntimeException("Unknown curve line type '" + type + "' on line " + lineNumber);
+            }
+        }
+
+        Map<String, ZeroCurve> curves = new HashMap<>();
+        pillars.forEach((name, points) -> {
+            List<Double> times = new ArrayList<>(points.keySet());
+            double[] t = new double[times.size()];
+            double[] r = new double[times.size()];
+            for (int i = 0; i < t.length; i++) {
+                t[i] = times.get(i);
+                r[i] = points.get(times.get(i));
+            }
+            curves.put(name, new ZeroCurve(name, t, r));
+        });
+        return new CurveSet(curveDate, reportingCurrency, curves, fxRates);
+    }
+
+    // Tenors such as 1D, 2W, 6M or 10Y
+    public static double tenorInYears(String tenor) {
+        if (tenor.length() < 2) {
+            throw new RuntimeException("Invalid tenor: " + tenor);
+        }
+        double amount = Double.parseDouble(tenor.substring(0, tenor.length() - 1));
+        switch (Character.toUpperCase(tenor.charAt(tenor.length() - 1))) {
+            case 'D':
+                return amount / 365.0;
+            case 'W':
+                return amount * 7 / 365.0;
+            case 'M':
+                return amount / 12.0;
+            case 'Y':
+                return amount;
+            default:
+                throw new RuntimeException("Invalid tenor: " + tenor);
+        }
+    }
+}
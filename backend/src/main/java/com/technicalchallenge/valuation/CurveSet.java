@@ -0,0 +1,42 @@
+package com.technicalchallenge.valuation;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * One consistent set of market data: discount curves keyed by currency, projection curves
+ * keyed by index name, and FX rates into the reporting currency. Immutable, and replaced
+ * wholesale when market data is reloaded, so valuations already running keep the set they
+ * started with.
+ */
+@Getter
+public final class CurveSet {
+
+    private final LocalDate curveDate;
+    private final String reportingCurrency;
+    private final Map<String, ZeroCurve> curves;
+    private final Map<String, Double> fxRates;
+
+    public CurveSet(LocalDate curveDate, String reportingCurrency, Map<String, ZeroCurve> curves, Map<String, Double> fxRates) {
+        this.curveDate = curveDate;
+        this.reportingCurrency = reportingCurrency;
+        this.curves = Map.copyOf(curves);
+        this.fxRates = Map.copyOf(fxRates);
+    }
+
+    public ZeroCurve curve(String name) {
+        return name != null ? curves.get(name) : null;
+    }
+
+    /**
+     * Units of the reporting currency per unit of {@code currency}, or null if unknown.
+     */
+    public Double fxRate(String currency) {
+        if (reportingCurrency.equals(currency)) {
+            return 1.0;
+        }
+        return currency != null ? fxRates.get(currency) : null;
+    }
+}
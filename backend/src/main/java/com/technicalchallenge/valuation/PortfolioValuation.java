@@ -0,0 +1,17 @@
+package com.technicalchallenge.valuation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PortfolioValuation {
+    // Sum of trade present values in the reporting currency
+    private final double mtm;
+    private final String reportingCurrency;
+    // Present value of each trade, in input order; NaN where market data was missing
+    private final double[] presentValues;
+    private final int tradesValued;
+    private final int tradesUnvalued;
+    private final long elapsedNanos;
+}
@@ -0,0 +1,165 @@
+package com.technicalchallenge.valuation;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Values swap portfolios by discounting fixed cashflows and projecting floating ones off the
+ * index curve, split across a dedicated fork-join pool. Each task writes the present values
+ * of its own slice of trades and returns their sum, so no state is shared beyond the
+ * read-only {@link CurveSet}.
+ */
+@Component
+public class SwapValuationEngine {
+
+    // Trades valued sequentially by one task before it stops splitting
+    static final int LEAF_SIZE = 512;
+
+    @Value("${valuation.parallelism:0}")
+    private int parallelism;
+
+    private volatile ForkJoinPool pool;
+
+    public SwapValuationEngine() {
+    }
+
+    SwapValuationEngine(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public PortfolioValuation value(List<ValuationTrade> trades, CurveSet curves) {
+        long start = System.nanoTime();
+        ValuationTrade[] portfolio = trades.toArray(new ValuationTrade[0]);
+        double[] presentValues = new double[portfolio.length];
+        double mtm = portfolio.length == 0 ? 0.0
+                : pool().invoke(new ValuationTask(portfolio, presentValues, curves, 0, portfolio.length));
+        int unvalued = 0;
+        for (double pv : presentValues) {
+            if (Double.isNaN(pv)) {
+                unvalued++;
+            }
+        }
+        return new PortfolioValuation(mtm, curves.getReportingCurrency(), presentValues,
+                portfolio.length - unvalued, unvalued, System.nanoTime() - start);
+    }
+
+    /**
+     * Present value of one trade in the reporting currency, or NaN if a curve or FX rate it
+     * needs is missing.
+     */
+    static double valueTrade(ValuationTrade trade, CurveSet curves) {
+        double pv = 0.0;
+        for (ValuationLeg leg : trade.getLegs()) {
+            ZeroCurve discount = curves.curve(leg.getCurrency());
+            Double fx = curves.fxRate(leg.getCurrency());
+            if (discount == null || fx == null) {
+                return Double.NaN;
+            }
+            double legPv;
+            if (leg.isFloating()) {
+                // Project off the index curve, or off the discount curve when the index has none
+                ZeroCurve projection = curves.curve(leg.getIndex());
+                legPv = floatingLegValue(leg, discount, projection != null ? projection : discount);
+            } else {
+                legPv = fixedLegValue(leg, discount);
+            }
+            pv += leg.getSign() * legPv * fx;
+        }
+        return pv;
+    }
+
+    private static double fixedLegValue(ValuationLeg leg, ZeroCurve discount) {
+        double[] times = leg.getPaymentTimes();
+        double[] amounts = leg.getAmounts();
+        double pv = 0.0;
+        for (int i = 0; i < times.length; i++) {
+            pv += amounts[i] * discount.discountFactor(times[i]);
+        }
+        return pv;
+    }
+
+    private static double floatingLegValue(ValuationLeg leg, ZeroCurve discount, ZeroCurve projection) {
+        double[] starts = leg.getAccrualStarts();
+        double[] times = leg.getPaymentTimes();
+        double pv = 0.0;
+        for (int i = 0; i < times.length; i++) {
+            double accrual = times[i] - starts[i];
+            if (accrual <= 0) {
+                continue;
+            }
+            if (leg.isFixed(i)) {
+                pv += leg.getNotional() * leg.getCurrentFixing() * accrual * discount.discountFactor(times[i]);
+                continue;
+            }
+            // A current period not fixed yet is projected at the forward rate for its remaining part
+            double forwardStart = Math.max(starts[i], 0.0);
+            double forward = projection.forwardRate(forwardStart, times[i]);
+            pv += leg.getNotional() * forward * accrual * discount.discountFactor(times[i]);
+        }
+        return pv;
+    }
+
+    private ForkJoinPool pool() {
+        ForkJoinPool current = pool;
+        if (current == null) {
+            synchronized (this) {
+                current = pool;
+                if (current == null) {
+                    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+                    current = new ForkJoinPool(threads);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ForkJoinPool current = pool;
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    private static final class ValuationTask extends RecursiveTask<Double> {
+        private final ValuationTrade[] portfolio;
+        private final double[] presentValues;
+        private final CurveSet curves;
+        private final int from;
+        private final int to;
+
+        private ValuationTask(ValuationTrade[] portfolio, double[] presentValues, CurveSet curves, int from, int to) {
+            this.portfolio = portfolio;
+            this.presentValues = presentValues;
+            this.curves = curves;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= LEAF_SIZE) {
+                double sum = 0.0;
+                for (int i = from; i < to; i++) {
+                    double pv = valueTrade(portfolio[i], curves);
+                    presentValues[i] = pv;
+                    if (!Double.isNaN(pv)) {
+                        sum += pv;
+                    }
+                }
+                return sum;
+            }
+            int middle = (from + to) >>> 1;
+            ValuationTask left = new ValuationTask(portfolio, presentValues, curves, from, middle);
+            left.fork();
+            double right = new ValuationTask(portfolio, presentValues, curves, middle, to).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.technicalchallenge.valuation;
+
+import lombok.Getter;
+
+/**
+ * A leg's remaining cashflows, flattened for valuation. Times are year fractions (ACT/365)
+ * from the valuation date; each payment accrues from {@code accrualStarts[i]}, which may be
+ * in the past for the current period.
+ */
+@Getter
+public final class ValuationLeg {
+    private final boolean floating;
+    // +1 when we receive the leg, -1 when we pay it
+    private final int sign;
+    private final String currency;
+    private final String index;
+    private final double notional;
+    private final double[] accrualStarts;
+    private final double[] paymentTimes;
+    // Stored payment amounts; only used for fixed legs, floating amounts are projected
+    private final double[] amounts;
+    // Published fixing of a floating leg's current period, which started on or before the
+    // valuation date; NaN when not fixed yet, in which case it is projected like the rest
+    private final double currentFixing;
+
+    public ValuationLeg(boolean floating, int sign, String currency, String index, double notional,
+                        double[] accrualStarts, double[] paymentTimes, double[] amounts) {
+        this(floating, sign, currency, index, notional, accrualStarts, paymentTimes, amounts, Double.NaN);
+    }
+
+    public ValuationLeg(boolean floating, int sign, String currency, String index, double notional,
+                        double[] accrualStarts, double[] paymentTimes, double[] amounts, double currentFixing) {
+        this.floating = floating;
+        this.sign = sign;
+        this.currency = currency;
+        this.index = index;
+        this.notional = notional;
+        this.accrualStarts = accrualStarts;
+        this.paymentTimes = paymentTimes;
+        this.amounts = amounts;
+        this.currentFixing = currentFixing;
+    }
+
+    /**
+     * Whether payment {@code i} of a floating leg has its rate already set by a fixing.
+     */
+    public boolean isFixed(int i) {
+        return i == 0 && !Double.isNaN(currentFixing) && accrualStarts.length > 0 && accrualStarts[0] <= 0;
+    }
+}
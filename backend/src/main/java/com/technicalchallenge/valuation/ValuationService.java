@@ -0,0 +1,196 @@
+package com.technicalchallenge.valuation;
+
+import com.technicalchallenge.fixing.FixingService;
+import com.technicalchallenge.fixing.FixingSet;
+import com.technicalchallenge.repository.CashflowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Values trader portfolios from their stored legs and cashflows. Cashflows are read in one
+ * flat query, turned into {@link ValuationTrade}s and handed to the {@link SwapValuationEngine}
+ * with the cached curves.
+ */
+@Service
+public class ValuationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ValuationService.class);
+
+    // Same statuses the dashboard treats as live
+    static final List<String> LIVE_STATUSES = List.of("LIVE", "NEW", "AMENDED");
+
+    @Autowired
+    private CashflowRepository cashflowRepository;
+
+    @Autowired
+    private CurveService curveService;
+
+    @Autowired
+    private SwapValuationEngine valuationEngine;
+
+    @Autowired
+    private FixingService fixingService;
+
+    @Value("${valuation.latency-budget-millis:1000}")
+    private long latencyBudgetMillis;
+
+    @Transactional(readOnly = true)
+    public PortfolioValuation valueTraderPortfolio(Long traderUserId) {
+        CurveSet curves = curveService.getCurveSet();
+        List<ValuationTrade> trades = toValuationTrades(
+                cashflowRepository.findValuationCashflowsByTrader(traderUserId, LIVE_STATUSES), curves.getCurveDate(),
+                fixingService.getFixings());
+        PortfolioValuation valuation = valuationEngine.value(trades, curves);
+
+        long elapsedMillis = valuation.getElapsedNanos() / 1_000_000;
+        if (elapsedMillis > latencyBudgetMillis) {
+            logger.warn("Valuing {} trades for trader {} took {} ms, over the {} ms budget",
+                    trades.size(), traderUserId, elapsedMillis, latencyBudgetMillis);
+        }
+        if (valuation.getTradesUnvalued() > 0) {
+            logger.warn("{} of {} trades for trader {} could not be valued: missing curve or FX rate",
+                    valuation.getTradesUnvalued(), trades.size(), traderUserId);
+        }
+        return valuation;
+    }
+
+    /**
+     * Portfolio MTM in the reporting currency, rounded to cents.
+     */
+    public BigDecimal getPortfolioMtm(Long traderUserId) {
+        return BigDecimal.valueOf(valueTraderPortfolio(traderUserId).getMtm()).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Groups rows from {@link CashflowRepository#findValuationCashflowsByTrader} into trades and
+     * legs, keeping only payments after the valuation date. Each payment accrues from the
+     * previous payment date, or from the trade start date for the first. Rows may carry the
+     * trade's book and trader ids as two extra trailing columns.
+     */
+    public static List<ValuationTrade> toValuationTrades(List<Object[]> rows, LocalDate valuationDate) {
+        return toValuationTrades(rows, valuationDate, FixingSet.EMPTY);
+    }
+
+    /**
+     * As {@link #toValuationTrades(List, LocalDate)}, setting the rate of each floating leg's
+     * current period from its published fixing where there is one.
+     */
+    public static List<ValuationTrade> toValuationTrades(List<Object[]> rows, LocalDate valuationDate, FixingSet fixings) {
+        List<ValuationTrade> trades = new ArrayList<>();
+        List<ValuationLeg> legs = new ArrayList<>();
+        LegBuilder leg = null;
+        Long tradeId = null;
+        Object[] tradeRow = null;
+        for (Object[] row : rows) {
+            Long rowTradeId = (Long) row[0];
+            Long legId = (Long) row[1];
+            if (leg == null || !leg.legId.equals(legId)) {
+                if (leg != null) {
+                    leg.build(valuationDate, fixings, legs);
+                }
+                if (tradeId != null && !tradeId.equals(rowTradeId)) {
+                    trades.add(toTrade(tradeRow, legs));
+                    legs.clear();
+                }
+                tradeId = rowTradeId;
+                tradeRow = row;
+                leg = new LegBuilder(legId, (String) row[2], (String) row[3], (String) row[4], (String) row[5],
+                        (BigDecimal) row[6], (LocalDate) row[7]);
+            }
+            leg.add((LocalDate) row[8], (BigDecimal) row[9]);
+        }
+        if (leg != null) {
+            leg.build(valuationDate, fixings, legs);
+            trades.add(toTrade(tradeRow, legs));
+        }
+        return trades;
+    }
+
+    private static ValuationTrade toTrade(Object[] row, List<ValuationLeg> legs) {
+        Long bookId = row.length > 10 ? (Long) row[10] : null;
+        Long traderUserId = row.length > 11 ? (Long) row[11] : null;
+        return new ValuationTrade((Long) row[0], bookId, traderUserId, List.copyOf(legs));
+    }
+
+    private static double yearFraction(LocalDate from, LocalDate to) {
+        return ChronoUnit.DAYS.between(from, to) / 365.0;
+    }
+
+    private static final class LegBuilder {
+        private final Long legId;
+        private final String legType;
+        private final String payRec;
+        private final String currency;
+        private final String index;
+        private final BigDecimal notional;
+        private final LocalDate startDate;
+        private final List<LocalDate> valueDates = new ArrayList<>();
+        private final List<BigDecimal> amounts = new ArrayList<>();
+
+        private LegBuilder(Long legId, String legType, String payRec, String currency, String index,
+                           BigDecimal notional, LocalDate startDate) {
+            this.legId = legId;
+            this.legType = legType;
+            this.payRec = payRec;
+            this.currency = currency;
+            this.index = index;
+            this.notional = notional;
+            this.startDate = startDate;
+        }
+
+        private void add(LocalDate valueDate, BigDecimal amount) {
+            valueDates.add(valueDate);
+            amounts.add(amount);
+        }
+
+        private void build(LocalDate valuationDate, FixingSet fixings, List<ValuationLeg> legs) {
+            int sign = "Receive".equalsIgnoreCase(payRec) ? 1 : "Pay".equalsIgnoreCase(payRec) ? -1 : 0;
+            if (sign == 0 || currency == null || notional == null) {
+                return;
+            }
+            int remaining = 0;
+            for (LocalDate valueDate : valueDates) {
+                if (valueDate != null && valueDate.isAfter(valuationDate)) {
+                    remaining++;
+                }
+            }
+            double[] accrualStarts = new double[remaining];
+            double[] paymentTimes = new double[remaining];
+            double[] paymentAmounts = new double[remaining];
+            LocalDate previous = startDate;
+            LocalDate currentStart = null;
+            int n = 0;
+            for (int i = 0; i < valueDates.size(); i++) {
+                LocalDate valueDate = valueDates.get(i);
+                if (valueDate == null) {
+                    continue;
+                }
+                if (valueDate.isAfter(valuationDate)) {
+                    if (n == 0 && previous != null && !previous.isAfter(valuationDate)) {
+                        currentStart = previous;
+                    }
+                    accrualStarts[n] = previous != null ? yearFraction(valuationDate, previous) : 0.0;
+                    paymentTimes[n] = yearFraction(valuationDate, valueDate);
+                    paymentAmounts[n] = amounts.get(i) != null ? amounts.get(i).doubleValue() : 0.0;
+                    n++;
+                }
+                previous = valueDate;
+            }
+            boolean floating = "Floating".equalsIgnoreCase(legType);
+            double currentFixing = floating && currentStart != null ? fixings.rateOn(index, currentStart) : Double.NaN;
+            legs.add(new ValuationLeg(floating, sign, currency, index,
+                    notional.doubleValue(), accrualStarts, paymentTimes, paymentAmounts, currentFixing));
+        }
+    }
+}
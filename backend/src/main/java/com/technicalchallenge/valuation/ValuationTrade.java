@@ -0,0 +1,20 @@
+package com.technicalchallenge.valuation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public final class ValuationTrade {
+    private final Long tradeId;
+    // Only filled in when the rows being valued carry them, as the risk queries do
+    private final Long bookId;
+    private final Long traderUserId;
+    private final List<ValuationLeg> legs;
+
+    public ValuationTrade(Long tradeId, List<ValuationLeg> legs) {
+        this(tradeId, null, null, legs);
+    }
+}
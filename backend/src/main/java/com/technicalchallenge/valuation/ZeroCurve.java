@@ -0,0 +1,118 @@
+package com.technicalchallenge.valuation;
+
+import java.util.Arrays;
+
+/**
+ * Continuously compounded zero curve, linearly interpolated in zero rate between pillars and
+ * flat beyond the first and last. Immutable once built, so one instance is shared by every
+ * valuation thread; segment slopes are precomputed so a lookup is a binary search and a
+ * multiply-add.
+ */
+public final class ZeroCurve {
+
+    private final String name;
+    private final double[] times;
+    private final double[] rates;
+    private final double[] slopes;
+
+    /**
+     * @param times pillar times in years, strictly increasing
+     * @param rates zero rates as decimals (0.05 for 5%)
+     */
+    public ZeroCurve(String name, double[] times, double[] rates) {
+        if (times.length == 0 || times.length != rates.length) {
+            throw new IllegalArgumentException("Curve " + name + " needs the same, non-zero number of times and rates");
+        }
+        for (int i = 1; i < times.length; i++) {
+            if (times[i] <= times[i - 1]) {
+                throw new IllegalArgumentException("Curve " + name + " pillar times must be strictly increasing");
+            }
+        }
+        this.name = name;
+        this.times = times.clone();
+        this.rates = rates.clone();
+        this.slopes = new double[times.length];
+        for (int i = 0; i < times.length - 1; i++) {
+            slopes[i] = (rates[i + 1] - rates[i]) / (times[i + 1] - times[i]);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double zeroRate(double t) {
+        if (t <= times[0]) {
+            return rates[0];
+        }
+        int last = times.length - 1;
+        if (t >= times[last]) {
+            return rates[last];
+        }
+        int i = Arrays.binarySearch(times, t);
+        if (i >= 0) {
+            return rates[i];
+        }
+        int segment = -i - 2;
+        return rates[segment] + slopes[segment] * (t - times[segment]);
+    }
+
+    public double discountFactor(double t) {
+        return t <= 0 ? 1.0 : Math.exp(-zeroRate(t) * t);
+    }
+
+    public int pillarCount() {
+        return times.length;
+    }
+
+    public double pillarTime(int pillar) {
+        return times[pillar];
+    }
+
+    /**
+     * The pillar at or below {@code t}; together with the next pillar, the only ones whose
+     * rates move the zero rate at {@code t}.
+     */
+    public int lowerPillar(double t) {
+        if (t <= times[0]) {
+            return 0;
+        }
+        int i = Arrays.binarySearch(times, t);
+        return i >= 0 ? i : Math.min(-i - 2, times.length - 1);
+    }
+
+    /**
+     * Discount factor at {@code t} with the zero rate at one pillar shifted by {@code bump},
+     * interpolated as the curve itself would be.
+     */
+    public double bumpedDiscountFactor(double t, int pillar, double bump) {
+        if (t <= 0) {
+            return 1.0;
+        }
+        return Math.exp(-(zeroRate(t) + bump * pillarWeight(t, pillar)) * t);
+    }
+
+    // How much of a shift at the pillar reaches the interpolated zero rate at t
+    private double pillarWeight(double t, int pillar) {
+        int last = times.length - 1;
+        if (t <= times[0]) {
+            return pillar == 0 ? 1.0 : 0.0;
+        }
+        if (t >= times[last]) {
+            return pillar == last ? 1.0 : 0.0;
+        }
+        int lower = lowerPillar(t);
+        double weight = (t - times[lower]) / (times[lower + 1] - times[lower]);
+        if (pillar == lower) {
+            return 1.0 - weight;
+        }
+        return pillar == lower + 1 ? weight : 0.0;
+    }
+
+    /**
+     * Simply compounded forward rate over [start, end], in years from the curve date.
+     */
+    public double forwardRate(double start, double end) {
+        return (discountFactor(start) / discountFactor(end) - 1.0) / (end - start);
+    }
+}
@@ -0,0 +1,2 @@
+-- Change feed sequence, drawn at commit by TradeChangeSequencer
+CREATE SEQUENCE IF NOT EXISTS trade_change_seq START WITH 1 INCREMENT BY 1;
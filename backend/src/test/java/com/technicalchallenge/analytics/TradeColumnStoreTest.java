@@ -0,0 +1,205 @@
+package com.technicalchallenge.analytics;
+
+import com.technicalchallenge.dto.AnalyticsGroupDTO;
+import com.technicalchallenge.event.LegSnapshot;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeColumnStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private TradeColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        // Small segments so the tests cross segment boundaries
+        store = new TradeColumnStore(2);
+        store.onTradeLifecycleEvent(created(trade(1L, 10L, "LIVE", TODAY, leg("1000000", 0.05, "USD"), leg("-1000000", null, "USD"))));
+        store.onTradeLifecycleEvent(created(trade(2L, 10L, "AMENDED", TODAY, leg("500000", 0.03, "EUR"), leg("250000", 0.04, "USD"))));
+        store.onTradeLifecycleEvent(created(trade(3L, 20L, "LIVE", TODAY.minusDays(1), leg("200000", 0.02, "EUR"))));
+        store.onTradeLifecycleEvent(created(trade(4L, 10L, "CANCELLED", TODAY)));
+    }
+
+    @Test
+    void testGroupByCountsTradesOnceAndSumsAbsoluteNotionals() {
+        List<AnalyticsGroupDTO> byCurrency = store.aggregate(TradeAnalyticsQuery.create()
+                .where(Dimension.STATUS, "LIVE", "AMENDED").groupBy(Dimension.CURRENCY));
+
+        assertEquals(2, byCurrency.size());
+        AnalyticsGroupDTO eur = byCurrency.get(0);
+        assertEquals("EUR", eur.getKey());
+        assertEquals((long) 2, (long) eur.getTradeCount());
+        assertEquals(0, new BigDecimal("700000.00").compareTo(eur.getNotional()));
+        AnalyticsGroupDTO usd = byCurrency.get(1);
+        assertEquals((long) 2, (long) usd.getTradeCount());
+        assertEquals((long) 3, (long) usd.getLegCount());
+        assertEquals(new BigDecimal("2250000.00"), usd.getNotional());
+        // Only the legs with a rate are weighted
+        assertEquals((0.05 * 1_000_000 + 0.04 * 250_000) / 1_250_000, usd.getAverageRate(), 1e-12);
+
+        List<AnalyticsGroupDTO> byBook = store.aggregate(TradeAnalyticsQuery.create().groupBy(Dimension.BOOK));
+        assertEquals("Book 10", byBook.get(0).getKey());
+        assertEquals((long) 3, (long) byBook.get(0).getTradeCount());
+        assertEquals((long) 1, (long) byBook.get(1).getTradeCount());
+    }
+
+    @Test
+    void testFiltersCombineTradeDimensionsDatesAndLegs() {
+        AnalyticsGroupDTO today = store.aggregate(TradeAnalyticsQuery.create()
+                .where(Dimension.BOOK, 10L).on(DateField.TRADE_DATE, TODAY)).get(0);
+        assertEquals((long) 3, (long) today.getTradeCount());
+        assertEquals(new BigDecimal("2750000.00"), today.getNotional());
+
+        AnalyticsGroupDTO eurToday = store.aggregate(TradeAnalyticsQuery.create()
+                .where(Dimension.CURRENCY, "EUR").on(DateField.TRADE_DATE, TODAY)).get(0);
+        assertEquals((long) 1, (long) eurToday.getTradeCount());
+        assertEquals(new BigDecimal("500000.00"), eurToday.getNotional());
+
+        AnalyticsGroupDTO none = store.aggregate(TradeAnalyticsQuery.create().where(Dimension.STATUS, "DEAD")).get(0);
+        assertEquals((long) 0, (long) none.getTradeCount());
+        assertNull(none.getAverageRate());
+        assertTrue(store.aggregate(TradeAnalyticsQuery.create()
+                .where(Dimension.TRADER, 99L).groupBy(Dimension.STATUS)).isEmpty());
+    }
+
+    @Test
+    void testAmendReplacesTheTradeAndTerminationRemovesItFromLiveTotals() {
+        TradeSnapshot before = trade(1L, 10L, "LIVE", TODAY, leg("1000000", 0.05, "USD"), leg("-1000000", null, "USD"));
+        TradeSnapshot amended = trade(1L, 20L, "AMENDED", TODAY, leg("3000000", 0.06, "GBP"));
+        amended.setId(12L);
+        store.onTradeLifecycleEvent(new TradeLifecycleEvent(TradeEventType.AMENDED, before, amended, "tester", LocalDateTime.now()));
+
+        assertEquals(4, store.size());
+        List<AnalyticsGroupDTO> byCurrency = store.aggregate(TradeAnalyticsQuery.create()
+                .where(Dimension.STATUS, "LIVE", "AMENDED").groupBy(Dimension.CURRENCY));
+        assertEquals(List.of("EUR", "GBP", "USD"), byCurrency.stream().map(AnalyticsGroupDTO::getKey).toList());
+        assertEquals(new BigDecimal("250000.00"), byCurrency.get(2).getNotional());
+
+        TradeSnapshot terminated = trade(1L, 20L, "TERMINATED", TODAY, leg("3000000", 0.06, "GBP"));
+        store.onTradeLifecycleEvent(new TradeLifecycleEvent(TradeEventType.TERMINATED, amended, terminated, "tester", LocalDateTime.now()));
+        assertEquals((long) 2, (long) store.aggregate(TradeAnalyticsQuery.create()
+                .where(Dimension.STATUS, "LIVE", "AMENDED")).get(0).getTradeCount());
+
+        store.onTradeLifecycleEvent(new TradeLifecycleEvent(TradeEventType.CANCELLED, terminated, null, "tester", LocalDateTime.now()));
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void testSegmentsEmptiedByAmendmentsAreMergedAway() {
+        TradeColumnStore compacting = new TradeColumnStore(4, 0.5);
+        for (long tradeId = 1; tradeId <= 12; tradeId++) {
+            compacting.onTradeLifecycleEvent(created(trade(tradeId, 10L, "LIVE", TODAY, leg("1000", 0.01, "USD"))));
+        }
+        assertEquals(3, compacting.segmentCount());
+
+        // Amending every trade moves it to the tail, emptying the earlier segments
+        for (int round = 0; round < 3; round++) {
+            for (long tradeId = 1; tradeId <= 12; tradeId++) {
+                TradeSnapshot amended = trade(tradeId, 10L, "AMENDED", TODAY, leg("2000", 0.02, "EUR"));
+                amended.setId(tradeId * 100 + round);
+                compacting.onTradeLifecycleEvent(new TradeLifecycleEvent(TradeEventType.AMENDED, null, amended,
+                        "tester", LocalDateTime.now()));
+            }
+        }
+        assertEquals(12, compacting.size());
+        assertTrue(compacting.segmentCount() <= 4, "segments: " + compacting.segmentCount());
+
+        // Every trade is still found in the segment it was re-indexed to
+        for (long tradeId = 1; tradeId <= 12; tradeId += 2) {
+            compacting.onTradeLifecycleEvent(new TradeLifecycleEvent(TradeEventType.CANCELLED,
+                    trade(tradeId, 10L, "AMENDED", TODAY), null, "tester", LocalDateTime.now()));
+        }
+        assertEquals(6, compacting.size());
+        assertTrue(compacting.segmentCount() <= 3, "segments: " + compacting.segmentCount());
+        AnalyticsGroupDTO total = compacting.aggregate(TradeAnalyticsQuery.create()).get(0);
+        assertEquals((long) 6, (long) total.getTradeCount());
+        assertEquals(new BigDecimal("12000.00"), total.getNotional());
+    }
+
+    @Test
+    void testSegmentChangesAreCopyOnWrite() {
+        TradeSegment.TradeRow row = new TradeSegment.TradeRow(7L, 70L, 1);
+        row.notionals[0] = 100;
+        TradeSegment original = TradeSegment.EMPTY.with(row);
+        TradeSegment.TradeRow other = new TradeSegment.TradeRow(8L, 80L, 2);
+        TradeSegment grown = original.with(other);
+        TradeSegment shrunk = grown.without(7L);
+
+        assertEquals(1, original.size());
+        assertEquals(1, original.legCount());
+        assertEquals(2, grown.size());
+        assertEquals(3, grown.legCount());
+        assertEquals(1, shrunk.size());
+        assertEquals(8L, shrunk.tradeIds[0]);
+        assertEquals(7L, original.tradeIds[0]);
+        assertEquals(100L, original.notionals[0]);
+    }
+
+    @Test
+    void testScansMillionsOfLegsPerSecond() {
+        TradeColumnStore large = new TradeColumnStore(4096);
+        String[] currencies = {"USD", "EUR", "GBP", "JPY"};
+        for (long tradeId = 1; tradeId <= 100_000; tradeId++) {
+            String currency = currencies[(int) (tradeId % currencies.length)];
+            large.onTradeLifecycleEvent(created(trade(tradeId, tradeId % 50, tradeId % 3 == 0 ? "CANCELLED" : "LIVE",
+                    TODAY.minusDays(tradeId % 30), leg("1000000", 0.05, currency), leg("1000000", null, "USD"))));
+        }
+        TradeAnalyticsQuery query = TradeAnalyticsQuery.create()
+                .where(Dimension.STATUS, "LIVE").groupBy(Dimension.CURRENCY);
+        large.aggregate(query);
+
+        int scans = 20;
+        long start = System.nanoTime();
+        List<AnalyticsGroupDTO> groups = null;
+        for (int i = 0; i < scans; i++) {
+            groups = large.aggregate(query);
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        assertEquals(4, groups.size());
+        long legsPerMilli = scans * 200_000L / elapsedMillis;
+        assertTrue(legsPerMilli > 2_000, "only " + legsPerMilli + " legs per ms");
+    }
+
+    private static TradeLifecycleEvent created(TradeSnapshot trade) {
+        return new TradeLifecycleEvent(TradeEventType.CREATED, null, trade, "tester", LocalDateTime.now());
+    }
+
+    private static TradeSnapshot trade(Long tradeId, Long bookId, String status, LocalDate tradeDate, LegSnapshot... legs) {
+        TradeSnapshot trade = new TradeSnapshot();
+        trade.setId(tradeId * 10 + 1);
+        trade.setTradeId(tradeId);
+        trade.setVersion(1);
+        trade.setBookId(bookId);
+        trade.setBookName("Book " + bookId);
+        trade.setTraderUserId(1000L);
+        trade.setTraderUserName("trader");
+        trade.setTradeStatus(status);
+        trade.setTradeType("Swap");
+        trade.setTradeDate(tradeDate);
+        trade.setLegs(new ArrayList<>(List.of(legs)));
+        return trade;
+    }
+
+    private static LegSnapshot leg(String notional, Double rate, String currency) {
+        LegSnapshot leg = new LegSnapshot();
+        leg.setNotional(new BigDecimal(notional));
+        leg.setRate(rate);
+        leg.setCurrency(currency);
+        leg.setLegType(rate != null ? "Fixed" : "Floating");
+        leg.setPayRec("Pay");
+        return leg;
+    }
+}
@@ -0,0 +1,73 @@
+package com.technicalchallenge.bulkhead;
+
+import com.technicalchallenge.exception.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() {
+        Bulkhead bulkhead = new Bulkhead("export", 1, 0, 50, 1, meterRegistry);
+
+        bulkhead.enter();
+        assertThrows(BulkheadFullException.class, bulkhead::enter);
+
+        assertEquals(1.0, meterRegistry.get("bulkhead.rejected")
+                .tag("bulkhead", "export").tag("reason", "queue_full").counter().count());
+        bulkhead.exit();
+        assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    void testRejectsAfterWaitBudget() {
+        Bulkhead bulkhead = new Bulkhead("dashboard", 1, 5, 20, 1, meterRegistry);
+
+        bulkhead.enter();
+        assertThrows(BulkheadFullException.class, bulkhead::enter);
+
+        assertEquals(1.0, meterRegistry.get("bulkhead.rejected")
+                .tag("bulkhead", "dashboard").tag("reason", "timeout").counter().count());
+        assertEquals(0, bulkhead.getQueueDepth());
+    }
+
+    @Test
+    void testConnectionQuotaIsIndependentOfRequestPermits() {
+        Bulkhead bulkhead = new Bulkhead("booking", 5, 5, 20, 1, meterRegistry);
+
+        bulkhead.acquireConnection();
+        assertEquals(1, bulkhead.getActiveConnections());
+        assertThrows(BulkheadFullException.class, bulkhead::acquireConnection);
+
+        bulkhead.releaseConnection();
+        assertEquals(0, bulkhead.getActiveConnections());
+    }
+
+    @Test
+    void testClassifiesRequestsByWorkload() {
+        BulkheadRegistry registry = new BulkheadRegistry();
+        ReflectionTestUtils.setField(registry, "environment", new MockEnvironment());
+        ReflectionTestUtils.setField(registry, "meterRegistry", meterRegistry);
+        registry.init();
+
+        assertEquals(BulkheadRegistry.Workload.BOOKING, registry.classify("POST", "/api/trades"));
+        assertEquals(BulkheadRegistry.Workload.BOOKING, registry.classify("POST", "/api/trades/100001/terminate"));
+        assertEquals(BulkheadRegistry.Workload.EXPORT, registry.classify("GET", "/api/trades"));
+        assertEquals(BulkheadRegistry.Workload.EXPORT, registry.classify("GET", "/api/cashflows"));
+        assertEquals(BulkheadRegistry.Workload.DASHBOARD, registry.classify("GET", "/api/dashboard/summary"));
+        assertEquals(BulkheadRegistry.Workload.INTERACTIVE, registry.classify("GET", "/api/trades/rsql"));
+        assertNull(registry.classify("GET", "/actuator/metrics"));
+    }
+}
@@ -0,0 +1,171 @@
+package com.technicalchallenge.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.technicalchallenge.cache.TradeJsonCache.CachedTradeJson;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import com.technicalchallenge.mapper.TradeMapper;
+import com.technicalchallenge.model.Counterparty;
+import com.technicalchallenge.model.ReferenceDataChangeListener;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeJsonCacheTest {
+
+    private ObjectMapper objectMapper;
+    private TradeJsonCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        cache = new TradeJsonCache(objectMapper, new TradeMapper(), 100, -1);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testActiveVersionIsSerialisedOnceAndServedFromTheSameBytes() throws Exception {
+        Trade trade = trade(1001L, 1, "LIVE", true);
+
+        CachedTradeJson first = cache.getActive(1001L, () -> load(trade));
+        CachedTradeJson second = cache.getActive(1001L, () -> load(trade));
+
+        assertEquals(1, loads.get());
+        assertSame(first.getJson(), second.getJson());
+        assertEquals(1001L, objectMapper.readTree(first.getJson()).get("tradeId").asLong());
+        assertTrue(first.getEtag().startsWith("\"1001.1."));
+        assertNull(first.getGzip());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testLifecycleEventDropsTheTradeAndChangesTheETagWithinAVersion() {
+        Trade trade = trade(1001L, 1, "LIVE", true);
+        CachedTradeJson live = cache.getActive(1001L, () -> load(trade));
+
+        // Terminated in place: same row, same version, different body
+        trade.getTradeStatus().setTradeStatus("TERMINATED");
+        cache.onTradeLifecycleEvent(event(TradeEventType.TERMINATED, snapshot(1001L, 1), snapshot(1001L, 1)));
+        CachedTradeJson terminated = cache.getActive(1001L, () -> load(trade));
+
+        assertEquals(2, loads.get());
+        assertNotEquals(live.getEtag(), terminated.getEtag());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testAmendmentMovesTheActiveVersionAndSupersededVersionsStayCached() {
+        Trade v1 = trade(1001L, 1, "LIVE", true);
+        cache.getActive(1001L, () -> load(v1));
+
+        v1.setActive(false);
+        Trade v2 = trade(1001L, 2, "AMENDED", true);
+        cache.onTradeLifecycleEvent(event(TradeEventType.AMENDED, snapshot(1001L, 1), snapshot(1001L, 2)));
+
+        assertEquals(2, (int) cache.getActive(1001L, () -> load(v2)).getVersion());
+        CachedTradeJson superseded = cache.get(v1);
+        assertSame(superseded, cache.get(v1));
+        assertEquals(2, cache.size());
+
+        // A later change to the trade leaves the superseded version alone
+        cache.onTradeLifecycleEvent(event(TradeEventType.CANCELLED, snapshot(1001L, 2), snapshot(1001L, 2)));
+        assertEquals(1, cache.size());
+        assertSame(superseded, cache.get(v1));
+    }
+
+    @Test
+    void testReadThatRacesACommittedChangeIsNotCached() {
+        Trade trade = trade(1001L, 1, "LIVE", true);
+
+        // The change commits while the old row is being serialised
+        CachedTradeJson stale = cache.getActive(1001L, () -> {
+            cache.onTradeLifecycleEvent(event(TradeEventType.TERMINATED, snapshot(1001L, 1), snapshot(1001L, 1)));
+            return load(trade);
+        });
+
+        assertNotNull(stale);
+        assertEquals(0, cache.size());
+        cache.getActive(1001L, () -> load(trade));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testRenamedReferenceDataDropsTheCacheAndChangesTheETag() throws Exception {
+        Trade trade = trade(1001L, 1, "LIVE", true);
+        Counterparty counterparty = new Counterparty();
+        counterparty.setName("Acme Bank");
+        trade.setCounterparty(counterparty);
+        CachedTradeJson before = cache.getActive(1001L, () -> load(trade));
+        Trade superseded = trade(1000L, 1, "AMENDED", false);
+        cache.get(superseded);
+
+        // Renamed in place: the trade keeps its version
+        counterparty.setName("Acme Bank plc");
+        new ReferenceDataChangeListener().onChange(counterparty);
+        CachedTradeJson after = cache.getActive(1001L, () -> load(trade));
+
+        assertEquals(2, loads.get());
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertEquals("Acme Bank plc", objectMapper.readTree(after.getJson()).get("counterpartyName").asText());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testCacheIsBoundedAndLargeBodiesKeepAGzipCopy() throws Exception {
+        for (long tradeId = 1; tradeId <= 250; tradeId++) {
+            Trade trade = trade(tradeId, 1, "LIVE", true);
+            cache.getActive(tradeId, () -> load(trade));
+        }
+        assertEquals(100, cache.size());
+
+        TradeJsonCache compressing = new TradeJsonCache(objectMapper, new TradeMapper(), 100, 0);
+        CachedTradeJson json = compressing.get(trade(1001L, 3, "LIVE", true));
+        assertNotNull(json.getGzip());
+        assertEquals(json.getEtag().replace("\"", "") + ".gz", json.getGzipEtag().replace("\"", ""));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(json.getGzip()))) {
+            assertArrayEquals(json.getJson(), in.readAllBytes());
+        }
+    }
+
+    private Optional<Trade> load(Trade trade) {
+        loads.incrementAndGet();
+        return Optional.of(trade);
+    }
+
+    private static Trade trade(Long tradeId, int version, String status, boolean active) {
+        Trade trade = new Trade();
+        trade.setId(tradeId * 10 + version);
+        trade.setTradeId(tradeId);
+        trade.setVersion(version);
+        trade.setActive(active);
+        trade.setTradeDate(LocalDate.of(2025, 6, 2));
+        TradeStatus tradeStatus = new TradeStatus();
+        tradeStatus.setTradeStatus(status);
+        trade.setTradeStatus(tradeStatus);
+        return trade;
+    }
+
+    private static TradeSnapshot snapshot(Long tradeId, int version) {
+        TradeSnapshot snapshot = new TradeSnapshot();
+        snapshot.setTradeId(tradeId);
+        snapshot.setVersion(version);
+        return snapshot;
+    }
+
+    private static TradeLifecycleEvent event(TradeEventType type, TradeSnapshot previous, TradeSnapshot current) {
+        return new TradeLifecycleEvent(type, previous, current, "tester", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,133 @@
+package com.technicalchallenge.cash;
+
+import com.technicalchallenge.dto.CashLadderEntryDTO;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import com.technicalchallenge.repository.CashflowRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CashLadderServiceTest {
+
+    @Mock
+    private CashflowRepository cashflowRepository;
+
+    @InjectMocks
+    private CashLadderService cashLadderService;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        when(cashflowRepository.findPaymentsDue(eq(today), eq(today.plusDays(89)), anyList())).thenReturn(rows(
+                row(10L, today.plusDays(5), "USD", "Receive", "1000.00"),
+                row(10L, today.plusDays(5), "USD", "Pay", "400.00"),
+                row(11L, today.plusDays(5), "EUR", "Pay", "250.50"),
+                row(11L, today.plusDays(30), "USD", "Receive", "99.99")));
+        cashLadderService.rebuild();
+    }
+
+    @Test
+    void testRebuildSumsPaymentsPerDayAndCurrencyInDateOrder() {
+        Page<CashLadderEntryDTO> ladder = cashLadderService.getLadder(null, PageRequest.of(0, 10));
+
+        assertEquals(3, ladder.getTotalElements());
+        CashLadderEntryDTO eur = ladder.getContent().get(0);
+        assertEquals(today.plusDays(5), eur.getValueDate());
+        assertEquals("EUR", eur.getCurrency());
+        assertAmount("-250.50", eur.getNet());
+        CashLadderEntryDTO usd = ladder.getContent().get(1);
+        assertAmount("400", usd.getPay());
+        assertAmount("1000", usd.getReceive());
+        assertAmount("600", usd.getNet());
+        assertEquals(today.plusDays(30), ladder.getContent().get(2).getValueDate());
+    }
+
+    @Test
+    void testLadderIsPagedAndFilteredByCurrency() {
+        Page<CashLadderEntryDTO> secondPage = cashLadderService.getLadder(null, PageRequest.of(1, 2));
+        assertEquals(2, secondPage.getTotalPages());
+        assertEquals(1, secondPage.getContent().size());
+        assertAmount("99.99", secondPage.getContent().get(0).getNet());
+
+        Page<CashLadderEntryDTO> usd = cashLadderService.getLadder("usd", PageRequest.of(0, 10));
+        assertEquals(2, usd.getTotalElements());
+        assertTrue(usd.getContent().stream().allMatch(entry -> "USD".equals(entry.getCurrency())));
+    }
+
+    @Test
+    void testLifecycleEventsOnlyReadTheCashflowsOfTheNewTradeRow() {
+        when(cashflowRepository.findPaymentsDueByTradeRow(eq(12L), any(), any()))
+                .thenReturn(rows(row(12L, today.plusDays(5), "USD", "Pay", "100.00")));
+        TradeSnapshot created = trade(12L, "NEW");
+        cashLadderService.onTradeLifecycleEvent(event(TradeEventType.CREATED, null, created));
+        // A repeated event is not counted twice
+        cashLadderService.onTradeLifecycleEvent(event(TradeEventType.CREATED, null, created));
+        assertAmount("500", usdOnDayFive().getPay());
+        verify(cashflowRepository, times(1)).findPaymentsDueByTradeRow(eq(12L), any(), any());
+
+        // Amending books a new row and reverses the old one from memory
+        when(cashflowRepository.findPaymentsDueByTradeRow(eq(13L), any(), any()))
+                .thenReturn(rows(row(13L, today.plusDays(5), "USD", "Pay", "300.00")));
+        TradeSnapshot amended = trade(13L, "AMENDED");
+        cashLadderService.onTradeLifecycleEvent(event(TradeEventType.AMENDED, created, amended));
+        assertAmount("700", usdOnDayFive().getPay());
+
+        cashLadderService.onTradeLifecycleEvent(event(TradeEventType.TERMINATED, amended, trade(13L, "TERMINATED")));
+        assertAmount("400", usdOnDayFive().getPay());
+        verify(cashflowRepository, times(1)).findPaymentsDueByTradeRow(eq(13L), any(), any());
+    }
+
+    private CashLadderEntryDTO usdOnDayFive() {
+        return cashLadderService.getLadder("USD", PageRequest.of(0, 10)).getContent().stream()
+                .filter(entry -> today.plusDays(5).equals(entry.getValueDate()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Object[] row(Long tradeRowId, LocalDate valueDate, String currency, String payRec, String amount) {
+        return new Object[] {tradeRowId, valueDate, currency, payRec, new BigDecimal(amount)};
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private TradeSnapshot trade(Long tradeRowId, String status) {
+        TradeSnapshot snapshot = new TradeSnapshot();
+        snapshot.setId(tradeRowId);
+        snapshot.setTradeId(200001L);
+        snapshot.setTradeStatus(status);
+        return snapshot;
+    }
+
+    private TradeLifecycleEvent event(TradeEventType type, TradeSnapshot previous, TradeSnapshot current) {
+        return new TradeLifecycleEvent(type, previous, current, "testUser", LocalDateTime.now());
+    }
+
+    private void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+}
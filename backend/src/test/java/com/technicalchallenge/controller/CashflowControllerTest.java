@@ -15,6 +15,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -30,9 +33,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -124,6 +131,74 @@ public class CashflowControllerTest {
         verify(cashflowService).getAllCashflows();
     }
 
+    @Test
+    void testGetCashflowWindow() throws Exception {
+        // Given
+        LocalDate from = LocalDate.of(2025, 6, 2);
+        LocalDate to = LocalDate.of(2025, 6, 30);
+        when(cashflowService.getCashflows(eq(from), eq(to), eq("USD"), eq(10L), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(cashflow), PageRequest.of(0, 50), 51));
+
+        // When/Then
+        mockMvc.perform(get("/api/cashflows")
+                .param("from", "2025-06-02")
+                .param("to", "2025-06-30")
+                .param("currency", "USD")
+                .param("book", "10")
+                .param("size", "50")
+                .contentType(MediaType.APPLICATION_JSON)
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.totalElements", is(51)))
+                .andExpect(jsonPath("$.totalPages", is(2)));
+
+        verify(cashflowService, never()).getAllCashflows();
+    }
+
+    @Test
+    void testGetCashflowWindowEndingBeforeItStarts() throws Exception {
+        mockMvc.perform(get("/api/cashflows")
+                .param("from", "2025-06-30")
+                .param("to", "2025-06-02")
+                .contentType(MediaType.APPLICATION_JSON)
+                .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        verify(cashflowService, never()).getCashflows(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testExportCashflowsStreamsOneJsonObjectPerLine() throws Exception {
+        // Given
+        CashflowDTO second = new CashflowDTO();
+        second.setId(2L);
+        second.setPaymentValue(BigDecimal.valueOf(30000.0));
+        doAnswer(invocation -> {
+            Consumer<CashflowDTO> sink = invocation.getArgument(4);
+            sink.accept(cashflowDTO);
+            sink.accept(second);
+            return 2L;
+        }).when(cashflowService).exportCashflows(eq(LocalDate.of(2025, 6, 2)), eq(LocalDate.of(2025, 12, 31)),
+                isNull(), isNull(), any());
+
+        // When
+        String body = mockMvc.perform(get("/api/cashflows/export")
+                .param("from", "2025-06-02")
+                .param("to", "2025-12-31")
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], CashflowDTO.class).getId());
+        assertEquals(2L, objectMapper.readValue(lines[1], CashflowDTO.class).getId());
+    }
+
     @Test
     void testGetCashflowById() throws Exception {
         // Given
@@ -2,6 +2,7 @@ package com.technicalchallenge.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.technicalchallenge.cache.TradeJsonCache;
 import com.technicalchallenge.dto.SettlementInstructionsDTO;
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.mapper.TradeMapper;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -23,13 +25,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Collections;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -43,6 +48,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(TradeController.class)
+@Import(TradeJsonCache.class)
 public class TradeControllerTest {
 
     // You will now need the WebApplicationContext
@@ -58,6 +64,9 @@ public class TradeControllerTest {
     @MockBean
     private TradeMapper tradeMapper;
 
+    @Autowired
+    private TradeJsonCache tradeJsonCache;
+
     private ObjectMapper objectMapper;
     private TradeDTO tradeDTO;
     private Trade trade;
@@ -79,6 +88,7 @@ public class TradeControllerTest {
 
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
+        tradeJsonCache.clear();
 
         pageable = PageRequest.of(0, 10);
 
@@ -143,6 +153,49 @@ public class TradeControllerTest {
                 .andExpect(jsonPath("$.counterpartyName", is("TestCounterparty")));
 
         verify(tradeService).getTradeById(1001L);
+        verify(tradeMapper, never()).toDtoWithCashflows(any());
+    }
+
+    @Test
+    void testGetTradeByIdIsServedFromCacheWithStrongETag() throws Exception {
+        // Given
+        trade.setActive(true);
+        when(tradeService.getTradeById(1001L)).thenReturn(Optional.of(trade));
+
+        // When
+        String etag = mockMvc.perform(get("/api/trades/1001"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("\"1001.1.")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Then a conditional GET is answered without a body, and neither needs the trade again
+        mockMvc.perform(get("/api/trades/1001").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/trades/1001").header("If-None-Match", "\"1001.1.stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tradeId", is(1001)));
+
+        verify(tradeService, times(1)).getTradeById(1001L);
+        verify(tradeMapper, times(1)).toDto(trade);
+    }
+
+    @Test
+    void testGetTradeByIdWithCashflows() throws Exception {
+        // Given
+        when(tradeService.getTradeById(1001L)).thenReturn(Optional.of(trade));
+        when(tradeMapper.toDtoWithCashflows(trade)).thenReturn(tradeDTO);
+
+        // When/Then
+        mockMvc.perform(get("/api/trades/1001")
+                        .param("includeCashflows", "true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tradeId", is(1001)));
+
+        verify(tradeMapper).toDtoWithCashflows(trade);
+        verify(tradeMapper, never()).toDto(any());
     }
 
     @Test
@@ -158,6 +211,82 @@ public class TradeControllerTest {
         verify(tradeService).getTradeById(9999L);
     }
 
+    @Test
+    void testGetTradeAsOf() throws Exception {
+        // Given
+        LocalDateTime asOf = LocalDateTime.of(2025, 6, 2, 14, 0);
+        when(tradeService.getTradeAsOf(1001L, asOf)).thenReturn(Optional.of(trade));
+
+        // When/Then
+        mockMvc.perform(get("/api/trades/1001/as-of")
+                        .param("asOf", "2025-06-02T14:00:00")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tradeId", is(1001)));
+
+        verify(tradeService).getTradeAsOf(1001L, asOf);
+    }
+
+    @Test
+    void testGetBookTradesAsOf() throws Exception {
+        // Given
+        LocalDateTime asOf = LocalDateTime.of(2025, 6, 2, 14, 0);
+        when(tradeService.getBookTradesAsOf(1000L, asOf)).thenReturn(List.of(trade));
+        when(tradeMapper.toHeaderDto(trade)).thenReturn(tradeDTO);
+
+        // When/Then
+        mockMvc.perform(get("/api/trades/book/1000/as-of")
+                        .param("asOf", "2025-06-02T14:00:00")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].bookName", is("TestBook")));
+
+        verify(tradeService).getBookTradesAsOf(1000L, asOf);
+        // Headers only, so legs and cashflows are never loaded per trade
+        verify(tradeMapper, never()).toDto(any());
+    }
+
+    @Test
+    void testGetTradeChanges_ReturnsBatchAndNextCursor() throws Exception {
+        // Given: one more row than the limit is available
+        Trade first = new Trade();
+        Trade second = new Trade();
+        TradeDTO firstDto = new TradeDTO();
+        firstDto.setTradeId(100001L);
+        firstDto.setChangeSequence(41L);
+        when(tradeService.getTradeChangesSince(40L, 2)).thenReturn(List.of(first, second));
+        when(tradeMapper.toHeaderDto(first)).thenReturn(firstDto);
+
+        // When/Then
+        mockMvc.perform(get("/api/trades/changes")
+                        .param("since", "40")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(1)))
+                .andExpect(jsonPath("$.changes[0].tradeId", is(100001)))
+                .andExpect(jsonPath("$.nextCursor", is(41)))
+                .andExpect(jsonPath("$.hasMore", is(true)));
+
+        verify(tradeService).getTradeChangesSince(40L, 2);
+    }
+
+    @Test
+    void testGetTradeChanges_NoChangesKeepsCursor() throws Exception {
+        // Given
+        when(tradeService.getTradeChangesSince(anyLong(), anyInt())).thenReturn(Collections.emptyList());
+
+        // When/Then
+        mockMvc.perform(get("/api/trades/changes")
+                        .param("since", "75")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor", is(75)))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
     // Tests for the /search Endpoint
 
     @Test
@@ -216,6 +345,38 @@ public class TradeControllerTest {
         verify(tradeService, never()).searchTrades(any(), any()); // Should not call searchTrades
     }
 
+    @Test
+    void testSimpleSearch_LiveOnAloneUsesTheLifetimeIndex() throws Exception {
+        Page<Trade> tradePage = new PageImpl<>(List.of(trade), PageRequest.of(0, 10), 1);
+        when(tradeService.getTradesLiveOn(eq(LocalDate.of(2025, 6, 2)), any(Pageable.class))).thenReturn(tradePage);
+
+        mockMvc.perform(get("/api/trades/search")
+                .param("liveOn", "2025-06-02")
+                .param("page", "0")
+                .param("size", "10")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(1));
+
+        verify(tradeService, never()).searchTrades(any(), any());
+        verify(tradeService, never()).findAll(any());
+    }
+
+    @Test
+    void testSimpleSearch_LiveOnWithOtherCriteriaIsAddedToTheQuery() throws Exception {
+        Page<Trade> tradePage = new PageImpl<>(List.of(trade), PageRequest.of(0, 10), 1);
+        when(tradeService.searchTrades(any(), any())).thenReturn(tradePage);
+
+        mockMvc.perform(get("/api/trades/search")
+                .param("book", "NYC-BOOK")
+                .param("liveOn", "2025-06-02")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk());
+
+        verify(tradeService, times(1)).searchTrades(any(), any(Pageable.class));
+        verify(tradeService, never()).getTradesLiveOn(any(), any());
+    }
+
     @Test
     void testSimpleSearch_OnlyDateRangeCriteria() throws Exception {
         // Arrange
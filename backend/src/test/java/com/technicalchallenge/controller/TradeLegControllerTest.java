@@ -2,12 +2,16 @@ package com.technicalchallenge.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.mapper.CashflowMapper;
 import com.technicalchallenge.mapper.TradeLegMapper;
+import com.technicalchallenge.model.Cashflow;
 import com.technicalchallenge.model.Currency;
 import com.technicalchallenge.model.LegType;
 import com.technicalchallenge.model.Trade;
 import com.technicalchallenge.model.TradeLeg;
+import com.technicalchallenge.service.CashflowService;
 import com.technicalchallenge.service.TradeLegService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +19,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -31,6 +38,7 @@ import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -51,6 +59,12 @@ public class TradeLegControllerTest {
     @MockBean
     private TradeLegMapper tradeLegMapper;
 
+    @MockBean
+    private CashflowService cashflowService;
+
+    @MockBean
+    private CashflowMapper cashflowMapper;
+
     private ObjectMapper objectMapper;
     private TradeLegDTO tradeLegDTO;
     private TradeLeg tradeLeg;
@@ -125,6 +139,41 @@ public class TradeLegControllerTest {
         verify(tradeLegService).getAllTradeLegs();
     }
 
+    @Test
+    void testGetTradeLegCashflowsIsPaged() throws Exception {
+        // Given
+        Cashflow cashflow = new Cashflow();
+        cashflow.setId(7L);
+        CashflowDTO cashflowDTO = new CashflowDTO();
+        cashflowDTO.setId(7L);
+        cashflowDTO.setLegId(1L);
+        when(cashflowMapper.toDto(cashflow)).thenReturn(cashflowDTO);
+        when(cashflowService.getCashflowsForLeg(eq(1L), any(Pageable.class)))
+                .thenReturn(Optional.of(new PageImpl<>(List.of(cashflow), PageRequest.of(2, 1), 600)));
+
+        // When/Then
+        mockMvc.perform(get("/api/tradeLegs/1/cashflows")
+                .param("page", "2")
+                .param("size", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(7)))
+                .andExpect(jsonPath("$.content[0].legId", is(1)))
+                .andExpect(jsonPath("$.totalElements", is(600)));
+    }
+
+    @Test
+    void testGetTradeLegCashflowsNotFound() throws Exception {
+        when(cashflowService.getCashflowsForLeg(eq(999L), any(Pageable.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/tradeLegs/999/cashflows")
+                .contentType(MediaType.APPLICATION_JSON)
+                .with(csrf()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testGetTradeLegById() throws Exception {
         // Given
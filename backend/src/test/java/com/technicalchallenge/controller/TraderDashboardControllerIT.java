@@ -1,5 +1,6 @@
 package com.technicalchallenge.controller;
 
+import com.technicalchallenge.analytics.TradeColumnStore;
 import com.technicalchallenge.model.Trade;
 import com.technicalchallenge.model.ApplicationUser;
 import com.technicalchallenge.model.Book;
@@ -23,7 +24,6 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -47,6 +47,7 @@ class TraderDashboardControllerIT {
     @Autowired private BookRepository bookRepository; 
     @Autowired private TradeStatusRepository tradeStatusRepository; 
     @Autowired private CurrencyRepository currencyRepository; 
+    @Autowired private TradeColumnStore tradeColumnStore;
 
     private ApplicationUser testUser;
     private Book book1;
@@ -94,8 +95,8 @@ class TraderDashboardControllerIT {
         t1.setTradeDate(LocalDate.now());
         
         // Legs for T1
-        TradeLeg t1_leg_fixed = new TradeLeg(null, HALF_MILLION, RATE, t1, usd, null, null, null, null, null, null, null, ACTIVE, CREATED_DATE, null, null); 
-        TradeLeg t1_leg_float = new TradeLeg(null, HALF_MILLION, RATE, t1, usd, null, null, null, null, null, null, null, ACTIVE, CREATED_DATE, null, null); 
+        TradeLeg t1_leg_fixed = new TradeLeg(null, HALF_MILLION, RATE, t1, usd, null, null, null, null, null, null, null, false, ACTIVE, CREATED_DATE, null, null); 
+        TradeLeg t1_leg_float = new TradeLeg(null, HALF_MILLION, RATE, t1, usd, null, null, null, null, null, null, null, false, ACTIVE, CREATED_DATE, null, null); 
         t1.setTradeLegs(List.of(t1_leg_fixed, t1_leg_float));
 
 
@@ -107,8 +108,8 @@ class TraderDashboardControllerIT {
         t2.setTradeDate(LocalDate.now());
         
         // Legs for T2
-        TradeLeg t2_leg_fixed = new TradeLeg(null, HALF_MILLION, RATE, t2, usd, null, null, null, null, null, null, null, ACTIVE, CREATED_DATE, null, null);
-        TradeLeg t2_leg_float = new TradeLeg(null, HALF_MILLION, RATE, t2, usd, null, null, null, null, null, null, null, ACTIVE, CREATED_DATE, null, null);
+        TradeLeg t2_leg_fixed = new TradeLeg(null, HALF_MILLION, RATE, t2, usd, null, null, null, null, null, null, null, false, ACTIVE, CREATED_DATE, null, null);
+        TradeLeg t2_leg_float = new TradeLeg(null, HALF_MILLION, RATE, t2, usd, null, null, null, null, null, null, null, false, ACTIVE, CREATED_DATE, null, null);
         t2.setTradeLegs(List.of(t2_leg_fixed, t2_leg_float));
 
 
@@ -120,12 +121,15 @@ class TraderDashboardControllerIT {
         t3.setTradeDate(LocalDate.now().minusDays(1));
         
         // Legs for T3
-        TradeLeg t3_leg_fixed = new TradeLeg(null, HUNDRED_K, RATE, t3, eur, null, null, null, null, null, null, null, ACTIVE, CREATED_DATE, null, null);
-        TradeLeg t3_leg_float = new TradeLeg(null, HUNDRED_K, RATE, t3, eur, null, null, null, null, null, null, null, ACTIVE, CREATED_DATE, null, null);
+        TradeLeg t3_leg_fixed = new TradeLeg(null, HUNDRED_K, RATE, t3, eur, null, null, null, null, null, null, null, false, ACTIVE, CREATED_DATE, null, null);
+        TradeLeg t3_leg_float = new TradeLeg(null, HUNDRED_K, RATE, t3, eur, null, null, null, null, null, null, null, false, ACTIVE, CREATED_DATE, null, null);
         t3.setTradeLegs(List.of(t3_leg_fixed, t3_leg_float));
 
         // Save all trades
         tradeRepository.saveAll(List.of(t1, t2, t3));
+
+        // Saved straight through the repository, so no lifecycle events reach the column store
+        tradeColumnStore.rebuild();
     }
 
     // -------------------------------------------------------------------------
@@ -163,15 +167,14 @@ class TraderDashboardControllerIT {
     void getPortfolioSummary_ShouldAggregateDataCorrectly() throws Exception {
         // Active Trades: T1, T2 (USD Notional 2,000,000) + T3 (EUR Notional 200,000)
         // Total Aggregated Notional: 2,200,000.00
-        // VaR (Mocked): 2,200,000 * 0.015 = 33,000.00
-        // MTM (Mocked): 2,200,000 * 0.003 = 6,600.00
+        // VaR: historical simulation over the trades' cashflows; none are saved, so 0.00
+        // MTM: the trades are saved without cashflows, so there is nothing to discount: 0.00
         
-        final double TOTAL_AGGREGATED_NOTIONAL = 2200000.00; 
         final double USD_NOTIONAL = 2000000.00;
         final double EUR_NOTIONAL = 200000.00; 
 
-        double expectedVaR = BigDecimal.valueOf(TOTAL_AGGREGATED_NOTIONAL * 0.015).setScale(2, RoundingMode.HALF_UP).doubleValue();
-        double expectedMTM = BigDecimal.valueOf(TOTAL_AGGREGATED_NOTIONAL * 0.003).setScale(2, RoundingMode.HALF_UP).doubleValue();
+        double expectedVaR = 0.00;
+        double expectedMTM = 0.00;
         
         mockMvc.perform(get(API_BASE + "/summary")
             .contentType(MediaType.APPLICATION_JSON))
@@ -207,4 +210,28 @@ class TraderDashboardControllerIT {
                 // Book Activity: T1 and T2 are in EMEA-FX
                 .andExpect(jsonPath("$.bookActivitySummary['Book-EMEA-FX']", is(2))); 
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = TRADER_LOGIN_ID)
+    void getDailySummary_ShouldIgnoreSupersededVersions() throws Exception {
+        // A superseded (inactive) version of a trade booked today is not a trade in its own right
+        Trade superseded = new Trade();
+        superseded.setTraderUser(testUser);
+        superseded.setBook(book1);
+        superseded.setTradeStatus(liveStatus);
+        superseded.setTradeDate(LocalDate.now());
+        superseded.setActive(false);
+        TradeLeg leg = new TradeLeg(null, BigDecimal.valueOf(700000), 0.0, superseded, usd, null, null, null, null, null, null, null, false, false, LocalDateTime.now(), null, null);
+        superseded.setTradeLegs(List.of(leg));
+        tradeRepository.save(superseded);
+        tradeColumnStore.rebuild();
+
+        // Still T1 and T2 only
+        mockMvc.perform(get(API_BASE + "/daily-summary")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.todaysTradeCount", is(2)))
+                .andExpect(jsonPath("$.todaysTotalNotionalUSD", is(2000000.00)))
+                .andExpect(jsonPath("$.bookActivitySummary['Book-EMEA-FX']", is(2)));
+    }
+}
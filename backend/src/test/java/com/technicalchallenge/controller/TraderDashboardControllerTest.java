@@ -3,6 +3,7 @@ package com.technicalchallenge.controller;
 import com.technicalchallenge.dto.DailySummaryDTO;
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeSummaryDTO;
+import com.technicalchallenge.service.BlotterStreamService;
 import com.technicalchallenge.service.TraderDashboardService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +16,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -24,6 +26,7 @@ import java.util.Map;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -45,6 +48,9 @@ class TraderDashboardControllerTest {
     @MockBean
     private TraderDashboardService dashboardService;
 
+    @MockBean
+    private BlotterStreamService blotterStreamService;
+
     @BeforeEach
     void setUp() {
         // Mock the conversion of loginId (from SecurityContext) to internal ID
@@ -195,4 +201,35 @@ class TraderDashboardControllerTest {
                 .andExpect(jsonPath("$.todaysTotalNotionalUSD", is(500000)))
                 .andExpect(jsonPath("$.dailyRealizedPL", is(1000)));
     }
-}
\ No newline at end of file
+
+    
+    // 5. Live Blotter Streams
+    
+
+    @Test
+    @WithMockUser(username = TEST_LOGIN_ID)
+    void streamTraderPersonalTrades_ShouldOpenEventStreamForTrader() throws Exception {
+        // Arrange
+        when(blotterStreamService.subscribe(eq(TEST_USER_ID), isNull(), isNull())).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE + "/my-trades/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @WithMockUser(username = TEST_LOGIN_ID)
+    void streamBookTrades_ShouldPassLastEventIdAsResumeToken() throws Exception {
+        // Arrange
+        when(blotterStreamService.subscribe(eq(TEST_USER_ID), eq(TEST_BOOK_ID), eq("abc-42"))).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE + "/book/" + TEST_BOOK_ID + "/trades/stream")
+                        .header("Last-Event-ID", "abc-42")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+}
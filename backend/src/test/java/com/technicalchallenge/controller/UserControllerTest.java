@@ -1,6 +1,8 @@
 package com.technicalchallenge.controller;
 
 import com.technicalchallenge.dto.UserDTO;
+import com.technicalchallenge.lookup.LookupService;
+import com.technicalchallenge.lookup.LookupType;
 import com.technicalchallenge.mapper.ApplicationUserMapper;
 import com.technicalchallenge.model.ApplicationUser;
 import com.technicalchallenge.model.UserProfile;
@@ -19,8 +21,11 @@ import static org.springframework.security.test.web.servlet.setup.SecurityMockMv
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -39,6 +44,8 @@ public class UserControllerTest {
     private ApplicationUserMapper applicationUserMapper;
     @MockBean
     private UserProfileService userProfileService;
+    @MockBean
+    private LookupService lookupService;
 
 
     @BeforeEach
@@ -83,5 +90,20 @@ public class UserControllerTest {
                 .with(csrf()))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void shouldResolveLoginIdThroughTheLookupIndex() throws Exception {
+        ApplicationUser applicationUser = new ApplicationUser();
+        applicationUser.setId(2L);
+        applicationUser.setLoginId("jdoe");
+        when(lookupService.findExactId(LookupType.USER, "jdoe")).thenReturn(Optional.of(2L));
+        when(applicationUserService.getUserById(2L)).thenReturn(Optional.of(applicationUser));
+
+        mockMvc.perform(get("/api/users/loginId/jdoe"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/loginId/JDoe"))
+                .andExpect(status().isNotFound());
+        verify(applicationUserService, never()).getAllUsers();
+    }
     // Add more tests for POST, PUT, DELETE as needed
 }
@@ -0,0 +1,92 @@
+package com.technicalchallenge.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarFileWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testEveryTypeRoundTripsIncludingNulls() throws Exception {
+        Path file = directory.resolve("types.tcol");
+        List<ColumnType> types = List.of(ColumnType.values());
+        LocalDateTime created = LocalDateTime.of(2025, 6, 2, 17, 30, 15, 123_456_000);
+        try (ColumnarFileWriter out = new ColumnarFileWriter(file, 4,
+                List.of("i", "l", "d", "date", "ts", "amount", "name"), types)) {
+            out.int32(0, 7).int64(1, 1L << 40).float64(2, 0.0525).date(3, LocalDate.of(2025, 6, 2))
+                    .timestamp(4, created).decimal(5, new BigDecimal("-1234.567")).string(6, "EMEA-FX");
+            out.endRow();
+            // Nothing set: every column null
+            out.endRow();
+        }
+
+        ColumnarFileReader in = ColumnarFileReader.open(file);
+        assertEquals(2, in.getRowCount());
+        assertEquals(ColumnType.DECIMAL, in.getType(in.columnIndex("amount")));
+        assertEquals(7, (int) in.getInt(0, 0));
+        assertEquals(1L << 40, (long) in.getLong(1, 0));
+        assertEquals(0.0525, in.getDouble(2, 0), 0.0);
+        assertEquals(LocalDate.of(2025, 6, 2), in.getDate(3, 0));
+        assertEquals(created, in.getTimestamp(4, 0));
+        assertEquals(new BigDecimal("-1234.57"), in.getDecimal(5, 0));
+        assertEquals("EMEA-FX", in.getString(6, 0));
+        assertNull(in.getInt(0, 1));
+        assertNull(in.getLong(1, 1));
+        assertNull(in.getDouble(2, 1));
+        assertNull(in.getDate(3, 1));
+        assertNull(in.getTimestamp(4, 1));
+        assertNull(in.getDecimal(5, 1));
+        assertNull(in.getString(6, 1));
+    }
+
+    @Test
+    void testRowGroupsAreAlignedAndNamesAreWrittenOncePerDictionary() throws Exception {
+        Path file = directory.resolve("legs.tcol");
+        String[] currencies = {"USD", "EUR", "GBP"};
+        int rows = 10_001;
+        try (ColumnarFileWriter out = new ColumnarFileWriter(file, 1_000, TradeExportService.LEG_COLUMNS,
+                TradeExportService.LEG_TYPES)) {
+            for (long legId = 0; legId < rows; legId++) {
+                TradeExportService.writeLeg(out, new Object[] {legId, legId / 2, 1000 + legId / 2,
+                        BigDecimal.valueOf(legId * 100), legId % 2 == 0 ? 0.05 : null,
+                        currencies[(int) (legId % 3)], legId % 2 == 0 ? "Fixed" : "Floating", null, "Pay"});
+                out.endRow();
+            }
+        }
+
+        ColumnarFileReader in = ColumnarFileReader.open(file);
+        int currency = in.columnIndex("currency");
+        assertEquals(rows, in.getRowCount());
+        assertEquals(List.of("USD", "EUR", "GBP"), in.getDictionary(currency));
+        for (long legId : new long[] {0, 999, 1_000, 5_555, rows - 1}) {
+            assertEquals(legId, (long) in.getLong(0, legId));
+            assertEquals(1000 + legId / 2, (long) in.getLong(2, legId));
+            assertEquals(BigDecimal.valueOf(legId * 100, 0).setScale(2), in.getDecimal(3, legId));
+            assertEquals(currencies[(int) (legId % 3)], in.getString(currency, legId));
+            assertNull(in.getString(in.columnIndex("index"), legId));
+        }
+        assertNull(in.getDouble(4, 5_555));
+        // Names are codes in the rows, so the file stays close to the fixed-width size
+        assertTrue(Files.size(file) < (long) rows * (8 * 5 + 4 * 4) + 4_096);
+        assertThrows(IndexOutOfBoundsException.class, () -> in.getLong(0, rows));
+    }
+
+    @Test
+    void testWrongTypeForAColumnIsRejected() throws Exception {
+        try (ColumnarFileWriter out = new ColumnarFileWriter(directory.resolve("bad.tcol"), 10,
+                List.of("id"), List.of(ColumnType.INT64))) {
+            assertThrows(IllegalArgumentException.class, () -> out.string(0, "x"));
+        }
+    }
+}
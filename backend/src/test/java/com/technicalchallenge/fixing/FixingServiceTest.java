@@ -0,0 +1,121 @@
+package com.technicalchallenge.fixing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixingServiceTest {
+
+    private FixingSet fixings;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fixings = FixingService.parse(new BufferedReader(new StringReader(String.join("\n",
+                "# index,date,rate",
+                "LIBOR,2025-05-29,0.0530",
+                "LIBOR,2025-05-30,0.0531",
+                "LIBOR,2025-06-02,0.0533",
+                "EURIBOR,2025-06-02,0.0310"))));
+    }
+
+    @Test
+    void testFixingsAreLoadedPerIndex() {
+        assertEquals(3, fixings.series("LIBOR").size());
+        assertEquals(LocalDate.of(2025, 6, 2), fixings.series("EURIBOR").lastDate());
+        assertNull(fixings.series("SOFR"));
+        assertTrue(Double.isNaN(fixings.rateOn("SOFR", LocalDate.of(2025, 6, 2))));
+    }
+
+    @Test
+    void testRateOnFallsBackToThePreviousFixingButNotIntoTheFuture() {
+        assertEquals(0.0531, fixings.rateOn("LIBOR", LocalDate.of(2025, 5, 30)), 0.0);
+        // Saturday takes Friday's fixing
+        assertEquals(0.0531, fixings.rateOn("LIBOR", LocalDate.of(2025, 5, 31)), 0.0);
+        assertTrue(Double.isNaN(fixings.rateOn("LIBOR", LocalDate.of(2025, 5, 28))));
+        assertTrue(Double.isNaN(fixings.rateOn("LIBOR", LocalDate.of(2025, 6, 3))));
+    }
+
+    @Test
+    void testOutOfOrderFileIsRejected() {
+        assertThrows(RuntimeException.class, () -> FixingService.parse(new BufferedReader(new StringReader(
+                "LIBOR,2025-06-02,0.0533\nLIBOR,2025-05-30,0.0531"))));
+    }
+
+    @Test
+    void testAppendIsCopyOnWriteAndLeavesEarlierSnapshotsUnchanged() {
+        FixingSet before = fixings;
+        FixingSet after = before.with(before.series("LIBOR").append(LocalDate.of(2025, 6, 3), 0.0534));
+
+        assertEquals(0.0534, after.rateOn("LIBOR", LocalDate.of(2025, 6, 3)), 0.0);
+        assertTrue(Double.isNaN(before.rateOn("LIBOR", LocalDate.of(2025, 6, 3))));
+        assertSame(before.series("EURIBOR"), after.series("EURIBOR"));
+        assertThrows(IllegalArgumentException.class,
+                () -> after.series("LIBOR").append(LocalDate.of(2025, 6, 3), 0.0535));
+    }
+
+    @Test
+    void testConcurrentReadersSeeConsistentSeriesWhileDaysAreAppended() throws Exception {
+        AtomicReference<FixingSeries> published = new AtomicReference<>(FixingSeries.empty("LIBOR"));
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        LocalDate first = LocalDate.of(2020, 1, 1);
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                FixingSeries series = published.get();
+                int size = series.size();
+                if (size > 0) {
+                    // Every fixing's rate encodes its own day, so a torn read would not match
+                    LocalDate last = series.lastDate();
+                    double rate = series.rateOn(last);
+                    if (rate != last.toEpochDay() - first.toEpochDay() || series.size() != size) {
+                        failure.set("Inconsistent read at " + last);
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (int day = 0; day < 20_000; day++) {
+            published.set(published.get().append(first.plusDays(day), day));
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(20_000, published.get().size());
+    }
+
+    @Test
+    void testThousandsOfFixingsResolvePerMillisecond() {
+        FixingSeries series = FixingSeries.empty("LIBOR");
+        LocalDate date = LocalDate.of(1990, 1, 1);
+        for (int i = 0; i < 9_000; i++) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                series = series.append(date, 0.05);
+            }
+            date = date.plusDays(1);
+        }
+        int lookups = 1_000_000;
+        long[] days = new long[lookups];
+        long firstDay = LocalDate.of(1990, 1, 1).toEpochDay();
+        for (int i = 0; i < lookups; i++) {
+            days[i] = firstDay + (i * 7919L) % 9_000;
+        }
+        double[] rates = new double[lookups];
+
+        long start = System.nanoTime();
+        series.ratesOn(days, rates, 0, lookups);
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        assertEquals(0.05, rates[lookups - 1], 0.0);
+        assertTrue(lookups / elapsedMillis > 1_000, "only " + lookups / elapsedMillis + " lookups per ms");
+    }
+}
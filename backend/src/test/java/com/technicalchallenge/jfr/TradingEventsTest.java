@@ -0,0 +1,61 @@
+package com.technicalchallenge.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradingEventsTest {
+
+    @Test
+    void testEventsAreDisabledByDefault() {
+        for (Class<? extends TradingEvent> type : List.of(TradeBookingEvent.class, TradeAmendmentEvent.class,
+                CashflowGenerationEvent.class, TradeValidationEvent.class, DashboardSummaryEvent.class, TradeSearchEvent.class)) {
+            assertFalse(EventType.getEventType(type).isEnabled(), type.getSimpleName());
+        }
+        assertFalse(new TradeBookingEvent().shouldCommit());
+    }
+
+    @Test
+    void testBundledSettingsRecordEvents() throws Exception {
+        Configuration configuration;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/jfr/trading.jfc"), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+        Path file = Files.createTempFile("trading", ".jfr");
+        try (Recording recording = new Recording(configuration)) {
+            recording.start();
+            CashflowGenerationEvent event = new CashflowGenerationEvent();
+            event.begin();
+            event.end();
+            assertTrue(event.shouldCommit());
+            event.legId = 42L;
+            event.schedule = "3M";
+            event.cashflowCount = 20;
+            event.commit();
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals("com.technicalchallenge.CashflowGeneration"))
+                    .toList();
+            assertEquals(1, events.size());
+            assertEquals(42L, events.get(0).getLong("legId"));
+            assertEquals(20, events.get(0).getInt("cashflowCount"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.technicalchallenge.journal;
+
+import com.technicalchallenge.event.LegSnapshot;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeEventJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TradeEventJournal journal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = newJournal(4096);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.stop();
+    }
+
+    @Test
+    void testReplayRebuildsLatestStateFromDeltas() throws Exception {
+        TradeSnapshot created = snapshot(1L, 1, "NEW");
+        TradeSnapshot amended = snapshot(2L, 2, "AMENDED");
+        amended.getLegs().get(0).setNotional(new BigDecimal("2500000.00"));
+        TradeSnapshot terminated = amended.copy();
+        terminated.setTradeStatus("TERMINATED");
+
+        journal.onTradeEvent(event(TradeEventType.CREATED, null, created));
+        journal.onTradeEvent(event(TradeEventType.AMENDED, created, amended));
+        journal.onTradeEvent(event(TradeEventType.TERMINATED, amended, terminated));
+        awaitSequence(3);
+
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.replay(1, entries::add);
+
+        assertEquals(3, entries.size());
+        assertEquals(TradeEventType.TERMINATED, entries.get(2).getType());
+        // Only the status changed on termination, so only that field is journalled
+        assertEquals(JournalCodec.FIELD_STATUS, entries.get(2).getFieldMask());
+
+        TradeSnapshot rebuilt = journal.rebuildLatestState().get(10001L);
+        assertEquals("TERMINATED", rebuilt.getTradeStatus());
+        assertEquals(2, rebuilt.getVersion());
+        assertEquals("BOOK-1", rebuilt.getBookName());
+        assertEquals(0, new BigDecimal("2500000.00").compareTo(rebuilt.getLegs().get(0).getNotional()));
+        assertEquals(LocalDate.of(2030, 1, 15), rebuilt.getTradeMaturityDate());
+    }
+
+    @Test
+    void testSegmentsRollAndSurviveRestart() throws Exception {
+        TradeSnapshot previous = null;
+        for (int i = 1; i <= 100; i++) {
+            TradeSnapshot current = snapshot((long) i, i, i % 2 == 0 ? "AMENDED" : "NEW");
+            journal.onTradeEvent(event(previous == null ? TradeEventType.CREATED : TradeEventType.AMENDED, previous, current));
+            previous = current;
+        }
+        awaitSequence(100);
+        journal.stop();
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertTrue(files.count() > 1, "Small segments should have rolled");
+        }
+
+        journal = newJournal(4096);
+        assertEquals(100, journal.getLastSequence());
+
+        List<Long> sequences = new ArrayList<>();
+        journal.replay(40, entry -> sequences.add(entry.getSequence()));
+        assertEquals(61, sequences.size());
+        assertEquals(40L, sequences.get(0));
+
+        Map<Long, TradeSnapshot> state = journal.rebuildLatestState();
+        assertEquals(100, state.get(10001L).getVersion());
+    }
+
+    @Test
+    void testFailedBatchIsRetriedWithoutDuplicates() throws Exception {
+        journal.stop();
+        journal = newJournal(4096, 1000);
+        // Directories named like the next segments make every roll fail until they are removed
+        List<Path> blockers = blockSegments();
+
+        appendVersions(100);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (journal.getWriteFailures() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(journal.getWriteFailures() >= 3, "Rolls should have failed while blocked");
+        assertTrue(journal.getLastSequence() < 100);
+
+        unblock(blockers);
+        awaitSequence(100);
+        assertFalse(journal.isFailed());
+
+        List<Long> sequences = new ArrayList<>();
+        List<Integer> versions = new ArrayList<>();
+        journal.replay(1, entry -> {
+            sequences.add(entry.getSequence());
+            versions.add(entry.getDelta().getVersion());
+        });
+        assertEquals(100, sequences.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1L, sequences.get(i));
+            assertEquals(i + 1, versions.get(i));
+        }
+    }
+
+    @Test
+    void testJournalStopsAndRejectsEventsOnceRetriesRunOut() throws Exception {
+        journal.stop();
+        journal = newJournal(4096, 2);
+        List<Path> blockers = blockSegments();
+
+        appendVersions(100);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!journal.isFailed() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(journal.isFailed());
+        assertEquals(2, journal.getWriteFailures());
+
+        journal.onTradeEvent(event(TradeEventType.TERMINATED, null, snapshot(101L, 101, "TERMINATED")));
+        assertEquals(1, journal.getRejectedEvents());
+
+        // Events accepted before the failure are still held and written at shutdown
+        unblock(blockers);
+        journal.stop();
+        journal = newJournal(4096);
+        assertEquals(100, journal.getLastSequence());
+    }
+
+    @Test
+    void testRecordTimestampIsTheEventInstantOnNonUtcHost() throws Exception {
+        TimeZone original = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        try {
+            LocalDateTime occurredAt = LocalDateTime.of(2025, 6, 2, 14, 0);
+            TradeSnapshot created = snapshot(1L, 1, "NEW");
+            created.setLastTouchTimestamp(occurredAt);
+            journal.onTradeEvent(new TradeLifecycleEvent(TradeEventType.CREATED, null, created, "testUser", occurredAt));
+            awaitSequence(1);
+
+            List<JournalEntry> entries = new ArrayList<>();
+            journal.replay(1, entries::add);
+
+            assertEquals(occurredAt.atZone(ZoneId.of("America/New_York")).toInstant().toEpochMilli(),
+                    entries.get(0).getTimestamp());
+            assertEquals(occurredAt, entries.get(0).getDelta().getLastTouchTimestamp());
+        } finally {
+            TimeZone.setDefault(original);
+        }
+    }
+
+    private TradeEventJournal newJournal(int segmentSize) throws Exception {
+        return newJournal(segmentSize, 5);
+    }
+
+    private TradeEventJournal newJournal(int segmentSize, int maxWriteAttempts) throws Exception {
+        TradeEventJournal newJournal = new TradeEventJournal();
+        ReflectionTestUtils.setField(newJournal, "enabled", true);
+        ReflectionTestUtils.setField(newJournal, "directory", tempDir.toString());
+        ReflectionTestUtils.setField(newJournal, "segmentSizeBytes", segmentSize);
+        ReflectionTestUtils.setField(newJournal, "maxBatchSize", 16);
+        ReflectionTestUtils.setField(newJournal, "maxWriteAttempts", maxWriteAttempts);
+        ReflectionTestUtils.setField(newJournal, "retryBackoffMillis", 1L);
+        newJournal.start();
+        return newJournal;
+    }
+
+    private void appendVersions(int count) {
+        TradeSnapshot previous = null;
+        for (int i = 1; i <= count; i++) {
+            TradeSnapshot current = snapshot((long) i, i, i % 2 == 0 ? "AMENDED" : "NEW");
+            journal.onTradeEvent(event(previous == null ? TradeEventType.CREATED : TradeEventType.AMENDED, previous, current));
+            previous = current;
+        }
+    }
+
+    private List<Path> blockSegments() throws Exception {
+        List<Path> blockers = new ArrayList<>();
+        for (long first = 2; first <= 101; first++) {
+            blockers.add(Files.createDirectory(tempDir.resolve(JournalSegment.fileName(first))));
+        }
+        return blockers;
+    }
+
+    private void unblock(List<Path> blockers) throws Exception {
+        for (Path blocker : blockers) {
+            Files.delete(blocker);
+        }
+    }
+
+    private void awaitSequence(long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (journal.getLastSequence() < sequence && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(sequence, journal.getLastSequence());
+    }
+
+    private TradeLifecycleEvent event(TradeEventType type, TradeSnapshot previous, TradeSnapshot current) {
+        return new TradeLifecycleEvent(type, previous, current, "testUser", LocalDateTime.now());
+    }
+
+    private TradeSnapshot snapshot(Long id, int version, String status) {
+        TradeSnapshot snapshot = new TradeSnapshot();
+        snapshot.setId(id);
+        snapshot.setTradeId(10001L);
+        snapshot.setVersion(version);
+        snapshot.setBookId(1L);
+        snapshot.setBookName("BOOK-1");
+        snapshot.setCounterpartyId(2L);
+        snapshot.setCounterpartyName("BigBank");
+        snapshot.setTradeStatus(status);
+        snapshot.setTradeDate(LocalDate.of(2025, 1, 15));
+        snapshot.setTradeStartDate(LocalDate.of(2025, 1, 17));
+        snapshot.setTradeMaturityDate(LocalDate.of(2030, 1, 15));
+        snapshot.getLegs().add(new LegSnapshot(1L, new BigDecimal("1000000.00"), 3.5, "USD", "Fixed", null, "Pay", "Quarterly"));
+        snapshot.getLegs().add(new LegSnapshot(2L, new BigDecimal("1000000.00"), null, "USD", "Floating", "LIBOR", "Receive", "Quarterly"));
+        return snapshot;
+    }
+}
@@ -0,0 +1,128 @@
+package com.technicalchallenge.lifetime;
+
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeLifetimeIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    @Test
+    void testIntervalTreeFindsExactlyTheIntervalsContainingADay() {
+        Random random = new Random(42);
+        int count = 5_000;
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = random.nextInt(3_650);
+            ends[i] = starts[i] + random.nextInt(i % 10 == 0 ? 3_650 : 30);
+        }
+        IntervalTree tree = new IntervalTree(starts, ends);
+
+        for (int day = -5; day < 7_400; day += 7) {
+            boolean[] found = new boolean[count];
+            int finalDay = day;
+            tree.forEachContaining(day, position -> {
+                assertFalse(found[position], "reported twice");
+                found[position] = true;
+            });
+            for (int i = 0; i < count; i++) {
+                assertEquals(starts[i] <= finalDay && finalDay <= ends[i], found[i], "interval " + i + " on day " + day);
+            }
+        }
+        assertEquals(count, tree.size());
+    }
+
+    @Test
+    void testLifecycleEventsAddReplaceAndRemoveLifetimes() {
+        TradeLifetimeIndex index = new TradeLifetimeIndex(1_000);
+
+        index.onTradeLifecycleEvent(event(TradeEventType.CREATED, null, snapshot(11L, 1001L, "NEW", 0, 365)));
+        index.onTradeLifecycleEvent(event(TradeEventType.CREATED, null, snapshot(12L, 1002L, "NEW", 30, 60)));
+        assertEquals(List.of(11L, 12L), index.findTradeRowIdsLiveOn(TODAY.plusDays(45)));
+        assertEquals(List.of(11L), index.findTradeRowIdsLiveOn(TODAY.plusDays(365)));
+        assertTrue(index.findTradeRowIdsLiveOn(TODAY.plusDays(366)).isEmpty());
+
+        // Amended to mature earlier: the new row replaces the old one
+        index.onTradeLifecycleEvent(event(TradeEventType.AMENDED,
+                snapshot(11L, 1001L, "NEW", 0, 365), snapshot(13L, 1001L, "AMENDED", 0, 40)));
+        assertEquals(List.of(13L, 12L), index.findTradeRowIdsLiveOn(TODAY.plusDays(35)));
+        assertEquals(List.of(12L), index.findTradeRowIdsLiveOn(TODAY.plusDays(45)));
+
+        // Terminated in place: same row, no longer live
+        index.onTradeLifecycleEvent(event(TradeEventType.TERMINATED,
+                snapshot(12L, 1002L, "NEW", 30, 60), snapshot(12L, 1002L, "TERMINATED", 30, 60)));
+        assertTrue(index.findTradeRowIdsLiveOn(TODAY.plusDays(45)).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testCompactionKeepsResultsUnchanged() {
+        TradeLifetimeIndex compacting = new TradeLifetimeIndex(16);
+        TradeLifetimeIndex overlayOnly = new TradeLifetimeIndex(Integer.MAX_VALUE);
+        Random random = new Random(7);
+        for (int i = 0; i < 2_000; i++) {
+            long tradeId = 1_000 + random.nextInt(500);
+            int start = random.nextInt(700);
+            String status = random.nextInt(10) == 0 ? "CANCELLED" : "LIVE";
+            TradeLifecycleEvent event = event(TradeEventType.AMENDED, null,
+                    snapshot((long) i, tradeId, status, start, start + random.nextInt(400)));
+            compacting.onTradeLifecycleEvent(event);
+            overlayOnly.onTradeLifecycleEvent(event);
+        }
+
+        for (int day = 0; day < 1_100; day += 13) {
+            assertEquals(overlayOnly.findTradeRowIdsLiveOn(TODAY.plusDays(day)),
+                    compacting.findTradeRowIdsLiveOn(TODAY.plusDays(day)));
+        }
+        assertEquals(overlayOnly.size(), compacting.size());
+    }
+
+    @Test
+    void testLiveOnDateCostsLogarithmicTimePlusResults() {
+        int count = 200_000;
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            starts[i] = random.nextInt(10 * 365);
+            ends[i] = starts[i] + 1 + random.nextInt(90);
+        }
+        IntervalTree tree = new IntervalTree(starts, ends);
+        int queries = 20_000;
+        long[] hits = new long[1];
+
+        long start = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            tree.forEachContaining((q * 7919) % (10 * 365), position -> hits[0]++);
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        // About 2,500 of the 200,000 trades are live on any one day; a scan would visit them all
+        assertTrue(hits[0] / queries < 5_000, hits[0] / queries + " trades per day");
+        assertTrue(queries / elapsedMillis > 10, "only " + queries / elapsedMillis + " queries per ms");
+    }
+
+    private static TradeSnapshot snapshot(Long rowId, Long tradeId, String status, int startOffset, int maturityOffset) {
+        TradeSnapshot snapshot = new TradeSnapshot();
+        snapshot.setId(rowId);
+        snapshot.setTradeId(tradeId);
+        snapshot.setTradeStatus(status);
+        snapshot.setTradeStartDate(TODAY.plusDays(startOffset));
+        snapshot.setTradeMaturityDate(TODAY.plusDays(maturityOffset));
+        return snapshot;
+    }
+
+    private static TradeLifecycleEvent event(TradeEventType type, TradeSnapshot previous, TradeSnapshot current) {
+        return new TradeLifecycleEvent(type, previous, current, "tester", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,173 @@
+package com.technicalchallenge.limits;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CounterpartyLimitServiceTest {
+
+    private static final Long BIGBANK = 1000L;
+
+    private CounterpartyLimitService limitService;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("credit.limits.default", "1000000000")
+                .withProperty("credit.limits.counterparty.BigBank.USD", "1000000");
+        limitService = new CounterpartyLimitService();
+        ReflectionTestUtils.setField(limitService, "environment", environment);
+        // Nothing booked yet, so skip seeding from the database
+        ReflectionTestUtils.setField(limitService, "initialised", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testNoBreachUnderParallelBookings() throws Exception {
+        int threads = 16;
+        int bookingsPerThread = 50;
+        AtomicLong nextTradeId = new AtomicLong(10000);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicLong maxObserved = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new java.util.ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < bookingsPerThread; i++) {
+                        String breach = limitService.reserve(trade(nextTradeId.getAndIncrement(), "7500.00", "USD"));
+                        if (breach == null) {
+                            accepted.incrementAndGet();
+                        } else {
+                            rejected.incrementAndGet();
+                        }
+                        long exposure = limitService.getExposure(BIGBANK, "USD").movePointRight(2).longValueExact();
+                        maxObserved.accumulateAndGet(exposure, Math::max);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 1,000,000 / 7,500 = 133 bookings fit; every other one must be refused
+        assertEquals(133, accepted.get());
+        assertEquals(threads * bookingsPerThread - 133, rejected.get());
+        assertEquals(0, new BigDecimal("997500.00").compareTo(limitService.getExposure(BIGBANK, "USD")));
+        assertTrue(maxObserved.get() <= 100_000_000L);
+    }
+
+    @Test
+    void testBreachIsReportedAndLeavesExposureUnchanged() {
+        assertNull(limitService.reserve(trade(10000L, "900000", "USD")));
+
+        String breach = limitService.reserve(trade(10001L, "200000", "USD"));
+
+        assertNotNull(breach);
+        assertTrue(breach.contains("BigBank"));
+        assertEquals(0, new BigDecimal("900000").compareTo(limitService.getExposure(BIGBANK, "USD")));
+        // Other currencies have their own limit
+        assertNull(limitService.reserve(trade(10001L, "200000", "EUR")));
+    }
+
+    @Test
+    void testReservationIsReleasedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertNull(limitService.reserve(trade(10000L, "600000", "USD")));
+        assertEquals(0, new BigDecimal("600000").compareTo(limitService.getExposure(BIGBANK, "USD")));
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(limitService.getExposure(BIGBANK, "USD")));
+        assertNull(limitService.reserve(trade(10001L, "1000000", "USD")));
+    }
+
+    @Test
+    void testAmendmentReservesOnlyTheIncreaseAndReleasesDecreasesOnCommit() {
+        assertNull(limitService.reserve(trade(10000L, "600000", "USD")));
+
+        // Amending to 900,000 only needs another 300,000 of headroom
+        assertNull(limitService.reserve(trade(10000L, "900000", "USD")));
+        assertEquals(0, new BigDecimal("900000").compareTo(limitService.getExposure(BIGBANK, "USD")));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertNull(limitService.reserve(trade(10000L, "100000", "USD")));
+        // The decrease is not available to other bookings until the amendment commits
+        assertEquals(0, new BigDecimal("900000").compareTo(limitService.getExposure(BIGBANK, "USD")));
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(0, new BigDecimal("100000").compareTo(limitService.getExposure(BIGBANK, "USD")));
+    }
+
+    @Test
+    void testTerminationReleasesExposure() {
+        assertNull(limitService.reserve(trade(10000L, "1000000", "USD")));
+        assertNotNull(limitService.reserve(trade(10001L, "1", "USD")));
+
+        TradeSnapshot terminated = new TradeSnapshot();
+        terminated.setTradeId(10000L);
+        limitService.onTradeLifecycleEvent(new TradeLifecycleEvent(TradeEventType.TERMINATED, null, terminated,
+                "testUser", LocalDateTime.now()));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(limitService.getExposure(BIGBANK, "USD")));
+        assertNull(limitService.reserve(trade(10001L, "1", "USD")));
+    }
+
+    private void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private TradeDTO trade(Long tradeId, String notional, String currency) {
+        TradeDTO trade = new TradeDTO();
+        trade.setTradeId(tradeId);
+        trade.setCounterpartyId(BIGBANK);
+        trade.setCounterpartyName("BigBank");
+        trade.setTradeLegs(List.of(leg(notional, currency), leg(notional, currency)));
+        return trade;
+    }
+
+    private TradeLegDTO leg(String notional, String currency) {
+        TradeLegDTO leg = new TradeLegDTO();
+        leg.setNotional(new BigDecimal(notional));
+        leg.setCurrency(currency);
+        return leg;
+    }
+}
@@ -0,0 +1,164 @@
+package com.technicalchallenge.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeEventLoggingTest {
+
+    private LoggerContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        context.start();
+    }
+
+    @Test
+    void testSamplingKeepsOneInNBelowWarn() {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.addCategory("trade.events.cashflow=10");
+        filter.start();
+        context.addTurboFilter(filter);
+        ListAppender<ILoggingEvent> list = attachList("trade.events");
+
+        Logger cashflow = context.getLogger("trade.events.cashflow");
+        Logger booking = context.getLogger("trade.events.booking");
+        for (int i = 0; i < 100; i++) {
+            cashflow.atInfo().setMessage("cashflows.generated").addKeyValue("legId", i).log();
+            booking.atInfo().setMessage("trade.created").log();
+        }
+        cashflow.warn("never sampled");
+
+        assertEquals(10, list.list.stream().filter(e -> e.getLoggerName().endsWith("cashflow") && e.getLevel() == Level.INFO).count());
+        assertEquals(100, list.list.stream().filter(e -> e.getLoggerName().endsWith("booking")).count());
+        assertTrue(list.list.stream().anyMatch(e -> e.getLevel() == Level.WARN));
+    }
+
+    @Test
+    void testRingBufferDeliversEventsFromConcurrentProducersInOrderPerThread() throws Exception {
+        ListAppender<ILoggingEvent> list = new ListAppender<>();
+        list.setContext(context);
+        list.start();
+        RingBufferAsyncAppender async = new RingBufferAsyncAppender();
+        async.setContext(context);
+        async.setName("test");
+        async.setBufferSize(64);
+        async.setMaxBlockMillis(5_000);
+        async.addAppender(list);
+        async.start();
+        Logger logger = context.getLogger("trade.events.booking");
+        logger.setAdditive(false);
+        logger.addAppender(async);
+
+        int producers = 4;
+        int perProducer = 2_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            // WARN waits for space instead of dropping, so every event must arrive
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    logger.atWarn().setMessage("e").addKeyValue("producer", producer).addKeyValue("seq", i).log();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        async.stop();
+
+        assertEquals(producers * perProducer, list.list.size());
+        assertEquals(0, async.getDroppedCount());
+        int[] next = new int[producers];
+        for (ILoggingEvent event : list.list) {
+            int producer = (Integer) event.getKeyValuePairs().get(0).value;
+            assertEquals(next[producer]++, event.getKeyValuePairs().get(1).value);
+        }
+    }
+
+    @Test
+    void testFullBufferDropsInfoAndReportsCount() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<ILoggingEvent> delivered = new ArrayList<>();
+        AppenderBase<ILoggingEvent> slow = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered.add(event);
+            }
+        };
+        slow.setContext(context);
+        slow.start();
+        RingBufferAsyncAppender async = new RingBufferAsyncAppender();
+        async.setContext(context);
+        async.setName("test");
+        async.setBufferSize(4);
+        async.addAppender(slow);
+        async.start();
+        Logger logger = context.getLogger("trade.events.cashflow");
+        logger.setAdditive(false);
+        logger.addAppender(async);
+
+        for (int i = 0; i < 50; i++) {
+            logger.info("event {}", i);
+        }
+        assertTrue(async.getDroppedCount() > 0);
+        long dropped = async.getDroppedCount();
+
+        release.countDown();
+        async.stop();
+
+        assertEquals(50 - dropped, delivered.stream().filter(e -> e.getLevel() == Level.INFO).count());
+        assertTrue(delivered.stream().anyMatch(e -> e.getLevel() == Level.WARN
+                && e.getFormattedMessage().contains("dropped " + dropped)));
+    }
+
+    @Test
+    void testKeyValueLayoutQuotesValuesThatNeedIt() {
+        ListAppender<ILoggingEvent> list = attachList("trade.events");
+        context.getLogger("trade.events.booking").atInfo().setMessage("trade.created")
+                .addKeyValue("tradeId", 10042L)
+                .addKeyValue("book", "FX Options")
+                .addKeyValue("note", "a=\"b\"")
+                .addKeyValue("user", () -> "trader1")
+                .log();
+
+        KeyValueLayout layout = new KeyValueLayout();
+        layout.setContext(context);
+        layout.start();
+        String line = layout.doLayout(list.list.get(0));
+
+        assertTrue(line.startsWith("ts="));
+        assertTrue(line.contains(" level=INFO logger=trade.events.booking "));
+        assertTrue(line.contains(" event=trade.created tradeId=10042 book=\"FX Options\" note=\"a=\\\"b\\\"\" user=trader1"));
+    }
+
+    private ListAppender<ILoggingEvent> attachList(String loggerName) {
+        ListAppender<ILoggingEvent> list = new ListAppender<>();
+        list.setContext(context);
+        list.start();
+        context.getLogger(loggerName).addAppender(list);
+        return list;
+    }
+}
@@ -0,0 +1,89 @@
+package com.technicalchallenge.lookup;
+
+import com.technicalchallenge.dto.LookupResultDTO;
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.CostCenter;
+import com.technicalchallenge.repository.ApplicationUserRepository;
+import com.technicalchallenge.repository.BookRepository;
+import com.technicalchallenge.repository.CostCenterRepository;
+import com.technicalchallenge.repository.CounterpartyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LookupServiceTest {
+
+    @Mock
+    private CounterpartyRepository counterpartyRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private CostCenterRepository costCenterRepository;
+
+    @Mock
+    private ApplicationUserRepository applicationUserRepository;
+
+    @InjectMocks
+    private LookupService lookupService;
+
+    @BeforeEach
+    void setUp() {
+        // One user's full name is another user's login ID
+        when(applicationUserRepository.findAll()).thenReturn(List.of(
+                user(1L, "ssmith", "John", "Doe"),
+                user(2L, "john doe", "Jane", "Roe")));
+        when(costCenterRepository.findAll()).thenReturn(List.of(costCenter(7L, "FX-London")));
+        when(counterpartyRepository.findAll()).thenReturn(List.of());
+        when(bookRepository.findBookHierarchy()).thenReturn(List.of());
+    }
+
+    @Test
+    void testUsersResolveByLoginIdOnlyWhileSearchAlsoMatchesFullNames() {
+        assertEquals(Optional.of(2L), lookupService.findExactId(LookupType.USER, "john doe"));
+        assertEquals(Optional.of(2L), lookupService.findId(LookupType.USER, "John Doe"));
+        assertEquals(Optional.empty(), lookupService.findId(LookupType.USER, "Jane Roe"));
+
+        assertEquals(List.of(1L, 2L), lookupService.search(LookupType.USER, "john", 10).stream()
+                .map(LookupResultDTO::getId).sorted().toList());
+    }
+
+    @Test
+    void testExactLookupKeepsCase() {
+        assertEquals(Optional.of(1L), lookupService.findExactId(LookupType.USER, "ssmith"));
+        assertEquals(Optional.empty(), lookupService.findExactId(LookupType.USER, "SSmith"));
+        assertEquals(Optional.of(1L), lookupService.findId(LookupType.USER, "SSmith"));
+
+        assertEquals(Optional.of(7L), lookupService.findExactId(LookupType.COST_CENTER, "FX-London"));
+        assertEquals(Optional.empty(), lookupService.findExactId(LookupType.COST_CENTER, "fx-london"));
+        assertEquals(Optional.of(7L), lookupService.findId(LookupType.COST_CENTER, "fx-london"));
+        assertEquals(Optional.empty(), lookupService.findExactId(LookupType.COST_CENTER, null));
+    }
+
+    private static ApplicationUser user(Long id, String loginId, String firstName, String lastName) {
+        ApplicationUser user = new ApplicationUser();
+        user.setId(id);
+        user.setLoginId(loginId);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return user;
+    }
+
+    private static CostCenter costCenter(Long id, String name) {
+        CostCenter costCenter = new CostCenter();
+        costCenter.setId(id);
+        costCenter.setCostCenterName(name);
+        return costCenter;
+    }
+}
@@ -0,0 +1,88 @@
+package com.technicalchallenge.lookup;
+
+import com.technicalchallenge.dto.LookupResultDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    private PrefixIndex users;
+
+    @BeforeEach
+    void setUp() {
+        PrefixIndex.Builder builder = new PrefixIndex.Builder();
+        user(builder, 1L, "simon", "Simon King");
+        user(builder, 2L, "ashley", "Ashley Smith");
+        user(builder, 3L, "stuart", "Stuart Ashley");
+        user(builder, 4L, "joey", "Joey Tribbiani");
+        builder.add("  ", new LookupResultDTO(5L, "", null));
+        users = builder.build();
+    }
+
+    @Test
+    void testSearchIsCaseInsensitiveAndInKeyOrder() {
+        List<LookupResultDTO> matches = users.search("S", 10);
+
+        assertEquals(List.of("simon", "stuart"), matches.stream().map(LookupResultDTO::getName).toList());
+        assertEquals(2L, (long) users.search("ashley s", 10).get(0).getId());
+        assertTrue(users.search("x", 10).isEmpty());
+        assertTrue(users.search("zzz", 10).isEmpty());
+    }
+
+    @Test
+    void testResultReachedThroughSeveralKeysIsReturnedOnce() {
+        // "ashley" is a login ID and the start of a full name
+        List<LookupResultDTO> matches = users.search("ash", 10);
+
+        assertEquals(1, matches.size());
+        assertEquals(2L, (long) matches.get(0).getId());
+        assertEquals("Ashley Smith", matches.get(0).getDescription());
+    }
+
+    @Test
+    void testLimitAndEmptyPrefix() {
+        assertEquals(4, users.search("", 10).size());
+        assertEquals(2, users.search("", 2).size());
+        assertEquals(1, users.search(null, 1).size());
+        // Blank keys are not indexed
+        assertEquals(8, users.size());
+    }
+
+    @Test
+    void testFindMatchesWholeKeysOnly() {
+        assertEquals(4L, (long) users.find("JOEY").get().getId());
+        assertEquals(3L, (long) users.find(" stuart ashley ").get().getId());
+        assertTrue(users.find("joe").isEmpty());
+        assertTrue(users.find(null).isEmpty());
+    }
+
+    @Test
+    void testHundredsOfSearchesPerMillisecondOverAHundredThousandNames() {
+        PrefixIndex.Builder builder = new PrefixIndex.Builder();
+        for (long id = 0; id < 100_000; id++) {
+            builder.add("Counterparty " + id, new LookupResultDTO(id, "Counterparty " + id, null));
+        }
+        PrefixIndex counterparties = builder.build();
+        int searches = 200_000;
+
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < searches; i++) {
+            found += counterparties.search("counterparty " + (1000 + i % 1000), 10).size();
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        assertEquals(searches * 10, found);
+        assertTrue(searches / elapsedMillis > 100, "only " + searches / elapsedMillis + " searches per ms");
+    }
+
+    private static void user(PrefixIndex.Builder builder, Long id, String loginId, String fullName) {
+        LookupResultDTO result = new LookupResultDTO(id, loginId, fullName);
+        builder.add(loginId, result);
+        builder.add(fullName, result);
+    }
+}
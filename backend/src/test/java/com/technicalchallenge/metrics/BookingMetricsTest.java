@@ -0,0 +1,101 @@
+package com.technicalchallenge.metrics;
+
+import com.technicalchallenge.model.TradeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private BookingMetrics bookingMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        bookingMetrics = new BookingMetrics(registry);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "trader1", "n/a", List.of(new SimpleGrantedAuthority("BOOK_TRADE"), new SimpleGrantedAuthority("ROLE_TRADER_SALES"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testStagesArePublishedWithTradeTypeAndUserProfileTags() {
+        BookingMetrics.Recording recording = bookingMetrics.start("create");
+        recording.stage("validation");
+        recording.stage("leg_insert");
+        recording.stage("cashflow_generation");
+        recording.addCashflows(20);
+        recording.stage("leg_insert");
+        recording.tradeType(tradeType("Swap"));
+        recording.success();
+        recording.finish();
+
+        // Re-entered stages are accumulated into one sample
+        assertEquals(1, registry.get("trade.booking.stage")
+                .tags("operation", "create", "stage", "leg_insert", "tradeType", "Swap", "userProfile", "TRADER_SALES")
+                .timer().count());
+        assertEquals(1, registry.get("trade.booking")
+                .tags("operation", "create", "outcome", "success")
+                .timer().count());
+        assertEquals(20.0, registry.get("trade.booking.cashflows").summary().totalAmount());
+    }
+
+    @Test
+    void testFailedOperationIsTaggedAndFinishIsIdempotent() {
+        BookingMetrics.Recording recording = bookingMetrics.start("terminate");
+        recording.stage("privilege_check");
+        recording.finish();
+        recording.finish();
+
+        assertEquals(1, registry.get("trade.booking")
+                .tags("operation", "terminate", "outcome", "failure", "tradeType", "unknown")
+                .timer().count());
+        assertNull(registry.find("trade.booking.cashflows").summary());
+    }
+
+    @Test
+    void testMetersAreBuiltOnceAndReusedForTheSameTags() {
+        record("create", tradeType("Swap"));
+        int meters = registry.getMeters().size();
+
+        record("create", tradeType("Swap"));
+        // An unresolved trade type is tagged unknown rather than registering new meters per value
+        record("create", null);
+        record("create", tradeType(" "));
+
+        assertEquals(2, registry.get("trade.booking.stage")
+                .tags("operation", "create", "stage", "validation", "tradeType", "Swap")
+                .timer().count());
+        assertEquals(2, registry.get("trade.booking.stage")
+                .tags("operation", "create", "stage", "validation", "tradeType", "unknown")
+                .timer().count());
+        assertEquals(2 * meters, registry.getMeters().size());
+    }
+
+    private void record(String operation, TradeType tradeType) {
+        BookingMetrics.Recording recording = bookingMetrics.start(operation);
+        recording.stage("validation");
+        recording.tradeType(tradeType);
+        recording.success();
+        recording.finish();
+    }
+
+    private TradeType tradeType(String name) {
+        TradeType tradeType = new TradeType();
+        tradeType.setTradeType(name);
+        return tradeType;
+    }
+}
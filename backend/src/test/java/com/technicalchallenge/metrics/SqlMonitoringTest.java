@@ -0,0 +1,126 @@
+package com.technicalchallenge.metrics;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlMonitoringTest {
+
+    private SqlMonitoringDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sqlmonitoring;DB_CLOSE_DELAY=-1");
+        dataSource = new SqlMonitoringDataSource(h2);
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS t");
+            statement.execute("CREATE TABLE t (id INT)");
+            statement.execute("INSERT INTO t VALUES (1), (2), (3)");
+        }
+    }
+
+    @Test
+    void testStatementsAndRowsAreAttributedToTheRequest() throws Exception {
+        SqlRequestStats stats = SqlRequestStats.begin("GET", "/api/trades", new SlowQueryLog(10_000, 10));
+        try (Connection connection = dataSource.getConnection()) {
+            for (int i = 0; i < 2; i++) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM t");
+                     ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getInt(1);
+                    }
+                }
+            }
+        } finally {
+            SqlRequestStats.end();
+        }
+
+        assertEquals(2, stats.getStatements());
+        assertEquals(6, stats.getRows());
+        assertTrue(stats.getJdbcNanos() > 0);
+        assertTrue(stats.toServerTiming().contains("2 statements, 6 rows"));
+    }
+
+    @Test
+    void testSlowQueriesAreCapturedWithTheirHandler() throws Exception {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, 2);
+        SqlRequestStats stats = SqlRequestStats.begin("POST", "/api/trades", slowQueryLog);
+        stats.setHandler("TradeController#createTrade");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE t SET id = id");
+            statement.executeUpdate("UPDATE t SET id = id + 0");
+            try (ResultSet resultSet = statement.executeQuery("SELECT id FROM t")) {
+                while (resultSet.next()) {
+                    resultSet.getInt(1);
+                }
+            }
+        } finally {
+            SqlRequestStats.end();
+        }
+
+        // Capacity is two, so the oldest update has been overwritten
+        List<SlowQueryLog.SlowQuery> recent = slowQueryLog.getRecent();
+        assertEquals(3, slowQueryLog.getTotalRecorded());
+        assertEquals(2, recent.size());
+        assertEquals("SELECT id FROM t", recent.get(0).getSql());
+        assertEquals(3, recent.get(0).getRows());
+        assertEquals("TradeController#createTrade", recent.get(0).getHandler());
+        assertEquals("UPDATE t SET id = id + 0", recent.get(1).getSql());
+    }
+
+    @Test
+    void testQueriesOutsideARequestAreNotTracked() throws Exception {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, 10);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE t SET id = id");
+        }
+        assertEquals(0, slowQueryLog.getTotalRecorded());
+        assertNull(SqlRequestStats.current());
+    }
+
+    @Test
+    void testFilterAddsServerTimingHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trades");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+                    throws IOException {
+                try (Connection connection = dataSource.getConnection();
+                     ResultSet resultSet = connection.createStatement().executeQuery("SELECT id FROM t")) {
+                    while (resultSet.next()) {
+                        resultSet.getInt(1);
+                    }
+                } catch (SQLException e) {
+                    throw new IOException(e);
+                }
+                resp.getWriter().write("[]");
+            }
+        });
+
+        new SqlMonitoringFilter(new SlowQueryLog(10_000, 10)).doFilter(request, response, chain);
+
+        String serverTiming = response.getHeader(SqlMonitoringFilter.SERVER_TIMING_HEADER);
+        assertNotNull(serverTiming);
+        assertTrue(serverTiming.startsWith("db;dur="));
+        assertTrue(serverTiming.contains("1 statements, 3 rows"));
+        assertNull(SqlRequestStats.current());
+    }
+}
@@ -0,0 +1,145 @@
+package com.technicalchallenge.position;
+
+import com.technicalchallenge.dto.CurrencyPositionDTO;
+import com.technicalchallenge.dto.PositionDTO;
+import com.technicalchallenge.event.LegSnapshot;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import com.technicalchallenge.repository.BookRepository;
+import com.technicalchallenge.repository.TradeLegRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class PositionKeepingServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private TradeLegRepository tradeLegRepository;
+
+    @InjectMocks
+    private PositionKeepingService positionKeepingService;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> hierarchy = new ArrayList<>();
+        hierarchy.add(new Object[] {1000L, "FX-BOOK-1", 1000L, "London Trading", 1000L, "FX Spot", 1000L, "FX"});
+        hierarchy.add(new Object[] {1001L, "RATES-BOOK-1", 1001L, "NY Trading", 1002L, "Rates Swaps", 1001L, "Rates"});
+        hierarchy.add(new Object[] {1002L, "RATES-BOOK-2", 1001L, "NY Trading", 1002L, "Rates Swaps", 1001L, "Rates"});
+        lenient().when(bookRepository.findBookHierarchy()).thenReturn(hierarchy);
+
+        List<Object[]> legs = new ArrayList<>();
+        legs.add(new Object[] {200001L, 1, 1001L, today.plusMonths(18), "USD", "Receive", new BigDecimal("1000000")});
+        lenient().when(tradeLegRepository.findLiveFixedLegs(anyList())).thenReturn(legs);
+
+        positionKeepingService.rebuild();
+    }
+
+    @Test
+    void testRebuildBucketsFixedLegsByResidualMaturity() {
+        PositionDTO book = positionKeepingService.getBookPositions(1001L).orElseThrow();
+
+        assertEquals("RATES-BOOK-1", book.getName());
+        assertEquals(today, book.getAsOfDate());
+        CurrencyPositionDTO usd = currency(book, "USD");
+        assertAmount("1000000", usd.getNotionals().get(MaturityBucket.UP_TO_2Y.ordinal()));
+        assertAmount("1000000", usd.getTotal());
+    }
+
+    @Test
+    void testLifecycleEventsReplaceTheTradeContribution() {
+        TradeSnapshot created = trade(200002L, 1, 1002L, today.plusYears(7).plusDays(1), "NEW", "Pay", "5000000");
+        positionKeepingService.onTradeLifecycleEvent(event(TradeEventType.CREATED, null, created));
+        assertAmount("-5000000", currency(positionKeepingService.getBookPositions(1002L).orElseThrow(), "USD")
+                .getNotionals().get(MaturityBucket.UP_TO_10Y.ordinal()));
+
+        // Amending shortens the trade and moves it to the other book in the cost center
+        TradeSnapshot amended = trade(200002L, 2, 1001L, today.plusYears(3), "AMENDED", "Pay", "2000000");
+        positionKeepingService.onTradeLifecycleEvent(event(TradeEventType.AMENDED, created, amended));
+        // A late event for the superseded version is ignored
+        positionKeepingService.onTradeLifecycleEvent(event(TradeEventType.CREATED, null, created));
+
+        assertTrue(positionKeepingService.getBookPositions(1002L).orElseThrow().getPositions().isEmpty());
+        CurrencyPositionDTO usd = currency(positionKeepingService.getBookPositions(1001L).orElseThrow(), "USD");
+        assertAmount("-2000000", usd.getNotionals().get(MaturityBucket.UP_TO_5Y.ordinal()));
+        assertAmount("-1000000", usd.getTotal());
+
+        TradeSnapshot terminated = amended.copy();
+        terminated.setTradeStatus("TERMINATED");
+        positionKeepingService.onTradeLifecycleEvent(event(TradeEventType.TERMINATED, amended, terminated));
+
+        assertAmount("1000000", currency(positionKeepingService.getBookPositions(1001L).orElseThrow(), "USD").getTotal());
+    }
+
+    @Test
+    void testPositionsRollUpTheDeskHierarchy() {
+        positionKeepingService.onTradeLifecycleEvent(event(TradeEventType.CREATED, null,
+                trade(200002L, 1, 1002L, today.plusMonths(18), "NEW", "Receive", "250000")));
+        positionKeepingService.onTradeLifecycleEvent(event(TradeEventType.CREATED, null,
+                trade(200003L, 1, 1000L, today.plusMonths(6), "NEW", "Receive", "999")));
+
+        PositionDTO desk = positionKeepingService.getDeskPositions(1001L).orElseThrow();
+        assertEquals("Rates", desk.getName());
+        assertEquals(List.of(1001L, 1002L), desk.getBookIds());
+        assertAmount("1250000", currency(desk, "USD").getNotionals().get(MaturityBucket.UP_TO_2Y.ordinal()));
+
+        assertAmount("1250000", currency(positionKeepingService.getCostCenterPositions(1001L).orElseThrow(), "USD").getTotal());
+        assertAmount("999", currency(positionKeepingService.getSubDeskPositions(1000L).orElseThrow(), "USD").getTotal());
+        assertTrue(positionKeepingService.getDeskPositions(9999L).isEmpty());
+    }
+
+    @Test
+    void testFloatingLegsAreNotPositions() {
+        TradeSnapshot swap = trade(200002L, 1, 1002L, today.plusYears(5), "NEW", "Pay", "3000000");
+        swap.getLegs().add(new LegSnapshot(null, new BigDecimal("3000000"), null, "USD", "Floating", "LIBOR", "Receive", null));
+        positionKeepingService.onTradeLifecycleEvent(event(TradeEventType.CREATED, null, swap));
+
+        assertAmount("-3000000", currency(positionKeepingService.getBookPositions(1002L).orElseThrow(), "USD").getTotal());
+    }
+
+    private TradeSnapshot trade(Long tradeId, int version, Long bookId, LocalDate maturity, String status,
+                                String payRec, String notional) {
+        TradeSnapshot snapshot = new TradeSnapshot();
+        snapshot.setTradeId(tradeId);
+        snapshot.setVersion(version);
+        snapshot.setBookId(bookId);
+        snapshot.setTradeStatus(status);
+        snapshot.setTradeMaturityDate(maturity);
+        snapshot.getLegs().add(new LegSnapshot(null, new BigDecimal(notional), 3.5, "USD", "Fixed", null, payRec, null));
+        return snapshot;
+    }
+
+    private TradeLifecycleEvent event(TradeEventType type, TradeSnapshot previous, TradeSnapshot current) {
+        return new TradeLifecycleEvent(type, previous, current, "testUser", LocalDateTime.now());
+    }
+
+    private CurrencyPositionDTO currency(PositionDTO position, String currency) {
+        return position.getPositions().stream()
+                .filter(p -> currency.equals(p.getCurrency()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,135 @@
+package com.technicalchallenge.risk;
+
+import com.technicalchallenge.risk.Dv01Engine.PillarLayout;
+import com.technicalchallenge.valuation.CurveSet;
+import com.technicalchallenge.valuation.SwapValuationEngine;
+import com.technicalchallenge.valuation.ValuationLeg;
+import com.technicalchallenge.valuation.ValuationTrade;
+import com.technicalchallenge.valuation.ZeroCurve;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Dv01EngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+    private static final double[] PILLARS = {0.25, 1.0, 2.0, 5.0, 10.0};
+    private static final double[] USD = {0.040, 0.041, 0.043, 0.046, 0.050};
+    private static final double[] LIBOR = {0.043, 0.045, 0.047, 0.050, 0.054};
+    private static final double[] EUR = {0.025, 0.026, 0.028, 0.030, 0.032};
+
+    private Dv01Engine engine;
+    private SwapValuationEngine valuationEngine;
+    private CurveSet curves;
+    private PillarLayout layout;
+
+    @BeforeEach
+    void setUp() {
+        engine = new Dv01Engine(4);
+        valuationEngine = new SwapValuationEngine();
+        curves = curves(null, -1);
+        layout = new PillarLayout(curves);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+        valuationEngine.shutdown();
+    }
+
+    @Test
+    void testLayoutOrdersCurvesByNameAndLabelsTenors() {
+        assertEquals(15, layout.size());
+        assertEquals("EUR", layout.curveName(0));
+        assertEquals("3M", layout.tenor(0));
+        assertEquals("LIBOR", layout.curveName(5));
+        assertEquals("10Y", layout.tenor(14));
+        assertEquals(10, layout.offset("USD"));
+    }
+
+    @Test
+    void testBumpedDiscountFactorOnlyMovesNeighbouringPillars() {
+        ZeroCurve usd = curves.curve("USD");
+        assertEquals(2, usd.lowerPillar(3.0));
+        assertEquals(3, usd.lowerPillar(5.0));
+        assertEquals(usd.discountFactor(3.0), usd.bumpedDiscountFactor(3.0, 4, 0.0001), 0.0);
+        double weight = (3.0 - 2.0) / (5.0 - 2.0);
+        assertEquals(Math.exp(-(usd.zeroRate(3.0) + 0.0001 * (1 - weight)) * 3.0), usd.bumpedDiscountFactor(3.0, 2, 0.0001), 1e-15);
+    }
+
+    @Test
+    void testLadderMatchesFullRevaluationWithEachPillarBumped() {
+        ValuationTrade swap = new ValuationTrade(1L, List.of(
+                new ValuationLeg(false, 1, "USD", null, 10_000_000,
+                        new double[] {-0.4, 0.6, 1.6, 2.6}, new double[] {0.6, 1.6, 2.6, 3.6},
+                        new double[] {450_000, 450_000, 450_000, 450_000}),
+                new ValuationLeg(true, -1, "USD", "LIBOR", 10_000_000,
+                        new double[] {-0.15, 0.1, 0.35, 0.6, 1.6, 2.6, 6.0}, new double[] {0.1, 0.35, 0.6, 1.6, 2.6, 3.6, 12.0},
+                        new double[7])));
+        ValuationTrade eurFloating = new ValuationTrade(2L, List.of(
+                new ValuationLeg(true, 1, "EUR", "EUR", 5_000_000,
+                        new double[] {0.5, 3.0}, new double[] {3.0, 7.0}, new double[2])));
+
+        for (ValuationTrade trade : List.of(swap, eurFloating)) {
+            double[] ladder = new double[layout.size()];
+            assertTrue(Dv01Engine.addTradeDv01(trade, curves, layout, ladder));
+            double base = value(trade, curves);
+            for (int k = 0; k < layout.size(); k++) {
+                double revalued = value(trade, curves(layout.curveName(k), k - layout.offset(layout.curveName(k))));
+                assertEquals(revalued - base, ladder[k], 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void testLaddersAreReducedPerGroupAndUnvaluedTradesSkipped() {
+        ValuationLeg receive = new ValuationLeg(false, 1, "USD", null, 1_000_000,
+                new double[] {0.0}, new double[] {5.0}, new double[] {1_000_000});
+        ValuationLeg gbp = new ValuationLeg(false, 1, "GBP", null, 1_000_000,
+                new double[] {0.0}, new double[] {5.0}, new double[] {1_000_000});
+        int tradeCount = 10_000;
+        ValuationTrade[] trades = new ValuationTrade[tradeCount];
+        int[] groupOf = new int[tradeCount];
+        for (int i = 0; i < tradeCount; i++) {
+            trades[i] = new ValuationTrade((long) i, List.of(i == 0 ? gbp : receive));
+            groupOf[i] = i % 2;
+        }
+
+        double[][] ladders = engine.tradeLadders(trades, curves, layout);
+        double[] byGroup = engine.reduce(ladders, groupOf, 2, layout.size());
+
+        assertNull(ladders[0]);
+        int fiveYears = layout.offset("USD") + 3;
+        assertEquals(4_999 * ladders[1][fiveYears], byGroup[fiveYears], 1e-3);
+        assertEquals(5_000 * ladders[1][fiveYears], byGroup[layout.size() + fiveYears], 1e-3);
+        assertTrue(ladders[1][fiveYears] < 0);
+    }
+
+    private double value(ValuationTrade trade, CurveSet curveSet) {
+        return valuationEngine.value(List.of(trade), curveSet).getMtm();
+    }
+
+    // The test curves with one pillar of one curve bumped by a basis point
+    private static CurveSet curves(String bumpedCurve, int bumpedPillar) {
+        Map<String, ZeroCurve> curves = new HashMap<>();
+        curves.put("USD", curve("USD", USD, bumpedCurve, bumpedPillar));
+        curves.put("LIBOR", curve("LIBOR", LIBOR, bumpedCurve, bumpedPillar));
+        curves.put("EUR", curve("EUR", EUR, bumpedCurve, bumpedPillar));
+        return new CurveSet(TODAY, "USD", curves, Map.of("EUR", 1.10));
+    }
+
+    private static ZeroCurve curve(String name, double[] rates, String bumpedCurve, int bumpedPillar) {
+        double[] bumped = rates.clone();
+        if (name.equals(bumpedCurve)) {
+            bumped[bumpedPillar] += Dv01Engine.BUMP;
+        }
+        return new ZeroCurve(name, PILLARS, bumped);
+    }
+}
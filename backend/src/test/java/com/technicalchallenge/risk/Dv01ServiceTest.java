@@ -0,0 +1,130 @@
+package com.technicalchallenge.risk;
+
+import com.technicalchallenge.dto.Dv01LadderDTO;
+import com.technicalchallenge.fixing.FixingService;
+import com.technicalchallenge.fixing.FixingSet;
+import com.technicalchallenge.repository.CashflowRepository;
+import com.technicalchallenge.repository.TradeRepository;
+import com.technicalchallenge.valuation.CurveService;
+import com.technicalchallenge.valuation.CurveSet;
+import com.technicalchallenge.valuation.ZeroCurve;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class Dv01ServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+    private static final Long TRADER = 1000L;
+
+    @Mock
+    private TradeRepository tradeRepository;
+
+    @Mock
+    private CashflowRepository cashflowRepository;
+
+    @Mock
+    private CurveService curveService;
+
+    @Mock
+    private FixingService fixingService;
+
+    @Spy
+    private Dv01Engine dv01Engine = new Dv01Engine();
+
+    @InjectMocks
+    private Dv01Service dv01Service;
+
+    @BeforeEach
+    void setUp() {
+        ZeroCurve usd = new ZeroCurve("USD", new double[] {1.0, 5.0, 10.0}, new double[] {0.04, 0.045, 0.05});
+        when(curveService.getCurveSet()).thenReturn(new CurveSet(TODAY, "USD", Map.of("USD", usd), Map.of()));
+        when(fixingService.getFixings()).thenReturn(FixingSet.EMPTY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dv01Engine.shutdown();
+    }
+
+    @Test
+    void testOnlyTradesWithANewVersionAreRecomputed() {
+        when(tradeRepository.findTradeVersionsByTraderAndStatuses(eq(TRADER), anyList()))
+                .thenReturn(versions(new Object[] {1L, 1, 1001L}, new Object[] {2L, 1, 1002L}));
+        when(cashflowRepository.findValuationCashflowsByTradeIds(List.of(1L, 2L)))
+                .thenReturn(cashflows(cashflow(1L, 1001L, "1000000"), cashflow(2L, 1002L, "2000000")));
+
+        Dv01LadderDTO first = dv01Service.getTraderLadder(TRADER);
+
+        assertEquals(2, first.getTradeCount());
+        assertEquals(2, first.getRecomputedTradeCount());
+        assertEquals(List.of("USD 1Y", "USD 5Y", "USD 10Y"), first.getPillars());
+        assertEquals(2, first.getBooks().size());
+        assertEquals(first.getTotal().doubleValue(),
+                first.getBooks().get(0).getTotal().add(first.getBooks().get(1).getTotal()).doubleValue(), 0.02);
+        assertTrue(first.getDv01().get(1).signum() < 0);
+
+        Dv01LadderDTO unchanged = dv01Service.getTraderLadder(TRADER);
+        assertEquals(0, unchanged.getRecomputedTradeCount());
+        assertEquals(first.getTotal(), unchanged.getTotal());
+
+        // Trade 2 amended to half its size
+        when(tradeRepository.findTradeVersionsByTraderAndStatuses(eq(TRADER), anyList()))
+                .thenReturn(versions(new Object[] {1L, 1, 1001L}, new Object[] {2L, 2, 1002L}));
+        when(cashflowRepository.findValuationCashflowsByTradeIds(List.of(2L)))
+                .thenReturn(cashflows(cashflow(2L, 1002L, "1000000")));
+
+        Dv01LadderDTO amended = dv01Service.getTraderLadder(TRADER);
+
+        assertEquals(1, amended.getRecomputedTradeCount());
+        assertEquals(0, amended.getBooks().get(0).getTotal().compareTo(amended.getBooks().get(1).getTotal()));
+        verify(cashflowRepository, never()).findValuationCashflowsByTradeIds(List.of(1L));
+    }
+
+    @Test
+    void testTradesWithoutMarketDataAreReportedAsUnvalued() {
+        when(tradeRepository.findTradeVersionsByTraderAndStatuses(eq(TRADER), anyList()))
+                .thenReturn(versions(new Object[] {3L, 1, 1001L}));
+        Object[] gbp = cashflow(3L, 1001L, "1000000");
+        gbp[4] = "GBP";
+        when(cashflowRepository.findValuationCashflowsByTradeIds(List.of(3L))).thenReturn(cashflows(gbp));
+
+        Dv01LadderDTO ladder = dv01Service.getTraderLadder(TRADER);
+
+        assertEquals(1, ladder.getUnvaluedTradeCount());
+        assertEquals(0, ladder.getTotal().signum());
+    }
+
+    private static List<Object[]> versions(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static List<Object[]> cashflows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    // A single fixed receive cashflow in five years' time
+    private static Object[] cashflow(Long tradeId, Long bookId, String amount) {
+        return new Object[] {tradeId, tradeId * 10, "Fixed", "Receive", "USD", null, new BigDecimal(amount),
+                TODAY.minusMonths(1), TODAY.plusYears(5), new BigDecimal(amount), bookId, TRADER};
+    }
+}
@@ -0,0 +1,197 @@
+package com.technicalchallenge.risk;
+
+import com.technicalchallenge.valuation.CurveService;
+import com.technicalchallenge.valuation.CurveSet;
+import com.technicalchallenge.valuation.SwapValuationEngine;
+import com.technicalchallenge.valuation.ValuationLeg;
+import com.technicalchallenge.valuation.ValuationTrade;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VarEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private VarEngine engine;
+    private SwapValuationEngine valuationEngine;
+    private CurveSet curves;
+    private ScenarioSet scenarios;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new VarEngine(4);
+        valuationEngine = new SwapValuationEngine();
+        curves = curves(0, 0.0);
+        scenarios = ScenarioService.parse(new BufferedReader(new StringReader(String.join("\n",
+                "# curve,tenor,scenarios in bp",
+                "USD,1Y,10,-5,2,0",
+                "USD,5Y,8,-4,1,0",
+                "USD,10Y,6,-3,0,0",
+                "LIBOR,1Y,12,-6,2,0",
+                "LIBOR,5Y,9,-5,1,0",
+                "LIBOR,10Y,7,-4,0,0"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+        valuationEngine.shutdown();
+    }
+
+    @Test
+    void testScenariosAreReadAsOneRowPerFactorInDecimals() {
+        assertEquals(4, scenarios.getScenarioCount());
+        assertEquals(6, scenarios.getFactorCount());
+        assertEquals(0.0010, scenarios.getShifts()[0], 1e-12);
+        assertEquals(-0.0004, scenarios.getShifts()[5], 1e-12);
+    }
+
+    @Test
+    void testSensitivitiesMatchBumpAndRevalue() throws IOException {
+        ValuationTrade swap = new ValuationTrade(1L, List.of(
+                new ValuationLeg(false, -1, "USD", null, 10_000_000,
+                        new double[] {0.0, 1.0, 2.0, 3.0}, new double[] {1.0, 2.0, 3.0, 7.0},
+                        new double[] {450_000, 450_000, 450_000, 1_800_000}),
+                new ValuationLeg(true, 1, "USD", "LIBOR", 10_000_000,
+                        new double[] {-0.25, 0.75, 3.0, 6.0}, new double[] {0.75, 3.0, 6.0, 12.0}, new double[4])));
+
+        double[] sensitivities = new double[scenarios.getFactorCount()];
+        assertTrue(VarEngine.addTradeSensitivities(swap, curves, scenarios, sensitivities, 0));
+
+        double bump = 1e-5;
+        for (int factor = 0; factor < sensitivities.length; factor++) {
+            double up = value(swap, curves(factor, bump));
+            double down = value(swap, curves(factor, -bump));
+            assertEquals((up - down) / (2 * bump), sensitivities[factor], 1.0, "factor " + factor);
+        }
+    }
+
+    @Test
+    void testPnlVectorsAreSummedPerUnitAndLinearInPositions() {
+        ValuationLeg receive = new ValuationLeg(false, 1, "USD", null, 1_000_000,
+                new double[] {0.0}, new double[] {5.0}, new double[] {1_000_000});
+        ValuationLeg pay = new ValuationLeg(false, -1, "USD", null, 1_000_000,
+                new double[] {0.0}, new double[] {5.0}, new double[] {1_000_000});
+        ValuationTrade[] trades = {
+                new ValuationTrade(1L, List.of(receive)),
+                new ValuationTrade(2L, List.of(receive)),
+                new ValuationTrade(3L, List.of(pay)),
+                new ValuationTrade(4L, List.of(receive))};
+        LongAdder unvalued = new LongAdder();
+
+        double[] pnl = engine.pnlVectors(trades, new int[] {0, 0, 1, 1}, 2, curves, scenarios, unvalued);
+
+        int s = scenarios.getScenarioCount();
+        double single = -5.0 * value(trades[0], curves) * 0.0008;
+        assertEquals(2 * single, pnl[0], 1e-6);
+        // A receive and a pay of the same cashflow net to nothing
+        for (int i = 0; i < s; i++) {
+            assertEquals(0.0, pnl[s + i], 1e-6);
+        }
+        assertEquals(0, unvalued.sum());
+    }
+
+    @Test
+    void testValueAtRiskIsTheTailLossAtConfidence() {
+        double[] pnl = new double[500];
+        for (int i = 0; i < pnl.length; i++) {
+            pnl[i] = i - 100;
+        }
+        // Five worst of 500 at 99% are -100..-96
+        assertEquals(96.0, VarEngine.valueAtRisk(pnl, 0.99), 1e-12);
+        assertEquals(76.0, VarEngine.valueAtRisk(pnl, 0.95), 1e-12);
+        assertEquals(0.0, VarEngine.valueAtRisk(new double[] {1, 2, 3}, 0.99), 1e-12);
+        assertEquals(0.0, VarEngine.valueAtRisk(new double[0], 0.99), 1e-12);
+    }
+
+    @Test
+    void testTradesWithoutMarketDataAreCountedAndSkipped() {
+        ValuationTrade gbp = new ValuationTrade(1L, List.of(new ValuationLeg(false, 1, "GBP", null, 1_000_000,
+                new double[] {0.0}, new double[] {1.0}, new double[] {100})));
+        LongAdder unvalued = new LongAdder();
+
+        double[] pnl = engine.pnlVectors(new ValuationTrade[] {gbp}, new int[] {0}, 1, curves, scenarios, unvalued);
+
+        assertEquals(1, unvalued.sum());
+        assertArrayEquals(new double[scenarios.getScenarioCount()], pnl, 0.0);
+    }
+
+    @Test
+    void testDeskSizedPortfolioOverFiveHundredScenariosWithinBudget() throws IOException {
+        StringBuilder file = new StringBuilder();
+        Random random = new Random(7);
+        for (String curve : List.of("USD", "LIBOR")) {
+            for (String tenor : List.of("1Y", "2Y", "3Y", "5Y", "7Y", "10Y", "15Y", "20Y", "30Y")) {
+                file.append(curve).append(',').append(tenor);
+                for (int s = 0; s < 500; s++) {
+                    file.append(',').append(Math.round(random.nextGaussian() * 50) / 10.0);
+                }
+                file.append('\n');
+            }
+        }
+        ScenarioSet history = ScenarioService.parse(new BufferedReader(new StringReader(file.toString())));
+
+        int tradeCount = 100_000;
+        int unitCount = 200;
+        ValuationTrade[] trades = new ValuationTrade[tradeCount];
+        int[] unitOfTrade = new int[tradeCount];
+        for (int i = 0; i < tradeCount; i++) {
+            int payments = 4 * (1 + i % 10);
+            double[] starts = new double[payments];
+            double[] times = new double[payments];
+            double[] amounts = new double[payments];
+            for (int p = 0; p < payments; p++) {
+                starts[p] = p * 0.25 - 0.1;
+                times[p] = (p + 1) * 0.25 - 0.1;
+                amounts[p] = 10_000;
+            }
+            trades[i] = new ValuationTrade((long) i, List.of(
+                    new ValuationLeg(false, i % 2 == 0 ? 1 : -1, "USD", null, 1_000_000, starts, times, amounts),
+                    new ValuationLeg(true, i % 2 == 0 ? -1 : 1, "USD", "LIBOR", 1_000_000, starts, times, new double[payments])));
+            unitOfTrade[i] = i % unitCount;
+        }
+
+        long start = System.nanoTime();
+        double[] pnl = engine.pnlVectors(trades, unitOfTrade, unitCount, curves, history, new LongAdder());
+        double[] desk = new double[history.getScenarioCount()];
+        for (int unit = 0; unit < unitCount; unit++) {
+            for (int s = 0; s < desk.length; s++) {
+                desk[s] += pnl[unit * desk.length + s];
+            }
+        }
+        double var = VarEngine.valueAtRisk(desk, 0.99);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(unitCount * 500, pnl.length);
+        assertTrue(var >= 0.0);
+        assertTrue(elapsedMillis < 10_000, "desk VaR took " + elapsedMillis + " ms");
+    }
+
+    private double value(ValuationTrade trade, CurveSet curveSet) {
+        return valuationEngine.value(List.of(trade), curveSet).getMtm();
+    }
+
+    // Curve pillars on the scenario tenors, so a factor bump is exactly a bump of one pillar
+    private static CurveSet curves(int bumpedFactor, double bump) throws IOException {
+        String[] names = {"USD", "USD", "USD", "LIBOR", "LIBOR", "LIBOR"};
+        String[] tenors = {"1Y", "5Y", "10Y", "1Y", "5Y", "10Y"};
+        double[] rates = {0.04, 0.045, 0.05, 0.045, 0.05, 0.055};
+        StringBuilder file = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            double rate = rates[i] + (i == bumpedFactor ? bump : 0.0);
+            file.append("ZERO,").append(names[i]).append(',').append(tenors[i]).append(',').append(rate).append('\n');
+        }
+        return CurveService.parse(new BufferedReader(new StringReader(file.toString())), TODAY, "USD");
+    }
+}
@@ -0,0 +1,174 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.dto.BlotterDeltaDTO;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.event.TradeSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The scheduler is not started here; tests call flush() directly to end a coalescing window.
+class BlotterStreamServiceTest {
+
+    private static final Long TRADER_ID = 100L;
+    private static final Long OTHER_TRADER_ID = 200L;
+
+    private BlotterStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BlotterStreamService();
+    }
+
+    @Test
+    void testFreshSubscriptionReceivesReadyThenInsert() {
+        CapturingEmitter emitter = new CapturingEmitter();
+        service.subscribe(TRADER_ID, null, null, emitter);
+
+        service.onTradeEvent(event(TradeEventType.CREATED, null, snapshot(10001L, 1, TRADER_ID, 1L, "NEW")));
+        service.flush();
+
+        assertTrue(emitter.events.get(0).contains("event:ready"));
+        List<BlotterDeltaDTO> deltas = emitter.lastDeltas();
+        assertEquals(1, deltas.size());
+        assertEquals(BlotterDeltaDTO.Operation.INSERT, deltas.get(0).getOp());
+        assertEquals("NEW", deltas.get(0).getTradeStatus());
+    }
+
+    @Test
+    void testBurstIsCoalescedIntoOneRowPerTrade() {
+        CapturingEmitter emitter = new CapturingEmitter();
+        service.subscribe(TRADER_ID, null, null, emitter);
+
+        TradeSnapshot v1 = snapshot(10001L, 1, TRADER_ID, 1L, "NEW");
+        TradeSnapshot v2 = snapshot(10001L, 2, TRADER_ID, 1L, "AMENDED");
+        TradeSnapshot v2Terminated = snapshot(10001L, 2, TRADER_ID, 1L, "TERMINATED");
+        service.onTradeEvent(event(TradeEventType.CREATED, null, v1));
+        service.onTradeEvent(event(TradeEventType.AMENDED, v1, v2));
+        service.onTradeEvent(event(TradeEventType.TERMINATED, v2, v2Terminated));
+        service.flush();
+
+        List<BlotterDeltaDTO> deltas = emitter.lastDeltas();
+        assertEquals(1, deltas.size());
+        assertEquals(BlotterDeltaDTO.Operation.INSERT, deltas.get(0).getOp());
+        assertEquals("TERMINATED", deltas.get(0).getTradeStatus());
+        assertEquals(2, deltas.get(0).getVersion());
+    }
+
+    @Test
+    void testUpdateCarriesChangedFieldsAndReassignmentRemovesRow() {
+        TradeSnapshot v1 = snapshot(10001L, 1, TRADER_ID, 1L, "NEW");
+        service.onTradeEvent(event(TradeEventType.CREATED, null, v1));
+
+        CapturingEmitter emitter = new CapturingEmitter();
+        service.subscribe(TRADER_ID, 1L, null, emitter);
+
+        TradeSnapshot terminated = snapshot(10001L, 1, TRADER_ID, 1L, "TERMINATED");
+        service.onTradeEvent(event(TradeEventType.TERMINATED, v1, terminated));
+        service.flush();
+
+        BlotterDeltaDTO update = emitter.lastDeltas().get(0);
+        assertEquals(BlotterDeltaDTO.Operation.UPDATE, update.getOp());
+        assertEquals(List.of("tradeStatus"), new ArrayList<>(update.getChangedFields()));
+
+        TradeSnapshot otherBook = snapshot(10001L, 2, TRADER_ID, 2L, "AMENDED");
+        service.onTradeEvent(event(TradeEventType.AMENDED, terminated, otherBook));
+        service.flush();
+
+        BlotterDeltaDTO remove = emitter.lastDeltas().get(0);
+        assertEquals(BlotterDeltaDTO.Operation.REMOVE, remove.getOp());
+        assertEquals(10001L, remove.getTradeId());
+    }
+
+    @Test
+    void testOtherTradersChangesAreNotPushed() {
+        CapturingEmitter emitter = new CapturingEmitter();
+        service.subscribe(TRADER_ID, null, null, emitter);
+
+        service.onTradeEvent(event(TradeEventType.CREATED, null, snapshot(10002L, 1, OTHER_TRADER_ID, 1L, "NEW")));
+        service.flush();
+
+        assertEquals(1, emitter.events.size(), "Only the ready event should have been sent");
+    }
+
+    @Test
+    void testResumeReplaysMissedChanges() {
+        CapturingEmitter first = new CapturingEmitter();
+        service.subscribe(TRADER_ID, null, null, first);
+        service.onTradeEvent(event(TradeEventType.CREATED, null, snapshot(10001L, 1, TRADER_ID, 1L, "NEW")));
+        service.flush();
+        String token = first.lastId();
+
+        // Client disconnects; more changes commit meanwhile
+        service.onTradeEvent(event(TradeEventType.CREATED, null, snapshot(10003L, 1, TRADER_ID, 1L, "NEW")));
+
+        CapturingEmitter resumed = new CapturingEmitter();
+        service.subscribe(TRADER_ID, null, token, resumed);
+
+        List<BlotterDeltaDTO> deltas = resumed.lastDeltas();
+        assertEquals(1, deltas.size());
+        assertEquals(10003L, deltas.get(0).getTradeId());
+    }
+
+    @Test
+    void testUnknownResumeTokenTriggersReset() {
+        CapturingEmitter emitter = new CapturingEmitter();
+        service.subscribe(TRADER_ID, null, "stale-7", emitter);
+
+        assertTrue(emitter.events.get(0).contains("event:reset"));
+    }
+
+    private TradeLifecycleEvent event(TradeEventType type, TradeSnapshot previous, TradeSnapshot current) {
+        return new TradeLifecycleEvent(type, previous, current, "testUser", LocalDateTime.now());
+    }
+
+    private TradeSnapshot snapshot(Long tradeId, int version, Long traderUserId, Long bookId, String status) {
+        TradeSnapshot snapshot = new TradeSnapshot();
+        snapshot.setTradeId(tradeId);
+        snapshot.setVersion(version);
+        snapshot.setTraderUserId(traderUserId);
+        snapshot.setBookId(bookId);
+        snapshot.setBookName("BOOK-" + bookId);
+        snapshot.setTradeStatus(status);
+        return snapshot;
+    }
+
+    // Records what would have been written to the wire
+    private static class CapturingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private final List<List<BlotterDeltaDTO>> deltas = new ArrayList<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof List<?> list) {
+                    deltas.add((List<BlotterDeltaDTO>) list);
+                } else {
+                    text.append(part.getData());
+                }
+            }
+            events.add(text.toString());
+        }
+
+        private List<BlotterDeltaDTO> lastDeltas() {
+            assertFalse(deltas.isEmpty(), "No deltas were sent");
+            return deltas.get(deltas.size() - 1);
+        }
+
+        private String lastId() {
+            String last = events.get(events.size() - 1);
+            int start = last.indexOf("id:") + 3;
+            return last.substring(start, last.indexOf('\n', start));
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.technicalchallenge.service;
 
 import com.technicalchallenge.dto.BookDTO;
+import com.technicalchallenge.lookup.LookupService;
+import com.technicalchallenge.lookup.LookupType;
 import com.technicalchallenge.mapper.BookMapper;
 import com.technicalchallenge.model.Book;
+import com.technicalchallenge.model.CostCenter;
 import com.technicalchallenge.repository.BookRepository;
 import com.technicalchallenge.repository.CostCenterRepository;
 
@@ -27,6 +30,8 @@ public class BookServiceTest {
     private CostCenterRepository costCenterRepository; 
     @Mock 
     private BookMapper bookMapper;
+    @Mock
+    private LookupService lookupService;
     @InjectMocks
     private BookService bookService;
 
@@ -78,6 +83,26 @@ public class BookServiceTest {
         assertFalse(found.isPresent());
     }
 
+    @Test
+    void testCostCenterIsResolvedByNameThroughTheLookupIndex() {
+        CostCenter costCenter = new CostCenter();
+        costCenter.setId(7L);
+        when(lookupService.findId(LookupType.COST_CENTER, "fx spot")).thenReturn(Optional.of(7L));
+        when(costCenterRepository.findById(7L)).thenReturn(Optional.of(costCenter));
+        BookDTO bookDTO = new BookDTO();
+        bookDTO.setCostCenterName("fx spot");
+        Book book = new Book();
+
+        bookService.populateReferenceDataByName(book, bookDTO);
+
+        assertSame(costCenter, book.getCostCenter());
+        verify(costCenterRepository, never()).findAll();
+
+        when(lookupService.findId(LookupType.COST_CENTER, "Unknown")).thenReturn(Optional.empty());
+        bookDTO.setCostCenterName("Unknown");
+        assertThrows(IllegalArgumentException.class, () -> bookService.populateReferenceDataByName(book, bookDTO));
+    }
+
     // Business logic: test book cannot be created with null name
     @Test
     void testBookCreationWithNullNameThrowsException() {
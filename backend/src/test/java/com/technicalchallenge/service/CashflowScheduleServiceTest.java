@@ -0,0 +1,191 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.model.LegType;
+import com.technicalchallenge.model.Schedule;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeLeg;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CashflowScheduleServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 17);
+
+    private CashflowScheduleService cashflowScheduleService;
+
+    @BeforeEach
+    void setUp() {
+        cashflowScheduleService = new CashflowScheduleService(100);
+    }
+
+    @Test
+    void testOnDemandLegGeneratesTheScheduleThatWouldHaveBeenStored() {
+        TradeLeg leg = onDemandLeg(1L, 1, "10000000", 3.5, "Quarterly", START.plusYears(1));
+
+        List<Cashflow> cashflows = cashflowScheduleService.getCashflows(leg);
+
+        assertEquals(List.of(START.plusMonths(3), START.plusMonths(6), START.plusMonths(9), START.plusMonths(12)),
+                cashflows.stream().map(Cashflow::getValueDate).toList());
+        for (Cashflow cashflow : cashflows) {
+            assertEquals(0, new BigDecimal("87500").compareTo(cashflow.getPaymentValue()));
+            assertEquals(3.5, cashflow.getRate(), 0.0);
+            assertNull(cashflow.getId());
+            assertSame(leg, cashflow.getTradeLeg());
+        }
+    }
+
+    @Test
+    void testStoredCashflowsOverrideTheGeneratedOnes() {
+        TradeLeg leg = onDemandLeg(1L, 1, "10000000", 3.5, "Quarterly", START.plusYears(1));
+        Cashflow adjusted = stored(leg, START.plusMonths(6), "90000", true);
+        Cashflow extra = stored(leg, START.plusMonths(7), "150", true);
+        stored(leg, START.plusMonths(9), "1", false);
+
+        List<Cashflow> cashflows = cashflowScheduleService.getCashflows(leg);
+
+        assertEquals(5, cashflows.size());
+        assertSame(adjusted, cashflows.get(1));
+        assertSame(extra, cashflows.get(2));
+        assertEquals(0, new BigDecimal("87500").compareTo(cashflows.get(3).getPaymentValue()));
+    }
+
+    @Test
+    void testSchedulesAreCachedByLegAndVersionAndRegeneratedWhenTheLegChanges() {
+        TradeLeg leg = onDemandLeg(1L, 1, "10000000", 3.5, "Monthly", START.plusYears(2));
+        cashflowScheduleService.getCashflows(leg);
+        cashflowScheduleService.getCashflows(leg);
+        assertEquals(1, cashflowScheduleService.getCacheMisses());
+        assertEquals(1, cashflowScheduleService.getCacheHits());
+
+        leg.setRate(4.2);
+        List<Cashflow> repriced = cashflowScheduleService.getCashflows(leg);
+        assertEquals(2, cashflowScheduleService.getCacheMisses());
+        assertEquals(0, new BigDecimal("35000").compareTo(repriced.get(0).getPaymentValue()));
+
+        for (long legId = 2; legId < 250; legId++) {
+            cashflowScheduleService.getCashflows(onDemandLeg(legId, 1, "1000000", 3.0, "Quarterly", START.plusYears(5)));
+        }
+        assertEquals(100, cashflowScheduleService.getCachedScheduleCount());
+    }
+
+    @Test
+    void testPersistedLegsReturnTheirStoredRows() {
+        TradeLeg leg = onDemandLeg(1L, 1, "10000000", 3.5, "Quarterly", START.plusYears(1));
+        leg.setCashflowsOnDemand(false);
+        Cashflow only = stored(leg, START.plusMonths(3), "87500", true);
+
+        assertEquals(List.of(only), cashflowScheduleService.getCashflows(leg));
+        assertEquals(0, cashflowScheduleService.getCacheMisses());
+    }
+
+    @Test
+    void testCachedSchedulesAreBuiltForTheLegBeingReadNotTheOneThatFilledTheCache() {
+        TradeLeg first = onDemandLeg(1L, 1, "10000000", 3.5, "Quarterly", START.plusYears(1));
+        cashflowScheduleService.getCashflows(first);
+
+        // The same leg loaded again, as a later session would
+        TradeLeg reloaded = onDemandLeg(1L, 1, "10000000", 3.5, "Quarterly", START.plusYears(1));
+        List<Cashflow> cashflows = cashflowScheduleService.getCashflows(reloaded);
+
+        assertEquals(1, cashflowScheduleService.getCacheHits());
+        assertEquals(4, cashflows.size());
+        for (Cashflow cashflow : cashflows) {
+            assertSame(reloaded, cashflow.getTradeLeg());
+        }
+    }
+
+    @Test
+    void testRepeatReadsReturnTheCachedScheduleWithoutRegeneratingIt() {
+        // 1,000 ten-year quarterly fixed legs: persisted mode would store a row per payment
+        int legCount = 1_000;
+        List<TradeLeg> legs = new ArrayList<>();
+        for (long legId = 1; legId <= legCount; legId++) {
+            legs.add(onDemandLeg(legId, 1, "5000000", 3.25, "Quarterly", START.plusYears(10)));
+        }
+        CashflowScheduleService service = new CashflowScheduleService(legCount);
+
+        long rowsAvoided = 0;
+        List<List<Cashflow>> first = new ArrayList<>();
+        for (TradeLeg leg : legs) {
+            List<Cashflow> cashflows = service.getCashflows(leg);
+            rowsAvoided += cashflows.size();
+            first.add(cashflows);
+        }
+        for (int i = 0; i < legCount; i++) {
+            List<Cashflow> again = service.getCashflows(legs.get(i));
+            assertEquals(first.get(i).stream().map(Cashflow::getValueDate).toList(),
+                    again.stream().map(Cashflow::getValueDate).toList());
+            assertNotSame(first.get(i).get(0), again.get(0));
+        }
+
+        assertEquals(legCount * 40L, rowsAvoided);
+        assertEquals(legCount, service.getCacheMisses());
+        assertEquals(legCount, service.getCacheHits());
+        assertThrows(UnsupportedOperationException.class, () -> first.get(0).add(new Cashflow()));
+    }
+
+    @Test
+    void testOverridesAreMergedIntoTheCachedScheduleWithoutChangingIt() {
+        TradeLeg leg = onDemandLeg(1L, 1, "10000000", 3.5, "Quarterly", START.plusYears(1));
+        List<Cashflow> generated = cashflowScheduleService.getCashflows(leg);
+
+        Cashflow early = stored(leg, START.plusMonths(1), "10", true);
+        Cashflow late = stored(leg, START.plusMonths(15), "20", true);
+        Cashflow replaced = stored(leg, START.plusMonths(12), "90000", true);
+        List<Cashflow> merged = cashflowScheduleService.getCashflows(leg);
+
+        assertEquals(1, cashflowScheduleService.getCacheHits());
+        assertEquals(6, merged.size());
+        assertSame(early, merged.get(0));
+        assertSame(replaced, merged.get(4));
+        assertSame(late, merged.get(5));
+        assertEquals(generated.subList(0, 3).stream().map(Cashflow::getValueDate).toList(),
+                merged.subList(1, 4).stream().map(Cashflow::getValueDate).toList());
+
+        leg.getCashflows().clear();
+        List<Cashflow> regenerated = cashflowScheduleService.getCashflows(leg);
+        assertEquals(4, regenerated.size());
+        assertEquals(0, new BigDecimal("87500").compareTo(regenerated.get(3).getPaymentValue()));
+    }
+
+    private static TradeLeg onDemandLeg(Long legId, int version, String notional, double rate, String schedule,
+                                        LocalDate maturity) {
+        Trade trade = new Trade();
+        trade.setVersion(version);
+        trade.setTradeStartDate(START);
+        trade.setTradeMaturityDate(maturity);
+        LegType fixed = new LegType();
+        fixed.setType("Fixed");
+        Schedule period = new Schedule();
+        period.setSchedule(schedule);
+
+        TradeLeg leg = new TradeLeg();
+        leg.setLegId(legId);
+        leg.setTrade(trade);
+        leg.setNotional(new BigDecimal(notional));
+        leg.setRate(rate);
+        leg.setLegRateType(fixed);
+        leg.setCalculationPeriodSchedule(period);
+        leg.setCashflowsOnDemand(true);
+        leg.setCashflows(new ArrayList<>());
+        return leg;
+    }
+
+    private static Cashflow stored(TradeLeg leg, LocalDate valueDate, String amount, boolean active) {
+        Cashflow cashflow = new Cashflow();
+        cashflow.setTradeLeg(leg);
+        cashflow.setValueDate(valueDate);
+        cashflow.setPaymentValue(new BigDecimal(amount));
+        cashflow.setActive(active);
+        leg.getCashflows().add(cashflow);
+        return cashflow;
+    }
+}
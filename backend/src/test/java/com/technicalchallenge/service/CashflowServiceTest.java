@@ -1,5 +1,6 @@
 package com.technicalchallenge.service;
 
+import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.model.Cashflow;
 import com.technicalchallenge.model.PayRec;
 import com.technicalchallenge.model.TradeLeg;
@@ -7,19 +8,28 @@ import com.technicalchallenge.repository.CashflowRepository;
 import com.technicalchallenge.repository.BusinessDayConventionRepository;
 import com.technicalchallenge.repository.LegTypeRepository;
 import com.technicalchallenge.repository.PayRecRepository;
+import com.technicalchallenge.repository.TradeLegRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -38,6 +48,12 @@ public class CashflowServiceTest {
     @Mock
     private BusinessDayConventionRepository businessDayConventionRepository;
 
+    @Mock
+    private TradeLegRepository tradeLegRepository;
+
+    @Mock
+    private CashflowScheduleService cashflowScheduleService;
+
     @InjectMocks
     private CashflowService cashflowService;
 
@@ -100,6 +116,79 @@ public class CashflowServiceTest {
         verify(cashflowRepository).findAll();
     }
 
+    @Test
+    void testGetCashflowsForLegIsPagedInValueDateOrderByDefault() {
+        // Given
+        when(tradeLegRepository.findById(1L)).thenReturn(Optional.of(tradeLeg));
+        when(cashflowRepository.findByTradeLegLegId(eq(1L), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(cashflowList, invocation.getArgument(1), 600));
+
+        // When
+        Page<Cashflow> page = cashflowService.getCashflowsForLeg(1L, PageRequest.of(3, 2)).orElseThrow();
+
+        // Then
+        assertEquals(600, page.getTotalElements());
+        assertEquals(Sort.by("valueDate", "id"), page.getPageable().getSort());
+        assertEquals(3, page.getNumber());
+    }
+
+    @Test
+    void testGetCashflowsForOnDemandLegPagesTheGeneratedSchedule() {
+        // Given
+        tradeLeg.setCashflowsOnDemand(true);
+        when(tradeLegRepository.findById(1L)).thenReturn(Optional.of(tradeLeg));
+        when(cashflowScheduleService.getCashflows(tradeLeg)).thenReturn(List.of(cashflow1, cashflow2, new Cashflow()));
+
+        // When
+        Page<Cashflow> secondPage = cashflowService.getCashflowsForLeg(1L, PageRequest.of(1, 2)).orElseThrow();
+        Page<Cashflow> pastTheEnd = cashflowService.getCashflowsForLeg(1L, PageRequest.of(5, 2)).orElseThrow();
+
+        // Then
+        assertEquals(3, secondPage.getTotalElements());
+        assertEquals(1, secondPage.getContent().size());
+        assertTrue(pastTheEnd.getContent().isEmpty());
+        verify(cashflowRepository, never()).findByTradeLegLegId(any(), any());
+    }
+
+    @Test
+    void testGetCashflowsForUnknownLeg() {
+        when(tradeLegRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertTrue(cashflowService.getCashflowsForLeg(99L, PageRequest.of(0, 20)).isEmpty());
+    }
+
+    @Test
+    void testGetCashflowWindowRejectsAWindowEndingBeforeItStarts() {
+        LocalDate from = LocalDate.of(2025, 6, 30);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> cashflowService.getCashflows(from, from.minusDays(1), null, null, PageRequest.of(0, 20)));
+        verifyNoInteractions(cashflowRepository);
+    }
+
+    @Test
+    void testExportCashflowsStreamsRowsAsDtos() {
+        // Given
+        LocalDate from = LocalDate.of(2025, 6, 2);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        Object[] row = {5L, 1L, new BigDecimal("25000.00"), from, 0.05, "Pay", "Fixed", "Following", null, true};
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row);
+        rows.add(row);
+        when(cashflowRepository.streamWindow(from, to, "USD", null)).thenReturn(rows.stream());
+        List<CashflowDTO> exported = new ArrayList<>();
+
+        // When
+        long count = cashflowService.exportCashflows(from, to, "USD", null, exported::add);
+
+        // Then
+        assertEquals(2, count);
+        assertEquals(5L, exported.get(0).getId());
+        assertEquals(1L, exported.get(0).getLegId());
+        assertEquals("Pay", exported.get(0).getPayRec());
+        assertEquals("Following", exported.get(1).getPaymentBusinessDayConvention());
+    }
+
     @Test
     void testGetCashflowById() {
         // Given
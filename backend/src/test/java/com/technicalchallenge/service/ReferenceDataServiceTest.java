@@ -0,0 +1,124 @@
+package com.technicalchallenge.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technicalchallenge.cache.CachedJson;
+import com.technicalchallenge.model.Currency;
+import com.technicalchallenge.model.ReferenceDataChangeListener;
+import com.technicalchallenge.repository.TradeSubTypeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataServiceTest {
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private CurrencyService currencyService;
+
+    @Mock
+    private LegTypeService legTypeService;
+
+    @Mock
+    private TradeTypeService tradeTypeService;
+
+    @Mock
+    private TradeStatusService tradeStatusService;
+
+    @Mock
+    private IndexService indexService;
+
+    @Mock
+    private HolidayCalendarService holidayCalendarService;
+
+    @Mock
+    private ScheduleService scheduleService;
+
+    @Mock
+    private BusinessDayConventionService businessDayConventionService;
+
+    @Mock
+    private PayRecService payRecService;
+
+    @Mock
+    private CounterpartyService counterpartyService;
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private DeskService deskService;
+
+    @Mock
+    private SubDeskService subDeskService;
+
+    @Mock
+    private CostCenterService costCenterService;
+
+    @Mock
+    private ApplicationUserService applicationUserService;
+
+    @Mock
+    private TradeSubTypeRepository tradeSubTypeRepository;
+
+    @InjectMocks
+    private ReferenceDataService referenceDataService;
+
+    @Test
+    void testBundleIsBuiltOnceUntilReferenceDataChanges() throws Exception {
+        when(currencyService.findAll()).thenReturn(List.of(currency("USD"), currency("EUR")));
+
+        CachedJson first = referenceDataService.getBundle();
+        CachedJson second = referenceDataService.getBundle();
+
+        assertSame(first, second);
+        verify(currencyService, times(1)).findAll();
+        JsonNode bundle = objectMapper.readTree(first.getJson());
+        assertEquals("USD", bundle.get("currencies").get(0).asText());
+        assertEquals(ReferenceDataChangeListener.changeCount(), bundle.get("version").asLong());
+
+        // Committed outside a transaction, so counted straight away
+        new ReferenceDataChangeListener().onChange(currency("GBP"));
+        when(currencyService.findAll()).thenReturn(List.of(currency("USD"), currency("EUR"), currency("GBP")));
+
+        CachedJson rebuilt = referenceDataService.getBundle();
+
+        assertNotSame(first, rebuilt);
+        assertNotEquals(first.getEtag(), rebuilt.getEtag());
+        assertEquals(3, objectMapper.readTree(rebuilt.getJson()).get("currencies").size());
+        verify(currencyService, times(2)).findAll();
+    }
+
+    @Test
+    void testClientWithTheCurrentBundleGetsNotModified() {
+        CachedJson bundle = referenceDataService.getBundle();
+
+        ResponseEntity<byte[]> fresh = bundle.toResponse(null, "gzip, deflate");
+        ResponseEntity<byte[]> repeat = bundle.toResponse(fresh.getHeaders().getETag(), "gzip, deflate");
+
+        assertEquals(HttpStatus.OK, fresh.getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, repeat.getStatusCode());
+        assertNull(repeat.getBody());
+    }
+
+    private static Currency currency(String code) {
+        Currency currency = new Currency();
+        currency.setCurrency(code);
+        return currency;
+    }
+}
@@ -0,0 +1,60 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.model.Trade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TradeChangeSequencerTest {
+
+    private TradeChangeSequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        sequencer = new TradeChangeSequencer();
+        ReflectionTestUtils.setField(sequencer, "settleMillis", 5000L);
+    }
+
+    @Test
+    void testContiguousRowsAreAllSettled() {
+        List<Trade> rows = List.of(row(41, 0), row(42, 0), row(43, 0));
+
+        assertEquals(rows, sequencer.settled(40, rows));
+    }
+
+    @Test
+    void testRecentRowAfterGapIsHeldBack() {
+        // 42 may belong to a transaction that drew its number but has not committed yet
+        Trade first = row(41, 0);
+        List<Trade> rows = List.of(first, row(43, 0), row(44, 0));
+
+        assertEquals(List.of(first), sequencer.settled(40, rows));
+    }
+
+    @Test
+    void testGapOlderThanSettleWindowIsSkipped() {
+        // 42 was rolled back or re-sequenced; the row after it is old enough to pass
+        List<Trade> rows = List.of(row(41, 10_000), row(43, 10_000), row(47, 6_000), row(48, 0));
+
+        assertEquals(rows, sequencer.settled(40, rows));
+    }
+
+    @Test
+    void testGapRightAfterCursorHoldsBackWholeBatch() {
+        List<Trade> rows = List.of(row(42, 100), row(43, 0));
+
+        assertEquals(List.of(), sequencer.settled(40, rows));
+    }
+
+    private Trade row(long sequence, long ageMillis) {
+        Trade trade = new Trade();
+        trade.setChangeSequence(sequence);
+        trade.setChangeRecordedAt(LocalDateTime.now().minusNanos(ageMillis * 1_000_000));
+        return trade;
+    }
+}
@@ -2,6 +2,10 @@ package com.technicalchallenge.service;
 
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.event.TradeLifecycleEvent;
+import com.technicalchallenge.fixing.FixingService;
+import com.technicalchallenge.fixing.FixingSet;
+import com.technicalchallenge.metrics.BookingMetrics;
 import com.technicalchallenge.model.ApplicationUser;
 import com.technicalchallenge.model.Book;
 import com.technicalchallenge.model.Cashflow;
@@ -29,10 +33,13 @@ import com.technicalchallenge.validation.ValidationResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -42,10 +49,12 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
 
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.Collections;
@@ -56,6 +65,7 @@ import java.math.RoundingMode;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -100,6 +110,18 @@ class TradeServiceTest {
     @Mock
     private TradeValidator tradeValidator; 
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TradeChangeSequencer changeSequencer;
+
+    @Mock
+    private FixingService fixingService;
+
+    @Spy
+    private BookingMetrics bookingMetrics = new BookingMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private TradeService tradeService;
 
@@ -143,6 +165,8 @@ class TradeServiceTest {
         // MOCK VALIDATOR: Assume business rules and leg consistency pass by default
         lenient().when(tradeValidator.validateTradeBusinessRules(any())).thenReturn(successfulResult);
         lenient().when(tradeValidator.validateTradeLegConsistency(any())).thenReturn(successfulResult);
+        lenient().when(tradeValidator.validateCounterpartyLimits(any())).thenReturn(successfulResult);
+        lenient().when(fixingService.getFixings()).thenReturn(FixingSet.EMPTY);
 
         // Set up test data
         tradeDTO = new TradeDTO();
@@ -188,17 +212,19 @@ class TradeServiceTest {
     }
 
     
-    // Helper method to call the private calculateCashflowValue method via reflection.
+    // Helper method to call the private calculateCashflowValue method via reflection,
+    // for a period starting today with no fixings published.
 
     private BigDecimal callCalculateCashflowValue(TradeLeg leg, int monthsInterval) throws Exception {
-        Method method = TradeService.class.getDeclaredMethod("calculateCashflowValue", TradeLeg.class, int.class);
+        Method method = TradeService.class.getDeclaredMethod("calculateCashflowValue", TradeLeg.class, int.class,
+                LocalDate.class, FixingSet.class, Cashflow.class);
         method.setAccessible(true);
         // The TradeService instance is 'tradeService'
-        return (BigDecimal) method.invoke(tradeService, leg, monthsInterval);
+        return (BigDecimal) method.invoke(tradeService, leg, monthsInterval, LocalDate.now(), FixingSet.EMPTY, new Cashflow());
     }
 
     // -------------------------------------------------------------------------
-    // UNIT TESTS FOR calculateCashflowValue(TradeLeg leg, int monthsInterval)
+    // UNIT TESTS FOR calculateCashflowValue(TradeLeg leg, int monthsInterval, ...)
     // -------------------------------------------------------------------------
 
     @Test
@@ -362,6 +388,7 @@ class TradeServiceTest {
         verify(bookRepository).findByBookName(anyString());
         verify(counterpartyRepository).findByName(anyString());
         verify(tradeLegRepository, times(2)).save(any(TradeLeg.class));
+        verify(eventPublisher).publishEvent(any(TradeLifecycleEvent.class));
     }
 
     @Test
@@ -447,6 +474,91 @@ class TradeServiceTest {
         assertTrue(exception.getMessage().contains("Trade not found: 999"));
     }
 
+    @Test
+    void testGetTradeAsOf_DelegatesToIntervalQuery() {
+        // Given
+        LocalDateTime asOf = LocalDateTime.of(2025, 6, 2, 14, 0);
+        when(tradeRepository.findVersionAsOf(100001L, asOf)).thenReturn(Optional.of(trade));
+
+        // When
+        Optional<Trade> result = tradeService.getTradeAsOf(100001L, asOf);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(1, result.get().getVersion());
+        verify(tradeRepository).findVersionAsOf(100001L, asOf);
+    }
+
+    @Test
+    void testGetBookTradesAsOf_UsesSingleRangeQuery() {
+        // Given
+        LocalDateTime asOf = LocalDateTime.of(2025, 6, 2, 14, 0);
+        when(tradeRepository.findBookVersionsAsOf(1000L, asOf)).thenReturn(tradeList);
+
+        // When
+        List<Trade> result = tradeService.getBookTradesAsOf(1000L, asOf);
+
+        // Then
+        assertEquals(1, result.size());
+        verify(tradeRepository, times(1)).findBookVersionsAsOf(1000L, asOf);
+        verify(tradeRepository, never()).findVersionAsOf(any(), any());
+    }
+
+    @Test
+    void testGetTradeChangesSince_ReadsBoundedBatchAfterCursor() {
+        // Given
+        when(tradeRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(eq(40L), any(Pageable.class)))
+                .thenReturn(tradeList);
+        when(changeSequencer.settled(40L, tradeList)).thenReturn(tradeList);
+
+        // When
+        List<Trade> result = tradeService.getTradeChangesSince(40L, 500);
+
+        // Then
+        assertEquals(1, result.size());
+        verify(tradeRepository).findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(40L, PageRequest.of(0, 500));
+        verify(changeSequencer).settled(40L, tradeList);
+    }
+
+    @Test
+    void testTerminateTrade_MarksRowForChangeFeed() {
+        // Given
+        TradeStatus terminated = new TradeStatus();
+        terminated.setTradeStatus("TERMINATED");
+        when(tradeRepository.findByTradeIdAndActiveTrue(100001L)).thenReturn(Optional.of(trade));
+        when(tradeStatusRepository.findByTradeStatus("TERMINATED")).thenReturn(Optional.of(terminated));
+        when(tradeRepository.save(trade)).thenReturn(trade);
+
+        // When
+        tradeService.terminateTrade(100001L);
+
+        // Then
+        verify(changeSequencer).markChanged(trade);
+        verify(eventPublisher).publishEvent(any(TradeLifecycleEvent.class));
+    }
+
+    @Test
+    void testTerminateTrade_UpdatesStatusOfCurrentVersionInPlace() {
+        // Given
+        LocalDateTime created = LocalDateTime.of(2025, 6, 2, 14, 0);
+        trade.setCreatedDate(created);
+        TradeStatus terminated = new TradeStatus();
+        terminated.setTradeStatus("TERMINATED");
+        when(tradeRepository.findByTradeIdAndActiveTrue(100001L)).thenReturn(Optional.of(trade));
+        when(tradeStatusRepository.findByTradeStatus("TERMINATED")).thenReturn(Optional.of(terminated));
+        when(tradeRepository.save(trade)).thenReturn(trade);
+
+        // When
+        tradeService.terminateTrade(100001L);
+
+        // Then: no new version, so an as-of read before the termination also sees TERMINATED
+        verify(tradeRepository, times(1)).save(any(Trade.class));
+        assertEquals(1, trade.getVersion());
+        assertEquals(created, trade.getCreatedDate());
+        assertNull(trade.getDeactivatedDate());
+        assertEquals("TERMINATED", trade.getTradeStatus().getTradeStatus());
+    }
+
     // This test has a deliberate bug for candidates to find and fix
     @Test
     void testCashflowGeneration_MonthlySchedule() {
@@ -557,4 +669,15 @@ class TradeServiceTest {
         assertTrue(result.isEmpty());
         verify(tradeRepository, times(1)).findAll(mockSpec, pageable);
     }
+
+    @Test
+    void testOnDemandCashflowModeIsRefusedAtStartup() {
+        ReflectionTestUtils.setField(tradeService, "cashflowScheduleMode", "on-demand");
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> tradeService.checkCashflowScheduleMode());
+        assertTrue(exception.getMessage().contains("on-demand"));
+
+        ReflectionTestUtils.setField(tradeService, "cashflowScheduleMode", "persisted");
+        assertDoesNotThrow(() -> tradeService.checkCashflowScheduleMode());
+    }
 }
@@ -0,0 +1,104 @@
+package com.technicalchallenge.settlement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NettingEngineTest {
+
+    private static final LocalDate VALUE_DATE = LocalDate.of(2025, 6, 2);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testPaysAreNettedAgainstReceivesPerCounterpartyCurrencyAndInstructions() throws Exception {
+        NettingEngine engine = new NettingEngine(4);
+        engine.add(1001L, "Barclays", "USD", "SWIFT BARCGB22", true, 150_000);
+        engine.add(1001L, "Barclays", "USD", " SWIFT BARCGB22 ", false, 40_025);
+        engine.add(1001L, "Barclays", "USD", null, false, 10_000);
+        engine.add(1001L, "Barclays", "EUR", "SWIFT BARCGB22", false, 7_000);
+        engine.add(1000L, "Acme, \"Inc\"", "USD", "", true, 5);
+
+        assertEquals(4, engine.size());
+        assertEquals(5, engine.getCashflowCount());
+        assertEquals(109_975, engine.net(1001L, "USD", "SWIFT BARCGB22"));
+        assertEquals(-10_000, engine.net(1001L, "USD", "  "));
+        assertEquals(0, engine.net(1002L, "USD", null));
+
+        Path file = directory.resolve("netted.csv");
+        engine.writeTo(file, VALUE_DATE);
+
+        assertEquals(List.of(
+                "valueDate,counterpartyId,counterparty,currency,settlementInstructions,cashflows,pay,receive,net,direction",
+                "2025-06-02,1000,\"Acme, \"\"Inc\"\"\",USD,\"\",1,0.00,0.05,0.05,RECEIVE",
+                "2025-06-02,1001,\"Barclays\",EUR,\"SWIFT BARCGB22\",1,70.00,0.00,-70.00,PAY",
+                "2025-06-02,1001,\"Barclays\",USD,\"\",1,100.00,0.00,-100.00,PAY",
+                "2025-06-02,1001,\"Barclays\",USD,\"SWIFT BARCGB22\",2,400.25,1500.00,1099.75,RECEIVE"),
+                Files.readAllLines(file));
+    }
+
+    @Test
+    void testGroupsSurviveTableGrowthAndMatchAReferenceMap() {
+        NettingEngine engine = new NettingEngine(16);
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            long counterparty = random.nextInt(20_000);
+            String currency = random.nextBoolean() ? "USD" : "EUR";
+            boolean receive = random.nextBoolean();
+            long amount = random.nextInt(1_000_000);
+            engine.add(counterparty, "CP" + counterparty, currency, null, receive, amount);
+            expected.merge(counterparty + currency, receive ? amount : -amount, Long::sum);
+        }
+
+        assertEquals(expected.size(), engine.size());
+        for (long counterparty = 0; counterparty < 20_000; counterparty += 97) {
+            for (String currency : List.of("USD", "EUR")) {
+                assertEquals((long) expected.getOrDefault(counterparty + currency, 0L), engine.net(counterparty, currency, null));
+            }
+        }
+    }
+
+    @Test
+    void testMillionsOfCashflowsAreNettedAndWrittenInSeconds() throws Exception {
+        // Synthetic full book: 5,000 counterparties, 4 currencies, 3 sets of instructions each
+        int cashflows = 3_000_000;
+        long[] counterparties = new long[cashflows];
+        int[] keys = new int[cashflows];
+        long[] amounts = new long[cashflows];
+        Random random = new Random(42);
+        for (int i = 0; i < cashflows; i++) {
+            counterparties[i] = 1000 + random.nextInt(5_000);
+            keys[i] = random.nextInt(24);
+            amounts[i] = random.nextInt(100_000_000);
+        }
+        String[] currencies = {"USD", "EUR", "GBP", "JPY"};
+        String[] instructions = {null, "SWIFT BARCGB22", "Net via CLS"};
+        Path file = directory.resolve("netted-payments.csv");
+
+        long start = System.nanoTime();
+        NettingEngine engine = new NettingEngine(4096);
+        for (int i = 0; i < cashflows; i++) {
+            int key = keys[i];
+            engine.add(counterparties[i], "Counterparty", currencies[key & 3], instructions[(key >> 2) % 3],
+                    (key & 16) != 0, amounts[i]);
+        }
+        engine.writeTo(file, VALUE_DATE);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(cashflows, engine.getCashflowCount());
+        assertEquals(engine.size() + 1, Files.readAllLines(file).size());
+        assertTrue(engine.size() <= 5_000 * 12);
+        assertTrue(elapsedMillis < 5_000, "netting took " + elapsedMillis + " ms");
+    }
+}
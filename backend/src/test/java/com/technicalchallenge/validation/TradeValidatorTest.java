@@ -3,6 +3,7 @@ package com.technicalchallenge.validation;
 import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.limits.CounterpartyLimitService;
 import com.technicalchallenge.model.*;
 import com.technicalchallenge.repository.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,6 +41,7 @@ class TradeValidatorTest {
     @Mock private ScheduleRepository scheduleRepository;
     @Mock private BusinessDayConventionRepository businessDayConventionRepository;
     @Mock private PayRecRepository payRecRepository;
+    @Mock private CounterpartyLimitService counterpartyLimitService;
 
     @InjectMocks
     private TradeValidator tradeValidator;
@@ -0,0 +1,166 @@
+package com.technicalchallenge.valuation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwapValuationEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private SwapValuationEngine engine;
+    private CurveSet curves;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new SwapValuationEngine(4);
+        curves = CurveService.parse(new BufferedReader(new StringReader(String.join("\n",
+                "# type,name,tenor,value",
+                "ZERO,USD,1Y,0.04",
+                "ZERO,USD,10Y,0.05",
+                "ZERO,LIBOR,1Y,0.045",
+                "ZERO,LIBOR,10Y,0.055",
+                "ZERO,EUR,1Y,0.03",
+                "FX,EUR,,1.10"))), TODAY, "USD");
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void testCurveInterpolatesZeroRatesLinearlyAndFlatOutside() {
+        ZeroCurve usd = curves.curve("USD");
+        assertEquals(0.04, usd.zeroRate(0.5), 1e-12);
+        assertEquals(0.045, usd.zeroRate(5.5), 1e-12);
+        assertEquals(0.05, usd.zeroRate(30), 1e-12);
+        assertEquals(Math.exp(-0.045 * 5.5), usd.discountFactor(5.5), 1e-12);
+        assertEquals(0.25, CurveService.tenorInYears("3M"), 1e-12);
+    }
+
+    @Test
+    void testFixedLegDiscountsStoredAmountsAndPaySideIsNegative() {
+        ValuationLeg fixed = new ValuationLeg(false, -1, "USD", null, 1_000_000,
+                new double[] {0.0, 1.0}, new double[] {1.0, 2.0}, new double[] {40_000, 40_000});
+
+        double pv = SwapValuationEngine.valueTrade(new ValuationTrade(1L, List.of(fixed)), curves);
+
+        ZeroCurve usd = curves.curve("USD");
+        assertEquals(-40_000 * (usd.discountFactor(1.0) + usd.discountFactor(2.0)), pv, 1e-6);
+    }
+
+    @Test
+    void testFloatingLegProjectedOffItsOwnCurveTelescopes() {
+        // Projected and discounted on the same curve, a floating leg is worth N * (DF(start) - DF(end))
+        ValuationLeg floating = new ValuationLeg(true, 1, "USD", "UNKNOWN_INDEX", 1_000_000,
+                new double[] {0.5, 1.0, 1.5}, new double[] {1.0, 1.5, 2.0}, new double[3]);
+
+        double pv = SwapValuationEngine.valueTrade(new ValuationTrade(1L, List.of(floating)), curves);
+
+        ZeroCurve usd = curves.curve("USD");
+        assertEquals(1_000_000 * (usd.discountFactor(0.5) - usd.discountFactor(2.0)), pv, 1e-6);
+    }
+
+    @Test
+    void testCurrentFloatingPeriodUsesItsPublishedFixing() {
+        ValuationLeg floating = new ValuationLeg(true, 1, "USD", "LIBOR", 1_000_000,
+                new double[] {-0.1, 0.15}, new double[] {0.15, 0.4}, new double[2], 0.06);
+
+        double pv = SwapValuationEngine.valueTrade(new ValuationTrade(1L, List.of(floating)), curves);
+
+        ZeroCurve usd = curves.curve("USD");
+        double fixed = 1_000_000 * 0.06 * 0.25 * usd.discountFactor(0.15);
+        double projected = 1_000_000 * curves.curve("LIBOR").forwardRate(0.15, 0.4) * 0.25 * usd.discountFactor(0.4);
+        assertEquals(fixed + projected, pv, 1e-6);
+    }
+
+    @Test
+    void testForeignLegsAreConvertedAndMissingMarketDataIsReported() {
+        ValuationLeg eur = new ValuationLeg(false, 1, "EUR", null, 1_000_000,
+                new double[] {0.0}, new double[] {1.0}, new double[] {100});
+        ValuationLeg gbp = new ValuationLeg(false, 1, "GBP", null, 1_000_000,
+                new double[] {0.0}, new double[] {1.0}, new double[] {100});
+
+        PortfolioValuation valuation = engine.value(List.of(
+                new ValuationTrade(1L, List.of(eur)), new ValuationTrade(2L, List.of(gbp))), curves);
+
+        assertEquals(100 * 1.10 * Math.exp(-0.03), valuation.getMtm(), 1e-9);
+        assertEquals(1, valuation.getTradesValued());
+        assertEquals(1, valuation.getTradesUnvalued());
+        assertTrue(Double.isNaN(valuation.getPresentValues()[1]));
+    }
+
+    @Test
+    void testCashflowRowsAreGroupedIntoLegsAndPastPaymentsDropped() {
+        List<Object[]> rows = new ArrayList<>();
+        LocalDate start = TODAY.minusMonths(4);
+        rows.add(new Object[] {10L, 1L, "Fixed", "Pay", "USD", null, new BigDecimal("1000000"), start, start.plusMonths(3), new BigDecimal("8750")});
+        rows.add(new Object[] {10L, 1L, "Fixed", "Pay", "USD", null, new BigDecimal("1000000"), start, start.plusMonths(6), new BigDecimal("8750")});
+        rows.add(new Object[] {10L, 2L, "Floating", "Receive", "USD", "LIBOR", new BigDecimal("1000000"), start, start.plusMonths(6), BigDecimal.ZERO});
+        rows.add(new Object[] {11L, 3L, "Fixed", "Receive", "EUR", null, new BigDecimal("500000"), TODAY, TODAY.plusYears(1), new BigDecimal("15000")});
+
+        List<ValuationTrade> trades = ValuationService.toValuationTrades(rows, TODAY);
+
+        assertEquals(2, trades.size());
+        assertEquals(2, trades.get(0).getLegs().size());
+        ValuationLeg fixed = trades.get(0).getLegs().get(0);
+        assertEquals(1, fixed.getPaymentTimes().length);
+        assertEquals(-1, fixed.getSign());
+        // The remaining payment accrues from the one already paid
+        assertTrue(fixed.getAccrualStarts()[0] < 0);
+        ValuationLeg floating = trades.get(0).getLegs().get(1);
+        assertTrue(floating.isFloating());
+        assertEquals("LIBOR", floating.getIndex());
+        assertEquals(Long.valueOf(11L), trades.get(1).getTradeId());
+    }
+
+    @Test
+    void testLargePortfolioIsValuedInParallelWithinBudget() {
+        int tradeCount = 100_000;
+        List<ValuationTrade> portfolio = new ArrayList<>(tradeCount);
+        for (int i = 0; i < tradeCount; i++) {
+            int payments = 4 * (1 + i % 10);
+            double[] starts = new double[payments];
+            double[] times = new double[payments];
+            double[] amounts = new double[payments];
+            for (int p = 0; p < payments; p++) {
+                starts[p] = p * 0.25;
+                times[p] = (p + 1) * 0.25;
+                amounts[p] = 10_000;
+            }
+            int sign = i % 2 == 0 ? 1 : -1;
+            portfolio.add(new ValuationTrade((long) i, List.of(
+                    new ValuationLeg(false, sign, "USD", null, 1_000_000, starts, times, amounts),
+                    new ValuationLeg(true, -sign, "USD", "LIBOR", 1_000_000, starts, times, amounts))));
+        }
+
+        engine.value(portfolio, curves); // warm up
+        PortfolioValuation valuation = engine.value(portfolio, curves);
+
+        double sequential = 0.0;
+        for (ValuationTrade trade : portfolio) {
+            sequential += SwapValuationEngine.valueTrade(trade, curves);
+        }
+        assertEquals(tradeCount, valuation.getTradesValued());
+        assertEquals(sequential, valuation.getMtm(), Math.abs(sequential) * 1e-9 + 1e-3);
+        assertTrue(valuation.getElapsedNanos() < 5_000_000_000L,
+                "100k trades took " + valuation.getElapsedNanos() / 1_000_000 + " ms");
+    }
+
+    @Test
+    void testCurveSetIsImmutable() {
+        assertThrows(UnsupportedOperationException.class, () -> curves.getCurves().put("X", curves.curve("USD")));
+        assertEquals(Map.of("EUR", 1.10), curves.getFxRates());
+    }
+}
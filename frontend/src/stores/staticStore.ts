@@ -186,57 +186,23 @@ class StaticStore {
     async fetchAllStaticValues() {
         this.isLoading = true;
         try {
-            const [
-                currencies,
-                legTypes,
-                tradeTypes,
-                tradeStatuses,
-                indices,
-                holidayCalendars,
-                schedules,
-                businessDayConventions,
-                payRecs,
-                counterparties,
-                books,
-                desks,
-                subDesks,
-                costCenters,
-                users,
-                tradeSubTypes
-            ] = await Promise.all([
-                api.get('/currencies/values'),
-                api.get('/legTypes/values'),
-                api.get('/tradeTypes/values'),
-                api.get('/tradeStatus/values'),
-                api.get('/indices/values'),
-                api.get('/holidayCalendars/values'),
-                api.get('/schedules/values'),
-                api.get('/businessDayConventions/values'),
-                api.get('/payRecs/values'),
-                api.get('/counterparties/values'),
-                api.get('/books/values'),
-                api.get('/desks/values'),
-                api.get('/subdesks/values'),
-                api.get('/costCenters/values'),
-                api.get('/users/values'),
-                api.get('/tradeSubTypes/values'),
-            ]);
-            this.currencyValues = currencies.data;
-            this.legTypeValues = legTypes.data;
-            this.tradeTypeValues = tradeTypes.data;
-            this.tradeStatusValues = tradeStatuses.data;
-            this.indexValues = indices.data;
-            this.holidayCalendarValues = holidayCalendars.data;
-            this.scheduleValues = schedules.data;
-            this.businessDayConventionValues = businessDayConventions.data;
-            this.payRecValues = payRecs.data;
-            this.counterpartyValues = counterparties.data;
-            this.bookValues = books.data;
-            this.deskValues = desks.data;
-            this.subDeskValues = subDesks.data;
-            this.costCenterValues = costCenters.data;
-            this.userValues = users.data;
-            this.tradeSubTypeValues = tradeSubTypes.data;
+            const {data} = await api.get('/reference-data/bundle');
+            this.currencyValues = data.currencies;
+            this.legTypeValues = data.legTypes;
+            this.tradeTypeValues = data.tradeTypes;
+            this.tradeStatusValues = data.tradeStatuses;
+            this.indexValues = data.indices;
+            this.holidayCalendarValues = data.holidayCalendars;
+            this.scheduleValues = data.schedules;
+            this.businessDayConventionValues = data.businessDayConventions;
+            this.payRecValues = data.payRecs;
+            this.counterpartyValues = data.counterparties;
+            this.bookValues = data.books;
+            this.deskValues = data.desks;
+            this.subDeskValues = data.subDesks;
+            this.costCenterValues = data.costCenters;
+            this.userValues = data.users;
+            this.tradeSubTypeValues = data.tradeSubTypes;
             this.isLoading = false;
             console.log(this.counterpartyValues)
             return this.counterpartyValues;